@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.persistence.internal.sessions.CacheSnapshot;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheSnapshotTest {
+
+    private static final String[] FIELDS = {"EMP.ID", "EMP.NAME", "EMP.SALARY", "EMP.PHOTO", "EMP.HIRED"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeAndRead() throws IOException {
+        Timestamp hired = new Timestamp(1000000L);
+        hired.setNanos(123456789);
+        CacheSnapshot snapshot = new CacheSnapshot("session");
+        assertTrue(snapshot.addRow("Employee", FIELDS, new Object[] {1L, "Bob", new BigDecimal("1000.50"), new byte[] {1, 2}, hired}, 3L));
+        assertTrue(snapshot.addRow("Employee", FIELDS, new Object[] {2L, null, null, null, null}, 1L));
+        assertTrue(snapshot.addRow("Address", new String[] {"ADDR.ID"}, new Object[] {7}, new Timestamp(5000L)));
+
+        File file = new File(this.folder.getRoot(), "cache/snapshot.bin");
+        snapshot.write(file);
+        CacheSnapshot read = CacheSnapshot.read(file);
+
+        assertEquals("session", read.getSessionName());
+        assertEquals(2, read.getClassSnapshots().size());
+        CacheSnapshot.ClassSnapshot employees = read.getClassSnapshot("Employee");
+        assertArrayEquals(FIELDS, employees.getFieldNames());
+        assertEquals(2, employees.getRows().size());
+        Object[] row = employees.getRows().get(0);
+        assertEquals(1L, row[0]);
+        assertEquals("Bob", row[1]);
+        assertEquals(new BigDecimal("1000.50"), row[2]);
+        assertArrayEquals(new byte[] {1, 2}, (byte[])row[3]);
+        assertEquals(hired, row[4]);
+        assertArrayEquals(new Object[] {2L, null, null, null, null}, employees.getRows().get(1));
+        assertEquals(3L, employees.getVersions().get(0));
+        assertEquals(new Timestamp(5000L), read.getClassSnapshot("Address").getVersions().get(0));
+        assertEquals(7, read.getClassSnapshot("Address").getRows().get(0)[0]);
+    }
+
+    @Test
+    public void unsupportedRowsAreNotAdded() {
+        CacheSnapshot snapshot = new CacheSnapshot("session");
+        assertFalse("unsupported value", snapshot.addRow("Employee", FIELDS, new Object[] {1L, new Object(), null, null, null}, 1L));
+        assertTrue(snapshot.addRow("Employee", FIELDS, new Object[] {1L, null, null, null, null}, 1L));
+        assertFalse("different fields", snapshot.addRow("Employee", new String[] {"EMP.ID"}, new Object[] {2L}, 1L));
+        assertEquals(1, snapshot.getClassSnapshot("Employee").getRows().size());
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidFile() throws IOException {
+        File file = this.folder.newFile("invalid.bin");
+        try (GZIPOutputStream stream = new GZIPOutputStream(new FileOutputStream(file))) {
+            stream.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        CacheSnapshot.read(file);
+    }
+}
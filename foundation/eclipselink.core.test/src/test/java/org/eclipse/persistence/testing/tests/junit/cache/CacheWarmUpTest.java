@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.eclipse.persistence.internal.sessions.CacheWarmUpManager;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Test;
+
+public class CacheWarmUpTest {
+
+    public static class Item {
+        public Long id;
+        public String name;
+    }
+
+    /**
+     * Shares the rows of the test with the connections of the session.
+     */
+    public static class ItemDriver extends EmulatedDriver {
+        static volatile Map rows;
+
+        public ItemDriver() {
+            setRows(rows);
+        }
+    }
+
+    private DatabaseSessionImpl session;
+
+    private DatabaseSessionImpl buildSession(boolean shouldPreload) {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(ItemDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        project.setCacheWarmUpThreads(1);
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.addTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        descriptor.addDirectMapping("name", "ITEM.NAME");
+        descriptor.getCachePolicy().setShouldPreload(shouldPreload);
+        project.addDescriptor(descriptor);
+
+        Vector<DatabaseField> fields = new Vector<>();
+        fields.add(new DatabaseField("ITEM.ID"));
+        fields.add(new DatabaseField("ITEM.NAME"));
+        DatabaseField[] fieldsArray = fields.toArray(new DatabaseField[fields.size()]);
+        Vector<ArrayRecord> records = new Vector<>();
+        records.add(new ArrayRecord(fields, fieldsArray, new Object[] {1L, "bolt"}));
+        records.add(new ArrayRecord(fields, fieldsArray, new Object[] {2L, "nut"}));
+        Map rows = new HashMap();
+        rows.put("SELECT ID, NAME FROM ITEM", records);
+        ItemDriver.rows = rows;
+
+        this.session = (DatabaseSessionImpl)project.createDatabaseSession();
+        this.session.dontLogMessages();
+        return this.session;
+    }
+
+    @After
+    public void logout() {
+        if ((this.session != null) && this.session.isConnected()) {
+            this.session.logout();
+        }
+    }
+
+    private void assertWarmedUp(CacheWarmUpManager manager) throws InterruptedException {
+        assertNotNull("warm-up not started", manager);
+        assertTrue(manager.await(30, TimeUnit.SECONDS));
+        assertNotNull(this.session.getIdentityMapAccessor().getFromIdentityMap(1L, Item.class));
+        assertNotNull(this.session.getIdentityMapAccessor().getFromIdentityMap(2L, Item.class));
+    }
+
+    @Test
+    public void warmedUpInBackgroundAfterLogin() throws InterruptedException {
+        DatabaseSessionImpl session = buildSession(true);
+        session.login();
+        assertWarmedUp(session.getCacheWarmUpManager());
+    }
+
+    @Test
+    public void deferredUntilStarted() throws InterruptedException {
+        // As on JPA, the cache is warmed up once the DDL is generated.
+        DatabaseSessionImpl session = buildSession(true);
+        session.setShouldDeferCacheWarmUp(true);
+        session.login();
+        assertNull(session.getCacheWarmUpManager());
+        assertNull(session.getIdentityMapAccessor().getFromIdentityMap(1L, Item.class));
+        session.startCacheWarmUp();
+        assertWarmedUp(session.getCacheWarmUpManager());
+    }
+
+    @Test
+    public void notStartedIfNotConfigured() {
+        DatabaseSessionImpl session = buildSession(false);
+        session.login();
+        assertNull(session.getCacheWarmUpManager());
+    }
+}
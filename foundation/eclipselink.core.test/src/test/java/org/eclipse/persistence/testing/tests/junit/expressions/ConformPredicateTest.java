@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.expressions;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.expressions.ConformPredicate;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test that the compiled form of an expression conforms the same objects as the expression.
+ */
+public class ConformPredicateTest {
+
+    public static class Item {
+        public BigDecimal id;
+        public String status;
+        public Integer quantity;
+
+        public Item() {
+        }
+
+        Item(int id, String status, Integer quantity) {
+            this.id = BigDecimal.valueOf(id);
+            this.status = status;
+            this.quantity = quantity;
+        }
+    }
+
+    public static class SpecialItem extends Item {
+        public Integer priority;
+
+        public SpecialItem() {
+        }
+
+        SpecialItem(int id, String status, Integer quantity, Integer priority) {
+            super(id, status, quantity);
+            this.priority = priority;
+        }
+    }
+
+    private DatabaseSession session;
+    private List<Item> items;
+
+    @Before
+    public void setUp() {
+        this.session = login(false);
+        this.items = Arrays.asList(new Item(1, "OPEN", 5), new Item(2, "CLOSED", 10), new Item(3, "OPEN", 20), new Item(4, null, null));
+    }
+
+    private static DatabaseSession login(boolean useInheritance) {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.addTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        descriptor.addDirectMapping("status", "ITEM.STATUS");
+        descriptor.addDirectMapping("quantity", "ITEM.QUANTITY");
+        project.addDescriptor(descriptor);
+        if (useInheritance) {
+            descriptor.getInheritancePolicy().setClassIndicatorFieldName("ITEM.TYPE");
+            descriptor.getInheritancePolicy().addClassIndicator(Item.class, "I");
+            descriptor.getInheritancePolicy().addClassIndicator(SpecialItem.class, "S");
+            RelationalDescriptor special = new RelationalDescriptor();
+            special.setJavaClass(SpecialItem.class);
+            special.getInheritancePolicy().setParentClass(Item.class);
+            special.addDirectMapping("priority", "ITEM.PRIORITY");
+            project.addDescriptor(special);
+        }
+        DatabaseSession session = project.createDatabaseSession();
+        session.setLogLevel(0);
+        session.login();
+        return session;
+    }
+
+    @After
+    public void tearDown() {
+        if ((this.session != null) && this.session.isConnected()) {
+            this.session.logout();
+        }
+    }
+
+    @Test
+    public void comparisons() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertConformsSame(builder.get("status").equal("OPEN"));
+        assertConformsSame(builder.get("status").notEqual("OPEN"));
+        assertConformsSame(builder.get("quantity").greaterThan(5));
+        assertConformsSame(builder.get("quantity").lessThanEqual(10));
+        assertConformsSame(builder.get("status").equal("OPEN").and(builder.get("quantity").greaterThanEqual(10)));
+        assertConformsSame(builder.get("status").equal("CLOSED").or(builder.get("quantity").lessThan(10)));
+        assertConformsSame(builder.get("status").equal("OPEN").not());
+        assertConformsSame(builder.get("status").isNull());
+        assertConformsSame(builder.get("status").in(Arrays.asList("OPEN", "CLOSED")));
+        assertConformsSame(builder.get("quantity").between(5, 10));
+    }
+
+    @Test
+    public void parameters() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression criteria = builder.get("status").equal(builder.getParameter("STATUS"))
+                .and(builder.get("quantity").greaterThan(builder.getParameter("QUANTITY")));
+        DatabaseRecord row = new DatabaseRecord();
+        row.put("STATUS", "OPEN");
+        row.put("QUANTITY", 10);
+        assertConformsSame(criteria, row);
+        row.put("QUANTITY", 1);
+        assertConformsSame(criteria, row);
+    }
+
+    @Test
+    public void compiledOnce() {
+        Expression criteria = new ExpressionBuilder().get("status").equal("OPEN");
+        criteria.getBuilder().setSession((AbstractSession)this.session);
+        criteria.getBuilder().setQueryClass(Item.class);
+        assertSame(criteria.getConformPredicate(), criteria.getConformPredicate());
+        Expression clone = (Expression)criteria.clone();
+        assertNotSame(criteria.getConformPredicate(), clone.getConformPredicate());
+    }
+
+    @Test
+    public void notKeptBeforeSession() {
+        Expression criteria = new ExpressionBuilder().get("status").equal("OPEN");
+        ConformPredicate uncompiled = criteria.getConformPredicate();
+        assertNotSame("compiled without mappings and kept", uncompiled, criteria.getConformPredicate());
+        assertConformsSame(criteria);
+        assertSame(criteria.getConformPredicate(), criteria.getConformPredicate());
+    }
+
+    @Test
+    public void inheritance() {
+        this.session.logout();
+        this.session = login(true);
+        this.items = Arrays.asList(new Item(1, "OPEN", 5), new SpecialItem(2, "CLOSED", 10, 1), new SpecialItem(3, "OPEN", 20, 2), new Item(4, null, null));
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertConformsSame(builder.get("status").equal("OPEN"));
+        assertConformsSame(builder.get("quantity").greaterThan(5).and(builder.get("status").notEqual("CLOSED")));
+        assertConformsSame(builder.get("id").lessThan(3));
+
+        // Only the subclass maps the attribute, the other objects are conformed by the expression.
+        Expression criteria = new ExpressionBuilder().get("priority").equal(2);
+        AbstractSession session = (AbstractSession)this.session;
+        criteria.getBuilder().setSession(session);
+        criteria.getBuilder().setQueryClass(SpecialItem.class);
+        for (Item item : this.items) {
+            if (item instanceof SpecialItem) {
+                boolean expected = criteria.doesConform(item, session, new DatabaseRecord(), InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION);
+                assertEquals(expected, criteria.getConformPredicate().conforms(item, session, new DatabaseRecord(), InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION, false));
+                assertEquals(((SpecialItem)item).priority == 2, expected);
+            }
+        }
+    }
+
+    private void assertConformsSame(Expression criteria) {
+        assertConformsSame(criteria, new DatabaseRecord());
+    }
+
+    private void assertConformsSame(Expression criteria, AbstractRecord row) {
+        AbstractSession session = (AbstractSession)this.session;
+        criteria.getBuilder().setSession(session);
+        criteria.getBuilder().setQueryClass(Item.class);
+        for (Item item : this.items) {
+            boolean expected = criteria.doesConform(item, session, row, InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION);
+            boolean actual = criteria.getConformPredicate().conforms(item, session, row, InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION, false);
+            assertEquals(criteria + " for item " + item.id, expected, actual);
+        }
+    }
+}
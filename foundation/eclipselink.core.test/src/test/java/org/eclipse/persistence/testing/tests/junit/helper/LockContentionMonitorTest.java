@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.helper;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
+import org.eclipse.persistence.internal.helper.LockContentionMonitor;
+import org.eclipse.persistence.internal.helper.LockWaitListener;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.junit.Test;
+
+public class LockContentionMonitorTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static CacheKey cacheKey(Object key, Object object) {
+        CacheKey cacheKey = new CacheKey(key);
+        cacheKey.setObject(object);
+        return cacheKey;
+    }
+
+    @Test
+    public void shortWaitsAreNotRecorded() {
+        LockContentionMonitor monitor = new LockContentionMonitor(10, 4);
+        monitor.lockWaited(cacheKey(1L, "one"), LockWaitListener.WRITE_LOCK, null, 9 * MILLIS);
+        assertEquals(0, monitor.getCount());
+        assertTrue(monitor.getWaits().isEmpty());
+        monitor.lockWaited(cacheKey(1L, "one"), LockWaitListener.WRITE_LOCK, null, 10 * MILLIS);
+        assertEquals(1, monitor.getCount());
+    }
+
+    @Test
+    public void mostRecentWaitsAreKept() {
+        LockContentionMonitor monitor = new LockContentionMonitor(0, 3);
+        Thread owner = new Thread("owner");
+        for (long key = 1; key <= 5; key++) {
+            monitor.lockWaited(cacheKey(key, "object"), LockWaitListener.MERGE_LOCK, owner, key * MILLIS);
+        }
+        List<LockContentionMonitor.LockWait> waits = monitor.getWaits();
+        assertEquals(3, waits.size());
+        assertEquals("5", waits.get(0).getPrimaryKey());
+        assertEquals("3", waits.get(2).getPrimaryKey());
+        assertEquals(String.class.getName(), waits.get(0).getClassName());
+        assertEquals("owner", waits.get(0).getOwnerName());
+        assertEquals(Thread.currentThread().getName(), waits.get(0).getThreadName());
+        assertEquals(LockWaitListener.MERGE_LOCK, waits.get(0).getLockType());
+        assertTrue(waits.get(0).toString().contains("Merge lock wait 5 ms"));
+
+        monitor.reset();
+        assertEquals(0, monitor.getCount());
+        assertTrue(monitor.getWaits().isEmpty());
+        assertTrue(monitor.getContendedClasses().isEmpty());
+    }
+
+    @Test
+    public void waitsAreTotaledByClass() {
+        LockContentionMonitor monitor = new LockContentionMonitor(0, 10);
+        monitor.lockWaited(cacheKey(1L, "one"), LockWaitListener.WRITE_LOCK, null, 2 * MILLIS);
+        monitor.lockWaited(cacheKey(2L, "two"), LockWaitListener.READ_LOCK, null, 3 * MILLIS);
+        monitor.lockWaited(cacheKey(3L, 3), LockWaitListener.WRITE_LOCK, null, 10 * MILLIS);
+        monitor.lockWaited(new ConcurrencyManager(), LockWaitListener.WRITE_LOCK, null, MILLIS);
+
+        List<LockContentionMonitor.ClassContention> classes = monitor.getContendedClasses();
+        assertEquals(3, classes.size());
+        assertEquals(Integer.class.getName(), classes.get(0).getClassName());
+        LockContentionMonitor.ClassContention strings = classes.get(1);
+        assertEquals(String.class.getName(), strings.getClassName());
+        assertEquals(2, strings.getCount());
+        assertEquals(5 * MILLIS, strings.getTotalWaitTime());
+        assertEquals(3 * MILLIS, strings.getMaximumWaitTime());
+        assertEquals(ConcurrencyManager.class.getName(), classes.get(2).getClassName());
+    }
+
+    @Test
+    public void enableAndDisable() {
+        assertNull(LockContentionMonitor.getMonitor());
+        LockContentionMonitor.enable(50);
+        try {
+            assertTrue(ConcurrencyManager.hasLockWaitListeners());
+            assertEquals(50, LockContentionMonitor.getMonitor().getThreshold());
+            LockContentionMonitor.enable(20);
+            assertEquals(20, LockContentionMonitor.getMonitor().getThreshold());
+        } finally {
+            LockContentionMonitor.disable();
+        }
+        assertNull(LockContentionMonitor.getMonitor());
+        assertFalse(ConcurrencyManager.hasLockWaitListeners());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.helper;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
+import org.eclipse.persistence.internal.helper.LockWaitListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LockWaitListenerTest {
+
+    private final List<Object[]> waits = new CopyOnWriteArrayList<>();
+
+    private final List<ConcurrencyManager> notifiedHoldingMonitor = new CopyOnWriteArrayList<>();
+
+    private final LockWaitListener listener = (lock, lockType, owner, waitTime) -> {
+        if (Thread.holdsLock(lock)) {
+            notifiedHoldingMonitor.add(lock);
+        }
+        waits.add(new Object[] {lock, lockType, owner, waitTime});
+    };
+
+    @Before
+    public void addListener() {
+        ConcurrencyManager.addLockWaitListener(this.listener);
+    }
+
+    @After
+    public void removeListener() {
+        ConcurrencyManager.removeLockWaitListener(this.listener);
+        assertFalse(ConcurrencyManager.hasLockWaitListeners());
+        assertTrue("notified inside the monitor", this.notifiedHoldingMonitor.isEmpty());
+    }
+
+    @Test
+    public void uncontendedLockIsNotReported() {
+        ConcurrencyManager lock = new ConcurrencyManager();
+        lock.acquire();
+        lock.release();
+        lock.acquireReadLock();
+        lock.releaseReadLock();
+        assertTrue(this.waits.isEmpty());
+    }
+
+    @Test
+    public void writeLockWaitIsReported() throws InterruptedException {
+        ConcurrencyManager lock = new ConcurrencyManager();
+        lock.acquire();
+        Thread waiter = new Thread(() -> {
+            lock.acquire();
+            lock.release();
+        });
+        waiter.start();
+        while (lock.getNumberOfWritersWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(10);
+        lock.release();
+        waiter.join(10000);
+
+        assertEquals(1, this.waits.size());
+        Object[] wait = this.waits.get(0);
+        assertSame(lock, wait[0]);
+        assertEquals(LockWaitListener.WRITE_LOCK, wait[1]);
+        assertSame(Thread.currentThread(), wait[2]);
+        assertTrue((Long)wait[3] >= 10000000L);
+    }
+
+    @Test
+    public void readLockWaitIsReported() throws InterruptedException {
+        ConcurrencyManager lock = new ConcurrencyManager();
+        lock.acquire();
+        Thread waiter = new Thread(() -> {
+            lock.acquireReadLock();
+            lock.releaseReadLock();
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        lock.release();
+        waiter.join(10000);
+
+        assertEquals(1, this.waits.size());
+        assertEquals(LockWaitListener.READ_LOCK, this.waits.get(0)[1]);
+        assertSame(Thread.currentThread(), this.waits.get(0)[2]);
+    }
+
+    @Test
+    public void timedOutWaitIsNotReported() throws InterruptedException {
+        ConcurrencyManager lock = new ConcurrencyManager();
+        lock.acquire();
+        Thread waiter = new Thread(() -> assertFalse(lock.acquireWithWait(false, 5)));
+        waiter.start();
+        waiter.join(10000);
+        assertTrue(this.waits.isEmpty());
+
+        boolean[] acquired = new boolean[1];
+        waiter = new Thread(() -> {
+            acquired[0] = lock.acquireWithWait(false, 10000);
+            lock.release();
+        });
+        waiter.start();
+        while (waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        lock.release();
+        waiter.join(10000);
+        assertTrue(acquired[0]);
+        assertEquals(1, this.waits.size());
+        assertEquals(LockWaitListener.WRITE_LOCK, this.waits.get(0)[1]);
+    }
+}
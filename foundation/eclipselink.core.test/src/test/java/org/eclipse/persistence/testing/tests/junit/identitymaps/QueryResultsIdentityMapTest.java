@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.identitymaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.IdentityMapManager;
+import org.eclipse.persistence.internal.identitymaps.QueryResultsCacheKey;
+import org.eclipse.persistence.internal.identitymaps.QueryResultsIdentityMap;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.queries.QueryResultsCachePolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class QueryResultsIdentityMapTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        QueryResultsIdentityMap map = new QueryResultsIdentityMap(2, null, null, false);
+        map.put(parameters(1), Arrays.asList("a"), null, 0);
+        map.put(parameters(2), Arrays.asList("b"), null, 0);
+        assertNotNull(map.getCacheKey(parameters(1), false));
+        map.put(parameters(3), Arrays.asList("c"), null, 0);
+
+        assertEquals(2, map.getSize());
+        assertNotNull("accessed result evicted", map.getCacheKey(parameters(1), false));
+        assertNull("least recently used result not evicted", map.getCacheKey(parameters(2), false));
+        assertNotNull("new result evicted", map.getCacheKey(parameters(3), false));
+    }
+
+    @Test
+    public void samplesAllResultsInTurn() {
+        int sampleSize = QueryResultsIdentityMap.EVICTION_SAMPLE_SIZE;
+        QueryResultsIdentityMap map = new QueryResultsIdentityMap(100, null, null, false);
+        for (int index = 0; index < 4 * sampleSize; index++) {
+            map.put(parameters(index), Arrays.asList("a"), null, 0);
+        }
+        // Each sample starts after the previous one, so the samples cover the whole map.
+        Set<QueryResultsCacheKey> sampled = new HashSet<>();
+        for (int index = 0; index < 4; index++) {
+            assertTrue("result sampled twice", sampled.add(map.sampleLeastRecentlyUsed(sampleSize)));
+        }
+        assertTrue("sample not restarted", sampled.contains(map.sampleLeastRecentlyUsed(sampleSize)));
+    }
+
+    @Test
+    public void evictsBySampling() {
+        int maxSize = 10 * QueryResultsIdentityMap.EVICTION_SAMPLE_SIZE;
+        QueryResultsIdentityMap map = new QueryResultsIdentityMap(maxSize, null, null, false);
+        for (int index = 0; index < 3 * maxSize; index++) {
+            map.put(parameters(index), Arrays.asList("a"), null, 0);
+            assertTrue(map.getSize() <= maxSize);
+            assertNotNull("new result evicted", map.getCacheKey(parameters(index), false));
+        }
+        assertEquals(maxSize, map.getSize());
+    }
+
+    @Test
+    public void lockingCacheIsDefault() {
+        QueryResultsCachePolicy policy = new QueryResultsCachePolicy();
+        assertEquals(ClassConstants.CacheIdentityMap_Class, policy.getCacheType());
+        policy.useConcurrentCache();
+        assertEquals(ClassConstants.QueryResultsIdentityMap_Class, policy.getCacheType());
+    }
+
+    @Test
+    public void evictsAcrossQueriesAboveMaximumMemory() {
+        Project project = new Project(new DatabaseLogin());
+        long maximumMemory = 20 * QueryResultsIdentityMap.estimateSize(Arrays.asList("a"));
+        project.setQueryResultsCacheMaximumMemory(maximumMemory);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        IdentityMapManager manager = session.getIdentityMapAccessorInstance().getIdentityMapManager();
+        List<ReadAllQuery> queries = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            ReadAllQuery query = new ReadAllQuery(Object.class);
+            query.setName("query" + index);
+            query.cacheQueryResults();
+            query.getQueryResultsCachePolicy().useConcurrentCache();
+            queries.add(query);
+        }
+        for (int value = 0; value < 50; value++) {
+            for (ReadAllQuery query : queries) {
+                manager.putQueryResult(query, Arrays.asList(value), Arrays.asList("a"));
+                assertNotNull("new result evicted", manager.getQueryResult(query, Arrays.asList(value), false));
+            }
+        }
+        int cached = 0;
+        for (ReadAllQuery query : queries) {
+            for (int value = 0; value < 50; value++) {
+                if (manager.getQueryResult(query, Arrays.asList(value), false) != null) {
+                    cached++;
+                }
+            }
+        }
+        assertTrue("results not evicted", cached < 500);
+        assertTrue("all results evicted", cached > 0);
+        assertNull("oldest result not evicted", manager.getQueryResult(queries.get(0), Arrays.asList(0), false));
+    }
+
+    @Test
+    public void tracksMemory() {
+        QueryResultsIdentityMap map = new QueryResultsIdentityMap(10, null, null, false);
+        AtomicLong total = new AtomicLong();
+        map.setTotalMemory(total);
+        assertEquals(0, map.getMemory());
+
+        CacheKey key = map.put(parameters(1), Arrays.asList("a", "b", "c"), null, 0);
+        long memory = map.getMemory();
+        assertTrue(memory >= QueryResultsIdentityMap.estimateSize(Arrays.asList("a", "b", "c")));
+        assertEquals(memory, total.get());
+
+        map.put(parameters(1), Arrays.asList("a"), null, 0);
+        assertTrue("smaller result should use less memory", map.getMemory() < memory);
+        assertEquals(map.getMemory(), total.get());
+
+        map.remove(map.getCacheKey(parameters(1), false));
+        assertEquals(0, map.getMemory());
+        assertEquals(0, total.get());
+
+        // Removing twice must not release the memory twice.
+        map.remove(key);
+        assertEquals(0, map.getMemory());
+    }
+
+    @Test
+    public void detachFromTotalMemory() {
+        QueryResultsIdentityMap map = new QueryResultsIdentityMap(10, null, null, false);
+        AtomicLong total = new AtomicLong();
+        map.setTotalMemory(total);
+        map.put(parameters(1), Arrays.asList("a"), null, 0);
+        assertTrue(total.get() > 0);
+        map.setTotalMemory(null);
+        assertEquals(0, total.get());
+    }
+
+    private static CacheId parameters(Object... values) {
+        return new CacheId(values);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.identitymaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.identitymaps.IdentityMapManager;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryResultsInvalidationTest {
+
+    public static class Employee {
+        public long id;
+        public String name;
+        public Employee() { }
+        Employee(long id, String name) { this.id = id; this.name = name; }
+    }
+    public static class Manager extends Employee {
+        public Manager() { }
+        Manager(long id, String name) { super(id, name); }
+    }
+
+    private DatabaseSessionImpl session;
+    private IdentityMapManager manager;
+
+    @Before
+    public void setUp() {
+        Project project = new Project(new DatabaseLogin());
+        ClassDescriptor employee = new ClassDescriptor();
+        employee.setJavaClass(Employee.class);
+        employee.addTableName("EMPLOYEE");
+        employee.addPrimaryKeyFieldName("EMPLOYEE.ID");
+        employee.addDirectMapping("id", "EMPLOYEE.ID");
+        employee.addDirectMapping("name", "EMPLOYEE.NAME");
+        employee.getInheritancePolicy().setClassIndicatorFieldName("EMPLOYEE.TYPE");
+        employee.getInheritancePolicy().addClassIndicator(Employee.class, "E");
+        employee.getInheritancePolicy().addClassIndicator(Manager.class, "M");
+        ClassDescriptor manager = new ClassDescriptor();
+        manager.setJavaClass(Manager.class);
+        manager.getInheritancePolicy().setParentClass(Employee.class);
+        project.addDescriptor(employee);
+        project.addDescriptor(manager);
+        this.session = (DatabaseSessionImpl)project.createDatabaseSession();
+        this.session.dontLogMessages();
+        this.session.initializeDescriptors();
+        this.manager = this.session.getIdentityMapAccessorInstance().getIdentityMapManager();
+    }
+
+    private ReadAllQuery cacheByName(List results, int maxRows) {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        ExpressionBuilder builder = query.getExpressionBuilder();
+        query.setSelectionCriteria(builder.get("name").equal(builder.getParameter("name")));
+        query.addArgument("name");
+        query.cacheQueryResults();
+        query.getQueryResultsCachePolicy().setInvalidateByPrimaryKey(true);
+        query.setMaxRows(maxRows);
+        DatabaseRecord row = new DatabaseRecord();
+        row.put("name", "Bob");
+        query.checkPrepare(this.session, row);
+        this.manager.putQueryResult(query, Arrays.asList("Bob"), row, results);
+        return query;
+    }
+
+    private boolean isCached(ReadAllQuery query) {
+        return this.manager.getQueryResult(query, Arrays.asList("Bob"), false) != null;
+    }
+
+    private void commit(Employee object, boolean isDeleted) {
+        ClassDescriptor descriptor = this.session.getDescriptor(object);
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet(this.session);
+        ObjectChangeSet objectChanges = new ObjectChangeSet(descriptor.getObjectBuilder().extractPrimaryKeyFromObject(object, this.session),
+                descriptor, object, changeSet, false);
+        if (isDeleted) {
+            objectChanges.setShouldBeDeleted(true);
+            changeSet.getDeletedObjects().put(objectChanges, objectChanges);
+        } else {
+            changeSet.addObjectChangeSet(objectChanges, this.session, false);
+        }
+        this.manager.invalidateQueryCache(object.getClass(), changeSet);
+    }
+
+    @Test
+    public void subclassChangesInvalidateSuperclassResults() {
+        ReadAllQuery query = cacheByName(new ArrayList(Arrays.asList(new Employee(1, "Bob"), new Manager(3, "Bob"))), 0);
+        commit(new Manager(2, "Alice"), false);
+        assertTrue("a non conforming subclass object", isCached(query));
+        commit(new Manager(4, "Alice"), true);
+        assertTrue("a deleted subclass object not in the results", isCached(query));
+        commit(new Manager(2, "Bob"), false);
+        assertFalse("a new conforming subclass object", isCached(query));
+
+        query = cacheByName(new ArrayList(Arrays.asList(new Employee(1, "Bob"), new Manager(3, "Bob"))), 0);
+        assertTrue(isCached(query));
+        commit(new Manager(3, "Bob"), true);
+        assertFalse("a deleted subclass object in the results", isCached(query));
+    }
+
+    @Test
+    public void selectionCriteriaNotModified() {
+        // The query is shared, the changes are conformed against a copy of its selection criteria.
+        ReadAllQuery query = cacheByName(new ArrayList(Arrays.asList(new Employee(1, "Bob"))), 0);
+        ExpressionBuilder builder = query.getSelectionCriteria().getBuilder();
+        assertNull(builder.getSession());
+        commit(new Employee(2, "Alice"), false);
+        assertTrue(isCached(query));
+        assertNull("the query's expression builder was set up", builder.getSession());
+        commit(new Employee(2, "Bob"), false);
+        assertFalse(isCached(query));
+    }
+
+    @Test
+    public void pagedResultsAlwaysInvalidated() {
+        // A change outside the page can shift it.
+        ReadAllQuery query = cacheByName(new ArrayList(Arrays.asList(new Employee(1, "Bob"))), 10);
+        commit(new Employee(2, "Alice"), false);
+        assertFalse(isCached(query));
+
+        query = cacheByName(new ArrayList(Arrays.asList(new Employee(1, "Bob"))), 0);
+        commit(new Employee(2, "Alice"), false);
+        assertTrue(isCached(query));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.identitymaps;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.CacheIndex;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.IdentityMapManager;
+import org.eclipse.persistence.internal.identitymaps.SecondaryCacheIndex;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SecondaryCacheIndexTest {
+
+    private FullIdentityMap map;
+    private SecondaryCacheIndex statusIndex;
+    private SecondaryCacheIndex createdIndex;
+    private CacheKey[] keys;
+
+    @Before
+    public void setUp() {
+        this.map = new FullIdentityMap(10, null, null, false);
+        CacheIndex status = new CacheIndex("STATUS");
+        status.setIsUnique(false);
+        this.statusIndex = new SecondaryCacheIndex(status);
+        CacheIndex created = new CacheIndex("CREATED");
+        created.setIsSorted(true);
+        this.createdIndex = new SecondaryCacheIndex(created);
+        // Bind the indexes to the empty identity map, then index the objects as they are cached.
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertNotNull(this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("OPEN"), null, this.map, new ClassDescriptor(), null));
+        assertNotNull(this.createdIndex.getCacheKeys(builder.getField("CREATED").greaterThan(0), null, this.map, new ClassDescriptor(), null));
+
+        String[] statuses = {"OPEN", "CLOSED", "OPEN", "OPEN", null};
+        this.keys = new CacheKey[statuses.length];
+        for (int index = 0; index < statuses.length; index++) {
+            this.keys[index] = this.map.put(new CacheId(new Object[] {index}), "object" + index, null, 0);
+            this.statusIndex.put(this.keys[index], new Object[] {statuses[index]});
+            this.createdIndex.put(this.keys[index], new Object[] {Long.valueOf(index * 10)});
+        }
+    }
+
+    @Test
+    public void equalityLookup() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertKeys(this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("OPEN"), null, this.map, null, null), 0, 2, 3);
+        assertKeys(this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("PENDING"), null, this.map, null, null));
+        assertNull("or cannot use the index", this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("OPEN").or(builder.getField("STATUS").equal("CLOSED")), null, this.map, null, null));
+        assertNull("unindexed field", this.statusIndex.getCacheKeys(builder.getField("NAME").equal("OPEN"), null, this.map, null, null));
+    }
+
+    @Test
+    public void rangeLookup() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertKeys(this.createdIndex.getCacheKeys(builder.getField("CREATED").greaterThan(10), null, this.map, null, null), 2, 3, 4);
+        assertKeys(this.createdIndex.getCacheKeys(builder.getField("CREATED").greaterThanEqual(10).and(builder.getField("CREATED").lessThan(30)), null, this.map, null, null), 1, 2);
+        // Integer and Long values are normalized.
+        assertKeys(this.createdIndex.getCacheKeys(builder.getField("CREATED").between(Integer.valueOf(20), Integer.valueOf(30)), null, this.map, null, null), 2, 3);
+        assertNull("hash index does not support ranges", this.statusIndex.getCacheKeys(builder.getField("STATUS").greaterThan("A"), null, this.map, null, null));
+    }
+
+    @Test
+    public void conjunctionUsesIndexedComparison() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression criteria = builder.getField("NAME").equal("x").and(builder.getField("STATUS").equal("OPEN"));
+        assertKeys(this.statusIndex.getCacheKeys(criteria, null, this.map, null, null), 0, 2, 3);
+    }
+
+    @Test
+    public void reindex() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        this.statusIndex.put(this.keys[0], new Object[] {"CLOSED"});
+        assertKeys(this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("OPEN"), null, this.map, null, null), 2, 3);
+        assertKeys(this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("CLOSED"), null, this.map, null, null), 0, 1);
+    }
+
+    @Test
+    public void removalFromMap() {
+        // Removed from the index as removed from the map, without rebuilding the index.
+        ExpressionBuilder builder = new ExpressionBuilder();
+        this.map.remove(this.keys[2]);
+        assertEquals(4, this.statusIndex.getSize());
+        assertEquals(4, this.createdIndex.getSize());
+        assertKeys(this.statusIndex.getCacheKeys(builder.getField("STATUS").equal("OPEN"), null, this.map, null, null), 0, 3);
+        assertKeys(this.createdIndex.getCacheKeys(builder.getField("CREATED").greaterThan(10), null, this.map, null, null), 3, 4);
+    }
+
+    public static class Item {
+        public long id;
+        public String status;
+        public Item() { }
+        Item(long id, String status) { this.id = id; this.status = status; }
+    }
+
+    private static DatabaseSessionImpl itemSession() {
+        Project project = new Project(new DatabaseLogin());
+        ClassDescriptor descriptor = new ClassDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.addTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        descriptor.addDirectMapping("status", "ITEM.STATUS");
+        CacheIndex status = new CacheIndex("ITEM.STATUS");
+        status.setIsUnique(false);
+        descriptor.getCachePolicy().addCacheIndex(status);
+        project.addDescriptor(descriptor);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.initializeDescriptors();
+        return session;
+    }
+
+    private static Set<Object> statuses(IdentityMapManager manager, String status) {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Set<Object> ids = new HashSet<>();
+        for (Object item : manager.getAllFromIdentityMap(builder.get("status").equal(status), Item.class, null, InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION, false)) {
+            ids.add(((Item)item).id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void removalFromMapRebuildsIndex() {
+        DatabaseSessionImpl session = itemSession();
+        ClassDescriptor descriptor = session.getDescriptor(Item.class);
+        IdentityMapManager manager = session.getIdentityMapAccessorInstance().getIdentityMapManager();
+        manager.putInIdentityMap(new Item(1, "OPEN"), 1L, null, 0, descriptor);
+        manager.putInIdentityMap(new Item(2, "OPEN"), 2L, null, 0, descriptor);
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), statuses(manager, "OPEN"));
+
+        // A removal by the map itself is removed from the index, a put that is not indexed then rebuilds it.
+        FullIdentityMap map = (FullIdentityMap)manager.getIdentityMap(descriptor, false);
+        map.remove(map.getCacheKey(1L, false));
+        manager.putInIdentityMap(new Item(3, "OPEN"), 3L, null, 0, descriptor);
+        assertEquals(new HashSet<>(Arrays.asList(2L, 3L)), statuses(manager, "OPEN"));
+    }
+
+    @Test
+    public void unitOfWorkCacheNotIndexed() {
+        DatabaseSessionImpl session = itemSession();
+        UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl)session.acquireUnitOfWork();
+        ClassDescriptor descriptor = session.getDescriptor(Item.class);
+        IdentityMapManager manager = unitOfWork.getIdentityMapAccessorInstance().getIdentityMapManager();
+        Item item = new Item(1, "OPEN");
+        manager.putInIdentityMap(item, 1L, null, 0, descriptor);
+        assertEquals(Collections.singleton(1L), statuses(manager, "OPEN"));
+
+        // Clones are changed in place, without being re-indexed.
+        item.status = "CLOSED";
+        assertEquals(Collections.singleton(1L), statuses(manager, "CLOSED"));
+        assertTrue(statuses(manager, "OPEN").isEmpty());
+    }
+
+    private void assertKeys(Collection<CacheKey> cacheKeys, int... expected) {
+        assertNotNull("index not used", cacheKeys);
+        Set<CacheKey> expectedKeys = new HashSet<>();
+        for (int index : expected) {
+            expectedKeys.add(this.keys[index]);
+        }
+        assertEquals(expectedKeys, new HashSet<>(cacheKeys));
+    }
+}
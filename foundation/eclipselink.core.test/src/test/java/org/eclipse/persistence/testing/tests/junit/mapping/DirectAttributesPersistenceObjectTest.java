@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.mapping;
+
+import static org.junit.Assert.*;
+
+import java.util.Objects;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.descriptors.DirectAttributesPersistenceObject;
+import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.internal.descriptors.PersistenceObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceObjectAttributeAccessor;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.junit.Test;
+
+public class DirectAttributesPersistenceObjectTest {
+
+    /**
+     * Implements the methods as weaved, the name (index 0) and code (index 1) being direct attributes.
+     */
+    static class Weaved implements DirectAttributesPersistenceObject {
+        String name;
+        String code;
+        int compareCalls;
+
+        @Override
+        public Object _persistence_shallow_clone() {
+            return null;
+        }
+
+        @Override
+        public Object _persistence_new(PersistenceObject object) {
+            return new Weaved();
+        }
+
+        @Override
+        public Object _persistence_get(String attribute) {
+            return _persistence_get(_persistence_index(attribute));
+        }
+
+        @Override
+        public void _persistence_set(String attribute, Object value) {
+            _persistence_set(_persistence_index(attribute), value);
+        }
+
+        @Override
+        public int _persistence_index(String attribute) {
+            return attribute.equals("name") ? 0 : attribute.equals("code") ? 1 : -1;
+        }
+
+        @Override
+        public Object _persistence_get(int index) {
+            return (index == 0) ? this.name : (index == 1) ? this.code : null;
+        }
+
+        @Override
+        public void _persistence_set(int index, Object value) {
+            if (index == 0) {
+                this.name = (String)value;
+            } else if (index == 1) {
+                this.code = (String)value;
+            }
+        }
+
+        @Override
+        public long _persistence_direct_attributes() {
+            return 0x3L;
+        }
+
+        @Override
+        public void _persistence_copy_direct(Object target) {
+            ((Weaved)target).name = this.name;
+            ((Weaved)target).code = this.code;
+        }
+
+        @Override
+        public long _persistence_compare_direct(Object backup) {
+            this.compareCalls++;
+            long changed = -1L;
+            if (Objects.equals(this.name, ((Weaved)backup).name)) {
+                changed = changed & ~0x1L;
+            }
+            if (Objects.equals(this.code, ((Weaved)backup).code)) {
+                changed = changed & ~0x2L;
+            }
+            return changed;
+        }
+    }
+
+    static ObjectBuilder objectBuilder(boolean weavedAccess) {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Weaved.class);
+        descriptor.addTableName("WEAVED");
+        // The mapping positions differ from the weaved indexes.
+        descriptor.addDirectMapping("code", "CODE");
+        descriptor.addDirectMapping("name", "NAME");
+        if (weavedAccess) {
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                mapping.setAttributeAccessor(new PersistenceObjectAttributeAccessor(mapping.getAttributeName()));
+            }
+        }
+        return descriptor.getObjectBuilder();
+    }
+
+    static Weaved weaved(String name, String code) {
+        Weaved object = new Weaved();
+        object.name = name;
+        object.code = code;
+        return object;
+    }
+
+    @Test
+    public void unchangedMappingsArePositioned() {
+        ObjectBuilder builder = objectBuilder(true);
+        assertEquals(0x3L, builder.getUnchangedDirectMappings(weaved("a", "b"), weaved("a", "b")));
+        assertEquals(0x1L, builder.getUnchangedDirectMappings(weaved("a", "b"), weaved("x", "b")));
+        assertEquals(0x2L, builder.getUnchangedDirectMappings(weaved("a", "b"), weaved("a", "x")));
+        assertNotNull("the copy policy builds new instances", builder.getCloningMappingsNotCopied(weaved("a", "b"), new Weaved()));
+    }
+
+    @Test
+    public void reflectiveMappingsAreNotCompared() {
+        ObjectBuilder builder = objectBuilder(false);
+        Weaved clone = weaved("a", "b");
+        assertEquals(0L, builder.getUnchangedDirectMappings(clone, weaved("a", "b")));
+        assertEquals(0, clone.compareCalls);
+        assertNull(builder.getCloningMappingsNotCopied(clone, new Weaved()));
+    }
+}
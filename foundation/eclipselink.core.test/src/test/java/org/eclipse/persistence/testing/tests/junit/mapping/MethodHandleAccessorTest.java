@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.mapping;
+
+import static org.junit.Assert.*;
+
+import java.util.function.Supplier;
+
+import org.eclipse.persistence.exceptions.DescriptorException;
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.MethodHandleAccessorFactory;
+import org.junit.Test;
+
+public class MethodHandleAccessorTest {
+
+    public static class Item {
+        private String name;
+        private int quantity;
+
+        public int getQuantity() {
+            return this.quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            if (quantity < 0) {
+                throw new IllegalArgumentException("negative");
+            }
+            this.quantity = quantity;
+        }
+    }
+
+    static InstanceVariableAttributeAccessor fieldAccessor(String attributeName) {
+        InstanceVariableAttributeAccessor accessor = new InstanceVariableAttributeAccessor();
+        accessor.setAttributeName(attributeName);
+        accessor.initializeAttributes(Item.class);
+        accessor.initializeMethodHandles();
+        return accessor;
+    }
+
+    @Test
+    public void fieldIsAccessedThroughHandles() {
+        InstanceVariableAttributeAccessor name = fieldAccessor("name");
+        InstanceVariableAttributeAccessor quantity = fieldAccessor("quantity");
+        Item item = new Item();
+        name.setAttributeValueInObject(item, "first");
+        quantity.setAttributeValueInObject(item, 3);
+        assertEquals("first", name.getAttributeValueFromObject(item));
+        assertEquals(3, quantity.getAttributeValueFromObject(item));
+
+        // The values not accepted by the handle are set through reflection, null is ignored for a primitive.
+        quantity.setAttributeValueInObject(item, null);
+        assertEquals(3, item.quantity);
+        quantity.setAttributeValueInObject(item, "7");
+        assertEquals(7, item.quantity);
+    }
+
+    @Test
+    public void methodIsInvokedThroughHandles() {
+        MethodAttributeAccessor accessor = new MethodAttributeAccessor();
+        accessor.setAttributeName("quantity");
+        accessor.setGetMethodName("getQuantity");
+        accessor.setSetMethodName("setQuantity");
+        accessor.initializeAttributes(Item.class);
+        accessor.initializeMethodHandles();
+        Item item = new Item();
+        accessor.setAttributeValueInObject(item, 5);
+        assertEquals(5, accessor.getAttributeValueFromObject(item));
+        try {
+            accessor.setAttributeValueInObject(item, -1);
+            fail("the exception of the set method must be reported");
+        } catch (DescriptorException exception) {
+            assertEquals(DescriptorException.TARGET_INVOCATION_WHILE_SETTING_VALUE_THRU_METHOD_ACESSOR, exception.getErrorCode());
+        }
+    }
+
+    @Test
+    public void constructorIsInvokedThroughFunction() throws Exception {
+        Supplier<Object> constructor = MethodHandleAccessorFactory.buildConstructor(Item.class.getConstructor());
+        Object first = constructor.get();
+        assertTrue(first instanceof Item);
+        assertNotSame(first, constructor.get());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.mapping;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.persistence.internal.descriptors.IndexedPersistenceObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceObjectAttributeAccessor;
+import org.junit.Test;
+
+public class PersistenceObjectAttributeAccessorTest {
+
+    /**
+     * Implements the methods as weaved, counting the calls by name.
+     */
+    static class Weaved implements IndexedPersistenceObject {
+        String name;
+        int indexCalls;
+        int nameCalls;
+
+        @Override
+        public Object _persistence_shallow_clone() {
+            return null;
+        }
+
+        @Override
+        public Object _persistence_new(PersistenceObject object) {
+            return new Weaved();
+        }
+
+        @Override
+        public Object _persistence_get(String attribute) {
+            this.nameCalls++;
+            return null;
+        }
+
+        @Override
+        public void _persistence_set(String attribute, Object value) {
+            this.nameCalls++;
+        }
+
+        @Override
+        public int _persistence_index(String attribute) {
+            this.indexCalls++;
+            return attribute.equals("name") ? 0 : -1;
+        }
+
+        @Override
+        public Object _persistence_get(int index) {
+            return (index == 0) ? this.name : null;
+        }
+
+        @Override
+        public void _persistence_set(int index, Object value) {
+            if (index == 0) {
+                this.name = (String)value;
+            }
+        }
+    }
+
+    @Test
+    public void indexIsResolvedOnce() {
+        PersistenceObjectAttributeAccessor accessor = new PersistenceObjectAttributeAccessor("name");
+        Weaved first = new Weaved();
+        Weaved second = new Weaved();
+        accessor.setAttributeValueInObject(first, "first");
+        accessor.setAttributeValueInObject(second, "second");
+        assertEquals("first", accessor.getAttributeValueFromObject(first));
+        assertEquals("second", accessor.getAttributeValueFromObject(second));
+        assertEquals(1, first.indexCalls + second.indexCalls);
+        assertEquals(0, first.nameCalls + second.nameCalls);
+    }
+
+    @Test
+    public void attributeWithoutIndexIsAccessedByName() {
+        PersistenceObjectAttributeAccessor accessor = new PersistenceObjectAttributeAccessor("other");
+        Weaved object = new Weaved();
+        accessor.setAttributeValueInObject(object, "value");
+        assertNull(accessor.getAttributeValueFromObject(object));
+        assertEquals(2, object.nameCalls);
+    }
+}
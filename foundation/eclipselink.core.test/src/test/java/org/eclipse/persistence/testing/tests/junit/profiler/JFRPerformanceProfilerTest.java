@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.profiler;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.tools.profiler.jfr.JFRPerformanceProfiler;
+import org.junit.Test;
+
+public class JFRPerformanceProfilerTest {
+
+    private static DatabaseSessionImpl profiledSession() {
+        DatabaseSessionImpl session = (DatabaseSessionImpl)new Project(new DatabaseLogin()).createDatabaseSession();
+        session.dontLogMessages();
+        session.setProfiler(new JFRPerformanceProfiler());
+        return session;
+    }
+
+    @Test
+    public void lockWaitRecorderRemovedOnLogout() {
+        DatabaseSessionImpl first = profiledSession();
+        DatabaseSessionImpl second = profiledSession();
+        assertFalse("registered before login", JFRPerformanceProfiler.isLockWaitRecorderRegistered());
+
+        // Login initializes the profiler, logout raises the post logout event.
+        first.getProfiler().initialize();
+        second.getProfiler().initialize();
+        assertTrue(ConcurrencyManager.hasLockWaitListeners());
+        first.getEventManager().postLogout(first);
+        assertTrue("still used by the second session", JFRPerformanceProfiler.isLockWaitRecorderRegistered());
+        second.getEventManager().postLogout(second);
+        assertFalse(JFRPerformanceProfiler.isLockWaitRecorderRegistered());
+        assertFalse(ConcurrencyManager.hasLockWaitListeners());
+
+        // Logging in again registers it again.
+        first.getProfiler().initialize();
+        assertTrue(JFRPerformanceProfiler.isLockWaitRecorderRegistered());
+        first.getEventManager().postLogout(first);
+        assertFalse(JFRPerformanceProfiler.isLockWaitRecorderRegistered());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.profiler;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.persistence.tools.profiler.LatencyHistogram;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getValueAtPercentile(50.0));
+        assertEquals(10, histogram.getValueAtPercentile(100.0));
+        assertEquals(10, histogram.getMaximum());
+    }
+
+    @Test
+    public void percentilesWithinAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+        long[] percentiles = histogram.getValuesAtPercentiles(50.0, 99.0, 99.9);
+        assertWithin(50000000L, percentiles[0]);
+        assertWithin(99000000L, percentiles[1]);
+        assertWithin(99900000L, percentiles[2]);
+        assertWithin(100000000L, histogram.getMaximum());
+    }
+
+    @Test
+    public void extremeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals("empty", 0, histogram.getValueAtPercentile(99.0));
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50.0));
+        assertTrue(histogram.getMaximum() > (1L << 40));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    private void assertWithin(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual, Math.abs(actual - expected) <= (expected * 0.07));
+    }
+}
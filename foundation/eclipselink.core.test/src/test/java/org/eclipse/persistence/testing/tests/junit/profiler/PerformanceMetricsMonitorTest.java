@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.profiler;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.tools.profiler.PerformanceMetricsMonitor;
+import org.eclipse.persistence.tools.profiler.PerformanceMetricsMonitor.MetricSnapshot;
+import org.junit.Test;
+
+public class PerformanceMetricsMonitorTest {
+
+    @Test
+    public void nestedOperations() {
+        PerformanceMetricsMonitor monitor = new PerformanceMetricsMonitor();
+        ReadAllQuery query = new ReadAllQuery();
+        query.setName("findAll");
+        for (int index = 0; index < 3; index++) {
+            monitor.startOperationProfile(SessionProfiler.SqlPrepare, query, SessionProfiler.ALL);
+            monitor.startOperationProfile(SessionProfiler.StatementExecute, query, SessionProfiler.ALL);
+            monitor.startOperationProfile(SessionProfiler.Logging);
+            monitor.endOperationProfile(SessionProfiler.Logging);
+            monitor.endOperationProfile(SessionProfiler.StatementExecute, query, SessionProfiler.ALL);
+            monitor.endOperationProfile(SessionProfiler.SqlPrepare, query, SessionProfiler.ALL);
+        }
+        // An operation that was not started is ignored.
+        monitor.endOperationProfile(SessionProfiler.RowFetch);
+
+        Map<String, MetricSnapshot> snapshot = monitor.getSnapshot();
+        assertEquals(3, snapshot.get(SessionProfiler.StatementExecute).getCount());
+        assertEquals(3, snapshot.get(SessionProfiler.Logging).getCount());
+        assertNull(snapshot.get(SessionProfiler.RowFetch));
+        MetricSnapshot queryExecute = snapshot.get("Timer:" + query.getMonitorName() + ":StatementExecute");
+        assertNotNull(queryExecute);
+        assertEquals(3, queryExecute.getCount());
+        assertTrue(queryExecute.isTimer());
+        MetricSnapshot prepare = snapshot.get(SessionProfiler.SqlPrepare);
+        assertTrue(prepare.getTotalTime() >= snapshot.get(SessionProfiler.StatementExecute).getTotalTime());
+        assertTrue(prepare.getP50() <= prepare.getP999());
+    }
+
+    @Test
+    public void countersAndValues() {
+        PerformanceMetricsMonitor monitor = new PerformanceMetricsMonitor();
+        ReadAllQuery query = new ReadAllQuery();
+        query.setName("findAll");
+        monitor.occurred(SessionProfiler.CacheHits, null);
+        monitor.occurred(SessionProfiler.CacheHits, query, null);
+        monitor.update(SessionProfiler.SessionName, "session");
+
+        assertEquals(2, monitor.getMetric(SessionProfiler.CacheHits).getCount());
+        assertFalse(monitor.getMetric(SessionProfiler.CacheHits).isTimer());
+        assertEquals(1, monitor.getMetric("Counter:" + query.getMonitorName() + ":CacheHits").getCount());
+        assertEquals("session", monitor.getMetric(SessionProfiler.SessionName).getValue());
+
+        monitor.setProfileWeight(SessionProfiler.NONE);
+        monitor.occurred(SessionProfiler.CacheHits, null);
+        assertEquals(2, monitor.getMetric(SessionProfiler.CacheHits).getCount());
+        monitor.reset();
+        assertTrue(monitor.getSnapshot().isEmpty());
+    }
+
+    @Test
+    public void unendedOperationsAreBounded() {
+        PerformanceMetricsMonitor monitor = new PerformanceMetricsMonitor();
+        for (int index = 0; index < 1000; index++) {
+            monitor.startOperationProfile(SessionProfiler.Caching);
+        }
+        monitor.startOperationProfile(SessionProfiler.Merge);
+        monitor.endOperationProfile(SessionProfiler.Merge);
+        assertEquals(1, monitor.getMetric(SessionProfiler.Merge).getCount());
+    }
+}
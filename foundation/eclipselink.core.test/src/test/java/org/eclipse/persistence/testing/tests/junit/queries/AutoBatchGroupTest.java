@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.indirection.ValueHolder;
+import org.eclipse.persistence.indirection.ValueHolderInterface;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.indirection.AutoBatchValueHolder;
+import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.eclipse.persistence.testing.tests.junit.queries.BatchPrefetchTest.CountingRows;
+import org.junit.After;
+import org.junit.Test;
+
+public class AutoBatchGroupTest {
+
+    public static class Person {
+        public Long id;
+        public String name;
+        public ValueHolderInterface address = new ValueHolder();
+    }
+
+    public static class Address {
+        public Long id;
+        public String city;
+    }
+
+    /**
+     * Shares the rows of the test with the connections of the session.
+     */
+    public static class AutoBatchDriver extends EmulatedDriver {
+        static volatile CountingRows rows;
+
+        public AutoBatchDriver() {
+            setRows(rows);
+        }
+    }
+
+    private static final String PERSON_SQL = "SELECT ID, NAME, ADDRESS_ID FROM PERSON";
+    private static final String ADDRESS_SQL = "SELECT ID, CITY FROM ADDRESS WHERE (ID = ?)";
+    private static final String[] CITIES = {"Ottawa", "Paris", "Rome", "Oslo", "Lima"};
+
+    private DatabaseSession session;
+    private CountingRows rows;
+    private RelationalDescriptor addressDescriptor;
+
+    /**
+     * Log in a session reading as many people as there are cities, each with its own address.
+     */
+    private void login(int threshold, int people) {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(AutoBatchDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        project.setAutoBatchFetchThreshold(threshold);
+
+        RelationalDescriptor person = new RelationalDescriptor();
+        person.setJavaClass(Person.class);
+        person.addTableName("PERSON");
+        person.addPrimaryKeyFieldName("PERSON.ID");
+        person.addDirectMapping("id", "PERSON.ID");
+        person.addDirectMapping("name", "PERSON.NAME");
+        OneToOneMapping address = new OneToOneMapping();
+        address.setAttributeName("address");
+        address.setReferenceClass(Address.class);
+        address.addForeignKeyFieldName("PERSON.ADDRESS_ID", "ADDRESS.ID");
+        address.useBasicIndirection();
+        person.addMapping(address);
+        project.addDescriptor(person);
+
+        this.addressDescriptor = new RelationalDescriptor();
+        this.addressDescriptor.setJavaClass(Address.class);
+        this.addressDescriptor.addTableName("ADDRESS");
+        this.addressDescriptor.addPrimaryKeyFieldName("ADDRESS.ID");
+        this.addressDescriptor.addDirectMapping("id", "ADDRESS.ID");
+        this.addressDescriptor.addDirectMapping("city", "ADDRESS.CITY");
+        project.addDescriptor(this.addressDescriptor);
+
+        this.rows = new CountingRows();
+        AutoBatchDriver.rows = this.rows;
+        this.session = project.createDatabaseSession();
+        this.session.dontLogMessages();
+        this.session.login();
+        Object[][] personValues = new Object[people][];
+        for (int index = 0; index < people; index++) {
+            personValues[index] = new Object[] {(long)index, "Person" + index, addressId(index)};
+        }
+        putRows(PERSON_SQL, person, personValues);
+    }
+
+    private static long addressId(int index) {
+        return index + 10L;
+    }
+
+    private void putRows(String sql, RelationalDescriptor descriptor, Object[][] values) {
+        Vector<DatabaseField> fields = descriptor.getAllFields();
+        DatabaseField[] fieldsArray = fields.toArray(new DatabaseField[fields.size()]);
+        Vector<ArrayRecord> records = new Vector<>();
+        for (Object[] row : values) {
+            records.add(new ArrayRecord(fields, fieldsArray, row));
+        }
+        this.rows.put(sql, records);
+    }
+
+    private static String batchSql(int size) {
+        StringBuilder sql = new StringBuilder("SELECT ID, CITY FROM ADDRESS WHERE (ID IN (");
+        for (int index = 0; index < size; index++) {
+            sql.append((index == 0) ? "?" : ",?");
+        }
+        return sql.append("))").toString();
+    }
+
+    private List<Person> readPeople() {
+        return (List<Person>)this.session.executeQuery(new ReadAllQuery(Person.class));
+    }
+
+    /**
+     * Return the city of the person's address, reading it by its own query if not batched.
+     * The emulated driver ignores the query arguments, so the address of the person is the only row of the query.
+     */
+    private String city(Person person) {
+        int index = person.id.intValue();
+        putRows(ADDRESS_SQL, this.addressDescriptor, new Object[][] {{addressId(index), CITIES[index]}});
+        return ((Address)person.address.getValue()).city;
+    }
+
+    @After
+    public void logout() {
+        if (this.session != null) {
+            this.session.logout();
+        }
+    }
+
+    @Test
+    public void batchedOnceThresholdIsReached() {
+        login(2, 5);
+        List<Person> people = readPeople();
+        assertTrue("mapping value holder", people.get(0).address instanceof AutoBatchValueHolder);
+        Object[][] remaining = {{12L, CITIES[2]}, {13L, CITIES[3]}, {14L, CITIES[4]}};
+        putRows(batchSql(3), this.addressDescriptor, remaining);
+
+        assertEquals(CITIES[0], city(people.get(0)));
+        assertEquals(CITIES[1], city(people.get(1)));
+        assertEquals(2, this.rows.getExecutions(ADDRESS_SQL));
+        assertEquals(0, this.rows.getExecutions(batchSql(3)));
+
+        // The threshold is reached, the addresses of the remaining people are read by one IN query.
+        assertEquals(CITIES[3], city(people.get(3)));
+        assertEquals(CITIES[2], city(people.get(2)));
+        assertEquals(CITIES[4], city(people.get(4)));
+        assertEquals(2, this.rows.getExecutions(ADDRESS_SQL));
+        assertEquals(1, this.rows.getExecutions(batchSql(3)));
+    }
+
+    @Test
+    public void notBatchedForLastRow() {
+        login(2, 3);
+        List<Person> people = readPeople();
+        for (int index = 0; index < people.size(); index++) {
+            assertEquals(CITIES[index], city(people.get(index)));
+        }
+        assertEquals(3, this.rows.getExecutions(ADDRESS_SQL));
+    }
+
+    @Test
+    public void notBatchedIfDisabled() {
+        login(0, 3);
+        List<Person> people = readPeople();
+        assertFalse(people.get(0).address instanceof AutoBatchValueHolder);
+        for (int index = 0; index < people.size(); index++) {
+            assertEquals(CITIES[index], city(people.get(index)));
+        }
+        assertEquals(3, this.rows.getExecutions(ADDRESS_SQL));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.FetchGroupManager;
+import org.eclipse.persistence.internal.queries.AutoFetchGroupObserver;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.FetchGroup;
+import org.eclipse.persistence.queries.FetchGroupTracker;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.Session;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutoFetchGroupObserverTest {
+
+    /**
+     * Entity tracking its fetch group the way woven entities do.
+     */
+    public static class Item implements FetchGroupTracker {
+        Long id;
+        String name;
+        String description;
+        FetchGroup fetchGroup;
+
+        @Override
+        public FetchGroup _persistence_getFetchGroup() {
+            return fetchGroup;
+        }
+
+        @Override
+        public void _persistence_setFetchGroup(FetchGroup group) {
+            this.fetchGroup = group;
+        }
+
+        @Override
+        public boolean _persistence_isAttributeFetched(String attribute) {
+            return (fetchGroup == null) || fetchGroup.containsAttributeOnAccess(attribute);
+        }
+
+        @Override
+        public void _persistence_resetFetchGroup() {
+        }
+
+        @Override
+        public boolean _persistence_shouldRefreshFetchGroup() {
+            return false;
+        }
+
+        @Override
+        public void _persistence_setShouldRefreshFetchGroup(boolean shouldRefreshFetchGroup) {
+        }
+
+        @Override
+        public Session _persistence_getSession() {
+            return null;
+        }
+
+        @Override
+        public void _persistence_setSession(Session session) {
+        }
+    }
+
+    private AbstractSession session;
+    private ClassDescriptor descriptor;
+    private ReadAllQuery query;
+
+    @Before
+    public void setUp() {
+        descriptor = new ClassDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.setTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        descriptor.addDirectMapping("name", "ITEM.NAME");
+        descriptor.addDirectMapping("description", "ITEM.DESCRIPTION");
+        descriptor.setFetchGroupManager(new FetchGroupManager());
+        Project project = new Project(new DatabaseLogin());
+        project.addDescriptor(descriptor);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.initializeDescriptors();
+        this.session = session;
+        query = new ReadAllQuery(Item.class);
+        session.addQuery("findItems", query);
+    }
+
+    @Test
+    public void fetchGroupOfAccessedAttributes() {
+        AutoFetchGroupObserver observer = new AutoFetchGroupObserver(query, descriptor, session, 2);
+        for (int execution = 0; execution < 2; execution++) {
+            Item item = new Item();
+            observer.observeResult(Arrays.asList(item), query);
+            assertSame(observer.getObservingFetchGroup(), item._persistence_getFetchGroup());
+            assertTrue(item._persistence_isAttributeFetched(execution == 0 ? "id" : "name"));
+            assertNull("observed objects are fully fetched", descriptor.getFetchGroupManager().getObjectFetchGroup(item));
+        }
+        assertNull(observer.getAutoFetchGroup());
+        observer.observeResult(Arrays.asList(new Item()), query);
+        FetchGroup fetchGroup = observer.getAutoFetchGroup();
+        assertNotNull(fetchGroup);
+        // The named query is replaced by a prepared copy, the query other threads may be executing is unchanged.
+        assertNull(query.getFetchGroup());
+        ReadAllQuery namedQuery = (ReadAllQuery)session.getQuery("findItems");
+        assertNotSame(query, namedQuery);
+        assertSame(namedQuery, observer.getQuery());
+        assertSame(fetchGroup, namedQuery.getFetchGroup());
+        assertTrue(namedQuery.isPrepared());
+        assertFalse(namedQuery.getSQLString().contains("DESCRIPTION"));
+        assertEquals(2, fetchGroup.getAttributeNames().size());
+        assertTrue(fetchGroup.containsAttributeInternal("id"));
+        assertTrue(fetchGroup.containsAttributeInternal("name"));
+        assertFalse(fetchGroup.containsAttributeInternal("description"));
+    }
+
+    @Test
+    public void notAppliedWhenAllAttributesAccessed() {
+        AutoFetchGroupObserver observer = new AutoFetchGroupObserver(query, descriptor, session, 1);
+        query.setProperty(AutoFetchGroupObserver.PROPERTY, observer);
+        Item item = new Item();
+        observer.observeResult(item, query);
+        item._persistence_isAttributeFetched("id");
+        item._persistence_isAttributeFetched("name");
+        item._persistence_isAttributeFetched("description");
+        observer.observeResult(new Item(), query);
+        assertNull(observer.getAutoFetchGroup());
+        DatabaseQuery namedQuery = session.getQuery("findItems");
+        assertNotSame(query, namedQuery);
+        assertNull(((ReadAllQuery)namedQuery).getFetchGroup());
+        assertNull(namedQuery.getProperty(AutoFetchGroupObserver.PROPERTY));
+    }
+
+    @Test
+    public void observingFetchGroupDoesNotLoad() {
+        AutoFetchGroupObserver.ObservingFetchGroup fetchGroup = new AutoFetchGroupObserver.ObservingFetchGroup(null, Arrays.asList("id", "name"));
+        assertTrue(fetchGroup.containsAttributeOnAccess("description"));
+        assertNull(fetchGroup.onUnfetchedAttribute(new Item(), "description"));
+        FetchGroup plain = new FetchGroup();
+        plain.addAttribute("id");
+        assertTrue(plain.containsAttributeOnAccess("id"));
+        assertFalse(plain.containsAttributeOnAccess("name"));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.internal.queries.BatchFetchStatistics;
+import org.eclipse.persistence.queries.BatchFetchPolicy;
+import org.junit.Test;
+
+public class BatchFetchPolicyTest {
+
+    @Test
+    public void adaptiveUsesIN() {
+        BatchFetchPolicy policy = new BatchFetchPolicy();
+        assertTrue(policy.isJOIN());
+        policy.setIsAdaptive(true);
+        assertTrue(policy.isAdaptive());
+        assertEquals(BatchFetchType.IN, policy.getType());
+        assertTrue(policy.clone().isAdaptive());
+    }
+
+    @Test
+    public void adaptiveSizeBoundsFetchedValues() {
+        BatchFetchPolicy policy = new BatchFetchPolicy(BatchFetchType.IN);
+        policy.setAdaptiveFetchLimit(100000);
+        policy.setMaxAdaptiveSize(5000);
+        // 10 fields per row, one row per key.
+        assertEquals(5000, policy.computeAdaptiveSize(1.0, 10));
+        // 10 fields per row, 50 rows per key.
+        assertEquals(200, policy.computeAdaptiveSize(50.0, 10));
+        // Sparse relationships are sized as one row per key.
+        assertEquals(policy.computeAdaptiveSize(1.0, 40), policy.computeAdaptiveSize(0.1, 40));
+        // At least one key is fetched.
+        assertEquals(1, policy.computeAdaptiveSize(1000000.0, 10));
+    }
+
+    @Test
+    public void statisticsFanOut() {
+        BatchFetchStatistics statistics = new BatchFetchStatistics();
+        assertEquals(1.0, statistics.getAverageFanOut(), 0.0);
+        statistics.record(100, 450);
+        statistics.record(50, 300);
+        assertEquals(2, statistics.getExecutions());
+        assertEquals(150, statistics.getKeys());
+        assertEquals(750, statistics.getTargets());
+        assertEquals(5.0, statistics.getAverageFanOut(), 0.0);
+        assertEquals(50, statistics.getLastSize());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.indirection.ValueHolder;
+import org.eclipse.persistence.indirection.ValueHolderInterface;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchPrefetchTest {
+
+    public static class Person {
+        public Long id;
+        public String name;
+        public ValueHolderInterface address = new ValueHolder();
+    }
+
+    public static class Address {
+        public Long id;
+        public String city;
+    }
+
+    /**
+     * Counts the executions of each SQL statement by the emulated driver.
+     */
+    static class CountingRows extends HashMap<Object, Object> {
+        final Map<Object, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+        @Override
+        public Object get(Object sql) {
+            this.executions.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+            return super.get(sql);
+        }
+
+        int getExecutions(String sql) {
+            AtomicInteger count = this.executions.get(sql);
+            return (count == null) ? 0 : count.get();
+        }
+    }
+
+    /**
+     * Shares the rows of the test with the connections of all the pools.
+     */
+    public static class CountingDriver extends EmulatedDriver {
+        static volatile CountingRows rows;
+
+        public CountingDriver() {
+            setRows(rows);
+        }
+    }
+
+    private static final String ADDRESS_SQL = "SELECT ID, CITY FROM ADDRESS WHERE (ID IN (?,?,?))";
+
+    private ServerSession session;
+    private CountingRows rows;
+
+    @Before
+    public void login() {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(CountingDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+
+        RelationalDescriptor person = new RelationalDescriptor();
+        person.setJavaClass(Person.class);
+        person.addTableName("PERSON");
+        person.addPrimaryKeyFieldName("PERSON.ID");
+        person.addDirectMapping("id", "PERSON.ID");
+        person.addDirectMapping("name", "PERSON.NAME");
+        OneToOneMapping address = new OneToOneMapping();
+        address.setAttributeName("address");
+        address.setReferenceClass(Address.class);
+        address.addForeignKeyFieldName("PERSON.ADDRESS_ID", "ADDRESS.ID");
+        address.useBasicIndirection();
+        person.addMapping(address);
+        project.addDescriptor(person);
+
+        RelationalDescriptor addressDescriptor = new RelationalDescriptor();
+        addressDescriptor.setJavaClass(Address.class);
+        addressDescriptor.addTableName("ADDRESS");
+        addressDescriptor.addPrimaryKeyFieldName("ADDRESS.ID");
+        addressDescriptor.addDirectMapping("id", "ADDRESS.ID");
+        addressDescriptor.addDirectMapping("city", "ADDRESS.CITY");
+        project.addDescriptor(addressDescriptor);
+
+        this.rows = new CountingRows();
+        CountingDriver.rows = this.rows;
+        this.session = (ServerSession)project.createServerSession();
+        this.session.dontLogMessages();
+        this.session.login();
+        putRows("SELECT ID, NAME, ADDRESS_ID FROM PERSON", person, new Object[][] {{1L, "Ann", 11L}, {2L, "Bob", 12L}, {3L, "Cy", 13L}});
+        putRows(ADDRESS_SQL, addressDescriptor, new Object[][] {{11L, "Ottawa"}, {12L, "Paris"}, {13L, "Rome"}});
+    }
+
+    private void putRows(String sql, RelationalDescriptor descriptor, Object[][] values) {
+        Vector<DatabaseField> fields = descriptor.getAllFields();
+        DatabaseField[] fieldsArray = fields.toArray(new DatabaseField[fields.size()]);
+        Vector<ArrayRecord> records = new Vector<>();
+        for (Object[] row : values) {
+            records.add(new ArrayRecord(fields, fieldsArray, row));
+        }
+        this.rows.put(sql, records);
+    }
+
+    @After
+    public void logout() {
+        this.session.logout();
+    }
+
+    /**
+     * Read the people in the session, the addresses must be read once in the background, and used by the value holders.
+     */
+    private void assertPrefetched(Session reader) throws InterruptedException {
+        ReadAllQuery query = new ReadAllQuery(Person.class);
+        query.addBatchReadAttribute("address");
+        query.setBatchFetchType(BatchFetchType.IN);
+        query.setBatchFetchPrefetch(true);
+        List<Person> people = (List<Person>)reader.executeQuery(query);
+        assertEquals(3, people.size());
+        long timeout = System.currentTimeMillis() + 10000;
+        while ((this.rows.getExecutions(ADDRESS_SQL) == 0) && (System.currentTimeMillis() < timeout)) {
+            Thread.sleep(1);
+        }
+        assertEquals("addresses not prefetched", 1, this.rows.getExecutions(ADDRESS_SQL));
+        Map<Long, String> cities = new HashMap<>();
+        for (Person person : people) {
+            Address address = (Address)person.address.getValue();
+            cities.put(person.id, address.city);
+        }
+        assertEquals("Ottawa", cities.get(1L));
+        assertEquals("Paris", cities.get(2L));
+        assertEquals("Rome", cities.get(3L));
+        assertEquals("prefetched addresses not used", 1, this.rows.getExecutions(ADDRESS_SQL));
+    }
+
+    @Test
+    public void prefetchedForClientSession() throws InterruptedException {
+        assertPrefetched(this.session.acquireClientSession());
+    }
+
+    @Test
+    public void prefetchedForUnitOfWork() throws InterruptedException {
+        assertPrefetched(this.session.acquireClientSession().acquireUnitOfWork());
+    }
+}
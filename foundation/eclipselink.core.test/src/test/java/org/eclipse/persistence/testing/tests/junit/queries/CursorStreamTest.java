@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.CursoredStreamPolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class CursorStreamTest {
+
+    /**
+     * Iterates a list instead of a result set.
+     */
+    static class ListCursor extends Cursor {
+        final Iterator<Object> iterator;
+        int nextCount;
+        int clearCount;
+        boolean isClosed;
+
+        ListCursor(List<Object> objects, int pageSize) {
+            this(objects, pageSize, new ReadAllQuery(), (AbstractSession)new Project(new DatabaseLogin()).createDatabaseSession());
+        }
+
+        ListCursor(List<Object> objects, int pageSize, ReadAllQuery query, AbstractSession session) {
+            this.iterator = objects.iterator();
+            this.query = query;
+            this.policy = new CursoredStreamPolicy(this.query, pageSize);
+            this.session = session;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            this.nextCount++;
+            Object next = this.iterator.next();
+            // Register the object as a cursor opened in a unit of work does.
+            if (this.session.isUnitOfWork()) {
+                next = ((UnitOfWorkImpl)this.session).registerExistingObject(next);
+            }
+            return next;
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return hasNext();
+        }
+
+        @Override
+        public Object nextElement() {
+            return next();
+        }
+
+        @Override
+        public void clear() {
+            this.clearCount++;
+        }
+
+        @Override
+        public void close() {
+            this.isClosed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return this.isClosed;
+        }
+
+        @Override
+        protected int getCursorSize() {
+            return -1;
+        }
+
+        @Override
+        public int getPosition() {
+            return this.nextCount;
+        }
+
+        @Override
+        protected Object retrieveNextObject() {
+            return null;
+        }
+    }
+
+    @Test
+    public void streamReadsLazilyAndClearsEveryPage() {
+        ListCursor cursor = new ListCursor(Arrays.asList(1, 2, 3, 4, 5, 6, 7), 3);
+        try (Stream<Object> stream = cursor.stream()) {
+            assertEquals(Arrays.asList(1, 2), stream.limit(2).collect(Collectors.toList()));
+            assertEquals("objects must be read as consumed", 2, cursor.nextCount);
+        }
+        assertTrue("closing the stream must close the cursor", cursor.isClosed);
+
+        cursor = new ListCursor(Arrays.asList(1, 2, 3, 4, 5, 6, 7), 3);
+        try (Stream<Object> stream = cursor.stream()) {
+            assertEquals(7, stream.count());
+        }
+        assertEquals(2, cursor.clearCount);
+    }
+
+    public static class Item {
+        public long id;
+        public Item() { }
+        Item(long id) { this.id = id; }
+    }
+
+    @Test
+    public void onlyObjectsRegisteredByCursorAreReleased() {
+        Project project = new Project(new DatabaseLogin());
+        ClassDescriptor descriptor = new ClassDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.addTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        project.addDescriptor(descriptor);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.initializeDescriptors();
+        UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl)session.acquireUnitOfWork();
+
+        Item managed = new Item(1);
+        Object managedClone = unitOfWork.registerExistingObject(managed);
+        Item newItem = new Item(4);
+        Object newClone = unitOfWork.registerNewObject(newItem);
+        List<Object> items = Arrays.asList(managed, new Item(2), newClone, new Item(3));
+        ListCursor cursor = new ListCursor(items, 2, new ReadAllQuery(Item.class), unitOfWork);
+        List<Object> clones = new ArrayList<>();
+        try (Stream<Object> stream = cursor.stream(true)) {
+            // Stop at the last object without reading the end of the stream.
+            Iterator<Object> iterator = stream.iterator();
+            for (int index = 0; index < items.size(); index++) {
+                Object clone = iterator.next();
+                assertTrue(unitOfWork.isObjectRegistered(clone));
+                clones.add(clone);
+            }
+            assertTrue(unitOfWork.isObjectRegistered(clones.get(3)));
+        }
+        assertSame(managedClone, clones.get(0));
+        assertTrue("registered before the stream", unitOfWork.isObjectRegistered(managedClone));
+        assertFalse(unitOfWork.isObjectRegistered(clones.get(1)));
+        assertTrue("new object", unitOfWork.isCloneNewObject(newClone));
+        assertFalse("last object released on close", unitOfWork.isObjectRegistered(clones.get(3)));
+    }
+}
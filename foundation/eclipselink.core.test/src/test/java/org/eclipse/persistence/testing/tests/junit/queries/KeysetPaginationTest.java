@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
+import org.eclipse.persistence.internal.expressions.FunctionExpression;
+import org.eclipse.persistence.platform.database.MySQLPlatform;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.junit.Test;
+
+public class KeysetPaginationTest {
+
+    private static ReadAllQuery buildQuery(ExpressionBuilder builder) {
+        ReadAllQuery query = new ReadAllQuery(Object.class, builder);
+        query.addOrdering(builder.get("name").ascending());
+        query.addOrdering(builder.get("id").descending());
+        query.setKeysetValues(Arrays.asList("smith", 42));
+        return query;
+    }
+
+    @Test
+    public void comparisonsForMixedDirections() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        ReadAllQuery query = buildQuery(builder);
+        Expression name = builder.get("name");
+        Expression id = builder.get("id");
+        Expression nameValue = builder.getParameter(ReadAllQuery.KEYSET_PARAMETER_PREFIX + 0);
+        Expression idValue = builder.getParameter(ReadAllQuery.KEYSET_PARAMETER_PREFIX + 1);
+        Expression expected = name.greaterThanEqual(nameValue).and(
+                name.greaterThan(nameValue).or(name.equal(nameValue).and(id.lessThan(idValue))));
+        assertEquals(expected, query.buildKeysetCriteria(new MySQLPlatform()));
+    }
+
+    @Test
+    public void rowValueComparisonForSameDirection() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        ReadAllQuery query = new ReadAllQuery(Object.class, builder);
+        query.addOrdering(builder.get("name").descending());
+        query.addOrdering(builder.get("id").descending());
+        query.setKeysetValues(Arrays.asList("smith", 42));
+        Expression criteria = query.buildKeysetCriteria(new MySQLPlatform());
+        assertTrue(criteria.isFunctionExpression());
+        assertArrayEquals(new String[] {"(", ", ", ") < (", ", ", ")"}, criteria.getOperator().getDatabaseStrings());
+        assertEquals(4, ((FunctionExpression)criteria).getChildren().size());
+
+        // Platforms without row value comparisons use the equivalent comparisons.
+        assertFalse(query.buildKeysetCriteria(new DatabasePlatform()).isFunctionExpression());
+    }
+
+    @Test
+    public void valuesMustMatchOrdering() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        ReadAllQuery query = buildQuery(builder);
+        query.setKeysetValues(Collections.singletonList("smith"));
+        try {
+            query.buildKeysetCriteria(new DatabasePlatform());
+            fail("QueryException expected");
+        } catch (QueryException expected) {
+            assertEquals(QueryException.KEYSET_VALUES_DO_NOT_MATCH_ORDERING, expected.getErrorCode());
+        }
+    }
+
+    @Test
+    public void nullsOrderingIsRejected() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        ReadAllQuery query = new ReadAllQuery(Object.class, builder);
+        query.addOrdering(builder.get("name").ascending().nullsFirst());
+        query.addOrdering(builder.get("id").descending().nullsLast());
+        query.setKeysetValues(Arrays.asList("smith", 42));
+        try {
+            query.buildKeysetCriteria(new MySQLPlatform());
+            fail("QueryException expected");
+        } catch (QueryException expected) {
+            assertEquals(QueryException.KEYSET_PAGINATION_DOES_NOT_SUPPORT_NULLS, expected.getErrorCode());
+        }
+    }
+
+    @Test
+    public void nullValuesAreRejected() {
+        ReadAllQuery query = buildQuery(new ExpressionBuilder());
+        try {
+            query.setKeysetValues(Arrays.asList(null, 42));
+            fail("QueryException expected");
+        } catch (QueryException expected) {
+            assertEquals(QueryException.KEYSET_PAGINATION_DOES_NOT_SUPPORT_NULLS, expected.getErrorCode());
+        }
+        assertEquals("the previous values are kept", Arrays.asList("smith", 42), query.getKeysetValues());
+    }
+
+    @Test
+    public void newValuesDoNotUnprepare() {
+        ReadAllQuery query = buildQuery(new ExpressionBuilder());
+        query.setIsPrepared(true);
+        query.setKeysetValues(Arrays.asList("jones", 7));
+        assertTrue("same number of values must not unprepare", query.isPrepared());
+        query.setKeysetValues(null);
+        assertFalse(query.isPrepared());
+        assertFalse(query.hasKeysetValues());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.sessions;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.eclipse.persistence.config.CacheIsolationType;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.VersionLockingPolicy;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class LazyDescriptorInitializerTest {
+
+    public static class Order { public long id; public Customer customer; }
+    public static class Customer { public long id; public Address address; }
+    public static class Address { public long id; }
+    public static class Product { public long id; }
+    public static class Invoice { public long id; public Order order; }
+
+    private static ClassDescriptor descriptor(Class javaClass, String table) {
+        ClassDescriptor descriptor = new ClassDescriptor();
+        descriptor.setJavaClass(javaClass);
+        descriptor.setAlias(javaClass.getSimpleName());
+        descriptor.addTableName(table);
+        descriptor.addPrimaryKeyFieldName(table + ".ID");
+        descriptor.addDirectMapping("id", table + ".ID");
+        return descriptor;
+    }
+
+    private static void addReference(ClassDescriptor descriptor, String attribute, Class target, String foreignKey, String targetKey) {
+        OneToOneMapping mapping = new OneToOneMapping();
+        mapping.setAttributeName(attribute);
+        mapping.setReferenceClass(target);
+        mapping.addForeignKeyFieldName(foreignKey, targetKey);
+        mapping.dontUseIndirection();
+        descriptor.addMapping(mapping);
+    }
+
+    private static Project project() {
+        Project project = new Project(new DatabaseLogin());
+        ClassDescriptor order = descriptor(Order.class, "ORDERS");
+        addReference(order, "customer", Customer.class, "ORDERS.CUSTOMER_ID", "CUSTOMER.ID");
+        ClassDescriptor customer = descriptor(Customer.class, "CUSTOMER");
+        addReference(customer, "address", Address.class, "CUSTOMER.ADDRESS_ID", "ADDRESS.ID");
+        ClassDescriptor invoice = descriptor(Invoice.class, "INVOICE");
+        addReference(invoice, "order", Order.class, "INVOICE.ORDER_ID", "ORDERS.ID");
+        for (ClassDescriptor descriptor : Arrays.asList(invoice, order, customer, descriptor(Address.class, "ADDRESS"), descriptor(Product.class, "PRODUCT"))) {
+            project.addDescriptor(descriptor);
+        }
+        return project;
+    }
+
+    private static DatabaseSessionImpl login(String... eagerNames) {
+        return login(project(), eagerNames);
+    }
+
+    private static DatabaseSessionImpl login(Project project, String... eagerNames) {
+        project.setUsesLazyDescriptorInitialization(true);
+        project.setEagerDescriptorNames(Arrays.asList(eagerNames));
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.initializeDescriptors();
+        return session;
+    }
+
+    private static boolean isInitialized(DatabaseSessionImpl session, Class javaClass) {
+        // The project map does not complete the deferred initialization.
+        ClassDescriptor descriptor = session.getProject().getDescriptors().get(javaClass);
+        return descriptor.isFullyInitialized() && !descriptor.isInitializationDeferred();
+    }
+
+    @Test
+    public void descriptorReferencingIsolatedDescriptorInitializedOnLogin() {
+        Project project = project();
+        project.getDescriptor(Customer.class).setCacheIsolation(CacheIsolationType.ISOLATED);
+        DatabaseSessionImpl session = login(project);
+        assertTrue(isInitialized(session, Customer.class));
+        assertTrue("references an isolated descriptor", isInitialized(session, Order.class));
+        assertEquals(CacheIsolationType.PROTECTED, session.getProject().getDescriptors().get(Order.class).getCachePolicy().getCacheIsolation());
+        assertFalse(isInitialized(session, Invoice.class));
+        assertFalse(isInitialized(session, Product.class));
+    }
+
+    @Test
+    public void descriptorCascadingLockingInitializedOnLogin() {
+        Project project = project();
+        VersionLockingPolicy lockingPolicy = new VersionLockingPolicy("ORDERS.VERSION");
+        lockingPolicy.setIsCascaded(true);
+        project.getDescriptor(Order.class).setOptimisticLockingPolicy(lockingPolicy);
+        DatabaseSessionImpl session = login(project);
+        assertTrue(isInitialized(session, Order.class));
+        assertTrue("given a cascade locking policy", isInitialized(session, Customer.class));
+        assertTrue(isInitialized(session, Address.class));
+        assertFalse(isInitialized(session, Invoice.class));
+    }
+
+    @Test
+    public void eagerDescriptorsAndDependenciesInitializedOnLogin() {
+        DatabaseSessionImpl session = login(Customer.class.getName());
+        assertTrue(isInitialized(session, Customer.class));
+        assertTrue("dependency of an eager descriptor", isInitialized(session, Address.class));
+        assertFalse(isInitialized(session, Order.class));
+        assertFalse(isInitialized(session, Invoice.class));
+        assertFalse(isInitialized(session, Product.class));
+        assertEquals(3, session.getLazyDescriptorInitializer().getPendingCount());
+    }
+
+    @Test
+    public void deferredDescriptorInitializedWithDependenciesOnLookup() {
+        DatabaseSessionImpl session = login();
+        assertEquals(5, session.getLazyDescriptorInitializer().getPendingCount());
+        ClassDescriptor order = session.getDescriptor(Order.class);
+        assertTrue(order.isFullyInitialized());
+        assertTrue(isInitialized(session, Customer.class));
+        assertTrue(isInitialized(session, Address.class));
+        assertFalse("not a dependency", isInitialized(session, Invoice.class));
+        assertSame(session.getProject().getDescriptors().get(Customer.class), order.getMappingForAttributeName("customer").getReferenceDescriptor());
+
+        assertTrue(session.getDescriptorForAlias("Product").isFullyInitialized());
+        session.initializeLazyDescriptors();
+        assertEquals(0, session.getLazyDescriptorInitializer().getPendingCount());
+        assertTrue(isInitialized(session, Invoice.class));
+        assertFalse(session.getProject().getDescriptors().values().stream().anyMatch(ClassDescriptor::isInitializationDeferred));
+    }
+}
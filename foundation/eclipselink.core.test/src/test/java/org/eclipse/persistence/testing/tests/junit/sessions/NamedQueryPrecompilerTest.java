@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.sessions;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.NamedQueryPrecompiler;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReportQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class NamedQueryPrecompilerTest {
+
+    public static class Item { public long id; public String name; }
+
+    @Test
+    public void namedQueriesPreparedInBackground() throws Exception {
+        Project project = new Project(new DatabaseLogin());
+        ClassDescriptor descriptor = new ClassDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.addTableName("ITEM");
+        descriptor.addPrimaryKeyFieldName("ITEM.ID");
+        descriptor.addDirectMapping("id", "ITEM.ID");
+        descriptor.addDirectMapping("name", "ITEM.NAME");
+        project.addDescriptor(descriptor);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.initializeDescriptors();
+
+        ReadAllQuery byName = new ReadAllQuery(Item.class);
+        ExpressionBuilder builder = byName.getExpressionBuilder();
+        byName.setSelectionCriteria(builder.get("name").equal(builder.getParameter("name")));
+        byName.addArgument("name");
+        session.addQuery("Item.byName", byName);
+        ReportQuery count = new ReportQuery(Item.class, new ExpressionBuilder());
+        count.addCount();
+        session.addQuery("Item.count", count);
+
+        NamedQueryPrecompiler precompiler = new NamedQueryPrecompiler(session, 2);
+        precompiler.start();
+        assertTrue(precompiler.await(30, TimeUnit.SECONDS));
+        assertTrue(byName.isPrepared());
+        assertTrue(byName.getSQLString(), byName.getSQLString().startsWith("SELECT ID, NAME FROM ITEM WHERE"));
+        assertTrue(count.isPrepared());
+        assertNotNull(count.getSQLString());
+    }
+}
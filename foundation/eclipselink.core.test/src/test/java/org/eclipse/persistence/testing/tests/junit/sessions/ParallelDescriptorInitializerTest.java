@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.sessions;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.ParallelDescriptorInitializer;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class ParallelDescriptorInitializerTest {
+
+    public static class Animal { public long id; }
+    public static class Dog extends Animal { public Owner owner; }
+    public static class Owner { public long id; public Address address; }
+    public static class Address { public long id; public Owner owner; }
+    public static class Tag { public long id; public Dog dog; }
+    public static class Standalone { public long id; }
+
+    private static ClassDescriptor descriptor(Class javaClass, String table) {
+        ClassDescriptor descriptor = new ClassDescriptor();
+        descriptor.setJavaClass(javaClass);
+        descriptor.addTableName(table);
+        descriptor.addPrimaryKeyFieldName(table + ".ID");
+        descriptor.addDirectMapping("id", table + ".ID");
+        return descriptor;
+    }
+
+    private static void addReference(ClassDescriptor descriptor, String attribute, Class target, String foreignKey, String targetKey) {
+        OneToOneMapping mapping = new OneToOneMapping();
+        mapping.setAttributeName(attribute);
+        mapping.setReferenceClass(target);
+        mapping.addForeignKeyFieldName(foreignKey, targetKey);
+        mapping.dontUseIndirection();
+        descriptor.addMapping(mapping);
+    }
+
+    private static Project buildProject() {
+        Project project = new Project(new DatabaseLogin());
+        ClassDescriptor animal = descriptor(Animal.class, "ANIMAL");
+        animal.getInheritancePolicy().setClassIndicatorFieldName("ANIMAL.TYPE");
+        animal.getInheritancePolicy().addClassIndicator(Animal.class, "A");
+        animal.getInheritancePolicy().addClassIndicator(Dog.class, "D");
+        ClassDescriptor dog = new ClassDescriptor();
+        dog.setJavaClass(Dog.class);
+        dog.getInheritancePolicy().setParentClass(Animal.class);
+        addReference(dog, "owner", Owner.class, "ANIMAL.OWNER_ID", "OWNER.ID");
+        ClassDescriptor owner = descriptor(Owner.class, "OWNER");
+        addReference(owner, "address", Address.class, "OWNER.ADDRESS_ID", "ADDRESS.ID");
+        ClassDescriptor address = descriptor(Address.class, "ADDRESS");
+        addReference(address, "owner", Owner.class, "ADDRESS.OWNER_ID", "OWNER.ID");
+        ClassDescriptor tag = descriptor(Tag.class, "TAG");
+        addReference(tag, "dog", Dog.class, "TAG.DOG_ID", "ANIMAL.ID");
+        for (ClassDescriptor descriptor : Arrays.asList(tag, dog, animal, owner, address, descriptor(Standalone.class, "STANDALONE"))) {
+            project.addDescriptor(descriptor);
+        }
+        return project;
+    }
+
+    private static int groupOf(ParallelDescriptorInitializer initializer, Class javaClass) {
+        List<List<ClassDescriptor>> groups = initializer.getGroups();
+        for (int index = 0; index < groups.size(); index++) {
+            for (ClassDescriptor descriptor : groups.get(index)) {
+                if (descriptor.getJavaClass() == javaClass) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void groupsInDependencyOrder() {
+        Project project = buildProject();
+        ParallelDescriptorInitializer initializer = new ParallelDescriptorInitializer(project.getDescriptors().values(), 4);
+        assertEquals(4, initializer.getGroups().size());
+        assertEquals("inheritance hierarchy", groupOf(initializer, Animal.class), groupOf(initializer, Dog.class));
+        assertEquals("bidirectional relationship", groupOf(initializer, Owner.class), groupOf(initializer, Address.class));
+        assertTrue(groupOf(initializer, Owner.class) < groupOf(initializer, Dog.class));
+        assertTrue(groupOf(initializer, Dog.class) < groupOf(initializer, Tag.class));
+    }
+
+    @Test
+    public void phaseRunsAfterDependencies() {
+        Project project = buildProject();
+        ParallelDescriptorInitializer initializer = new ParallelDescriptorInitializer(project.getDescriptors().values(), 4);
+        AtomicInteger counter = new AtomicInteger();
+        ConcurrentHashMap<Class, Integer> completed = new ConcurrentHashMap<>();
+        initializer.runPhase(descriptor -> completed.put(descriptor.getJavaClass(), counter.incrementAndGet()));
+        assertEquals(6, completed.size());
+        assertTrue(completed.get(Owner.class) < completed.get(Dog.class));
+        assertTrue(completed.get(Address.class) < completed.get(Dog.class));
+        assertTrue(completed.get(Dog.class) < completed.get(Tag.class));
+
+        RuntimeException failure = new RuntimeException();
+        try {
+            initializer.runPhase(descriptor -> {
+                if (descriptor.getJavaClass() == Owner.class) {
+                    throw failure;
+                }
+            });
+            fail("exception expected");
+        } catch (RuntimeException expected) {
+            assertSame(failure, expected);
+        }
+    }
+
+    @Test
+    public void initializeDescriptorsInParallel() {
+        Project project = buildProject();
+        project.setDescriptorInitializationThreads(4);
+        DatabaseSessionImpl session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.initializeDescriptors();
+        for (ClassDescriptor descriptor : project.getDescriptors().values()) {
+            assertTrue(descriptor.getJavaClass().getName(), descriptor.isFullyInitialized());
+        }
+        assertSame(session.getDescriptor(Animal.class), session.getDescriptor(Dog.class).getInheritancePolicy().getParentDescriptor());
+        assertEquals(Collections.singletonList(session.getDescriptor(Dog.class)), session.getDescriptor(Animal.class).getInheritancePolicy().getChildDescriptors());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.sessions;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+import org.eclipse.persistence.internal.sessions.factories.ProjectBinaryFormat;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class ProjectBinaryFormatTest {
+
+    static class Counted implements Serializable {
+        private static final long serialVersionUID = 1L;
+        transient int writes;
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            this.writes++;
+            out.defaultWriteObject();
+        }
+    }
+
+    static ClassDescriptor descriptor(String className, DatabaseTable table) {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClassName(className);
+        descriptor.addTable(table);
+        descriptor.addPrimaryKeyFieldName(table.getName() + ".ID");
+        descriptor.addDirectMapping("id", "ID");
+        return descriptor;
+    }
+
+    static Project project() {
+        Project project = new Project(new DatabaseLogin());
+        project.setName("binary");
+        DatabaseTable shared = new DatabaseTable("SHARED");
+        project.getOrderedDescriptors().add(descriptor("app.First", shared));
+        project.getOrderedDescriptors().add(descriptor("app.Second", new DatabaseTable("SECOND")));
+        project.getOrderedDescriptors().add(descriptor("app.Third", shared));
+        return project;
+    }
+
+    static byte[] write(Project project, Map<String, Long> checksums) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProjectBinaryFormat.write(project, checksums, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void readProjectKeepsSharedObjects() throws IOException {
+        byte[] bytes = write(project(), Collections.singletonMap("app.First", 42L));
+        ProjectBinaryFormat.Reader reader = ProjectBinaryFormat.read(new ByteArrayInputStream(bytes), getClass().getClassLoader());
+        assertEquals(Collections.singletonMap("app.First", 42L), reader.getChecksums());
+
+        Project project = reader.readProject();
+        assertEquals("binary", project.getName());
+        assertEquals(3, project.getOrderedDescriptors().size());
+        ClassDescriptor first = project.getOrderedDescriptors().get(0);
+        ClassDescriptor third = project.getOrderedDescriptors().get(2);
+        assertEquals("app.First", first.getJavaClassName());
+        assertEquals("app.Second", project.getOrderedDescriptors().get(1).getJavaClassName());
+        assertSame("the descriptors sharing a table must be read together", first.getTables().get(0), third.getTables().get(0));
+    }
+
+    @Test
+    public void descriptorSharingNothingIsWrittenOnce() throws IOException {
+        Project project = project();
+        Counted alone = new Counted();
+        Counted shared = new Counted();
+        project.getOrderedDescriptors().get(1).setProperty("counted", alone);
+        project.getOrderedDescriptors().get(0).setProperty("counted", shared);
+        project.getOrderedDescriptors().get(2).setProperty("counted", shared);
+        byte[] bytes = write(project, Collections.emptyMap());
+        assertEquals(1, alone.writes);
+        assertEquals("written alone, then with the descriptors sharing it", 2, shared.writes);
+
+        project = ProjectBinaryFormat.read(new ByteArrayInputStream(bytes), getClass().getClassLoader()).readProject();
+        assertEquals("SECOND", project.getOrderedDescriptors().get(1).getTables().get(0).getName());
+        assertNotNull(project.getOrderedDescriptors().get(1).getProperty("counted"));
+        assertSame(project.getOrderedDescriptors().get(0).getProperty("counted"), project.getOrderedDescriptors().get(2).getProperty("counted"));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void otherVersionIsRejected() throws IOException {
+        byte[] bytes = write(project(), Collections.emptyMap());
+        bytes[7] = ProjectBinaryFormat.VERSION + 1;
+        ProjectBinaryFormat.read(new ByteArrayInputStream(bytes), null);
+    }
+}
@@ -54,4 +54,18 @@
      * If updateable the object will be re-indexed on each update/refresh.
      */
     boolean updateable() default true;
+
+    /**
+     * Specify if the index is unique.
+     * A non unique index is not used for singleResult queries, but allows in-memory queries
+     * (such as resultList queries using the cache usage query hint) to only conform the objects
+     * with the queried values, instead of every object in the cache.
+     */
+    boolean unique() default true;
+
+    /**
+     * Specify if the index is sorted.
+     * A sorted index is not unique, and also allows in-memory queries on a range of values of its column.
+     */
+    boolean sorted() default false;
 }
@@ -96,6 +96,7 @@
 import org.eclipse.persistence.sessions.factories.SessionManager;
 import org.eclipse.persistence.sessions.remote.RemoteSession;
 import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.tools.profiler.PerformanceMetricsMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceProfiler;
 import org.eclipse.persistence.tools.profiler.QueryMonitor;
@@ -295,6 +296,23 @@ public class PersistenceUnitProperties {
      */
     public static final String JPQL_VALIDATION = "eclipselink.jpql.validation";
 
+    /**
+     * The "<code>eclipselink.criteria.query-cache-size</code>" property configures the maximum number
+     * of prepared criteria queries cached by the persistence unit.
+     * Criteria queries of the same shape share the cached query and its SQL, instead of being prepared by each
+     * <code>createQuery</code> call. The literals compared to attributes in the where clause are not part of the shape,
+     * they are bound as parameters of the cached query.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - disable the criteria query cache
+     * <li>the maximum number of cached queries, such as "<code>200</code>"
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setCriteriaQueryCacheMaxSize(int)
+     */
+    public static final String CRITERIA_QUERY_CACHE_SIZE = "eclipselink.criteria.query-cache-size";
+
     /**
      * The "<code>wait</code>" property.<br>
      * This can be append to any connection pool property,
@@ -1251,6 +1269,61 @@ public class PersistenceUnitProperties {
      */
     public static final String CACHE_SHARED_ = "eclipselink.cache.shared.";
 
+    /**
+     * Property prefix "<code>eclipselink.cache.preload.</code>" indicates whether all of the
+     * objects of an entity type are read into the shared cache when the persistence unit is deployed.
+     * This is intended for reference data, to avoid the cache being cold after a restart.
+     * The entities are read in the background once the DDL is generated, so the deployment is not delayed.
+     * <p>
+     * Property names formed out of these prefixes by appending either entity
+     * name, or class name (indicating that the property values applies only to
+     * a particular entity) or {@link #DEFAULT} suffix (indicating that the property
+     * value applies to all entities).
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT)
+     * <li>"<code>true</code>"
+     * </ul>
+     *
+     * @see #CACHE_WARM_UP_THREADS
+     * @see org.eclipse.persistence.descriptors.CachePolicy#setShouldPreload(boolean)
+     */
+    public static final String CACHE_PRELOAD_ = "eclipselink.cache.preload.";
+
+    /**
+     * The "<code>eclipselink.cache.warm-up.threads</code>" property configures the number of
+     * threads used to preload the shared cache. The objects of each preloaded entity with a single
+     * numeric id are read in this many partitions of the id range.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - the number of available processors
+     * <li>the number of threads
+     * </ul>
+     *
+     * @see #CACHE_PRELOAD_
+     * @see org.eclipse.persistence.sessions.Project#setCacheWarmUpThreads(int)
+     */
+    public static final String CACHE_WARM_UP_THREADS = "eclipselink.cache.warm-up.threads";
+
+    /**
+     * The "<code>eclipselink.cache.snapshot-file</code>" property configures the file the shared
+     * cache is written to when the persistence unit is undeployed, and reloaded from when it is deployed.
+     * <p>
+     * Only the entities using version optimistic locking are stored in the snapshot.
+     * On deployment the versions are validated against the database in the background, once the DDL is generated,
+     * and only the entities whose version is unchanged are reloaded into the shared cache.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>the path of the snapshot file, by default no snapshot is used
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setCacheSnapshotFileName(String)
+     */
+    public static final String CACHE_SNAPSHOT_FILE = "eclipselink.cache.snapshot-file";
+
     /**
      * The "<code>jakarta.persistence.sharedCache.mode</code>" property determines whether
      * second-level caching is in effect for the persistence unit. This property overrides the value
@@ -1462,6 +1535,28 @@ public class PersistenceUnitProperties {
      */
     public static final String QUERY_CACHE = "eclipselink.cache.query-results";
 
+    /**
+     * The "<code>eclipselink.cache.query-results.max-memory</code>" property
+     * configures the approximate maximum memory in bytes used by the results
+     * of all query results caches of the persistence unit.
+     * <p>
+     * When exceeded, the least recently used results of all queries are evicted.
+     * Only the cached result containers are counted, the result objects
+     * themselves are held by the object cache.
+     * This only applies to the queries using the concurrent query results cache,
+     * the {@link QueryHints#QUERY_RESULTS_CACHE_TYPE_CONCURRENT "CONCURRENT"} value of the
+     * {@link QueryHints#QUERY_RESULTS_CACHE_TYPE "eclipselink.query-results-cache.type"} query hint.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - no memory limit, results are only bounded by each query's maximum results
+     * <li>the maximum memory in bytes
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setQueryResultsCacheMaximumMemory(long)
+     */
+    public static final String QUERY_CACHE_MAX_MEMORY = "eclipselink.cache.query-results.max-memory";
+
     /**
      * The "<code>eclipselink.cache.database-event-listener</code>" property allows integration
      * with a database event notification service.
@@ -2454,6 +2549,151 @@ public class PersistenceUnitProperties {
      */
     public static final String BATCH_WRITING_SIZE = "eclipselink.jdbc.batch-writing.size";
 
+    /**
+     * The "<code>eclipselink.batch.auto-threshold</code>" property configures the number of
+     * lazy relationships of the objects read by a query that are loaded individually, before the
+     * relationships of the remaining objects are batch fetched using IN batch fetching.
+     * This avoids the N+1 select pattern for relationships that are not configured to be batch fetched.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - disable automatic batch fetching
+     * <li>the number of relationships loaded individually, such as "<code>3</code>"
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setAutoBatchFetchThreshold(int)
+     */
+    public static final String BATCH_FETCH_AUTO_THRESHOLD = "eclipselink.batch.auto-threshold";
+
+    /**
+     * The "<code>eclipselink.fetch-group.auto-warm-up</code>" property configures the number of
+     * executions of a named query observed before the query is given a fetch group of the attributes
+     * the application uses from its results. This avoids selecting the unused columns of wide tables.
+     * Entities must be woven for fetch groups.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - disable automatic fetch groups
+     * <li>the number of executions observed, such as "<code>20</code>"
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setAutoFetchGroupWarmUp(int)
+     */
+    public static final String FETCH_GROUP_AUTO_WARM_UP = "eclipselink.fetch-group.auto-warm-up";
+
+    /**
+     * The "<code>eclipselink.descriptor.initialization-threads</code>" property configures the number of
+     * threads initializing the descriptors of the persistence unit on deployment.
+     * The descriptors of independent entities are initialized in parallel, an entity is initialized after
+     * its inheritance parent, embeddables and relationship targets.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>1</code>" (DEFAULT) - initialize the descriptors sequentially
+     * <li>the number of threads, such as "<code>4</code>"
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setDescriptorInitializationThreads(int)
+     */
+    public static final String DESCRIPTOR_INITIALIZATION_THREADS = "eclipselink.descriptor.initialization-threads";
+
+    /**
+     * The "<code>eclipselink.accessor.method-handles</code>" property configures if the attributes and
+     * default constructors of the classes that are not weaved are accessed through method handles
+     * built on deployment instead of reflection.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - use reflection
+     * <li>"<code>true</code>" - use method handles
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setUsesMethodHandleAccessors(boolean)
+     */
+    public static final String METHOD_HANDLE_ACCESSORS = "eclipselink.accessor.method-handles";
+
+    /**
+     * The "<code>eclipselink.descriptor.lazy-initialization</code>" property configures if the descriptors
+     * are initialized on their first use rather than on deployment, to reduce the deployment time
+     * of persistence units with many entities.
+     * The entities used by named queries and the entities listed by the
+     * "<code>eclipselink.descriptor.eager-initialization</code>" property are initialized on deployment,
+     * with the entities they depend on. Generating the DDL or accessing the metamodel initializes all the entities.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - initialize all the descriptors on deployment
+     * <li>"<code>true</code>" - initialize the descriptors on their first use
+     * </ul>
+     *
+     * @see #DESCRIPTOR_EAGER_INITIALIZATION
+     * @see org.eclipse.persistence.sessions.Project#setUsesLazyDescriptorInitialization(boolean)
+     */
+    public static final String DESCRIPTOR_LAZY_INITIALIZATION = "eclipselink.descriptor.lazy-initialization";
+
+    /**
+     * The "<code>eclipselink.descriptor.eager-initialization</code>" property configures the entities
+     * initialized on deployment when the "<code>eclipselink.descriptor.lazy-initialization</code>" property is true.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>a comma separated list of entity class names or entity names, such as "<code>Employee, Address</code>"
+     * </ul>
+     *
+     * @see #DESCRIPTOR_LAZY_INITIALIZATION
+     * @see org.eclipse.persistence.sessions.Project#setEagerDescriptorNames(java.util.Collection)
+     */
+    public static final String DESCRIPTOR_EAGER_INITIALIZATION = "eclipselink.descriptor.eager-initialization";
+
+    /**
+     * The "<code>eclipselink.query.precompilation-threads</code>" property configures the number of
+     * threads preparing the named queries in the background after deployment.
+     * The queries are prepared and their SQL generated as on their first execution, so that the first
+     * requests after deployment do not wait for the preparation of the queries they execute.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - prepare the named queries on their first execution
+     * <li>the number of threads, such as "<code>2</code>"
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setNamedQueryPrecompilationThreads(int)
+     */
+    public static final String NAMED_QUERY_PRECOMPILATION_THREADS = "eclipselink.query.precompilation-threads";
+
+    /**
+     * The "<code>eclipselink.metadata.scan-threads</code>" property configures the number of
+     * threads scanning the archives of the persistence unit and reading the annotations of their classes
+     * on predeploy. The metadata is then processed as usual.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>1</code>" (DEFAULT) - scan the archives and read the classes sequentially
+     * <li>the number of threads, such as "<code>4</code>"
+     * </ul>
+     */
+    public static final String METADATA_SCAN_THREADS = "eclipselink.metadata.scan-threads";
+
+    /**
+     * The "<code>eclipselink.metadata.index</code>" property configures if the metadata index
+     * written into an archive at build time is used on predeploy. The classes of an archive with an index
+     * are read from the index instead of being scanned and parsed. The index is validated from the
+     * entry metadata of the archive, the names, sizes and CRCs of the central directory of a jar, or the names,
+     * sizes and modification times of the files of a directory, so the class entries are still listed
+     * but the classes are not read. An index that does not match the class entries, as a class was changed,
+     * added or removed since the index was written, is not used and the archive is scanned, as is an archive
+     * that is not a local directory or jar.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>true</code>" (DEFAULT) - use the index of the archives that have one
+     * <li>"<code>false</code>" - ignore the indexes, scan the archives
+     * </ul>
+     *
+     * @see org.eclipse.persistence.tools.metadata.jpa.StaticMetadataIndex
+     */
+    public static final String METADATA_INDEX = "eclipselink.metadata.index";
+
     /**
      * The "<code>jakarta.persistence.bean.manager</code>" property is used to set
      * CDI BeanManager when available
@@ -2551,6 +2791,7 @@ public class PersistenceUnitProperties {
      * <b>Allowed Values:</b>
      * <ul>
      * <li>"<code>java-serialization</code>" - use {@code org.eclipse.persistence.jpa.metadata.FileBasedProjectCache}
+     * <li>"<code>binary</code>" - use {@code org.eclipse.persistence.jpa.metadata.BinaryProjectCache}
      * <li>the fully qualified name for a class that implements {@code org.eclipse.persistence.jpa.metadata.ProjectCache} interface
      * </ul>
      *
@@ -2570,6 +2811,18 @@ public class PersistenceUnitProperties {
      */
     public static final String PROJECT_CACHE_FILE = "eclipselink.project-cache.java-serialization.file-location";
 
+    /**
+     * The property "<code>eclipselink.project-cache.binary.file-location</code>" specifies the name
+     * of the file to read/write the project representing the application's metadata in a binary format.
+     * The project is not read if a persistence class has changed since it was written.
+     *
+     * <p>This property should be used in conjunction with
+     * "<code>eclipselink.project-cache</code>" set to "<code>binary</code>".</p>
+     *
+     * @see #PROJECT_CACHE
+     */
+    public static final String PROJECT_CACHE_BINARY_FILE = "eclipselink.project-cache.binary.file-location";
+
     /**
      * The "<code>eclipselink.temporal.mutable</code>" property configures the
      * default for detecting changes to temporal field (Date, Calendar). Default
@@ -3064,9 +3317,12 @@ public class PersistenceUnitProperties {
      * <ul>
      * <li>"<code>NoProfiler</code>" (DEFAULT)
      * <li>"<code>PerformanceMonitor</code>" - use {@link PerformanceMonitor}
+     * <li>"<code>PerformanceMetricsMonitor</code>" - use {@link PerformanceMetricsMonitor}
      * <li>"<code>PerformanceProfiler</code>" - use {@link PerformanceProfiler}
      * <li>"<code>QueryMonitor</code>" - use {@link QueryMonitor}
      * <li>"<code>DMSProfiler</code>" - use {@code org.eclipse.persistence.tools.profiler.oracle.DMSPerformanceProfiler}
+     * <li>"<code>JFRProfiler</code>" - use {@code org.eclipse.persistence.tools.profiler.jfr.JFRPerformanceProfiler},
+     * recording JDK Flight Recorder events
      * <li>the fully qualified name for a class that implements {@link SessionProfiler} interface
      * </ul>
      *
@@ -32,11 +32,16 @@ public class ProfilerType {
     public static final String PerformanceProfiler = "PerformanceProfiler";
     public static final String QueryMonitor = "QueryMonitor";
     public static final String PerformanceMonitor = "PerformanceMonitor";
+    //A low overhead monitor recording latency percentiles
+    public static final String PerformanceMetricsMonitor = "PerformanceMetricsMonitor";
     public static final String DMSProfiler = "DMSProfiler";
+    //Records JDK Flight Recorder events, requires a JDK supporting the jdk.jfr API
+    public static final String JFRProfiler = "JFRProfiler";
     public static final String NoProfiler = "NoProfiler";
 
     public static final String DEFAULT = NoProfiler;
 
     public static final String DMSProfilerClassName = "org.eclipse.persistence.tools.profiler.oracle.DMSPerformanceProfiler";
+    public static final String JFRProfilerClassName = "org.eclipse.persistence.tools.profiler.jfr.JFRPerformanceProfiler";
 }
 
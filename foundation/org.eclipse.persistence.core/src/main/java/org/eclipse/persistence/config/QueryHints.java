@@ -164,16 +164,37 @@ public class QueryHints {
      */
     public static final String QUERY_RESULTS_CACHE_INVALIDATE = "eclipselink.query-results-cache.invalidate-on-change";
 
+    /**
+     * "eclipselink.query-results-cache.invalidate-by-primary-key"
+     * <p>Configures if a change should only invalidate the query cache results it can affect,
+     * based on the primary keys of the cached results and the query's selection criteria,
+     * instead of all of the query's results.
+     *
+     * Valid values are "true" and "false", false is the default.
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setInvalidateByPrimaryKey(boolean)
+     */
+    public static final String QUERY_RESULTS_CACHE_INVALIDATE_BY_PRIMARY_KEY = "eclipselink.query-results-cache.invalidate-by-primary-key";
+
     /**
      * "eclipselink.query-results-cache.type"
      * <p>Configures the cache type of the query's results cache.
      * By default the a fixed sized LRU cache is used (CACHE).
-     * Valid values are defined in the CacheType enum (as Strings).
+     * Valid values are defined in the CacheType enum (as Strings),
+     * or {@link #QUERY_RESULTS_CACHE_TYPE_CONCURRENT "CONCURRENT"} for a fixed sized cache that does not lock on lookup and tracks its memory.
      * @see org.eclipse.persistence.annotations.CacheType
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#useConcurrentCache()
      * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setCacheType(java.lang.Class)
      */
     public static final String QUERY_RESULTS_CACHE_TYPE = "eclipselink.query-results-cache.type";
 
+    /**
+     * "CONCURRENT"
+     * <p>The {@link #QUERY_RESULTS_CACHE_TYPE} value of a fixed sized cache that does not lock on lookup,
+     * evicts the least recently used results and tracks its memory.
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#useConcurrentCache()
+     */
+    public static final String QUERY_RESULTS_CACHE_TYPE_CONCURRENT = "CONCURRENT";
+
     /**
      * "eclipselink.query-results-cache.expiry-time-of-day"
      * <p>Configures the time of day expiry time of the query's results cache.
@@ -317,6 +338,33 @@ public class QueryHints {
      */
     public static final String BATCH_SIZE = "eclipselink.batch.size";
 
+    /**
+     * "eclipselink.batch.adaptive"
+     * <p>Configures batch fetching to use IN batches sized for each batch from the observed
+     * fan-out and row width of the batched relationship, and the database's bind parameter limit.
+     * This fetches the source ids in as few queries as possible, while bounding the rows fetched by each query.
+     * Valid values are "true" and "false", the default is "false".
+     * @see #BATCH
+     * @see #BATCH_SIZE
+     * @see org.eclipse.persistence.queries.BatchFetchPolicy#isAdaptive()
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setBatchFetchAdaptive(boolean)
+     */
+    public static final String BATCH_ADAPTIVE = "eclipselink.batch.adaptive";
+
+    /**
+     * "eclipselink.batch.prefetch"
+     * <p>Configures the batch fetched relationships to be loaded in the background as soon as the
+     * query's objects are built, so their loading overlaps with the application processing the objects,
+     * instead of being loaded serially on the first access of each relationship.
+     * The batch queries are executed on the server platform's thread pool, see "eclipselink.cache.coordination.thread.pool.size".
+     * Only the relationships of objects read in the shared cache of a server session are prefetched.
+     * Valid values are "true" and "false", the default is "false".
+     * @see #BATCH
+     * @see org.eclipse.persistence.queries.BatchFetchPolicy#isPrefetch()
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setBatchFetchPrefetch(boolean)
+     */
+    public static final String BATCH_PREFETCH = "eclipselink.batch.prefetch";
+
     /**
      * "eclipselink.join-fetch"
      * <p>Configures the query to optimize the retrieval of the related objects,
@@ -419,6 +467,17 @@ public class QueryHints {
      */
     public static final String JDBC_FIRST_RESULT = "eclipselink.jdbc.first-result";
 
+    /**
+     * "eclipselink.keyset"
+     * <p>Configures the query to read the page after the given ordering values using keyset pagination,
+     * instead of skipping the rows of the previous pages as with setFirstResult().
+     * The values are the ordering values of the last object of the previous page,
+     * a not null value is required for each order by item of the query, and the ordering must be unique.
+     * Valid values are a List or an array of the values, or null to read the first page.
+     * @see org.eclipse.persistence.queries.ReadAllQuery#setKeysetValues(java.util.List)
+     */
+    public static final String KEYSET = "eclipselink.keyset";
+
     /**
      * "eclipselink.result-collection-type"
      * <p>Configures the collection class implementation for the queries result.
@@ -588,6 +647,18 @@ public class QueryHints {
      */
     public static final String CURSOR_SIZE = "eclipselink.cursor.size-sql";
 
+    /**
+     * "eclipselink.cursor.release"
+     * <p>Configures the stream returned by getResultStream() to release each object from the persistence context
+     * once the next object is read, so a large result can be streamed in constant memory.
+     * The objects released are detached, their changes are not committed.
+     * Valid values are:  HintValues.FALSE, HintValues.TRUE,
+     * "" could be used instead of default value HintValues.FALSE
+     * @see jakarta.persistence.TypedQuery#getResultStream()
+     * @see org.eclipse.persistence.queries.Cursor#stream(boolean)
+     */
+    public static final String CURSOR_RELEASE = "eclipselink.cursor.release";
+
     /**
      * "eclipselink.cursor.scrollable"
      * <p>Configures the query to return a ScrollableCursor.
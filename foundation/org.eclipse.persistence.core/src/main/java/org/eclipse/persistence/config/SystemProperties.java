@@ -61,6 +61,15 @@ public class SystemProperties {
      */
     public static final String RECORD_STACK_ON_LOCK = "eclipselink.cache.record-stack-on-lock";
 
+    /**
+     * This property can be set to record the cache lock waits longer than the given number of milliseconds.
+     * The most recent waits, with the waiting and owning threads, the class and primary key of the locked object,
+     * and the waits totaled by class are available through the RuntimeServices MBean.
+     *
+     * This can also be set in code statically through LockContentionMonitor.enable(long), or through RuntimeServices.setLockContentionThreshold(long)
+     */
+    public static final String LOCK_CONTENTION_THRESHOLD = "eclipselink.cache.lock-contention-threshold";
+
     /**
      * This property can be set to disable processing of X-Many relationship
      * attributes for Query By Example objects. In previous versions of
@@ -24,12 +24,19 @@
 /**
  * <p><b>Purpose</b>:
  * Define a secondary index on the cache.
+ * <p>
+ * A unique index (the default) allows a query for a single object to obtain a cache hit on the indexed fields.
+ * A non unique index allows queries that are executed in-memory, such as cache only and conforming queries,
+ * to only conform the objects with the queried values instead of every object in the cache.
+ * A sorted non unique index also allows in-memory queries on a range of values of its field.
  *
  * @see CachePolicy
  */
 public class CacheIndex implements Cloneable, Serializable {
     protected boolean isUpdateable = true;
     protected boolean isInsertable = true;
+    protected boolean isUnique = true;
+    protected boolean isSorted = false;
 
     protected List<DatabaseField> fields;
     /** Allows the cache size to be set. */
@@ -95,6 +102,49 @@ public void setIsInsertable(boolean isInsertable) {
         this.isInsertable = isInsertable;
     }
 
+    /**
+     * PUBLIC:
+     * Return if the index is unique.
+     */
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the index is unique, default is true.
+     * A unique index is used to obtain a cache hit for a query on the index fields for a single object.
+     * A non unique index indexes every object in the cache with the index values,
+     * and is used for in-memory queries that compare all of the index fields for equality.
+     * Non unique indexes are not held by the index cache type, they are maintained from
+     * the first in-memory query that uses them.
+     */
+    public void setIsUnique(boolean isUnique) {
+        this.isUnique = isUnique;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if the index is sorted.
+     */
+    public boolean isSorted() {
+        return isSorted;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the index is sorted, default is false.
+     * A sorted index is a non unique index that also allows in-memory queries
+     * that compare its field to a range of values (&lt;, &lt;=, &gt;, &gt;= or between).
+     * Ranges are only supported on a single field index, whose values must be comparable.
+     */
+    public void setIsSorted(boolean isSorted) {
+        this.isSorted = isSorted;
+        if (isSorted) {
+            this.isUnique = false;
+        }
+    }
+
     /**
      * ADVANCED:
      * Return the type of the cache used for the index.
@@ -118,6 +118,9 @@ public class CachePolicy implements Cloneable, Serializable {
      */
     protected boolean prefetchCacheKeys;
 
+    /** Set to true to read all of the objects into the shared cache when the session is logged in. */
+    protected boolean shouldPreload;
+
     protected Map<List<DatabaseField>, CacheIndex> cacheIndexes;
 
     /** Allows configuration of database change event notification. */
@@ -976,6 +979,10 @@ public CacheKey checkCacheByIndex(Expression expression, AbstractRecord translat
             return null;
         }
         for (CacheIndex index : this.cacheIndexes.values()) {
+            // Non unique indexes are only used for in-memory queries.
+            if (!index.isUnique()) {
+                continue;
+            }
             List<DatabaseField> fields = index.getFields();
             int size = fields.size();
             Object[] values = new Object[size];
@@ -1004,6 +1011,9 @@ public boolean isIndexableExpression(Expression expression, ClassDescriptor desc
             return false;
         }
         for (CacheIndex index : this.cacheIndexes.values()) {
+            if (!index.isUnique()) {
+                continue;
+            }
             List<DatabaseField> searchFields = index.getFields();
             int size = searchFields.size();
             Set<DatabaseField> foundFields = new HashSet(size);
@@ -1077,4 +1087,28 @@ public void setPrefetchCacheKeys(boolean prefetchCacheKeys) {
     public boolean shouldPrefetchCacheKeys() {
         return this.prefetchCacheKeys ;
     }
+
+    /**
+     * PUBLIC:
+     * Return if all of the objects of the class are read into the shared cache after the session logs in.
+     * @see org.eclipse.persistence.sessions.Project#setCacheWarmUpThreads(int)
+     */
+    public boolean shouldPreload() {
+        return shouldPreload;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if all of the objects of the class should be read into the shared cache after the session logs in.
+     * This is intended for reference data that is read frequently, to avoid the cache being cold after a restart.
+     * The objects are read in the background on the threads of the server platform, so the login is not delayed,
+     * in partitions, in parallel on a server session.
+     * The cache should be large enough to hold all of the objects, such as a full identity map.
+     * This has no effect on isolated or protected caches.
+     * By default this is false.
+     * @see org.eclipse.persistence.sessions.Project#setCacheWarmUpThreads(int)
+     */
+    public void setShouldPreload(boolean shouldPreload) {
+        this.shouldPreload = shouldPreload;
+    }
 }
@@ -83,7 +83,9 @@
 import org.eclipse.persistence.internal.databaseaccess.DatasourceCall;
 import org.eclipse.persistence.internal.databaseaccess.Platform;
 import org.eclipse.persistence.internal.descriptors.CascadeLockingPolicy;
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
 import org.eclipse.persistence.internal.descriptors.InstantiationPolicy;
+import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.PersistenceObject;
@@ -108,6 +110,7 @@
 import org.eclipse.persistence.internal.security.PrivilegedNewInstanceFromClass;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.LazyDescriptorInitializer;
 import org.eclipse.persistence.internal.weaving.PersistenceWeavedChangeTracking;
 import org.eclipse.persistence.mappings.AggregateCollectionMapping;
 import org.eclipse.persistence.mappings.AggregateMapping;
@@ -236,6 +239,12 @@ public class ClassDescriptor extends CoreDescriptor<AttributeGroup, DescriptorEv
     protected static final int POST_INITIALIZED = 3; // however this value is used by the public function isFullyInitialized()
     protected static final int ERROR = -1;
 
+    /** Guards the changes descriptors make to the descriptors they reference, when initialized on several threads. */
+    protected static final Object REFERENCE_LOCK = new Object();
+
+    /** Completes the initialization of the descriptor deferred to its first use, null once the descriptor is initialized. */
+    protected transient volatile LazyDescriptorInitializer lazyInitializer;
+
     protected int descriptorType;
     /** Define valid descriptor types. */
     protected static final int NORMAL = 0;
@@ -414,30 +423,42 @@ public void addAbstractQueryKey(String queryKeyName) {
      * @param policy - the CascadeLockingPolicy
      */
     public void addCascadeLockingPolicy(CascadeLockingPolicy policy) {
-        getCascadeLockingPolicies().add(policy);
-        // 232608: propagate later version changes up to the locking policy on a parent branch by setting the policy on all children here
-        if (hasInheritance()) {
-            // InOrder traverse the entire [deep] tree, not just the next level
-            for (ClassDescriptor parent : getInheritancePolicy().getAllChildDescriptors()) {
-                // Set the same cascade locking policy on all descriptors that inherit from this descriptor.
-                parent.addCascadeLockingPolicy(policy);
+        synchronized (REFERENCE_LOCK) {
+            getCascadeLockingPolicies().add(policy);
+            // 232608: propagate later version changes up to the locking policy on a parent branch by setting the policy on all children here
+            if (hasInheritance()) {
+                // InOrder traverse the entire [deep] tree, not just the next level
+                for (ClassDescriptor parent : getInheritancePolicy().getAllChildDescriptors()) {
+                    // Set the same cascade locking policy on all descriptors that inherit from this descriptor.
+                    parent.addCascadeLockingPolicy(policy);
+                }
             }
-        }
 
-        // do not propagate an extra locking policy to other mappings, if this descriptor already
-        // has a cascaded optimistic locking policy that will be cascaded
-        if (!this.cascadedLockingInitialized) {
-            // never cascade locking until descriptor is initialized
-            if (isInitialized(INITIALIZED)) {
-                // Set cascade locking policies on privately owned children mappings.
-                for (DatabaseMapping mapping : getMappings()) {
-                    prepareCascadeLockingPolicy(mapping);
+            // do not propagate an extra locking policy to other mappings, if this descriptor already
+            // has a cascaded optimistic locking policy that will be cascaded
+            if (!this.cascadedLockingInitialized) {
+                // never cascade locking until descriptor is initialized
+                if (isInitialized(INITIALIZED)) {
+                    // Set cascade locking policies on privately owned children mappings.
+                    for (DatabaseMapping mapping : getMappings()) {
+                        prepareCascadeLockingPolicy(mapping);
+                    }
+                    this.cascadedLockingInitialized = true;
                 }
-                this.cascadedLockingInitialized = true;
             }
         }
     }
 
+    /**
+     * INTERNAL:
+     * Add the descriptor referencing this descriptor, to be notified if this descriptor is isolated.
+     */
+    public void addReferencingClass(ClassDescriptor descriptor) {
+        synchronized (REFERENCE_LOCK) {
+            this.referencingClasses.add(descriptor);
+        }
+    }
+
     /**
      * ADVANCED:
      * EclipseLink automatically orders database access through the foreign key information provided in 1:1 and 1:m mappings.
@@ -3265,14 +3286,14 @@ public void initialize(AbstractSession session) throws DescriptorException {
                 }
                 ClassDescriptor referencedDescriptor = mapping.getReferenceDescriptor();
                 if (referencedDescriptor!= null){
-                    referencedDescriptor.referencingClasses.add(this);
+                    referencedDescriptor.addReferencingClass(this);
                 }
             }
 
             if (mapping.isAggregateObjectMapping()) {
                 ClassDescriptor referencedDescriptor = mapping.getReferenceDescriptor();
                 if (referencedDescriptor!= null){
-                    referencedDescriptor.referencingClasses.add(this);
+                    referencedDescriptor.addReferencingClass(this);
                 }
             }
             // If this descriptor uses a cascaded version optimistic locking
@@ -3416,6 +3437,9 @@ public void initialize(AbstractSession session) throws DescriptorException {
         getQueryManager().initialize(session);
         getEventManager().initialize(session);
         getCopyPolicy().initialize(session);
+        if (session.getProject().usesMethodHandleAccessors()) {
+            initializeMethodHandles();
+        }
         getInstantiationPolicy().initialize(session);
         getCachePolicy().initialize(this, session);
 
@@ -3522,6 +3546,22 @@ public void initializeAggregateInheritancePolicy(AbstractSession session) {
         parentDescriptor.getInheritancePolicy().addChildDescriptor(this);
     }
 
+    /**
+     * INTERNAL:
+     * Build the method handles accessing the attributes of the mappings, used instead of reflection.
+     * The attributes of weaved classes are not accessed through reflection.
+     */
+    protected void initializeMethodHandles() {
+        for (DatabaseMapping mapping : getMappings()) {
+            AttributeAccessor accessor = mapping.getAttributeAccessor();
+            if (accessor instanceof InstanceVariableAttributeAccessor) {
+                ((InstanceVariableAttributeAccessor)accessor).initializeMethodHandles();
+            } else if (accessor instanceof MethodAttributeAccessor) {
+                ((MethodAttributeAccessor)accessor).initializeMethodHandles();
+            }
+        }
+    }
+
     /**
      * INTERNAL:
      * Rebuild the multiple table primary key map.
@@ -3774,6 +3814,37 @@ public boolean isFullyInitialized() {
         return this.initializationStage == POST_INITIALIZED;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the initialization of the descriptor was deferred on login to its first use.
+     * @see org.eclipse.persistence.sessions.Project#setUsesLazyDescriptorInitialization(boolean)
+     */
+    public boolean isInitializationDeferred() {
+        return this.lazyInitializer != null;
+    }
+
+    /**
+     * INTERNAL:
+     * Complete the initialization of the descriptor if it was deferred on login to its first use.
+     * This is called by the session when the descriptor is looked up, the descriptors it depends on
+     * are initialized with it, once, other threads waiting for the initialization to complete.
+     */
+    public void initializeIfDeferred() {
+        LazyDescriptorInitializer initializer = this.lazyInitializer;
+        if (initializer != null) {
+            initializer.initialize(this);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Set the initializer completing the initialization of the descriptor on its first use,
+     * null once the descriptor is initialized.
+     */
+    public void setLazyInitializer(LazyDescriptorInitializer lazyInitializer) {
+        this.lazyInitializer = lazyInitializer;
+    }
+
     /**
      * INTERNAL:
      * Check if descriptor is already initialized for the level of initialization.
@@ -31,6 +31,7 @@
 import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.queries.AttributeItem;
+import org.eclipse.persistence.internal.queries.AutoFetchGroupObserver;
 import org.eclipse.persistence.internal.queries.EntityFetchGroup;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
@@ -463,7 +464,7 @@ public void setDefaultFetchGroup(FetchGroup newDefaultFetchGroup) {
      */
     public boolean isPartialObject(Object domainObject) {
         if (domainObject != null) {
-            FetchGroup fetchGroupInCache = ((FetchGroupTracker)domainObject)._persistence_getFetchGroup();
+            FetchGroup fetchGroupInCache = getObjectFetchGroup(domainObject);
 
             //if the fetch group reference is not null, it means the object is partial.
             return (fetchGroupInCache != null);
@@ -476,7 +477,7 @@ public boolean isPartialObject(Object domainObject) {
      * Return if the cached object data is sufficiently valid against a fetch group
      */
     public boolean isObjectValidForFetchGroup(Object object, FetchGroup fetchGroup) {
-        FetchGroup groupInObject = ((FetchGroupTracker)object)._persistence_getFetchGroup();
+        FetchGroup groupInObject = getObjectFetchGroup(object);
         return (groupInObject == null) || groupInObject.isSupersetOf(fetchGroup);
     }
 
@@ -486,9 +487,9 @@ public boolean isObjectValidForFetchGroup(Object object, FetchGroup fetchGroup)
      * It is used in Fetch Group case when filling in the clone from the cached object.
      */
     public boolean shouldWriteInto(Object cachedObject, Object clone) {
-        FetchGroup fetchGroupInTarg = ((FetchGroupTracker)clone)._persistence_getFetchGroup();
+        FetchGroup fetchGroupInTarg = getObjectFetchGroup(clone);
         if (fetchGroupInTarg != null) {
-            FetchGroup fetchGroupInSrc = ((FetchGroupTracker)cachedObject)._persistence_getFetchGroup();
+            FetchGroup fetchGroupInSrc = getObjectFetchGroup(cachedObject);
 
             //should write if target's fetch group is not a superset of that of the source,
             //or if refresh is required, should always write (either refresh or revert) data from the cache to the clones.
@@ -502,8 +503,8 @@ public boolean shouldWriteInto(Object cachedObject, Object clone) {
      * Write data of the partially fetched object into the working and backup clones
      */
     public void writePartialIntoClones(Object partialObject, Object workingClone, Object backupClone, UnitOfWorkImpl uow) {
-        FetchGroup fetchGroupInClone = ((FetchGroupTracker)workingClone)._persistence_getFetchGroup();
-        FetchGroup fetchGroupInObject = ((FetchGroupTracker)partialObject)._persistence_getFetchGroup();
+        FetchGroup fetchGroupInClone = getObjectFetchGroup(workingClone);
+        FetchGroup fetchGroupInObject = getObjectFetchGroup(partialObject);
 
         // Update fetch group in clone as the union of two,
         // do this first to avoid fetching during method access.
@@ -605,7 +606,7 @@ private void revertDataIntoUnfetchedAttributesOfClones(Object cachedObject, Obje
      */
     public void copyAggregateFetchGroupInto(Object source, Object target, Object rootEntity, AbstractSession session) {
         if (isPartialObject(source)) {
-            FetchGroup newGroup = ((FetchGroupTracker)source)._persistence_getFetchGroup().clone(); // must clone because original is linked to orig root
+            FetchGroup newGroup = getObjectFetchGroup(source).clone(); // must clone because original is linked to orig root
             newGroup.setRootEntity((FetchGroupTracker) rootEntity);
             setObjectFetchGroup(target, newGroup, session);
         }
@@ -617,7 +618,7 @@ public void copyAggregateFetchGroupInto(Object source, Object target, Object roo
      */
     public void copyFetchGroupInto(Object source, Object target, AbstractSession session) {
         if (isPartialObject(source)) {
-            setObjectFetchGroup(target, ((FetchGroupTracker)source)._persistence_getFetchGroup(), session);
+            setObjectFetchGroup(target, getObjectFetchGroup(source), session);
         }
     }
 
@@ -627,7 +628,7 @@ public void copyFetchGroupInto(Object source, Object target, AbstractSession ses
      */
     public void unionEntityFetchGroupIntoObject(Object source, EntityFetchGroup newEntityFetchGroup, AbstractSession session, boolean shouldClone) {
         //this order is important as we need to be merging into the target fetchgroup
-        setObjectFetchGroup(source, flatUnionFetchGroups(newEntityFetchGroup, ((FetchGroupTracker)source)._persistence_getFetchGroup(), shouldClone), session);
+        setObjectFetchGroup(source, flatUnionFetchGroups(newEntityFetchGroup, getObjectFetchGroup(source), shouldClone), session);
     }
 
     /**
@@ -692,7 +693,12 @@ public void reset(Object source) {
      */
     public FetchGroup getObjectFetchGroup(Object domainObject) {
         if (domainObject != null) {
-            return ((FetchGroupTracker)domainObject)._persistence_getFetchGroup();
+            FetchGroup fetchGroup = ((FetchGroupTracker)domainObject)._persistence_getFetchGroup();
+            // The object is fully fetched, its fetch group only observes the attributes the application accesses.
+            if (fetchGroup instanceof AutoFetchGroupObserver.ObservingFetchGroup) {
+                return null;
+            }
+            return fetchGroup;
         }
         return null;
     }
@@ -703,7 +709,7 @@ public FetchGroup getObjectFetchGroup(Object domainObject) {
      */
     public EntityFetchGroup getObjectEntityFetchGroup(Object domainObject) {
         if (domainObject != null) {
-            FetchGroup fetchGroup = ((FetchGroupTracker)domainObject)._persistence_getFetchGroup();
+            FetchGroup fetchGroup = getObjectFetchGroup(domainObject);
             if(fetchGroup != null) {
                 if(fetchGroup.isEntityFetchGroup()) {
                     return (EntityFetchGroup)fetchGroup;
@@ -753,7 +759,7 @@ public void setRefreshOnFetchGroupToObject(Object source, boolean shouldRefreshO
      * Return true if the attribute of the object has already been fetched
      */
     public boolean isAttributeFetched(Object entity, String attributeName) {
-        FetchGroup fetchGroup = ((FetchGroupTracker) entity)._persistence_getFetchGroup();
+        FetchGroup fetchGroup = getObjectFetchGroup(entity);
         if (fetchGroup == null) {
             return true;
         }
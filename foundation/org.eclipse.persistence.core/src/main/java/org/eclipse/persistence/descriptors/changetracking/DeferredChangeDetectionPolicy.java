@@ -191,7 +191,12 @@ public ObjectChangeSet createObjectChangeSetThroughComparison(Object clone, Obje
             if(shouldGetFetchGroup && descriptor.hasFetchGroupManager()) {
                 fetchGroup = descriptor.getFetchGroupManager().getObjectFetchGroup(clone);
             }
+            // PERF: Skip the direct mappings found unchanged by the weaved comparison.
+            long unchangedMappings = isNew ? 0L : builder.getUnchangedDirectMappings(clone, backUp);
             for (int index = 0; index < mappingsSize; index++) {
+                if ((index < 64) && ((unchangedMappings & (1L << index)) != 0)) {
+                    continue;
+                }
                 DatabaseMapping mapping = (DatabaseMapping)mappings.get(index);
                 if ((fetchGroup == null) || fetchGroup.containsAttributeInternal(mapping.getAttributeName())) {
                     changes.addChange(mapping.compareForChange(clone, backUp, changes, session));
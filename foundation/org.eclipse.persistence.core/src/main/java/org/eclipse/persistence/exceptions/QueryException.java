@@ -209,6 +209,8 @@ public class QueryException extends ValidationException {
     public final static int SOP_OBJECT_WRONG_VERSION = 6181;
     public final static int SOP_OBJECT_WRONG_PK = 6182;
     public final static int UNSUPPORTED_MAPPING_FOR_QUERYBYEXAMPLE = 6183;
+    public final static int KEYSET_VALUES_DO_NOT_MATCH_ORDERING = 6184;
+    public final static int KEYSET_PAGINATION_DOES_NOT_SUPPORT_NULLS = 6185;
 
 
     /**
@@ -1680,5 +1682,20 @@ public static QueryException unsupportedMappingQueryByExample(String className,
         queryException.setErrorCode(UNSUPPORTED_MAPPING_FOR_QUERYBYEXAMPLE);
         return queryException;
     }
-}
 
+    public static QueryException keysetValuesDoNotMatchOrdering(DatabaseQuery query, List keysetValues, List orderByExpressions) {
+        Object[] args = {keysetValues, orderByExpressions};
+
+        QueryException queryException = new QueryException(ExceptionMessageGenerator.buildMessage(QueryException.class, KEYSET_VALUES_DO_NOT_MATCH_ORDERING, args), query);
+        queryException.setErrorCode(KEYSET_VALUES_DO_NOT_MATCH_ORDERING);
+        return queryException;
+    }
+
+    public static QueryException keysetPaginationDoesNotSupportNulls(DatabaseQuery query, List keysetValues, List orderByExpressions) {
+        Object[] args = {keysetValues, orderByExpressions};
+
+        QueryException queryException = new QueryException(ExceptionMessageGenerator.buildMessage(QueryException.class, KEYSET_PAGINATION_DOES_NOT_SUPPORT_NULLS, args), query);
+        queryException.setErrorCode(KEYSET_PAGINATION_DOES_NOT_SUPPORT_NULLS);
+        return queryException;
+    }
+}
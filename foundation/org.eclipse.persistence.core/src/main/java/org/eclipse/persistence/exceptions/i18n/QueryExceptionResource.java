@@ -205,7 +205,9 @@ public class QueryExceptionResource extends ListResourceBundle {
        { "6180", "serialized sopObject is not found in [{0}] in [{1}]"},
        { "6181", "sopObject has a wrong version [{0}] in [{1}] in [{2}]"},
        { "6182", "sopObject has a wrong primary key [{0}] in [{1}] in [{2}]"},
-       { "6183",  "The mapping type {1} for attribute {2} from {0} is not supported with Query By Example functionality.  If the attribute can safely be ignored then add it to the ignore list or set example validation to false in the policy."}
+       { "6183",  "The mapping type {1} for attribute {2} from {0} is not supported with Query By Example functionality.  If the attribute can safely be ignored then add it to the ignore list or set example validation to false in the policy."},
+       { "6184", "The keyset values [{0}] do not match the ordering [{1}] of the query. Keyset pagination requires a value for each order by expression."},
+       { "6185", "The keyset values [{0}] or the ordering [{1}] of the query contain nulls. Keyset pagination does not support null values, or NULLS FIRST and NULLS LAST orderings."}
 
     };
 
@@ -35,6 +35,8 @@
 import org.eclipse.persistence.internal.expressions.ArgumentListFunctionExpression;
 import org.eclipse.persistence.internal.expressions.BaseExpression;
 import org.eclipse.persistence.internal.expressions.CollectionExpression;
+import org.eclipse.persistence.internal.expressions.ConformPredicate;
+import org.eclipse.persistence.internal.expressions.ConformPredicateCompiler;
 import org.eclipse.persistence.internal.expressions.ConstantExpression;
 import org.eclipse.persistence.internal.expressions.ExpressionIterator;
 import org.eclipse.persistence.internal.expressions.ExpressionJavaPrinter;
@@ -88,6 +90,9 @@ public abstract class Expression implements Serializable, Cloneable {
     /** PERF: Cache the hashCode. */
     protected int hashCode = 0;
 
+    /** PERF: Cache the compiled form of the expression used to conform objects in-memory. */
+    protected transient ConformPredicate conformPredicate;
+
     /** Use the upper() function for case insensitive expression operations (default).
         Seting this flag to false will use the lower() function instead. */
     public static boolean shouldUseUpperCaseForIgnoreCase = true;
@@ -1420,6 +1425,28 @@ public boolean doesConform(Object object, AbstractSession session, AbstractRecor
         throw QueryException.cannotConformExpression();
     }
 
+    /**
+     * INTERNAL:
+     * Return the compiled form of the expression, used to conform many objects in-memory,
+     * such as when querying the cache or conforming in a unit of work.
+     * This avoids interpreting the expression tree for each object.
+     * The expression is compiled on first use, its builder should have a session.
+     * The predicate is only kept once the builder has a session and descriptor,
+     * as the mappings cannot be resolved before.
+     * @see ConformPredicateCompiler
+     */
+    public ConformPredicate getConformPredicate() {
+        ConformPredicate predicate = this.conformPredicate;
+        if (predicate == null) {
+            predicate = ConformPredicateCompiler.compile(this);
+            ExpressionBuilder builder = getBuilder();
+            if ((builder != null) && (builder.getSession() != null) && (builder.getDescriptor() != null)) {
+                this.conformPredicate = predicate;
+            }
+        }
+        return predicate;
+    }
+
     /**
      * INTERNAL:
      * Return if the expression is equal to the other.
@@ -4086,6 +4113,8 @@ public Expression shallowClone() {
         } catch (CloneNotSupportedException exception) {
             throw new InternalError(exception.toString());
         }
+        // The compiled form refers to the nodes of this expression, not the clone's.
+        result.conformPredicate = null;
         return result;
     }
 
@@ -2826,6 +2826,15 @@ public boolean supportsCountDistinctWithMultipleFields() {
         return false;
     }
 
+    /**
+     * INTERNAL:
+     * Indicates whether the platform supports ordering comparisons of row values, i.e. (A, B) &gt; (?, ?).
+     * This is used by keyset pagination to seek past the last row of the previous page.
+     */
+    public boolean supportsRowValueComparisons() {
+        return false;
+    }
+
     /**
      * INTERNAL:
      * Return if this database support index creation.
@@ -1076,4 +1076,13 @@ public Expression createExpressionFor(DatabaseField field, Expression builder) {
     public int getINClauseLimit() {
         return 0;
     }
+
+    /**
+     * INTERNAL:
+     * Some database platforms have a limit for the number of bind parameters in a statement.
+     * This is used to size adaptive IN batch fetches, 0 means no limit.
+     */
+    public int getBindParameterLimit() {
+        return 0;
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.descriptors;
+
+/**
+ * Define the methods weaved into the persistence classes copying and comparing the fields
+ * of the direct attributes, so that cloning and change detection do not go through the mappings.
+ * The attributes are identified by a bit at their index, only the first 64 indexes being weaved.
+ *
+ * @see ObjectBuilder#populateAttributesForClone
+ * @see ObjectBuilder#getUnchangedDirectMappings(Object, Object)
+ */
+public interface DirectAttributesPersistenceObject extends IndexedPersistenceObject {
+    /**
+     * Return the bits of the direct attributes copied and compared by the weaved methods.
+     */
+    long _persistence_direct_attributes();
+
+    /**
+     * Copy the value of the direct attributes into the target, an instance of the same class.
+     */
+    void _persistence_copy_direct(Object target);
+
+    /**
+     * Return the bits of the direct attributes whose values are not equal in the backup,
+     * an instance of the same class. The bits of the other attributes are always set.
+     */
+    long _persistence_compare_direct(Object backup);
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.descriptors;
+
+/**
+ * Define the generic get and set methods by attribute index weaved into the persistence classes,
+ * avoiding the comparison of attribute names on every access.
+ * The index of an attribute is the same in the class and its subclasses.
+ *
+ * @see PersistenceObjectAttributeAccessor
+ */
+public interface IndexedPersistenceObject extends PersistenceObject {
+    /**
+     * Return the index of the attribute, or -1 if the attribute is not weaved.
+     */
+    int _persistence_index(String attribute);
+    Object _persistence_get(int index);
+    void _persistence_set(int index, Object value);
+}
@@ -14,6 +14,9 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.internal.descriptors;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
@@ -38,6 +41,13 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
     /** The attribute name of an object is converted to Field type to access it reflectively */
     protected transient Field attributeField;
 
+    /** The handles reading and writing the field, used instead of reflection once initialized. */
+    protected transient MethodHandle getHandle;
+    protected transient MethodHandle setHandle;
+
+    /** The type of the values set through the set handle, the wrapper class for a primitive field. */
+    protected transient Class setHandleType;
+
     /**
      * Returns the class type of the attribute.
      */
@@ -70,6 +80,14 @@ public Class getAttributeType() {
      */
     @Override
     public Object getAttributeValueFromObject(Object anObject) throws DescriptorException {
+        MethodHandle handle = this.getHandle;
+        if ((handle != null) && this.attributeField.getDeclaringClass().isInstance(anObject)) {
+            try {
+                return (Object)handle.invokeExact(anObject);
+            } catch (Throwable exception) {
+                // Use reflection to report the error.
+            }
+        }
         try {
             // PERF: Direct variable access.
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
@@ -113,6 +131,33 @@ public void initializeAttributes(Class theJavaClass) throws DescriptorException
         }
     }
 
+    /**
+     * INTERNAL:
+     * Build the method handles reading and writing the field, used instead of reflection.
+     * The handles are not used by subclasses, as they may override the access to the field,
+     * nor with a security manager. The field is still accessed through reflection
+     * if a handle cannot be built, or for the values the handle does not accept.
+     */
+    public void initializeMethodHandles() {
+        if ((getClass() != InstanceVariableAttributeAccessor.class) || (this.attributeField == null) || PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            return;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            this.getHandle = lookup.unreflectGetter(this.attributeField).asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException exception) {
+            this.getHandle = null;
+        }
+        try {
+            MethodHandle handle = lookup.unreflectSetter(this.attributeField).asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.setHandleType = Helper.getObjectClass(this.attributeField.getType());
+            this.setHandle = handle;
+        } catch (IllegalAccessException exception) {
+            // Final fields are set through reflection.
+            this.setHandle = null;
+        }
+    }
+
     /**
      * Returns true if this attribute accessor has been initialized and now stores a reference to the
      * class's attribute.  An attribute accessor can become uninitialized on serialization.
@@ -132,6 +177,8 @@ public boolean isInstanceVariableAttributeAccessor() {
      */
     protected void setAttributeField(Field field) {
         attributeField = field;
+        this.getHandle = null;
+        this.setHandle = null;
     }
 
     /**
@@ -139,6 +186,16 @@ protected void setAttributeField(Field field) {
      */
     @Override
     public void setAttributeValueInObject(Object anObject, Object value) throws DescriptorException {
+        MethodHandle handle = this.setHandle;
+        if ((handle != null) && this.attributeField.getDeclaringClass().isInstance(anObject)
+                && ((value == null) ? !this.attributeField.getType().isPrimitive() : this.setHandleType.isInstance(value))) {
+            try {
+                handle.invokeExact(anObject, value);
+                return;
+            } catch (Throwable exception) {
+                // Use reflection to report the error.
+            }
+        }
          try {
             // PERF: Direct variable access.
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
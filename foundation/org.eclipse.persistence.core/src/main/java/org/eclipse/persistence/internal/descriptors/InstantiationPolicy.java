@@ -21,6 +21,7 @@
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
+import java.util.function.Supplier;
 
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.exceptions.DescriptorException;
@@ -98,6 +99,9 @@ public class InstantiationPolicy extends CoreInstantiationPolicy implements Clon
     /** Must be transient because java.lang.Constructor is not serializable. */
     private transient Constructor defaultConstructor;
 
+    /** The function invoking the default constructor, used instead of reflection once initialized. */
+    protected transient Supplier<Object> defaultConstructorHandle;
+
     /**
      * Default constructor
      */
@@ -122,6 +126,14 @@ public Object buildNewInstance() throws DescriptorException {
      * Build and return a new instance, using the default (zero-argument) constructor.
      */
     protected Object buildNewInstanceUsingDefaultConstructor() throws DescriptorException {
+        Supplier<Object> handle = this.defaultConstructorHandle;
+        if (handle != null) {
+            try {
+                return handle.get();
+            } catch (Throwable exception) {
+                throw DescriptorException.targetInvocationWhileConstructorInstantiation(getDescriptor(), new InvocationTargetException(exception));
+            }
+        }
         try {
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
                 try {
@@ -277,6 +289,9 @@ public String getMethodName() {
     public void initialize(AbstractSession session) throws DescriptorException {
         if (this.isUsingDefaultConstructor()) {
             // May not have a constructor as may be abstract or interface so only lazy init.
+            if (session.getProject().usesMethodHandleAccessors()) {
+                initializeDefaultConstructorHandle();
+            }
             return;
         }
         try {
@@ -292,6 +307,26 @@ public void initialize(AbstractSession session) throws DescriptorException {
         }
     }
 
+    /**
+     * Build the function invoking the default constructor of the descriptor class, used instead of reflection.
+     * The function is not used by subclasses, nor with a security manager, nor if the class cannot be instantiated.
+     * @see MethodHandleAccessorFactory
+     */
+    protected void initializeDefaultConstructorHandle() {
+        ClassDescriptor descriptor = getDescriptor();
+        Class javaClass = (descriptor == null) ? null : descriptor.getJavaClass();
+        if ((getClass() != InstantiationPolicy.class) || (javaClass == null) || PrivilegedAccessHelper.shouldUsePrivilegedAccess()
+                || javaClass.isInterface() || Modifier.isAbstract(javaClass.getModifiers())) {
+            return;
+        }
+        try {
+            this.defaultConstructorHandle = MethodHandleAccessorFactory.buildConstructor(getDefaultConstructor());
+        } catch (DescriptorException exception) {
+            // The constructor is invoked through reflection, reporting any error on instantiation.
+            this.defaultConstructorHandle = null;
+        }
+    }
+
     protected Object buildFactory() throws DescriptorException {
         // If there is no factory class specified, there is no factory;
         // we will be using a static method defined by the descriptor class...
@@ -424,6 +459,7 @@ public boolean isUsingDefaultConstructor() {
 
     protected void setDefaultConstructor(Constructor defaultConstructor) {
         this.defaultConstructor = defaultConstructor;
+        this.defaultConstructorHandle = null;
     }
 
     public void setDescriptor(ClassDescriptor descriptor) {
@@ -24,6 +24,8 @@
 import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.eclipse.persistence.exceptions.DescriptorException;
 import org.eclipse.persistence.internal.helper.ConversionManager;
@@ -50,6 +52,14 @@ public class MethodAttributeAccessor extends AttributeAccessor {
     protected transient Method setMethod;
     protected transient Method getMethod;
 
+    /** The functions invoking the get and set methods, used instead of reflection once initialized. */
+    protected transient Function<Object, Object> getHandle;
+    protected transient BiConsumer<Object, Object> setHandle;
+
+    /** The type of the values set through the set function, the wrapper class for a primitive parameter. */
+    protected transient Class setHandleType;
+    protected transient boolean isSetHandlePrimitive;
+
     /**
      * Return the return type of the method accessor.
      */
@@ -67,6 +77,14 @@ public Class getAttributeClass() {
      */
     @Override
     public Object getAttributeValueFromObject(Object anObject) throws DescriptorException {
+        Function<Object, Object> handle = this.getHandle;
+        if ((handle != null) && this.getMethod.getDeclaringClass().isInstance(anObject)) {
+            try {
+                return handle.apply(anObject);
+            } catch (Throwable exception) {
+                throw DescriptorException.targetInvocationWhileGettingValueThruMethodAccessor(getGetMethodName(), anObject.getClass().getName(), new InvocationTargetException(exception));
+            }
+        }
         return getAttributeValueFromObject(anObject, null);
     }
 
@@ -217,6 +235,29 @@ protected void initializeAttributes(Class theJavaClass, Class[] getParameterType
         }
     }
 
+    /**
+     * INTERNAL:
+     * Build the functions invoking the get and set methods, used instead of reflection.
+     * The functions are not used by subclasses, as they may invoke the methods with other parameters,
+     * nor with a security manager. The methods are still invoked through reflection
+     * if a function cannot be built, or for the values the set function does not accept.
+     * @see MethodHandleAccessorFactory
+     */
+    public void initializeMethodHandles() {
+        if ((getClass() != MethodAttributeAccessor.class) || PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            return;
+        }
+        if (this.getMethod != null) {
+            this.getHandle = MethodHandleAccessorFactory.buildGetter(this.getMethod);
+        }
+        if (this.setMethod != null) {
+            Class parameterType = this.setMethod.getParameterTypes()[0];
+            this.setHandleType = Helper.getObjectClass(parameterType);
+            this.isSetHandlePrimitive = parameterType.isPrimitive();
+            this.setHandle = MethodHandleAccessorFactory.buildSetter(this.setMethod);
+        }
+    }
+
     /**
      * Returns true if this attribute accessor has been initialized and now stores a reference to the
      * class's attribute.  An attribute accessor can become uninitialized on serialization.
@@ -236,6 +277,16 @@ public boolean isMethodAttributeAccessor() {
      */
     @Override
     public void setAttributeValueInObject(Object domainObject, Object attributeValue) throws DescriptorException {
+        BiConsumer<Object, Object> handle = this.setHandle;
+        if ((handle != null) && this.setMethod.getDeclaringClass().isInstance(domainObject)
+                && ((attributeValue == null) ? !this.isSetHandlePrimitive : this.setHandleType.isInstance(attributeValue))) {
+            try {
+                handle.accept(domainObject, attributeValue);
+                return;
+            } catch (Throwable exception) {
+                throw DescriptorException.targetInvocationWhileSettingValueThruMethodAccessor(getSetMethodName(), attributeValue, new InvocationTargetException(exception));
+            }
+        }
         setAttributeValueInObject(domainObject, attributeValue, new Object[] {attributeValue});
     }
 
@@ -329,6 +380,7 @@ protected void setAttributeValueInObject(Object domainObject, Object attributeVa
      */
     protected void setGetMethod(Method getMethod) {
         this.getMethod = getMethod;
+        this.getHandle = null;
     }
 
     /**
@@ -343,6 +395,7 @@ public void setGetMethodName(String getMethodName) {
      */
     protected void setSetMethod(Method setMethod) {
         this.setMethod = setMethod;
+        this.setHandle = null;
     }
 
     /**
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.descriptors;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.persistence.internal.helper.Helper;
+
+/**
+ * INTERNAL:
+ * Build the functions invoking the get and set methods and the default constructors of the persistence classes
+ * that are not weaved, used instead of reflection.
+ * <p>
+ * The functions are generated by the {@link LambdaMetafactory} in the persistence class, so that the JIT
+ * can inline the invoked method, which requires <code>MethodHandles.privateLookupIn</code> (Java 9)
+ * and the persistence class to be opened to EclipseLink.
+ * Otherwise the functions invoke a method handle, which the JIT cannot inline but avoids the access checks
+ * and the argument arrays of reflection.
+ * The exceptions thrown by the invoked member are propagated unchanged.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setUsesMethodHandleAccessors(boolean)
+ */
+public final class MethodHandleAccessorFactory {
+
+    /** MethodHandles.privateLookupIn(Class, Lookup), null on Java 8. */
+    private static final Method PRIVATE_LOOKUP_IN = getPrivateLookupIn();
+
+    private MethodHandleAccessorFactory() {
+    }
+
+    private static Method getPrivateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException | SecurityException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Return a lookup with private access in the class, used to generate the functions, or null if not permitted.
+     */
+    private static MethodHandles.Lookup lookupIn(Class javaClass) {
+        if (PRIVATE_LOOKUP_IN == null) {
+            return null;
+        }
+        try {
+            return (MethodHandles.Lookup)PRIVATE_LOOKUP_IN.invoke(null, javaClass, MethodHandles.lookup());
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Return a function invoking the get method, or null if it cannot be built.
+     */
+    public static Function<Object, Object> buildGetter(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = lookupIn(method.getDeclaringClass());
+        if (lookup != null) {
+            try {
+                MethodType type = MethodType.methodType(Helper.getObjectClass(method.getReturnType()), method.getDeclaringClass());
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), lookup.unreflect(method), type);
+                return (Function<Object, Object>)site.getTarget().invokeExact();
+            } catch (Throwable exception) {
+                // Use the method handle.
+            }
+        }
+        MethodHandle getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return object -> {
+            try {
+                return (Object)getter.invokeExact(object);
+            } catch (Throwable exception) {
+                throw MethodHandleAccessorFactory.<RuntimeException>propagate(exception);
+            }
+        };
+    }
+
+    /**
+     * Return a function invoking the set method, or null if it cannot be built.
+     * The function does not accept null for a primitive parameter, nor values of other types.
+     */
+    public static BiConsumer<Object, Object> buildSetter(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = lookupIn(method.getDeclaringClass());
+        if (lookup != null) {
+            try {
+                MethodType type = MethodType.methodType(void.class, method.getDeclaringClass(), Helper.getObjectClass(method.getParameterTypes()[0]));
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class), lookup.unreflect(method), type);
+                return (BiConsumer<Object, Object>)site.getTarget().invokeExact();
+            } catch (Throwable exception) {
+                // Use the method handle.
+            }
+        }
+        MethodHandle setter = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (object, value) -> {
+            try {
+                setter.invokeExact(object, value);
+            } catch (Throwable exception) {
+                throw MethodHandleAccessorFactory.<RuntimeException>propagate(exception);
+            }
+        };
+    }
+
+    /**
+     * Return a function invoking the constructor, or null if it cannot be built.
+     */
+    public static Supplier<Object> buildConstructor(Constructor constructor) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = lookupIn(constructor.getDeclaringClass());
+        if (lookup != null) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), lookup.unreflectConstructor(constructor), MethodType.methodType(constructor.getDeclaringClass()));
+                return (Supplier<Object>)site.getTarget().invokeExact();
+            } catch (Throwable exception) {
+                // Use the method handle.
+            }
+        }
+        MethodHandle factory = handle.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (Object)factory.invokeExact();
+            } catch (Throwable exception) {
+                throw MethodHandleAccessorFactory.<RuntimeException>propagate(exception);
+            }
+        };
+    }
+
+    /**
+     * Throw the exception unchanged, checked exceptions included, as reflection would report it as the cause.
+     */
+    private static <T extends Throwable> T propagate(Throwable exception) throws T {
+        throw (T)exception;
+    }
+}
@@ -181,6 +181,12 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
     protected boolean shouldKeepRow = false;
     /** PERF: is there an cache index field that's would not be selected by SOP query. Ignored unless descriptor uses SOP and CachePolicy has cache indexes. */
     protected boolean hasCacheIndexesInSopObject = false;
+    /** PERF: The cloning mappings not copied by the weaved _persistence_copy_direct method, null if the method is not used. */
+    protected transient List<DatabaseMapping> cloningMappingsNotCopied;
+    /** PERF: The weaved attribute index of each descriptor mapping compared by _persistence_compare_direct, or -1. */
+    protected transient int[] comparedDirectIndexes;
+    /** PERF: Indicates the use of the weaved direct methods was resolved from the first instance. */
+    protected transient volatile boolean isDirectAttributesResolved;
 
     public ObjectBuilder(ClassDescriptor descriptor) {
         this.descriptor = descriptor;
@@ -667,6 +673,13 @@ public Object buildBackupClone(Object clone, UnitOfWorkImpl unitOfWork) {
                 }
             }
         } else {
+            List<DatabaseMapping> notCopied = getCloningMappingsNotCopied(clone, backup);
+            if (notCopied != null) {
+                // PERF: Copy the direct attributes through the weaved method.
+                ((DirectAttributesPersistenceObject)clone)._persistence_copy_direct(backup);
+                mappings = notCopied;
+                size = mappings.size();
+            }
             for (int index = 0; index < size; index++) {
                 ((DatabaseMapping)mappings.get(index)).buildBackupClone(clone, backup, unitOfWork);
             }
@@ -2487,6 +2500,7 @@ public Object clone() {
             objectBuilder.setNonPrimaryKeyMappings(new ArrayList(getNonPrimaryKeyMappings()));
         }
         objectBuilder.cloningMappings = new ArrayList(this.cloningMappings);
+        objectBuilder.isDirectAttributesResolved = false;
         objectBuilder.eagerMappings = new ArrayList(this.eagerMappings);
         objectBuilder.relationshipMappings = new ArrayList(this.relationshipMappings);
 
@@ -3452,6 +3466,100 @@ protected void setFieldsMap(Map fieldsMap) {
         this.fieldsMap = fieldsMap;
     }
 
+    /**
+     * INTERNAL:
+     * PERF: Return the cloning mappings not copied by the weaved _persistence_copy_direct method,
+     * or null if the method cannot be used to copy the source into the target.
+     * The method is used only if all the direct attributes it copies are immutable and accessed through
+     * their weaved field, and only if the copy policy builds new instances, as shallow clones already
+     * hold the values of the direct attributes, which then do not require cloning.
+     */
+    public List<DatabaseMapping> getCloningMappingsNotCopied(Object source, Object target) {
+        if (!(source instanceof DirectAttributesPersistenceObject) || (source.getClass() != this.descriptor.getJavaClass()) || (target.getClass() != source.getClass())) {
+            return null;
+        }
+        if (!this.isDirectAttributesResolved) {
+            initializeDirectAttributes((DirectAttributesPersistenceObject)source);
+        }
+        return this.cloningMappingsNotCopied;
+    }
+
+    /**
+     * INTERNAL:
+     * PERF: Return the bits, by position in the descriptor mappings, of the direct mappings
+     * whose values are equal in the clone and its backup, as compared by the weaved _persistence_compare_direct method.
+     * The change of these mappings does not need to be computed.
+     */
+    public long getUnchangedDirectMappings(Object clone, Object backup) {
+        if (!(clone instanceof DirectAttributesPersistenceObject) || (backup == null) || (backup == clone)
+                || (clone.getClass() != this.descriptor.getJavaClass()) || (backup.getClass() != clone.getClass())) {
+            return 0L;
+        }
+        if (!this.isDirectAttributesResolved) {
+            initializeDirectAttributes((DirectAttributesPersistenceObject)clone);
+        }
+        int[] indexes = this.comparedDirectIndexes;
+        if (indexes == null) {
+            return 0L;
+        }
+        long changed = ((DirectAttributesPersistenceObject)clone)._persistence_compare_direct(backup);
+        long unchanged = 0L;
+        for (int position = 0; position < indexes.length; position++) {
+            int index = indexes[position];
+            if ((index >= 0) && ((changed & (1L << index)) == 0)) {
+                unchanged = unchanged | (1L << position);
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * Resolve from an instance of the descriptor class the mappings of the direct attributes
+     * copied and compared by the weaved methods, by their weaved attribute index.
+     */
+    protected void initializeDirectAttributes(DirectAttributesPersistenceObject object) {
+        long directAttributes = object._persistence_direct_attributes();
+        List<DatabaseMapping> mappings = this.descriptor.getMappings();
+        int[] indexes = new int[Math.min(mappings.size(), 64)];
+        long directMappings = 0L;
+        boolean isCopyable = this.descriptor.getCopyPolicy().buildsNewInstance();
+        for (int position = 0; position < mappings.size(); position++) {
+            DatabaseMapping mapping = mappings.get(position);
+            int index = -1;
+            if (mapping.isDirectToFieldMapping() && (mapping.getAttributeAccessor() instanceof PersistenceObjectAttributeAccessor)) {
+                index = object._persistence_index(mapping.getAttributeName());
+                if ((index < 0) || (index >= 64) || ((directAttributes & (1L << index)) == 0)) {
+                    index = -1;
+                } else {
+                    directMappings = directMappings | (1L << index);
+                    isCopyable = isCopyable && !((AbstractDirectMapping)mapping).isMutable();
+                }
+            }
+            if (position < indexes.length) {
+                indexes[position] = index;
+            }
+        }
+        // All the copied attributes must be mapped by a direct mapping.
+        if (isCopyable && (directMappings == directAttributes) && (directMappings != 0L)) {
+            List<DatabaseMapping> notCopied = new ArrayList<>(this.cloningMappings.size());
+            for (DatabaseMapping mapping : this.cloningMappings) {
+                if (!mapping.isDirectToFieldMapping() || !(mapping.getAttributeAccessor() instanceof PersistenceObjectAttributeAccessor)) {
+                    notCopied.add(mapping);
+                } else {
+                    int index = object._persistence_index(mapping.getAttributeName());
+                    if ((index < 0) || (index >= 64) || ((directAttributes & (1L << index)) == 0)) {
+                        notCopied.add(mapping);
+                    }
+                }
+            }
+            this.cloningMappingsNotCopied = notCopied;
+        } else {
+            this.cloningMappingsNotCopied = null;
+        }
+        this.comparedDirectIndexes = (directMappings == 0L) ? null : indexes;
+        this.isDirectAttributesResolved = true;
+    }
+
     /**
      * PERF:
      * Return all mappings that require cloning.
@@ -3680,6 +3788,7 @@ public DatabaseField getTargetFieldForQueryKeyName(String queryKeyName) {
      * Cache all the mappings by their attribute and fields.
      */
     public void initialize(AbstractSession session) throws DescriptorException {
+        this.isDirectAttributesResolved = false;
         getMappingsByField().clear();
         getReadOnlyMappingsByField().clear();
         getMappingsByAttribute().clear();
@@ -4235,6 +4344,13 @@ public void populateAttributesForClone(Object original, CacheKey cacheKey, Objec
                 }
             }
         } else {
+            List<DatabaseMapping> notCopied = getCloningMappingsNotCopied(original, clone);
+            if (notCopied != null) {
+                // PERF: Copy the direct attributes through the weaved method.
+                ((DirectAttributesPersistenceObject)original)._persistence_copy_direct(clone);
+                mappings = notCopied;
+                size = mappings.size();
+            }
             for (int index = 0; index < size; index++) {
                 ((DatabaseMapping)mappings.get(index)).buildClone(original, cacheKey, clone, refreshCascade, cloningSession);
             }
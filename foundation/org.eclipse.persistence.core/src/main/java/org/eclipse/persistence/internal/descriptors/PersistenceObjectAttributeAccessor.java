@@ -20,6 +20,10 @@
  * Used with weaving to access attributes without using reflection.
  */
 public class PersistenceObjectAttributeAccessor extends InstanceVariableAttributeAccessor {
+    protected static final int UNRESOLVED_INDEX = -2;
+
+    /** The index of the attribute in the weaved class, resolved on first access, or -1 if not indexed. */
+    protected int index = UNRESOLVED_INDEX;
 
     public PersistenceObjectAttributeAccessor(String attributeName) {
         this.attributeName = attributeName.intern();
@@ -30,15 +34,35 @@ public PersistenceObjectAttributeAccessor(String attributeName) {
      */
     @Override
     public Object getAttributeValueFromObject(Object object) {
+        if (object instanceof IndexedPersistenceObject) {
+            int index = getIndex((IndexedPersistenceObject)object);
+            if (index >= 0) {
+                return ((IndexedPersistenceObject)object)._persistence_get(index);
+            }
+        }
         return ((PersistenceObject)object)._persistence_get(this.attributeName);
     }
 
+    /**
+     * Return the index of the attribute in the class of the object.
+     * The index is the same for the subclasses, so it is resolved once.
+     */
+    protected int getIndex(IndexedPersistenceObject object) {
+        int index = this.index;
+        if (index == UNRESOLVED_INDEX) {
+            index = object._persistence_index(this.attributeName);
+            this.index = index;
+        }
+        return index;
+    }
+
     /**
      * Allow any initialization to be performed with the descriptor class.
      */
     @Override
     public void initializeAttributes(Class descriptorClass) throws DescriptorException {
         this.attributeName = attributeName.intern();
+        this.index = UNRESOLVED_INDEX;
         super.initializeAttributes(descriptorClass);
     }
 
@@ -48,6 +72,13 @@ public void initializeAttributes(Class descriptorClass) throws DescriptorExcepti
      */
     @Override
     public void setAttributeValueInObject(Object object, Object value) {
+        if (object instanceof IndexedPersistenceObject) {
+            int index = getIndex((IndexedPersistenceObject)object);
+            if (index >= 0) {
+                ((IndexedPersistenceObject)object)._persistence_set(index, value);
+                return;
+            }
+        }
         ((PersistenceObject)object)._persistence_set(this.attributeName, value);
     }
 }
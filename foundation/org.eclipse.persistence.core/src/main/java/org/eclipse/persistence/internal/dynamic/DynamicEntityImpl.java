@@ -547,7 +547,7 @@ public boolean _persistence_shouldRefreshFetchGroup() {
      */
     @Override
     public boolean _persistence_isAttributeFetched(String attribute) {
-        return this.fetchGroup == null || this.fetchGroup.containsAttributeInternal(attribute);
+        return this.fetchGroup == null || this.fetchGroup.containsAttributeOnAccess(attribute);
     }
 
     /**
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.expressions;
+
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * INTERNAL:
+ * The compiled form of an expression, used to conform objects in-memory.
+ * It has the same semantics as Expression.doesConform, including the exceptions thrown.
+ *
+ * @see org.eclipse.persistence.expressions.Expression#getConformPredicate()
+ * @see ConformPredicateCompiler
+ */
+@FunctionalInterface
+public interface ConformPredicate {
+
+    /**
+     * Return if the object conforms to the expression.
+     * @see org.eclipse.persistence.expressions.Expression#doesConform(Object, AbstractSession, AbstractRecord, int, boolean)
+     */
+    boolean conforms(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered);
+}
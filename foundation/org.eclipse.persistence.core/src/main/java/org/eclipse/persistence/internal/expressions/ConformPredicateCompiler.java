@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.expressions;
+
+import java.util.Collection;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.FetchGroupManager;
+import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+
+/**
+ * INTERNAL:
+ * Compiles an expression into a tree of predicates to conform objects in-memory.
+ * <p>
+ * Interpreting the expression with doesConform resolves the mappings, operators and values
+ * of each node for every object conformed. The compiled predicates resolve what does not depend
+ * on the object once: and, or and not are compiled to short circuit predicates,
+ * and the comparison of a direct attribute to a constant or parameter is compiled to
+ * a predicate that reads the attribute through the mapping's accessor and compares it
+ * with the operator directly. Any other node is conformed by the node itself,
+ * so every expression that can be conformed can be compiled.
+ *
+ * @see org.eclipse.persistence.expressions.Expression#getConformPredicate()
+ */
+public final class ConformPredicateCompiler {
+
+    private ConformPredicateCompiler() {
+    }
+
+    /**
+     * Compile the expression into a predicate.
+     * The expression's builders should have a session, to allow its mappings to be resolved.
+     */
+    public static ConformPredicate compile(Expression expression) {
+        if (expression.isLogicalExpression()) {
+            LogicalExpression logical = (LogicalExpression)expression;
+            int selector = logical.getOperator().getSelector();
+            if (selector == ExpressionOperator.And) {
+                ConformPredicate first = compile(logical.getFirstChild());
+                ConformPredicate second = compile(logical.getSecondChild());
+                return (object, session, translationRow, valueHolderPolicy, isObjectUnregistered) ->
+                        first.conforms(object, session, translationRow, valueHolderPolicy, isObjectUnregistered)
+                        && second.conforms(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            } else if (selector == ExpressionOperator.Or) {
+                ConformPredicate first = compile(logical.getFirstChild());
+                ConformPredicate second = compile(logical.getSecondChild());
+                return (object, session, translationRow, valueHolderPolicy, isObjectUnregistered) ->
+                        first.conforms(object, session, translationRow, valueHolderPolicy, isObjectUnregistered)
+                        || second.conforms(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            }
+        } else if (expression.isFunctionExpression()) {
+            FunctionExpression function = (FunctionExpression)expression;
+            if ((function.getOperator().getSelector() == ExpressionOperator.Not) && (function.getBaseExpression() != null)) {
+                ConformPredicate base = compile(function.getBaseExpression());
+                return (object, session, translationRow, valueHolderPolicy, isObjectUnregistered) ->
+                        !base.conforms(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            }
+        } else if (expression.isRelationExpression()) {
+            ConformPredicate predicate = compileRelation((RelationExpression)expression);
+            if (predicate != null) {
+                return predicate;
+            }
+        }
+        return expression::doesConform;
+    }
+
+    /**
+     * Compile the comparison of a direct attribute of the source object to a constant or parameter,
+     * or return null if the relation is not such a comparison.
+     */
+    protected static ConformPredicate compileRelation(RelationExpression relation) {
+        ExpressionOperator operator = relation.getOperator();
+        switch (operator.getSelector()) {
+            case ExpressionOperator.Equal:
+            case ExpressionOperator.NotEqual:
+            case ExpressionOperator.LessThan:
+            case ExpressionOperator.LessThanEqual:
+            case ExpressionOperator.GreaterThan:
+            case ExpressionOperator.GreaterThanEqual:
+                break;
+            default:
+                return null;
+        }
+        Expression firstChild = relation.getFirstChild();
+        Expression secondChild = relation.getSecondChild();
+        // Parallel selects are not supported in memory, let the relation throw the exception.
+        if ((firstChild.getBuilder().getSession() == null) || (secondChild.getBuilder().getSession() == null)) {
+            return null;
+        }
+        boolean isAttributeFirst;
+        AbstractDirectMapping mapping = getDirectMapping(firstChild);
+        Expression valueExpression = secondChild;
+        if (mapping != null) {
+            isAttributeFirst = true;
+        } else {
+            mapping = getDirectMapping(secondChild);
+            if (mapping == null) {
+                return null;
+            }
+            isAttributeFirst = false;
+            valueExpression = firstChild;
+        }
+        if (!valueExpression.isConstantExpression() && !valueExpression.isParameterExpression()) {
+            return null;
+        }
+        ClassDescriptor descriptor = mapping.getDescriptor();
+        if (descriptor == null) {
+            return null;
+        }
+        AbstractDirectMapping directMapping = mapping;
+        Expression value = valueExpression;
+        String attributeName = mapping.getAttributeName();
+        return (object, session, translationRow, valueHolderPolicy, isObjectUnregistered) -> {
+            AbstractDirectMapping objectMapping = directMapping;
+            // Mappings can be redefined by subclasses, so must be looked up from the object's descriptor.
+            if (descriptor.hasInheritance() && (object.getClass() != descriptor.getJavaClass())) {
+                ClassDescriptor objectDescriptor = session.getDescriptor(object.getClass());
+                DatabaseMapping subclassMapping = (objectDescriptor == null) ? null : objectDescriptor.getObjectBuilder().getMappingForAttributeName(attributeName);
+                if ((subclassMapping == null) || !subclassMapping.isAbstractDirectMapping()) {
+                    return relation.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+                }
+                objectMapping = (AbstractDirectMapping)subclassMapping;
+            }
+            FetchGroupManager fetchGroupManager = objectMapping.getDescriptor().getFetchGroupManager();
+            if ((fetchGroupManager != null) && fetchGroupManager.isPartialObject(object) && !fetchGroupManager.isAttributeFetched(object, attributeName)) {
+                throw QueryException.cannotConformUnfetchedAttribute(attributeName);
+            }
+            Object constantValue = value.valueFromObject(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            // A collection is compared with any of its values, which the relation handles.
+            if (constantValue instanceof Collection) {
+                return relation.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            }
+            Object attributeValue = objectMapping.valueFromObject(object, objectMapping.getField(), session);
+            if (isAttributeFirst) {
+                return operator.doesRelationConform(attributeValue, constantValue);
+            } else {
+                return operator.doesRelationConform(constantValue, attributeValue);
+            }
+        };
+    }
+
+    /**
+     * Return the direct mapping if the expression is a direct attribute of the source object, otherwise null.
+     */
+    protected static AbstractDirectMapping getDirectMapping(Expression expression) {
+        if (!expression.isQueryKeyExpression()) {
+            return null;
+        }
+        QueryKeyExpression queryKey = (QueryKeyExpression)expression;
+        if (!queryKey.getBaseExpression().isExpressionBuilder()) {
+            return null;
+        }
+        DatabaseMapping mapping = queryKey.getMapping();
+        if ((mapping == null) || !mapping.isAbstractDirectMapping()) {
+            return null;
+        }
+        return (AbstractDirectMapping)mapping;
+    }
+}
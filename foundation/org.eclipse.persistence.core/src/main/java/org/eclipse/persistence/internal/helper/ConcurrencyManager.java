@@ -16,8 +16,11 @@
 
 import java.io.Serializable;
 import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
@@ -50,6 +53,20 @@ public class ConcurrencyManager implements Serializable {
 
     protected static boolean shouldTrackStack = PrivilegedAccessHelper.getSystemProperty(SystemProperties.RECORD_STACK_ON_LOCK) != null;
 
+    /** The listeners notified of lock waits, copied on write as it is read on every wait. */
+    protected static volatile LockWaitListener[] lockWaitListeners = new LockWaitListener[0];
+
+    static {
+        String lockContentionThreshold = PrivilegedAccessHelper.getSystemProperty(SystemProperties.LOCK_CONTENTION_THRESHOLD);
+        if (lockContentionThreshold != null) {
+            try {
+                LockContentionMonitor.enable(Long.parseLong(lockContentionThreshold.trim()));
+            } catch (NumberFormatException invalid) {
+                // Ignore, lock contention is not monitored.
+            }
+        }
+    }
+
     protected int numberOfReaders;
     protected int depth;
     protected int numberOfWritersWaiting;
@@ -83,25 +100,38 @@ public void acquire() throws ConcurrencyException {
      * This should be called before entering a critical section.
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
-        while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
-            // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
-            try {
-                this.numberOfWritersWaiting++;
-                wait();
-                this.numberOfWritersWaiting--;
-            } catch (InterruptedException exception) {
-                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+    public void acquire(boolean forMerge) throws ConcurrencyException {
+        long waitStartTime = 0;
+        boolean waited = false;
+        Thread owner = null;
+        synchronized (this) {
+            while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
+                // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
+                if (!waited && (lockWaitListeners.length > 0)) {
+                    waitStartTime = System.nanoTime();
+                    waited = true;
+                    owner = this.activeThread;
+                }
+                try {
+                    this.numberOfWritersWaiting++;
+                    wait();
+                    this.numberOfWritersWaiting--;
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
             }
-        }
-        if (this.activeThread == null) {
-            this.activeThread = Thread.currentThread();
-            if (shouldTrackStack){
-                this.stack = new Exception();
+            if (this.activeThread == null) {
+                this.activeThread = Thread.currentThread();
+                if (shouldTrackStack){
+                    this.stack = new Exception();
+                }
             }
+            this.lockedByMergeManager = forMerge;
+            this.depth++;
+        }
+        if (waited) {
+            notifyLockWaited(LockWaitListener.WRITE_LOCK, owner, waitStartTime);
         }
-        this.lockedByMergeManager = forMerge;
-        this.depth++;
     }
 
     /**
@@ -135,23 +165,37 @@ public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyEx
      * Added for CR 2317
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
-        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
-            //if I own the lock increment depth
-            acquire(forMerge);
-            return true;
-        } else {
-            try {
-                wait(wait);
-            } catch (InterruptedException e) {
-                return false;
-            }
-            if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())){
+    public boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
+        long waitStartTime = 0;
+        Thread owner = null;
+        synchronized (this) {
+            if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
+                //if I own the lock increment depth
                 acquire(forMerge);
                 return true;
+            } else {
+                if (lockWaitListeners.length > 0) {
+                    waitStartTime = System.nanoTime();
+                    owner = this.activeThread;
+                }
+                try {
+                    wait(wait);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+                if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())){
+                    acquire(forMerge);
+                } else {
+                    // The lock was not acquired, the caller decides whether to wait again.
+                    return false;
+                }
             }
-            return false;
         }
+        // Only a wait that ended in acquiring the lock is reported, so retries are not reported as separate waits.
+        if (waitStartTime != 0) {
+            notifyLockWaited(LockWaitListener.WRITE_LOCK, owner, waitStartTime);
+        }
+        return true;
     }
 
     /**
@@ -182,6 +226,8 @@ public void acquireDeferredLock() throws ConcurrencyException {
             putDeferredLock(currentThread, lockManager);
         }
         lockManager.incrementDepth();
+        long waitStartTime = 0;
+        boolean waited = false;
         synchronized (this) {
             while (this.numberOfReaders != 0) {
                 // There are readers of this object, wait until they are done before determining if
@@ -190,6 +236,10 @@ public void acquireDeferredLock() throws ConcurrencyException {
                 //We could release all active locks before releasing deferred but the object may not be finished building
                 //we could make the readers get a hard lock, but then we would just build a deferred lock even though
                 //the object is not being built.
+                if (!waited && (lockWaitListeners.length > 0)) {
+                    waitStartTime = System.nanoTime();
+                    waited = true;
+                }
                 try {
                     this.numberOfWritersWaiting++;
                     wait();
@@ -208,6 +258,9 @@ public void acquireDeferredLock() throws ConcurrencyException {
                 }
             }
         }
+        if (waited) {
+            notifyLockWaited(LockWaitListener.DEFERRED_LOCK, null, waitStartTime);
+        }
     }
 
     /**
@@ -240,16 +293,27 @@ public void checkReadLock() throws ConcurrencyException {
      * Wait on any writer.
      * Allow concurrent reads.
      */
-    public synchronized void acquireReadLock() throws ConcurrencyException {
-        // Cannot check for starving writers as will lead to deadlocks.
-        while ((this.activeThread != null) && (this.activeThread != Thread.currentThread())) {
-            try {
-                wait();
-            } catch (InterruptedException exception) {
-                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+    public void acquireReadLock() throws ConcurrencyException {
+        long waitStartTime = 0;
+        Thread owner = null;
+        synchronized (this) {
+            // Cannot check for starving writers as will lead to deadlocks.
+            while ((this.activeThread != null) && (this.activeThread != Thread.currentThread())) {
+                if ((owner == null) && (lockWaitListeners.length > 0)) {
+                    waitStartTime = System.nanoTime();
+                    owner = this.activeThread;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
+                }
             }
+            this.numberOfReaders++;
+        }
+        if (owner != null) {
+            notifyLockWaited(LockWaitListener.READ_LOCK, owner, waitStartTime);
         }
-        this.numberOfReaders++;
     }
 
     /**
@@ -437,6 +501,7 @@ public void releaseDeferredLock() throws ConcurrencyException {
         }
 
         lockManager.setIsThreadComplete(true);
+        long waitStartTime = 0;
 
         // Thread have three stages, one where they are doing work (i.e. building objects)
         // two where they are done their own work but may be waiting on other threads to finish their work,
@@ -449,9 +514,15 @@ public void releaseDeferredLock() throws ConcurrencyException {
                 if (isBuildObjectOnThreadComplete(currentThread, recursiveSet)) {// Thread job done.
                     lockManager.releaseActiveLocksOnThread();
                     removeDeferredLockManager(currentThread);
+                    if (waitStartTime != 0) {
+                        notifyLockWaited(LockWaitListener.DEFERRED_LOCK_RELEASE, null, waitStartTime);
+                    }
                     AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.CACHE, "deferred_locks_released", currentThread.getName());
                     return;
                 } else {// Not done yet, wait and check again.
+                    if ((waitStartTime == 0) && (lockWaitListeners.length > 0)) {
+                        waitStartTime = System.nanoTime();
+                    }
                     try {
                         Thread.sleep(1);
                     } catch (InterruptedException interrupted) {
@@ -576,6 +647,46 @@ public static void setShouldTrackStack(boolean shouldTrackStack) {
         ConcurrencyManager.shouldTrackStack = shouldTrackStack;
     }
 
+    /**
+     * INTERNAL:
+     * Add the listener to be notified when a thread waits to acquire any lock.
+     */
+    public static synchronized void addLockWaitListener(LockWaitListener listener) {
+        LockWaitListener[] listeners = Arrays.copyOf(lockWaitListeners, lockWaitListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        lockWaitListeners = listeners;
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the lock wait listener.
+     */
+    public static synchronized void removeLockWaitListener(LockWaitListener listener) {
+        List<LockWaitListener> listeners = new ArrayList<>(Arrays.asList(lockWaitListeners));
+        if (listeners.remove(listener)) {
+            lockWaitListeners = listeners.toArray(new LockWaitListener[listeners.size()]);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return if any listener is notified of lock waits.
+     */
+    public static boolean hasLockWaitListeners() {
+        return lockWaitListeners.length > 0;
+    }
+
+    /**
+     * Notify the listeners that the current thread waited for this lock since the start time.
+     * This must be called after leaving the lock's monitor, so listeners do not extend the contention.
+     */
+    protected void notifyLockWaited(int lockType, Thread owner, long waitStartTime) {
+        long waitTime = System.nanoTime() - waitStartTime;
+        for (LockWaitListener listener : lockWaitListeners) {
+            listener.lockWaited(this, lockType, owner, waitTime);
+        }
+    }
+
     private static String getPropertyRecordStackOnLock() {
         return (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) ?
                 AccessController.doPrivileged(new PrivilegedGetSystemProperty(SystemProperties.RECORD_STACK_ON_LOCK))
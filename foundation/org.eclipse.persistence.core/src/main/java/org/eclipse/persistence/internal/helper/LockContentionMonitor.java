@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Records the lock waits longer than a threshold, to find the contended entities without thread dumps.
+ * <p>
+ * The most recent waits are kept in a bounded ring buffer, with the lock type, wait time, waiting and owning threads,
+ * the class and the primary key of the locked object. The waits are also totaled by class, to find the hot entities.
+ * Locks are not associated to a session, so a single monitor records the waits of all sessions.
+ * It is enabled with the "eclipselink.cache.lock-contention-threshold" system property, or through RuntimeServices.
+ *
+ * @see org.eclipse.persistence.config.SystemProperties#LOCK_CONTENTION_THRESHOLD
+ * @see org.eclipse.persistence.services.RuntimeServices#setLockContentionThreshold(long)
+ */
+public class LockContentionMonitor implements LockWaitListener {
+
+    /** The default number of waits kept. */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /** The monitor registered with the ConcurrencyManager, or null if lock contention is not monitored. */
+    protected static volatile LockContentionMonitor monitor;
+
+    /** The minimum wait time recorded, in nanoseconds. */
+    protected volatile long threshold;
+
+    /** The most recent waits, the wait number modulo the capacity is its index. */
+    protected final AtomicReferenceArray<LockWait> waits;
+
+    /** The number of waits recorded. */
+    protected final AtomicLong count;
+
+    /** The waits totaled by the class of the locked objects. */
+    protected final Map<String, ClassContention> contentionByClass;
+
+    /**
+     * Create a monitor recording the waits longer than the threshold, in milliseconds.
+     */
+    public LockContentionMonitor(long thresholdMillis, int capacity) {
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.waits = new AtomicReferenceArray<>(capacity);
+        this.count = new AtomicLong();
+        this.contentionByClass = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Start monitoring the lock waits longer than the threshold, in milliseconds.
+     * If the lock waits are already monitored, only the threshold is changed.
+     */
+    public static synchronized void enable(long thresholdMillis) {
+        if (monitor == null) {
+            monitor = new LockContentionMonitor(thresholdMillis, DEFAULT_CAPACITY);
+            ConcurrencyManager.addLockWaitListener(monitor);
+        } else {
+            monitor.setThreshold(thresholdMillis);
+        }
+    }
+
+    /**
+     * Stop monitoring the lock waits, the recorded waits are discarded.
+     */
+    public static synchronized void disable() {
+        if (monitor != null) {
+            ConcurrencyManager.removeLockWaitListener(monitor);
+            monitor = null;
+        }
+    }
+
+    /**
+     * Return the registered monitor, or null if the lock waits are not monitored.
+     */
+    public static LockContentionMonitor getMonitor() {
+        return monitor;
+    }
+
+    @Override
+    public void lockWaited(ConcurrencyManager lock, int lockType, Thread owner, long waitTime) {
+        if (waitTime < this.threshold) {
+            return;
+        }
+        String className = null;
+        String primaryKey = null;
+        if (lock instanceof CacheKey) {
+            Class lockedClass = ((CacheKey)lock).getLockedClass();
+            if (lockedClass != null) {
+                className = lockedClass.getName();
+            }
+            primaryKey = String.valueOf(((CacheKey)lock).getKey());
+        }
+        LockWait wait = new LockWait(System.currentTimeMillis(), lockType, waitTime, Thread.currentThread().getName(),
+                (owner == null) ? null : owner.getName(), className, primaryKey);
+        long index = this.count.getAndIncrement();
+        this.waits.set((int)(index % this.waits.length()), wait);
+        String key = (className == null) ? lock.getClass().getName() : className;
+        ClassContention contention = this.contentionByClass.get(key);
+        if (contention == null) {
+            contention = this.contentionByClass.computeIfAbsent(key, ClassContention::new);
+        }
+        contention.record(waitTime);
+    }
+
+    /**
+     * Return the most recent waits, the most recent first.
+     */
+    public List<LockWait> getWaits() {
+        int capacity = this.waits.length();
+        long end = this.count.get();
+        long start = Math.max(0, end - capacity);
+        List<LockWait> result = new ArrayList<>((int)(end - start));
+        for (long index = end - 1; index >= start; index--) {
+            LockWait wait = this.waits.get((int)(index % capacity));
+            // The slot may not be set yet by a concurrent wait.
+            if (wait != null) {
+                result.add(wait);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the waits totaled by the class of the locked objects, the longest total wait first.
+     */
+    public List<ClassContention> getContendedClasses() {
+        List<ClassContention> result = new ArrayList<>(this.contentionByClass.values());
+        Collections.sort(result, (first, second) -> Long.compare(second.getTotalWaitTime(), first.getTotalWaitTime()));
+        return result;
+    }
+
+    /**
+     * Return the number of waits recorded since the monitor was created or reset.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Discard the recorded waits.
+     */
+    public void reset() {
+        for (int index = 0; index < this.waits.length(); index++) {
+            this.waits.set(index, null);
+        }
+        this.count.set(0);
+        this.contentionByClass.clear();
+    }
+
+    /**
+     * Return the minimum wait time recorded, in milliseconds.
+     */
+    public long getThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(this.threshold);
+    }
+
+    /**
+     * Set the minimum wait time recorded, in milliseconds.
+     */
+    public void setThreshold(long thresholdMillis) {
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * INTERNAL:
+     * A lock wait.
+     */
+    public static class LockWait {
+        protected final long time;
+        protected final int lockType;
+        protected final long waitTime;
+        protected final String threadName;
+        protected final String ownerName;
+        protected final String className;
+        protected final String primaryKey;
+
+        public LockWait(long time, int lockType, long waitTime, String threadName, String ownerName, String className, String primaryKey) {
+            this.time = time;
+            this.lockType = lockType;
+            this.waitTime = waitTime;
+            this.threadName = threadName;
+            this.ownerName = ownerName;
+            this.className = className;
+            this.primaryKey = primaryKey;
+        }
+
+        /**
+         * Return when the wait ended, in milliseconds since the epoch.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Return the lock type, one of the LockWaitListener constants.
+         */
+        public int getLockType() {
+            return lockType;
+        }
+
+        /**
+         * Return the wait time in nanoseconds.
+         */
+        public long getWaitTime() {
+            return waitTime;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * Return the name of the thread that owned the lock when the wait started, or null if unknown.
+         */
+        public String getOwnerName() {
+            return ownerName;
+        }
+
+        /**
+         * Return the class of the locked object, or null if unknown.
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Return the primary key of the locked object, or null if the lock is not a cache key.
+         */
+        public String getPrimaryKey() {
+            return primaryKey;
+        }
+
+        @Override
+        public String toString() {
+            String type = ((lockType >= 0) && (lockType < LOCK_TYPE_NAMES.length)) ? LOCK_TYPE_NAMES[lockType] : String.valueOf(lockType);
+            return new Date(time) + " " + type + " lock wait " + TimeUnit.NANOSECONDS.toMillis(waitTime) + " ms, thread: " + threadName
+                    + ", owner: " + ownerName + ", class: " + className + ", primary key: " + primaryKey;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The waits totaled for a class of locked objects.
+     */
+    public static class ClassContention {
+        protected final String className;
+        protected final LongAdder count;
+        protected final LongAdder totalWaitTime;
+        protected final AtomicLong maximumWaitTime;
+
+        public ClassContention(String className) {
+            this.className = className;
+            this.count = new LongAdder();
+            this.totalWaitTime = new LongAdder();
+            this.maximumWaitTime = new AtomicLong();
+        }
+
+        protected void record(long waitTime) {
+            this.count.increment();
+            this.totalWaitTime.add(waitTime);
+            this.maximumWaitTime.accumulateAndGet(waitTime, Math::max);
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Return the total wait time in nanoseconds.
+         */
+        public long getTotalWaitTime() {
+            return totalWaitTime.sum();
+        }
+
+        /**
+         * Return the longest wait time in nanoseconds.
+         */
+        public long getMaximumWaitTime() {
+            return maximumWaitTime.get();
+        }
+
+        @Override
+        public String toString() {
+            return className + ": " + getCount() + " waits, total " + TimeUnit.NANOSECONDS.toMillis(getTotalWaitTime())
+                    + " ms, maximum " + TimeUnit.NANOSECONDS.toMillis(getMaximumWaitTime()) + " ms";
+        }
+    }
+}
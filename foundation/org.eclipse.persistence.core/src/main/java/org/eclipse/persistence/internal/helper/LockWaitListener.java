@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.helper;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Notified when a thread had to wait to acquire a lock.
+ * <p>
+ * Listeners are registered globally with the ConcurrencyManager, as locks are not associated to a session.
+ * They are only notified of actual waits, so acquiring an unowned lock has no overhead.
+ * Listeners are notified after the lock's monitor is released, but on the waiting thread, so they must be fast.
+ *
+ * @see ConcurrencyManager#addLockWaitListener(LockWaitListener)
+ */
+public interface LockWaitListener {
+
+    /** The thread waited to acquire the lock for writing. */
+    int WRITE_LOCK = 0;
+
+    /** The thread waited to acquire the lock for reading. */
+    int READ_LOCK = 1;
+
+    /** The thread waited for the readers of the lock to acquire a deferred lock. */
+    int DEFERRED_LOCK = 2;
+
+    /** The thread waited for the objects it deferred locks on to be built by other threads. */
+    int DEFERRED_LOCK_RELEASE = 3;
+
+    /** The thread waited for a lock held by another thread while acquiring the locks to merge a unit of work. */
+    int MERGE_LOCK = 4;
+
+    /** The thread waited for a lock held by another thread while acquiring the read locks to clone an object. */
+    int CLONE_LOCK = 5;
+
+    /** The names of the lock types, indexed by type. */
+    String[] LOCK_TYPE_NAMES = {"Write", "Read", "Deferred", "Deferred Release", "Merge", "Clone"};
+
+    /**
+     * The thread waited to acquire the lock.
+     * @param lock the lock waited on, usually a CacheKey.
+     * @param lockType the type of lock, one of the constants defined in this interface.
+     * @param owner the thread that owned the lock when the wait started, may be null.
+     * @param waitTime the wait duration in nanoseconds.
+     */
+    void lockWaited(ConcurrencyManager lock, int lockType, Thread owner, long waitTime);
+}
@@ -90,15 +90,24 @@ public Map acquireLocksForClone(Object objectForClone, ClassDescriptor descripto
                     ((CacheKey)lockedList.next()).releaseReadLock();
                     lockedList.remove();
                 }
+                long waitStartTime = 0;
+                Thread owner = null;
                 synchronized (toWaitOn) {
                     try {
                         if (toWaitOn.isAcquired()) {//last minute check to insure it is still locked.
+                            if (ConcurrencyManager.hasLockWaitListeners()) {
+                                waitStartTime = System.nanoTime();
+                                owner = toWaitOn.getActiveThread();
+                            }
                             toWaitOn.wait();// wait for lock on object to be released
                         }
                     } catch (InterruptedException ex) {
                         // Ignore exception thread should continue.
                     }
                 }
+                if (waitStartTime != 0) {
+                    toWaitOn.notifyLockWaited(LockWaitListener.CLONE_LOCK, owner, waitStartTime);
+                }
                 Object waitObject = toWaitOn.getObject();
                 // Object may be null for loss of identity.
                 if (waitObject != null) {
@@ -321,38 +330,47 @@ public void acquireRequiredLocks(MergeManager mergeManager, UnitOfWorkChangeSet
                             mergeManager.setWriteLockQueued(objectChangeSet.getId());
                             try {
                                 if (activeCacheKey != null){
+                                    long waitStartTime = 0;
+                                    Thread waitedOn = null;
                                     //wait on the lock of the object that we couldn't get.
                                     synchronized (activeCacheKey) {
                                         // verify that the cache key is still locked before we wait on it, as
                                         //it may have been released since we tried to acquire it.
                                         if (activeCacheKey.isAcquired() && (activeCacheKey.getActiveThread() != Thread.currentThread())) {
-                                                Thread thread = activeCacheKey.getActiveThread();
-                                                if (thread.isAlive()){
-                                                    long time = System.currentTimeMillis();
-                                                    activeCacheKey.wait(MAX_WAIT);
-                                                    if (System.currentTimeMillis() - time >= MAX_WAIT){
-                                                        Object[] params = new Object[]{MAX_WAIT /1000, descriptor.getJavaClassName(), activeCacheKey.getKey(), thread.getName()};
-                                                        StringBuilder buffer = new StringBuilder(TraceLocalization.buildMessage("max_time_exceeded_for_acquirerequiredlocks_wait", params));
-                                                        StackTraceElement[] trace = thread.getStackTrace();
-                                                        for (StackTraceElement element : trace){
-                                                            buffer.append("\t\tat");
-                                                            buffer.append(element.toString());
-                                                            buffer.append("\n");
-                                                        }
-                                                        session.log(SessionLog.SEVERE, SessionLog.CACHE, buffer.toString());
-                                                        session.getIdentityMapAccessor().printIdentityMapLocks();
-                                                    }
-                                                }else{
-                                                    session.log(SessionLog.SEVERE, SessionLog.CACHE, "releasing_invalid_lock", new Object[] { thread.getName(),descriptor.getJavaClass(), objectChangeSet.getId()});
-                                                    //thread that held lock is no longer alive.  Something bad has happened like
-                                                    while (activeCacheKey.isAcquired()){
-                                                        // could have a depth greater than one.
-                                                        activeCacheKey.release();
+                                            Thread thread = activeCacheKey.getActiveThread();
+                                            if (thread.isAlive()){
+                                                long time = System.currentTimeMillis();
+                                                if (ConcurrencyManager.hasLockWaitListeners()) {
+                                                    waitStartTime = System.nanoTime();
+                                                    waitedOn = thread;
+                                                }
+                                                activeCacheKey.wait(MAX_WAIT);
+                                                if (System.currentTimeMillis() - time >= MAX_WAIT){
+                                                    Object[] params = new Object[]{MAX_WAIT /1000, descriptor.getJavaClassName(), activeCacheKey.getKey(), thread.getName()};
+                                                    StringBuilder buffer = new StringBuilder(TraceLocalization.buildMessage("max_time_exceeded_for_acquirerequiredlocks_wait", params));
+                                                    StackTraceElement[] trace = thread.getStackTrace();
+                                                    for (StackTraceElement element : trace){
+                                                        buffer.append("\t\tat");
+                                                        buffer.append(element.toString());
+                                                        buffer.append("\n");
                                                     }
+                                                    session.log(SessionLog.SEVERE, SessionLog.CACHE, buffer.toString());
+                                                    session.getIdentityMapAccessor().printIdentityMapLocks();
+                                                }
+                                            }else{
+                                                session.log(SessionLog.SEVERE, SessionLog.CACHE, "releasing_invalid_lock", new Object[] { thread.getName(),descriptor.getJavaClass(), objectChangeSet.getId()});
+                                                //thread that held lock is no longer alive.  Something bad has happened like
+                                                while (activeCacheKey.isAcquired()){
+                                                    // could have a depth greater than one.
+                                                    activeCacheKey.release();
                                                 }
                                             }
                                         }
                                     }
+                                    if (waitStartTime != 0) {
+                                        activeCacheKey.notifyLockWaited(LockWaitListener.MERGE_LOCK, waitedOn, waitStartTime);
+                                    }
+                                }
                             } catch (InterruptedException exception) {
                                 throw org.eclipse.persistence.exceptions.ConcurrencyException.waitWasInterrupted(exception.getMessage());
                             }
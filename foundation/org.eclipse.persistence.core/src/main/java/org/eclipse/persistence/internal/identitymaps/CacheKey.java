@@ -379,6 +379,22 @@ public IdentityMap getOwningMap(){
         return this.mapOwner;
     }
 
+    /**
+     * INTERNAL:
+     * Return the class of the object locked by this cache key, used to report lock waits.
+     * If the object is not yet built, the class of the owning map's descriptor is returned, or null.
+     */
+    public Class getLockedClass() {
+        Object object = this.object;
+        if (object != null) {
+            return object.getClass();
+        }
+        if ((this.mapOwner instanceof AbstractIdentityMap) && (((AbstractIdentityMap)this.mapOwner).getDescriptor() != null)) {
+            return ((AbstractIdentityMap)this.mapOwner).getDescriptor().getJavaClass();
+        }
+        return null;
+    }
+
     /**
      * INTERNAL:
      * Return the current value of the Read Time variable
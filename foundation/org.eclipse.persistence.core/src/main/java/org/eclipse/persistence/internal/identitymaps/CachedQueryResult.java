@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.helper.InvalidObject;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+
+/**
+ * INTERNAL:
+ * A query result stored in the query cache together with what it depends on:
+ * the primary keys of the objects it contains and the translation row it was read with.
+ * <p>
+ * This allows a committed change to only invalidate the results it can affect,
+ * instead of every cached result of the changed class.
+ *
+ * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setInvalidateByPrimaryKey(boolean)
+ * @see IdentityMapManager#invalidateQueryCache(Class, org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet)
+ */
+public class CachedQueryResult {
+    /** The query results, as returned to the query. */
+    protected Object results;
+
+    /** The primary keys of the objects in the results. */
+    protected Set<Object> primaryKeys;
+
+    /** The query arguments the results were read with. */
+    protected AbstractRecord translationRow;
+
+    /** The class of the objects in the results. */
+    protected Class queryClass;
+
+    /**
+     * A copy of the query's selection criteria, prepared when the results are cached,
+     * as the query's own criteria is shared with the threads executing it.
+     * Null if the query has no selection criteria.
+     */
+    protected Expression selectionCriteria;
+
+    protected CachedQueryResult(Object results, Set<Object> primaryKeys, AbstractRecord translationRow, Class queryClass, Expression selectionCriteria) {
+        this.results = results;
+        this.primaryKeys = primaryKeys;
+        this.translationRow = translationRow;
+        this.queryClass = queryClass;
+        this.selectionCriteria = selectionCriteria;
+    }
+
+    /**
+     * Build the cached result for the query results, or return null if the results
+     * cannot be tracked by primary key, in which case class level invalidation must be used.
+     * The results of a paged query cannot, as a change to an object outside of the page can shift it.
+     */
+    public static CachedQueryResult buildCachedQueryResult(ObjectLevelReadQuery query, AbstractRecord translationRow, Object results, AbstractSession session) {
+        ClassDescriptor descriptor = query.getDescriptor();
+        if ((descriptor == null) || query.isReportQuery() || (translationRow == null)
+                || (query.getFirstResult() > 0) || (query.getMaxRows() > 0)) {
+            return null;
+        }
+        Class javaClass = descriptor.getJavaClass();
+        Set<Object> primaryKeys = new HashSet<>();
+        if (results instanceof Collection) {
+            for (Object object : (Collection)results) {
+                if (!javaClass.isInstance(object)) {
+                    return null;
+                }
+                primaryKeys.add(descriptor.getObjectBuilder().extractPrimaryKeyFromObject(object, session));
+            }
+        } else if ((results != null) && (results != InvalidObject.instance())) {
+            if (!javaClass.isInstance(results)) {
+                return null;
+            }
+            primaryKeys.add(descriptor.getObjectBuilder().extractPrimaryKeyFromObject(results, session));
+        }
+        return new CachedQueryResult(results, primaryKeys, translationRow, javaClass, prepareSelectionCriteria(query, javaClass, session));
+    }
+
+    /**
+     * Return a copy of the query's selection criteria to conform the changed objects against,
+     * its builder set up and its conform predicate compiled, so that conforming does not modify it.
+     * The query's SQL is built from a copy of its selection criteria, so its builder may not have a session.
+     */
+    protected static Expression prepareSelectionCriteria(ObjectLevelReadQuery query, Class queryClass, AbstractSession session) {
+        Expression selectionCriteria = query.getSelectionCriteria();
+        if (selectionCriteria == null) {
+            return null;
+        }
+        selectionCriteria = (Expression)selectionCriteria.clone();
+        ExpressionBuilder builder = selectionCriteria.getBuilder();
+        builder.setSession(session.getRootSession(null));
+        builder.setQueryClass(queryClass);
+        selectionCriteria.getConformPredicate();
+        return selectionCriteria;
+    }
+
+    /**
+     * Return the query results.
+     */
+    public Object getResults() {
+        return results;
+    }
+
+    /**
+     * Return the primary keys of the objects in the results.
+     */
+    public Set<Object> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    /**
+     * Return the query arguments the results were read with.
+     */
+    public AbstractRecord getTranslationRow() {
+        return translationRow;
+    }
+
+    /**
+     * Return if the change could make the results stale.
+     * A change to an object in the results always does, as does a change to an object of a class
+     * other than the query's (such as a joined or related class).
+     * A new or changed object that is not in the results only does if it now conforms to the query's
+     * selection criteria, or if conformance cannot be determined in memory.
+     * A deleted object that is not in the results never does.
+     */
+    public boolean isAffectedBy(ObjectChangeSet changeSet, boolean isDeleted, AbstractSession session) {
+        Object primaryKey = changeSet.getId();
+        if ((primaryKey == null) || this.primaryKeys.contains(primaryKey)) {
+            return true;
+        }
+        Class changedClass = changeSet.getClassType(session);
+        if ((changedClass == null) || !this.queryClass.isAssignableFrom(changedClass)) {
+            return true;
+        }
+        if (isDeleted) {
+            return false;
+        }
+        if (this.selectionCriteria == null) {
+            return true;
+        }
+        Object object = changeSet.getUnitOfWorkClone();
+        if (object == null) {
+            object = session.getIdentityMapAccessorInstance().getFromIdentityMap(primaryKey, changedClass, true);
+            if (object == null) {
+                return true;
+            }
+        }
+        try {
+            return this.selectionCriteria.getConformPredicate().conforms(object, session, this.translationRow, InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION, false);
+        } catch (QueryException notConformable) {
+            return true;
+        }
+    }
+}
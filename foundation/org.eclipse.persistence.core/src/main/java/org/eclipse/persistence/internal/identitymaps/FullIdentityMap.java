@@ -19,6 +19,7 @@
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.indirection.ValueHolderInterface;
@@ -38,6 +39,9 @@ public class FullIdentityMap extends AbstractIdentityMap {
     /** Map of CacheKeys stored using their key. */
     protected Map<Object, CacheKey> cacheKeys;
 
+    /** The non unique cache indexes built from the map, notified of the cache keys removed from the map. */
+    protected Set<SecondaryCacheIndex> secondaryIndexes = new CopyOnWriteArraySet<>();
+
     /**
      * Used to allow subclasses to build different map type.
      */
@@ -57,6 +61,7 @@ public FullIdentityMap(int size, ClassDescriptor descriptor, AbstractSession ses
     public Object clone() {
         FullIdentityMap clone = (FullIdentityMap)super.clone();
         clone.setCacheKeys(new ConcurrentHashMap(this.cacheKeys.size()));
+        clone.secondaryIndexes = new CopyOnWriteArraySet<>();
 
         for (Iterator cacheKeysIterator = this.cacheKeys.values().iterator(); cacheKeysIterator.hasNext();) {
             CacheKey key = (CacheKey)((CacheKey)cacheKeysIterator.next()).clone();
@@ -225,6 +230,32 @@ public CacheKey put(Object primaryKey, Object object, Object writeLockValue, lon
         return cacheKey;
     }
 
+    /**
+     * INTERNAL:
+     * Add the non unique cache index built from the map, to remove the cache keys removed from the map
+     * from the index, including those removed by the map itself, such as garbage collected or evicted cache keys.
+     */
+    public void addSecondaryIndex(SecondaryCacheIndex secondaryIndex) {
+        this.secondaryIndexes.add(secondaryIndex);
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the non unique cache index, once built from another map.
+     */
+    public void removeSecondaryIndex(SecondaryCacheIndex secondaryIndex) {
+        this.secondaryIndexes.remove(secondaryIndex);
+    }
+
+    /**
+     * Remove the cache key removed from the map from the non unique cache indexes.
+     */
+    protected void removeFromSecondaryIndexes(CacheKey cacheKey) {
+        for (SecondaryCacheIndex secondaryIndex : this.secondaryIndexes) {
+            secondaryIndex.remove(cacheKey);
+        }
+    }
+
     /**
      * Removes the CacheKey from the map.
      * @return the object held within the CacheKey or null if no object cached for given cacheKey.
@@ -236,6 +267,7 @@ public Object remove(CacheKey cacheKey) {
             cacheKey.acquire();
             this.cacheKeys.remove(cacheKey.getKey());
             cacheKey.setOwningMap(null);
+            removeFromSecondaryIndexes(cacheKey);
             // Cache key needs to be released after removing from the map.
             cacheKey.setInvalidationState(CacheKey.CACHE_KEY_INVALID);
             cacheKey.release();
@@ -25,6 +25,9 @@
 import java.io.StringWriter;
 import java.lang.reflect.Constructor;
 import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,6 +38,7 @@
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.persistence.config.ReferenceMode;
 import org.eclipse.persistence.descriptors.CacheIndex;
@@ -47,6 +51,7 @@
 import org.eclipse.persistence.expressions.Expression;
 import org.eclipse.persistence.expressions.ExpressionBuilder;
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.internal.expressions.ConformPredicate;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.ConcurrencyManager;
 import org.eclipse.persistence.internal.helper.DeferredLockManager;
@@ -60,6 +65,8 @@
 import org.eclipse.persistence.internal.security.PrivilegedInvokeConstructor;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
@@ -90,9 +97,21 @@ public class IdentityMapManager implements Serializable, Cloneable {
     /** A map of class to list of queries that need to be invalidated when that class changes. */
     protected Map<Class, Set> queryResultsInvalidationsByClass;
 
+    /** The approximate memory in bytes used by the query results, for the QueryResultsIdentityMaps. */
+    protected AtomicLong queryResultsMemory = new AtomicLong();
+
+    /** The number of queries and of results of each query compared to evict the least recently used results. */
+    protected static final int QUERY_RESULTS_EVICTION_SAMPLE = 8;
+
+    /** The query from which the next eviction samples, rotated so that all queries are sampled. */
+    protected int queryResultsEvictionStart;
+
     /** A map of indexes on the cache. */
     protected Map<CacheIndex, IdentityMap> cacheIndexes;
 
+    /** A map of the non unique indexes on the cache, used for in-memory queries. */
+    protected Map<CacheIndex, SecondaryCacheIndex> secondaryCacheIndexes;
+
     /** A reference to the session owning this manager. */
     protected AbstractSession session;
 
@@ -122,11 +141,13 @@ public IdentityMapManager(AbstractSession session) {
             this.queryResults = new HashMap();
             this.queryResultsInvalidationsByClass = new HashMap();
             this.cacheIndexes = new HashMap();
+            this.secondaryCacheIndexes = new HashMap();
         } else {
             this.identityMaps = new ConcurrentHashMap();
             this.queryResults = new ConcurrentHashMap();
             this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
             this.cacheIndexes = new ConcurrentHashMap();
+            this.secondaryCacheIndexes = new ConcurrentHashMap();
         }
         checkIsCacheAccessPreCheckRequired();
     }
@@ -390,6 +411,8 @@ protected IdentityMap buildNewIdentityMap(Class identityMapClass, int size, Clas
                 return new FullIdentityMap(size, descriptor, this.session, isIsolated);
             } else if (identityMapClass == ClassConstants.CacheIdentityMap_Class) {
                 return new CacheIdentityMap(size, descriptor, this.session, isIsolated);
+            } else if (identityMapClass == ClassConstants.QueryResultsIdentityMap_Class) {
+                return new QueryResultsIdentityMap(size, descriptor, this.session, isIsolated);
             }
         }
         try {
@@ -453,6 +476,7 @@ public Object clone() {
     public void clearQueryCache() {
         this.queryResults = new ConcurrentHashMap();
         this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
+        this.queryResultsMemory = new AtomicLong();
     }
 
     /**
@@ -460,6 +484,7 @@ public void clearQueryCache() {
      */
     public void clearCacheIndexes() {
         this.cacheIndexes = new ConcurrentHashMap();
+        this.secondaryCacheIndexes = new ConcurrentHashMap();
     }
 
     /**
@@ -474,7 +499,17 @@ public void clearQueryCache(ReadQuery query) {
             if ((queryKey == null) || ((String)queryKey).length() == 0) {
                 queryKey = query;
             }
-            this.queryResults.remove(queryKey);
+            removeQueryResults(queryKey);
+        }
+    }
+
+    /**
+     * Remove the cached results of the query, and release their memory.
+     */
+    protected void removeQueryResults(Object queryKey) {
+        IdentityMap map = this.queryResults.remove(queryKey);
+        if (map instanceof QueryResultsIdentityMap) {
+            ((QueryResultsIdentityMap)map).setTotalMemory(null);
         }
     }
 
@@ -489,7 +524,7 @@ public void invalidateQueryCache(Class classThatChanged) {
         Set invalidations = this.queryResultsInvalidationsByClass.get(classThatChanged);
         if (invalidations != null) {
             for (Object queryKey : invalidations) {
-                this.queryResults.remove(queryKey);
+                removeQueryResults(queryKey);
             }
         }
         Class superClass = classThatChanged.getSuperclass();
@@ -498,6 +533,74 @@ public void invalidateQueryCache(Class classThatChanged) {
         }
     }
 
+    /**
+     * Invalidate/remove the results for the class from the query cache that are affected by the change set.
+     * Results of queries that invalidate by primary key are only removed if the change set
+     * can affect them, the results of other queries are all removed.
+     * This is used to invalidate the query cache on commit.
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setInvalidateByPrimaryKey(boolean)
+     */
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        if (this.queryResultsInvalidationsByClass == null) {
+            return;
+        }
+        if (changeSet == null) {
+            invalidateQueryCache(classThatChanged);
+            return;
+        }
+        invalidateQueryCache(classThatChanged, classThatChanged, changeSet);
+    }
+
+    /**
+     * Invalidate/remove the results for the invalidation class from the query cache that are affected by
+     * the change set's changes to objects of the changed class, then those for its superclasses,
+     * as the changed class's objects are also part of the results of queries on its superclasses.
+     */
+    protected void invalidateQueryCache(Class invalidationClass, Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        Set invalidations = this.queryResultsInvalidationsByClass.get(invalidationClass);
+        if (invalidations != null) {
+            for (Object queryKey : invalidations) {
+                IdentityMap map = this.queryResults.get(queryKey);
+                if (map == null) {
+                    continue;
+                }
+                for (Enumeration cacheEnum = map.cloneKeys(); cacheEnum.hasMoreElements();) {
+                    CacheKey key = (CacheKey)cacheEnum.nextElement();
+                    Object result = key.getObject();
+                    if (!(result instanceof CachedQueryResult) || isQueryResultAffected((CachedQueryResult)result, classThatChanged, changeSet)) {
+                        map.remove(key);
+                    }
+                }
+            }
+        }
+        Class superClass = invalidationClass.getSuperclass();
+        if ((superClass != null) && (superClass != ClassConstants.OBJECT)) {
+            invalidateQueryCache(superClass, classThatChanged, changeSet);
+        }
+    }
+
+    /**
+     * Return if any of the change set's changes to objects of the class can affect the cached result.
+     */
+    protected boolean isQueryResultAffected(CachedQueryResult result, Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        Map<ObjectChangeSet, ObjectChangeSet> changes = changeSet.getObjectChanges().get(classThatChanged);
+        if (changes != null) {
+            for (ObjectChangeSet objectChanges : changes.values()) {
+                if (result.isAffectedBy(objectChanges, false, this.session)) {
+                    return true;
+                }
+            }
+        }
+        if (changeSet.hasDeletedObjects()) {
+            for (ObjectChangeSet objectChanges : changeSet.getDeletedObjects().values()) {
+                if ((objectChanges.getClassType(this.session) == classThatChanged) && result.isAffectedBy(objectChanges, true, this.session)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Return true if an CacheKey with the primary key is in the map.
      * User API.
@@ -543,10 +646,16 @@ public Vector getAllFromIdentityMap(Expression selectionCriteria, Class theClass
             }
             objects = new Vector();
             IdentityMap map = getIdentityMap(descriptor, false);
-
-            // Bug #522635 - if policy is set to trigger indirection, then iterate over a copy of the cache keys collection
-            //               to avoid a ConcurrentModificationException
-            final Enumeration cacheEnum = valueHolderPolicy == InMemoryQueryIndirectionPolicy.SHOULD_TRIGGER_INDIRECTION ? map.cloneKeys() : map.keys();
+            // PERF: Conform using the compiled expression.
+            ConformPredicate conformPredicate = (selectionCriteria == null) ? null : selectionCriteria.getConformPredicate();
+
+            // Only conform the candidates from a cache index if the criteria is indexed.
+            Enumeration cacheEnum = getCacheKeysByIndex(selectionCriteria, (AbstractRecord)translationRow, descriptor, map);
+            if (cacheEnum == null) {
+                // Bug #522635 - if policy is set to trigger indirection, then iterate over a copy of the cache keys collection
+                //               to avoid a ConcurrentModificationException
+                cacheEnum = valueHolderPolicy == InMemoryQueryIndirectionPolicy.SHOULD_TRIGGER_INDIRECTION ? map.cloneKeys() : map.keys();
+            }
 
             // bug 327900 - If don't read subclasses is set on the descriptor heed it.
             boolean readSubclassesOrNoInheritance = (!descriptor.hasInheritance() || descriptor.getInheritancePolicy().shouldReadSubclasses());
@@ -572,7 +681,7 @@ public Vector getAllFromIdentityMap(Expression selectionCriteria, Class theClass
                         objects.add(object);
                     } else {
                         try {
-                            if (selectionCriteria.doesConform(object, this.session, (AbstractRecord)translationRow, valueHolderPolicy)) {
+                            if (conformPredicate.conforms(object, this.session, (AbstractRecord)translationRow, valueHolderPolicy, false)) {
                                 objects.add(object);
                             }
                         } catch (QueryException queryException) {
@@ -646,6 +755,8 @@ public void invalidateObjects(Expression selectionCriteria, Class theClass, Reco
                     inMemoryQueryIndirectionPolicy = InMemoryQueryIndirectionPolicy.SHOULD_IGNORE_EXCEPTION_RETURN_CONFORMED;
                 }
 
+                // PERF: Conform using the compiled expression.
+                ConformPredicate conformPredicate = selectionCriteria.getConformPredicate();
                 // cache the current time to avoid calculating it every time through the loop
                 long currentTimeInMillis = System.currentTimeMillis();
                 //Enumeration doesn't checkReadLocks
@@ -659,7 +770,7 @@ public void invalidateObjects(Expression selectionCriteria, Class theClass, Reco
                     // Must check for inheritance.
                     if (!isChildDescriptor || (object.getClass() == theClass) || (theClass.isInstance(object))) {
                         try {
-                            if (selectionCriteria.doesConform(object, this.session, (AbstractRecord)translationRow, inMemoryQueryIndirectionPolicy)) {
+                            if (conformPredicate.conforms(object, this.session, (AbstractRecord)translationRow, inMemoryQueryIndirectionPolicy, false)) {
                                 key.setInvalidationState(CacheKey.CACHE_KEY_INVALID);
                             }
                         } catch (QueryException queryException) {
@@ -860,10 +971,16 @@ public Object getFromIdentityMap(Expression selectionCriteria, Class theClass, R
                 }
             }
             IdentityMap map = getIdentityMap(descriptor, false);
-
-            // Bug #321041 - if policy is set to trigger indirection, then iterate over a copy of the cache keys collection
-            //               to avoid a ConcurrentModificationException
-            Enumeration cacheEnum = valueHolderPolicy == InMemoryQueryIndirectionPolicy.SHOULD_TRIGGER_INDIRECTION ? map.cloneKeys() : map.keys();
+            // PERF: Conform using the compiled expression.
+            ConformPredicate conformPredicate = (selectionCriteria == null) ? null : selectionCriteria.getConformPredicate();
+
+            // Only conform the candidates from a cache index if the criteria is indexed.
+            Enumeration cacheEnum = getCacheKeysByIndex(selectionCriteria, (AbstractRecord)translationRow, descriptor, map);
+            if (cacheEnum == null) {
+                // Bug #321041 - if policy is set to trigger indirection, then iterate over a copy of the cache keys collection
+                //               to avoid a ConcurrentModificationException
+                cacheEnum = valueHolderPolicy == InMemoryQueryIndirectionPolicy.SHOULD_TRIGGER_INDIRECTION ? map.cloneKeys() : map.keys();
+            }
 
             // cache the current time to avoid calculating it every time through the loop
             long currentTimeInMillis = System.currentTimeMillis();
@@ -890,7 +1007,7 @@ public Object getFromIdentityMap(Expression selectionCriteria, Class theClass, R
 
                     //CR 3677 integration of a ValueHolderPolicy
                     try {
-                        if (selectionCriteria.doesConform(object, this.session, (AbstractRecord)translationRow, valueHolderPolicy)) {
+                        if (conformPredicate.conforms(object, this.session, (AbstractRecord)translationRow, valueHolderPolicy, false)) {
                             // bug 2782991: if first found was deleted nothing returned.
                             if (!(conforming && unitOfWork.isObjectDeleted(object))) {
                                 return object;
@@ -1053,17 +1170,26 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean shouldChe
         }
 
         CacheKey key = map.getCacheKey(lookupParameters, false);
-        if ((key == null) || (shouldCheckExpiry && query.getQueryResultsCachePolicy().getCacheInvalidationPolicy().isInvalidated(key))) {
+        if (key == null) {
             return null;
         }
-        return key.getObject();
+        if (shouldCheckExpiry && query.getQueryResultsCachePolicy().getCacheInvalidationPolicy().isInvalidated(key)) {
+            // Remove expired results so they no longer use memory.
+            map.remove(key);
+            return null;
+        }
+        Object results = key.getObject();
+        if (results instanceof CachedQueryResult) {
+            return ((CachedQueryResult)results).getResults();
+        }
+        return results;
     }
 
     /**
      * Return the cache key for the cache index or null if not found.
      */
     public CacheKey getCacheKeyByIndex(CacheIndex index, CacheId indexValues, boolean shouldCheckExpiry, ClassDescriptor descriptor) {
-        if (this.cacheIndexes == null) {
+        if ((this.cacheIndexes == null) || !index.isUnique()) {
             return null;
         }
         IdentityMap map = this.cacheIndexes.get(index);
@@ -1096,6 +1222,14 @@ public void putCacheKeyByIndex(CacheIndex index, CacheId indexValues, CacheKey c
         if (indexValues == null) {
             return;
         }
+        if (!index.isUnique()) {
+            // Non unique indexes are only maintained once used by an in-memory query.
+            SecondaryCacheIndex secondaryIndex = this.secondaryCacheIndexes.get(index);
+            if (secondaryIndex != null) {
+                secondaryIndex.put(cacheKey, indexValues.getPrimaryKey());
+            }
+            return;
+        }
         IdentityMap map = this.cacheIndexes.get(index);
         if (map == null) {
             synchronized (this.cacheIndexes) {
@@ -1109,6 +1243,50 @@ public void putCacheKeyByIndex(CacheIndex index, CacheId indexValues, CacheKey c
         map.put(indexValues, cacheKey, null, 0);
     }
 
+    /**
+     * Return the cache keys of the candidate objects for the selection criteria from a non unique cache index,
+     * or null if the selection criteria is not indexed.
+     * Only the indexes of the root descriptor are used, as they index every object in the identity map.
+     * Indexes are only used on the shared cache, as the objects of a unit of work or isolated cache
+     * are changed in place without being re-indexed, and only if insertable and updateable, as otherwise
+     * new or changed objects are not re-indexed.
+     */
+    protected Enumeration<CacheKey> getCacheKeysByIndex(Expression selectionCriteria, AbstractRecord translationRow, ClassDescriptor descriptor, IdentityMap map) {
+        if ((selectionCriteria == null) || (this.secondaryCacheIndexes == null) || (map == null)) {
+            return null;
+        }
+        if (this.session.isUnitOfWork() || this.session.isIsolatedClientSession() || !descriptor.getCachePolicy().isSharedIsolation()) {
+            return null;
+        }
+        ClassDescriptor rootDescriptor = descriptor;
+        if (descriptor.hasInheritance()) {
+            rootDescriptor = descriptor.getInheritancePolicy().getRootParentDescriptor();
+        }
+        if (!rootDescriptor.getCachePolicy().hasCacheIndexes()) {
+            return null;
+        }
+        for (CacheIndex index : rootDescriptor.getCachePolicy().getCacheIndexes().values()) {
+            if (index.isUnique() || !index.isInsertable() || !index.isUpdateable()) {
+                continue;
+            }
+            SecondaryCacheIndex secondaryIndex = this.secondaryCacheIndexes.get(index);
+            if (secondaryIndex == null) {
+                synchronized (this.secondaryCacheIndexes) {
+                    secondaryIndex = this.secondaryCacheIndexes.get(index);
+                    if (secondaryIndex == null) {
+                        secondaryIndex = new SecondaryCacheIndex(index);
+                        this.secondaryCacheIndexes.put(index, secondaryIndex);
+                    }
+                }
+            }
+            Collection<CacheKey> cacheKeys = secondaryIndex.getCacheKeys(selectionCriteria, translationRow, map, rootDescriptor, this.session);
+            if (cacheKeys != null) {
+                return Collections.enumeration(cacheKeys);
+            }
+        }
+        return null;
+    }
+
     protected AbstractSession getSession() {
         return session;
     }
@@ -1159,6 +1337,7 @@ public Object getWriteLockValue(Object primaryKey, Class domainClass, ClassDescr
         }
         IdentityMap map = getIdentityMap(descriptor, false);
         Object value;
+
         if (this.isCacheAccessPreCheckRequired) {
             this.session.startOperationProfile(SessionProfiler.Caching);
             acquireReadLock();
@@ -1409,6 +1588,17 @@ public CacheKey putInIdentityMap(Object domainObject, Object keys, Object writeL
      * different parameter values access different caches.
      */
     public void putQueryResult(ReadQuery query, List parameters, Object results) {
+        putQueryResult(query, parameters, null, results);
+    }
+
+    /**
+     * Set the results for a query.
+     * Query results are cached based on the parameter values provided to the query
+     * different parameter values access different caches.
+     * If the query invalidates by primary key, the primary keys of the results
+     * and the translation row are cached along with the results.
+     */
+    public void putQueryResult(ReadQuery query, List parameters, AbstractRecord translationRow, Object results) {
         if ((results == null) || (results == InvalidObject.instance())) {
             if (query.getQueryResultsCachePolicy().isNullIgnored()) {
                 return;
@@ -1421,26 +1611,29 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
         }
         IdentityMap map = this.queryResults.get(queryKey);
         if (map == null) {
-            synchronized (this.queryResults) {
-                map = this.queryResults.get(queryKey);
+            int size = query.getQueryResultsCachePolicy().getMaximumCachedResults();
+            // PERF: If no parameters, then there can only be one result.
+            if ((parameters == null) || parameters.isEmpty()) {
+                size = 1;
+            }
+            IdentityMap newMap = buildNewIdentityMap(query.getQueryResultsCachePolicy().getCacheType(), size, null, false);
+            if (newMap instanceof QueryResultsIdentityMap) {
+                ((QueryResultsIdentityMap)newMap).setTotalMemory(this.queryResultsMemory);
+            }
+            // PERF: Avoid synchronization through get and putIfAbsent double-check.
+            if (this.queryResults instanceof ConcurrentMap) {
+                map = ((ConcurrentMap<Object, IdentityMap>)this.queryResults).putIfAbsent(queryKey, newMap);
                 if (map == null) {
-                    int size = query.getQueryResultsCachePolicy().getMaximumCachedResults();
-                    // PERF: If no parameters, then there can only be one result.
-                    if ((parameters == null) || parameters.isEmpty()) {
-                        size = 1;
-                    }
-                    map = buildNewIdentityMap(query.getQueryResultsCachePolicy().getCacheType(), size, null, false);
-                    this.queryResults.put(queryKey, map);
-                    // Mark the query to be invalidated for the query classes.
-                    if (query.getQueryResultsCachePolicy().getInvalidateOnChange()) {
-                        for (Class queryClass : query.getQueryResultsCachePolicy().getInvalidationClasses()) {
-                            Set invalidations = this.queryResultsInvalidationsByClass.get(queryClass);
-                            if (invalidations == null) {
-                                invalidations = new HashSet();
-                                this.queryResultsInvalidationsByClass.put(queryClass, invalidations);
-                            }
-                            invalidations.add(queryKey);
-                        }
+                    map = newMap;
+                    addQueryResultsInvalidations(query, queryKey);
+                }
+            } else {
+                synchronized (this.queryResults) {
+                    map = this.queryResults.get(queryKey);
+                    if (map == null) {
+                        map = newMap;
+                        this.queryResults.put(queryKey, map);
+                        addQueryResultsInvalidations(query, queryKey);
                     }
                 }
             }
@@ -1462,7 +1655,87 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
         if (results == null) {
             results = InvalidObject.instance();
         }
+        if (query.getQueryResultsCachePolicy().shouldInvalidateByPrimaryKey() && query.isObjectLevelReadQuery()) {
+            CachedQueryResult cachedResult = CachedQueryResult.buildCachedQueryResult((ObjectLevelReadQuery)query, translationRow, results, this.session);
+            if (cachedResult != null) {
+                results = cachedResult;
+            }
+        }
         map.put(lookupParameters, results, null, queryTime);
+        if (map instanceof QueryResultsIdentityMap) {
+            checkQueryResultsMemory();
+        }
+    }
+
+    /**
+     * Mark the query to be invalidated for the query classes.
+     */
+    protected void addQueryResultsInvalidations(ReadQuery query, Object queryKey) {
+        if (!query.getQueryResultsCachePolicy().getInvalidateOnChange()) {
+            return;
+        }
+        for (Class queryClass : query.getQueryResultsCachePolicy().getInvalidationClasses()) {
+            Set invalidations = this.queryResultsInvalidationsByClass.get(queryClass);
+            if (invalidations == null) {
+                if (this.queryResultsInvalidationsByClass instanceof ConcurrentMap) {
+                    invalidations = ConcurrentHashMap.newKeySet();
+                    Set existing = ((ConcurrentMap<Class, Set>)this.queryResultsInvalidationsByClass).putIfAbsent(queryClass, invalidations);
+                    if (existing != null) {
+                        invalidations = existing;
+                    }
+                } else {
+                    invalidations = new HashSet();
+                    this.queryResultsInvalidationsByClass.put(queryClass, invalidations);
+                }
+            }
+            invalidations.add(queryKey);
+        }
+    }
+
+    /**
+     * Report the memory used by the query results to the profiler, and if it exceeds the
+     * project's maximum, evict the least recently used results of all queries.
+     * The eviction is approximate: each eviction compares a sample of the results of a sample of the queries,
+     * starting from a rotating query, so that its cost does not depend on the number of cached results.
+     * @see org.eclipse.persistence.sessions.Project#setQueryResultsCacheMaximumMemory(long)
+     */
+    protected void checkQueryResultsMemory() {
+        long memory = this.queryResultsMemory.get();
+        if (this.session.getProfiler() != null) {
+            this.session.updateProfile(SessionProfiler.QueryResultsCacheMemory, memory);
+        }
+        long maximumMemory = this.session.getProject().getQueryResultsCacheMaximumMemory();
+        if ((maximumMemory <= 0) || (memory <= maximumMemory)) {
+            return;
+        }
+        List<QueryResultsIdentityMap> maps = new ArrayList<>();
+        for (IdentityMap map : this.queryResults.values()) {
+            if (map instanceof QueryResultsIdentityMap) {
+                maps.add((QueryResultsIdentityMap)map);
+            }
+        }
+        int size = maps.size();
+        int emptySampled = 0;
+        while ((emptySampled < size) && (this.queryResultsMemory.get() > maximumMemory)) {
+            int start = this.queryResultsEvictionStart++ & Integer.MAX_VALUE;
+            QueryResultsCacheKey leastRecentlyUsed = null;
+            for (int index = 0; index < Math.min(size, QUERY_RESULTS_EVICTION_SAMPLE); index++) {
+                QueryResultsCacheKey cacheKey = maps.get((start + index) % size).sampleLeastRecentlyUsed(QUERY_RESULTS_EVICTION_SAMPLE);
+                if ((cacheKey != null) && ((leastRecentlyUsed == null) || (cacheKey.getLastAccess() < leastRecentlyUsed.getLastAccess()))) {
+                    leastRecentlyUsed = cacheKey;
+                }
+            }
+            if (leastRecentlyUsed == null) {
+                // The sampled maps are empty, continue with the next ones, unless all are.
+                emptySampled = emptySampled + Math.min(size, QUERY_RESULTS_EVICTION_SAMPLE);
+                continue;
+            }
+            emptySampled = 0;
+            IdentityMap map = leastRecentlyUsed.getOwningMap();
+            if ((map != null) && ((QueryResultsIdentityMap)map).evict(leastRecentlyUsed)) {
+                this.session.incrementProfile(SessionProfiler.QueryResultsCacheEvictions);
+            }
+        }
     }
 
     /**
@@ -1494,7 +1767,6 @@ public Object removeFromIdentityMap(Object key, Class domainClass, ClassDescript
         }
         IdentityMap map = getIdentityMap(descriptor, false);
         Object value;
-
         if (this.isCacheAccessPreCheckRequired) {
             this.session.startOperationProfile(SessionProfiler.Caching);
             // This is atomic so considered a read lock.
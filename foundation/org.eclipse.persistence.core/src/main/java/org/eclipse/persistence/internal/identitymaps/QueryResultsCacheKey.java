@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+/**
+ * <p><b>Purpose</b>: Cache key for a query result stored in a QueryResultsIdentityMap.
+ * <p><b>Responsibilities</b>:<ul>
+ * <li> Provide same capabilities as superclass.
+ * <li> Record the last access, to allow the least recently used results to be evicted.
+ * <li> Record the approximate memory used by the result.
+ * </ul>
+ * @see QueryResultsIdentityMap
+ */
+public class QueryResultsCacheKey extends CacheKey {
+
+    /** The time of the last access to the result from System.nanoTime(), updated without locking. */
+    protected volatile long lastAccess;
+
+    /** The approximate memory in bytes used by the result. */
+    protected long estimatedSize;
+
+    public QueryResultsCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime, boolean isIsolated) {
+        super(primaryKey, object, writeLockValue, readTime, isIsolated);
+        this.lastAccess = System.nanoTime();
+    }
+
+    /**
+     * Return the time of the last access to the result, a greater value being a more recent access.
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    public void setEstimatedSize(long estimatedSize) {
+        this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * Notifies that cache key that it has been accessed.
+     * Record the access for the LRU eviction.
+     */
+    @Override
+    public void updateAccess() {
+        this.lastAccess = System.nanoTime();
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * <p><b>Purpose</b>: A fixed size cache of query results, keyed by the query parameters.
+ * <p>
+ * Unlike the CacheIdentityMap, lookups do not lock, they only record the access to the result.
+ * When the maximum size is exceeded the least recently accessed result is evicted.
+ * The approximate memory used by the cached results is tracked, both per map and for
+ * all of the query results caches of the session, to allow a global memory limit to be enforced.
+ * Only the result containers and cached primary keys are counted, the result objects themselves
+ * are held by the object cache.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Lock free lookup of query results.
+ *    <li> Bound the number of cached results.
+ *    <li> Track the approximate memory used by the cached results.
+ * </ul>
+ * @see org.eclipse.persistence.queries.QueryResultsCachePolicy
+ * @see IdentityMapManager#putQueryResult(org.eclipse.persistence.queries.ReadQuery, java.util.List, org.eclipse.persistence.internal.sessions.AbstractRecord, Object)
+ */
+public class QueryResultsIdentityMap extends FullIdentityMap {
+
+    /** Approximate size in bytes of a cached result, excluding its contents. */
+    public static final int ENTRY_SIZE = 96;
+
+    /** Approximate size in bytes of a reference to a result object, or a query parameter. */
+    public static final int REFERENCE_SIZE = 8;
+
+    /** Approximate size in bytes of a cached primary key. */
+    public static final int PRIMARY_KEY_SIZE = 48;
+
+    /** The number of results compared to choose the result evicted when the maximum size is exceeded. */
+    public static final int EVICTION_SAMPLE_SIZE = 8;
+
+    /** The approximate memory in bytes used by the results in this map. */
+    protected final AtomicLong memory = new AtomicLong();
+
+    /** The approximate memory in bytes used by all of the query results of the session, may be null. */
+    protected volatile AtomicLong totalMemory;
+
+    /** Where the next sample of the results to evict starts, so that all of the results are sampled in turn. */
+    protected Iterator<CacheKey> evictionCursor;
+
+    public QueryResultsIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isolated) {
+        super(size, descriptor, session, isolated);
+    }
+
+    /**
+     * Estimate the memory in bytes used to cache the query results.
+     */
+    public static long estimateSize(Object results) {
+        long size = ENTRY_SIZE;
+        if (results instanceof CachedQueryResult) {
+            size = size + ENTRY_SIZE + (PRIMARY_KEY_SIZE * ((CachedQueryResult)results).getPrimaryKeys().size());
+            results = ((CachedQueryResult)results).getResults();
+        }
+        if (results instanceof Collection) {
+            size = size + ENTRY_SIZE + (REFERENCE_SIZE * ((Collection)results).size());
+        }
+        return size;
+    }
+
+    @Override
+    public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        QueryResultsCacheKey cacheKey = new QueryResultsCacheKey(primaryKey, object, writeLockValue, readTime, this.isIsolated);
+        long size = estimateSize(object);
+        if (primaryKey instanceof CacheId) {
+            size = size + (REFERENCE_SIZE * ((CacheId)primaryKey).getPrimaryKey().length);
+        }
+        cacheKey.setEstimatedSize(size);
+        return cacheKey;
+    }
+
+    /**
+     * Return the cache key matching the query parameters, and record the access.
+     * This does not lock.
+     */
+    @Override
+    public CacheKey getCacheKey(Object searchKey, boolean forMerge) {
+        CacheKey cacheKey = this.cacheKeys.get(searchKey);
+        if (cacheKey != null) {
+            cacheKey.updateAccess();
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Also account for the memory of the cacheKey if it is put,
+     * and evict the least recently used results if the maximum size is exceeded.
+     */
+    @Override
+    protected CacheKey putCacheKeyIfAbsent(CacheKey searchKey) {
+        CacheKey cacheKey = super.putCacheKeyIfAbsent(searchKey);
+        if (cacheKey == null) {
+            addMemory(((QueryResultsCacheKey)searchKey).getEstimatedSize());
+            ensureFixedSize(searchKey);
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Reset the cache key with new results, and account for the change in memory.
+     */
+    @Override
+    public void resetCacheKey(CacheKey key, Object object, Object writeLockValue, long readTime) {
+        QueryResultsCacheKey cacheKey = (QueryResultsCacheKey)key;
+        key.acquire();
+        long oldSize = cacheKey.getEstimatedSize();
+        long size = oldSize - estimateSize(key.getObject()) + estimateSize(object);
+        key.setObject(object);
+        key.setWriteLockValue(writeLockValue);
+        key.setReadTime(readTime);
+        cacheKey.setEstimatedSize(size);
+        cacheKey.updateAccess();
+        key.release();
+        if (key.getOwningMap() == this) {
+            addMemory(size - oldSize);
+        }
+    }
+
+    /**
+     * Removes the CacheKey from the map, and release its memory.
+     * @return the results held within the CacheKey or null if no results cached for given cacheKey.
+     */
+    @Override
+    public Object remove(CacheKey cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+        removeCacheKey(cacheKey);
+        return cacheKey.getObject();
+    }
+
+    /**
+     * Removes the CacheKey from the map, and release its memory.
+     * @return if the cache key was removed, false if it was already removed by another thread.
+     */
+    protected boolean removeCacheKey(CacheKey cacheKey) {
+        // Cache key needs to be locked when removing from the map.
+        cacheKey.acquire();
+        boolean removed = this.cacheKeys.remove(cacheKey.getKey(), cacheKey);
+        cacheKey.setOwningMap(null);
+        cacheKey.setInvalidationState(CacheKey.CACHE_KEY_INVALID);
+        cacheKey.release();
+        if (removed) {
+            addMemory(-((QueryResultsCacheKey)cacheKey).getEstimatedSize());
+        }
+        return removed;
+    }
+
+    /**
+     * Reduce the size of the receiver down to the maxSize, removing the least recently accessed
+     * of a sample of the results, so that the cost does not depend on the size of the map.
+     * @param newCacheKey the cache key just put, that should not be evicted, may be null.
+     */
+    protected void ensureFixedSize(CacheKey newCacheKey) {
+        // A max size of 0 is not enforced, as it would not cache anything.
+        int maxSize = getMaxSize();
+        while ((maxSize > 0) && (getSize() > maxSize)) {
+            QueryResultsCacheKey leastRecentlyUsed = sampleLeastRecentlyUsed(EVICTION_SAMPLE_SIZE, newCacheKey);
+            if (leastRecentlyUsed == null) {
+                return;
+            }
+            if (removeCacheKey(leastRecentlyUsed) && (this.session != null)) {
+                this.session.incrementProfile(SessionProfiler.QueryResultsCacheEvictions);
+            }
+        }
+    }
+
+    /**
+     * Return the least recently used of a sample of the results, or null if empty.
+     * This approximates the least recently used result without scanning the whole map,
+     * each sample starting after the previous one.
+     * @param sampleSize the number of results to compare.
+     */
+    public QueryResultsCacheKey sampleLeastRecentlyUsed(int sampleSize) {
+        return sampleLeastRecentlyUsed(sampleSize, null);
+    }
+
+    /**
+     * Return the least recently used of a sample of the results, other than the excluded cache key,
+     * or null if there is none.
+     * @param sampleSize the number of results to compare.
+     * @param excluded the cache key that should not be returned, may be null.
+     */
+    protected synchronized QueryResultsCacheKey sampleLeastRecentlyUsed(int sampleSize, CacheKey excluded) {
+        QueryResultsCacheKey leastRecentlyUsed = null;
+        boolean restarted = false;
+        int sampled = 0;
+        while (sampled < sampleSize) {
+            if ((this.evictionCursor == null) || !this.evictionCursor.hasNext()) {
+                // Continue from the start of the map, unless it was all sampled.
+                if (restarted) {
+                    break;
+                }
+                this.evictionCursor = this.cacheKeys.values().iterator();
+                restarted = true;
+                continue;
+            }
+            CacheKey cacheKey = this.evictionCursor.next();
+            sampled++;
+            if (cacheKey == excluded) {
+                continue;
+            }
+            if ((leastRecentlyUsed == null) || (((QueryResultsCacheKey)cacheKey).getLastAccess() < leastRecentlyUsed.getLastAccess())) {
+                leastRecentlyUsed = (QueryResultsCacheKey)cacheKey;
+            }
+        }
+        return leastRecentlyUsed;
+    }
+
+    /**
+     * Evict the cache key to reduce the memory used by the query results.
+     * @return if the cache key was removed, false if it was already removed by another thread.
+     */
+    public boolean evict(CacheKey cacheKey) {
+        return removeCacheKey(cacheKey);
+    }
+
+    /**
+     * Add the change in memory to this map and the session total.
+     */
+    protected void addMemory(long delta) {
+        this.memory.addAndGet(delta);
+        AtomicLong totalMemory = this.totalMemory;
+        if (totalMemory != null) {
+            totalMemory.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Return the approximate memory in bytes used by the results in this map.
+     */
+    public long getMemory() {
+        return this.memory.get();
+    }
+
+    /**
+     * Set the counter of the approximate memory used by all of the query results of the session.
+     * This map's memory is added to the new counter, and removed from the previous one.
+     */
+    public void setTotalMemory(AtomicLong totalMemory) {
+        AtomicLong oldTotalMemory = this.totalMemory;
+        this.totalMemory = totalMemory;
+        long memory = this.memory.get();
+        if (oldTotalMemory != null) {
+            oldTotalMemory.addAndGet(-memory);
+        }
+        if (totalMemory != null) {
+            totalMemory.addAndGet(memory);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Update the max cache size, any results exceeding the max cache size will be removed.
+     */
+    @Override
+    public synchronized void updateMaxSize(int maxSize) {
+        setMaxSize(maxSize);
+        ensureFixedSize(null);
+    }
+}
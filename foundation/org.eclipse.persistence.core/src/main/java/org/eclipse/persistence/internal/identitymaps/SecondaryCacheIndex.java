@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.eclipse.persistence.descriptors.CacheIndex;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.internal.expressions.ConstantExpression;
+import org.eclipse.persistence.internal.expressions.FieldExpression;
+import org.eclipse.persistence.internal.expressions.FunctionExpression;
+import org.eclipse.persistence.internal.expressions.LogicalExpression;
+import org.eclipse.persistence.internal.expressions.ParameterExpression;
+import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
+import org.eclipse.persistence.internal.expressions.RelationExpression;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractColumnMapping;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: A non unique index on the object cache, used to query the cache in-memory.
+ * <p>
+ * The index maps the values of the index fields to the cache keys of all of the objects with those values.
+ * A hash index supports equality lookups, a sorted index also supports range lookups
+ * (&lt;, &lt;=, &gt;, &gt;= and between) on a single field.
+ * The index only selects the candidate objects for the selection criteria, the candidates are still conformed,
+ * so the index must contain every object in the identity map, but its values do not need to be exact.
+ * <p>
+ * The index is built from the identity map when first used by a query, and is then maintained as objects
+ * are built or merged into the cache, and as cache keys are removed from the map, including cache keys evicted
+ * or garbage collected by the map itself. It is only used while it is known to match the identity map:
+ * if the index does not have as many cache keys as the map, such as when an object was put in the map
+ * without being indexed, it is rebuilt from the map by the next query that uses it.
+ * The index must only be used on a shared cache, with an insertable and updateable index,
+ * as the objects of a unit of work or isolated cache are changed in place without being re-indexed.
+ * Numbers and dates are normalized, so that values of different types still match.
+ *
+ * @see CacheIndex#setIsUnique(boolean)
+ * @see IdentityMapManager#getAllFromIdentityMap(Expression, Class, org.eclipse.persistence.sessions.Record, int, boolean)
+ */
+public class SecondaryCacheIndex {
+
+    /** Indexes null values, and objects that are not yet built. Sorted before any other value. */
+    protected static final Object NULL_VALUE = new Object() {
+        @Override
+        public String toString() {
+            return "NULL";
+        }
+    };
+
+    /** Orders the normalized index values. */
+    protected static final Comparator<Object> COMPARATOR = SecondaryCacheIndex::compareValues;
+
+    /** The index definition. */
+    protected final CacheIndex index;
+
+    /** The cache keys for each index value, sorted for a sorted index. */
+    protected final ConcurrentMap<Object, Set<CacheKey>> cacheKeysByValue;
+
+    /** The index value of each cache key, to allow re-indexing and removal. */
+    protected final Map<CacheKey, Object> valuesByCacheKey;
+
+    /** The identity map the index was built from, the index is rebuilt if the identity map is replaced. */
+    protected volatile FullIdentityMap identityMap;
+
+    /** Set to false if the index values cannot be sorted, in which case the index is not used. */
+    protected volatile boolean isValid = true;
+
+    public SecondaryCacheIndex(CacheIndex index) {
+        this.index = index;
+        if (index.isSorted()) {
+            this.cacheKeysByValue = new ConcurrentSkipListMap<>(COMPARATOR);
+        } else {
+            this.cacheKeysByValue = new ConcurrentHashMap<>();
+        }
+        this.valuesByCacheKey = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Return the index definition.
+     */
+    public CacheIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Return the number of cache keys indexed.
+     */
+    public int getSize() {
+        return this.valuesByCacheKey.size();
+    }
+
+    /**
+     * Return if the index can be used.
+     */
+    public boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Index the cache key by the values of its index fields.
+     * If the cache key was already indexed by other values, it is re-indexed.
+     */
+    public synchronized void put(CacheKey cacheKey, Object[] values) {
+        if (!this.isValid) {
+            return;
+        }
+        Object value = buildValue(values);
+        Object oldValue = this.valuesByCacheKey.put(cacheKey, value);
+        if (oldValue != null) {
+            if (oldValue.equals(value)) {
+                return;
+            }
+            removeValue(oldValue, cacheKey);
+        }
+        try {
+            Set<CacheKey> cacheKeys = this.cacheKeysByValue.get(value);
+            if (cacheKeys == null) {
+                cacheKeys = ConcurrentHashMap.newKeySet();
+                cacheKeys.add(cacheKey);
+                this.cacheKeysByValue.put(value, cacheKeys);
+            } else {
+                cacheKeys.add(cacheKey);
+            }
+        } catch (ClassCastException notComparable) {
+            // The values of the field cannot be sorted, so the index cannot be used.
+            this.isValid = false;
+            clear();
+        }
+    }
+
+    /**
+     * Remove the cache key from the index.
+     * Called by the identity map the index was built from as cache keys are removed from it.
+     */
+    public synchronized void remove(CacheKey cacheKey) {
+        Object value = this.valuesByCacheKey.remove(cacheKey);
+        if (value != null) {
+            removeValue(value, cacheKey);
+        }
+    }
+
+    /**
+     * Remove the cache key from the cache keys of the value.
+     */
+    protected void removeValue(Object value, CacheKey cacheKey) {
+        Set<CacheKey> cacheKeys = this.cacheKeysByValue.get(value);
+        if (cacheKeys != null) {
+            cacheKeys.remove(cacheKey);
+            if (cacheKeys.isEmpty()) {
+                this.cacheKeysByValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Remove all cache keys from the index.
+     */
+    public synchronized void clear() {
+        this.cacheKeysByValue.clear();
+        this.valuesByCacheKey.clear();
+    }
+
+    /**
+     * Rebuild the index from the objects in the identity map.
+     */
+    protected synchronized void rebuild(FullIdentityMap map, ClassDescriptor descriptor, AbstractSession session) {
+        clear();
+        if (this.identityMap != map) {
+            if (this.identityMap != null) {
+                this.identityMap.removeSecondaryIndex(this);
+            }
+            // Added before reading the keys, so the cache keys removed while rebuilding are removed from the index.
+            map.addSecondaryIndex(this);
+            this.identityMap = map;
+        }
+        List<DatabaseField> fields = this.index.getFields();
+        int size = fields.size();
+        ObjectBuilder builder = descriptor.getObjectBuilder();
+        for (Enumeration cacheKeys = map.keys(); cacheKeys.hasMoreElements() && this.isValid;) {
+            CacheKey cacheKey = (CacheKey)cacheKeys.nextElement();
+            Object object = cacheKey.getObject();
+            Object[] values = new Object[size];
+            // An object not yet built is indexed as null, it is re-indexed once built.
+            if (object != null) {
+                for (int count = 0; count < size; count++) {
+                    values[count] = builder.extractValueFromObjectForField(object, fields.get(count), session);
+                }
+            }
+            put(cacheKey, values);
+        }
+    }
+
+    /**
+     * Return the cache keys of the candidate objects for the selection criteria,
+     * or null if the index cannot be used for the selection criteria.
+     * The index can be used if the criteria compares all of the index fields for equality,
+     * or compares the field of a sorted single field index to a range,
+     * in the top level conjunction of the criteria.
+     * The candidates must still be conformed to the selection criteria.
+     */
+    public Collection<CacheKey> getCacheKeys(Expression selectionCriteria, AbstractRecord translationRow, IdentityMap map, ClassDescriptor descriptor, AbstractSession session) {
+        if (!this.isValid || !(map instanceof FullIdentityMap)) {
+            return null;
+        }
+        List<DatabaseField> fields = this.index.getFields();
+        IndexLookup lookup = new IndexLookup(fields.size());
+        collectLookup(selectionCriteria, lookup, translationRow, descriptor, session);
+        boolean isEqualLookup = lookup.isEqualLookup();
+        if (!isEqualLookup && !(this.index.isSorted() && (fields.size() == 1) && lookup.isRangeLookup())) {
+            return null;
+        }
+        if (!isFresh((FullIdentityMap)map)) {
+            rebuild((FullIdentityMap)map, descriptor, session);
+            if (!this.isValid) {
+                return null;
+            }
+        }
+        List<CacheKey> candidates = new ArrayList<>();
+        try {
+            if (isEqualLookup) {
+                Set<CacheKey> cacheKeys = this.cacheKeysByValue.get(buildValue(lookup.equalValues));
+                if (cacheKeys != null) {
+                    addCandidates(cacheKeys, map, candidates);
+                }
+            } else {
+                ConcurrentNavigableMap<Object, Set<CacheKey>> sortedCacheKeys = (ConcurrentNavigableMap<Object, Set<CacheKey>>)this.cacheKeysByValue;
+                if (lookup.lowValue != null) {
+                    sortedCacheKeys = sortedCacheKeys.tailMap(lookup.lowValue, lookup.isLowInclusive);
+                }
+                if (lookup.highValue != null) {
+                    sortedCacheKeys = sortedCacheKeys.headMap(lookup.highValue, lookup.isHighInclusive);
+                }
+                for (Set<CacheKey> cacheKeys : sortedCacheKeys.values()) {
+                    addCandidates(cacheKeys, map, candidates);
+                }
+            }
+        } catch (ClassCastException notComparable) {
+            // The query value cannot be compared to the index values.
+            return null;
+        }
+        return candidates;
+    }
+
+    /**
+     * Return if the index is known to match the identity map:
+     * built from the map, and as many cache keys as the map.
+     */
+    protected boolean isFresh(FullIdentityMap map) {
+        return (this.identityMap == map) && (this.valuesByCacheKey.size() == map.getSize());
+    }
+
+    /**
+     * Add the cache keys that are still in the identity map to the candidates.
+     */
+    protected void addCandidates(Set<CacheKey> cacheKeys, IdentityMap map, List<CacheKey> candidates) {
+        for (CacheKey cacheKey : cacheKeys) {
+            if (cacheKey.getOwningMap() == map) {
+                candidates.add(cacheKey);
+            }
+        }
+    }
+
+    /**
+     * Collect the comparisons of the index fields from the conjunction of the expression.
+     * Only conjuncts can restrict the candidates, so ors and nots are ignored.
+     */
+    protected void collectLookup(Expression expression, IndexLookup lookup, AbstractRecord translationRow, ClassDescriptor descriptor, AbstractSession session) {
+        if (expression.isLogicalExpression()) {
+            LogicalExpression logical = (LogicalExpression)expression;
+            if (logical.getOperator().getSelector() == ExpressionOperator.And) {
+                collectLookup(logical.getFirstChild(), lookup, translationRow, descriptor, session);
+                collectLookup(logical.getSecondChild(), lookup, translationRow, descriptor, session);
+            }
+        } else if (expression.isRelationExpression()) {
+            RelationExpression relation = (RelationExpression)expression;
+            int selector = relation.getOperator().getSelector();
+            Expression fieldExpression = relation.getFirstChild();
+            Expression valueExpression = relation.getSecondChild();
+            int fieldIndex = indexOfField(fieldExpression, descriptor);
+            if (fieldIndex == -1) {
+                // The field may be on the right, i.e. 5 < e.salary.
+                fieldExpression = relation.getSecondChild();
+                valueExpression = relation.getFirstChild();
+                fieldIndex = indexOfField(fieldExpression, descriptor);
+                if (fieldIndex == -1) {
+                    return;
+                }
+                selector = reverseSelector(selector);
+            }
+            Object value = extractValue(valueExpression, fieldExpression, translationRow, descriptor, session);
+            if (value != null) {
+                lookup.addComparison(fieldIndex, selector, normalizeValue(value));
+            }
+        } else if (expression.isFunctionExpression()) {
+            FunctionExpression function = (FunctionExpression)expression;
+            if ((function.getOperator().getSelector() != ExpressionOperator.Between) || (function.getChildren().size() != 3)) {
+                return;
+            }
+            Expression fieldExpression = function.getChildren().get(0);
+            int fieldIndex = indexOfField(fieldExpression, descriptor);
+            if (fieldIndex == -1) {
+                return;
+            }
+            Object lowValue = extractValue(function.getChildren().get(1), fieldExpression, translationRow, descriptor, session);
+            Object highValue = extractValue(function.getChildren().get(2), fieldExpression, translationRow, descriptor, session);
+            if (lowValue != null) {
+                lookup.addComparison(fieldIndex, ExpressionOperator.GreaterThanEqual, normalizeValue(lowValue));
+            }
+            if (highValue != null) {
+                lookup.addComparison(fieldIndex, ExpressionOperator.LessThanEqual, normalizeValue(highValue));
+            }
+        }
+    }
+
+    /**
+     * Return the position of the field of the expression in the index fields, or -1 if not an index field.
+     * Only fields of the source object are indexed.
+     */
+    protected int indexOfField(Expression expression, ClassDescriptor descriptor) {
+        DatabaseField field = null;
+        if (expression.isFieldExpression()) {
+            FieldExpression fieldExpression = (FieldExpression)expression;
+            if (!fieldExpression.getBaseExpression().isExpressionBuilder()) {
+                return -1;
+            }
+            field = fieldExpression.getField();
+        } else if (expression.isQueryKeyExpression()) {
+            QueryKeyExpression queryKey = (QueryKeyExpression)expression;
+            if (!queryKey.getBaseExpression().isExpressionBuilder()) {
+                return -1;
+            }
+            DatabaseMapping mapping = descriptor.getObjectBuilder().getMappingForAttributeName(queryKey.getName());
+            if (mapping == null) {
+                field = descriptor.getObjectBuilder().getFieldForQueryKeyName(queryKey.getName());
+            } else if (mapping.isAbstractColumnMapping()) {
+                field = mapping.getField();
+            }
+        }
+        if (field == null) {
+            return -1;
+        }
+        return this.index.getFields().indexOf(field);
+    }
+
+    /**
+     * Return the field value the field expression is compared to, or null if not a constant or parameter.
+     * Attribute values are converted to their field value, as the index is on the field values.
+     */
+    protected Object extractValue(Expression valueExpression, Expression fieldExpression, AbstractRecord translationRow, ClassDescriptor descriptor, AbstractSession session) {
+        Object value = null;
+        if (valueExpression.isConstantExpression()) {
+            value = ((ConstantExpression)valueExpression).getValue();
+        } else if (valueExpression.isParameterExpression() && (translationRow != null)) {
+            value = translationRow.get(((ParameterExpression)valueExpression).getField());
+        }
+        if ((value == null) || (value instanceof Expression) || (value instanceof Collection)) {
+            return null;
+        }
+        if (fieldExpression.isQueryKeyExpression()) {
+            DatabaseMapping mapping = descriptor.getObjectBuilder().getMappingForAttributeName(((QueryKeyExpression)fieldExpression).getName());
+            if ((mapping != null) && mapping.isAbstractColumnMapping()) {
+                value = ((AbstractColumnMapping)mapping).getFieldValue(value, session);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Return the operator for the operands swapped, i.e. 5 &lt; e.salary is e.salary &gt; 5.
+     */
+    protected static int reverseSelector(int selector) {
+        switch (selector) {
+            case ExpressionOperator.LessThan:
+                return ExpressionOperator.GreaterThan;
+            case ExpressionOperator.LessThanEqual:
+                return ExpressionOperator.GreaterThanEqual;
+            case ExpressionOperator.GreaterThan:
+                return ExpressionOperator.LessThan;
+            case ExpressionOperator.GreaterThanEqual:
+                return ExpressionOperator.LessThanEqual;
+            default:
+                return selector;
+        }
+    }
+
+    /**
+     * Build the index value for the field values.
+     */
+    protected static Object buildValue(Object[] values) {
+        if (values.length == 1) {
+            return normalizeValue(values[0]);
+        }
+        Object[] normalizedValues = new Object[values.length];
+        for (int index = 0; index < values.length; index++) {
+            normalizedValues[index] = normalizeValue(values[index]);
+        }
+        return new CacheId(normalizedValues);
+    }
+
+    /**
+     * Normalize the value so that values of different types are equal and comparable,
+     * numbers are converted to BigDecimal, and dates to Timestamp.
+     */
+    protected static Object normalizeValue(Object value) {
+        if (value == null) {
+            return NULL_VALUE;
+        }
+        if (value instanceof Number) {
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal)value).stripTrailingZeros();
+            } else if ((value instanceof Long) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte)) {
+                return BigDecimal.valueOf(((Number)value).longValue()).stripTrailingZeros();
+            } else if (value instanceof BigInteger) {
+                return new BigDecimal((BigInteger)value).stripTrailingZeros();
+            } else if ((value instanceof Double) || (value instanceof Float)) {
+                double doubleValue = ((Number)value).doubleValue();
+                if (!Double.isNaN(doubleValue) && !Double.isInfinite(doubleValue)) {
+                    return BigDecimal.valueOf(doubleValue).stripTrailingZeros();
+                }
+            }
+        } else if ((value instanceof Date) && !(value instanceof Timestamp)) {
+            return new Timestamp(((Date)value).getTime());
+        }
+        return value;
+    }
+
+    /**
+     * Compare the normalized index values, null is less than any value.
+     * @throws ClassCastException if the values are not comparable.
+     */
+    protected static int compareValues(Object value1, Object value2) {
+        if (value1 == value2) {
+            return 0;
+        } else if (value1 == NULL_VALUE) {
+            return -1;
+        } else if (value2 == NULL_VALUE) {
+            return 1;
+        }
+        return ((Comparable)value1).compareTo(value2);
+    }
+
+    /**
+     * The comparisons of the index fields found in the selection criteria.
+     */
+    protected static class IndexLookup {
+        protected Object[] equalValues;
+        protected int equalCount;
+        protected Object lowValue;
+        protected boolean isLowInclusive;
+        protected Object highValue;
+        protected boolean isHighInclusive;
+
+        protected IndexLookup(int size) {
+            this.equalValues = new Object[size];
+        }
+
+        /**
+         * Return if all of the index fields are compared for equality.
+         */
+        protected boolean isEqualLookup() {
+            return this.equalCount == this.equalValues.length;
+        }
+
+        /**
+         * Return if the index field is compared to a range.
+         */
+        protected boolean isRangeLookup() {
+            return (this.lowValue != null) || (this.highValue != null);
+        }
+
+        /**
+         * Record the comparison of the index field, keeping the most restrictive bounds.
+         */
+        protected void addComparison(int fieldIndex, int selector, Object value) {
+            switch (selector) {
+                case ExpressionOperator.Equal:
+                    if (this.equalValues[fieldIndex] == null) {
+                        this.equalValues[fieldIndex] = value;
+                        this.equalCount++;
+                    }
+                    break;
+                case ExpressionOperator.GreaterThan:
+                case ExpressionOperator.GreaterThanEqual:
+                    if (fieldIndex == 0) {
+                        boolean isInclusive = selector == ExpressionOperator.GreaterThanEqual;
+                        int compare = (this.lowValue == null) ? 1 : compareBound(value, this.lowValue);
+                        if ((compare > 0) || ((compare == 0) && !isInclusive)) {
+                            this.lowValue = value;
+                            this.isLowInclusive = isInclusive;
+                        }
+                    }
+                    break;
+                case ExpressionOperator.LessThan:
+                case ExpressionOperator.LessThanEqual:
+                    if (fieldIndex == 0) {
+                        boolean isInclusive = selector == ExpressionOperator.LessThanEqual;
+                        int compare = (this.highValue == null) ? -1 : compareBound(value, this.highValue);
+                        if ((compare < 0) || ((compare == 0) && !isInclusive)) {
+                            this.highValue = value;
+                            this.isHighInclusive = isInclusive;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Compare the bounds, if not comparable the existing bound is kept.
+         */
+        protected int compareBound(Object value, Object bound) {
+            try {
+                return compareValues(value, bound);
+            } catch (ClassCastException notComparable) {
+                return 0;
+            }
+        }
+    }
+}
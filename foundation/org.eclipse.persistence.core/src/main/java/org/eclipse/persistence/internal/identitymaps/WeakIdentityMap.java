@@ -64,6 +64,7 @@ protected void cleanupDeadCacheKeys() {
                     try {
                         if (key.getObject() == null) {
                             iterator.remove();
+                            removeFromSecondaryIndexes(key);
                         }
                     } finally {
                         key.release();
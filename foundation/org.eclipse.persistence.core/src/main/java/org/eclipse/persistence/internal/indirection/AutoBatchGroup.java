@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.indirection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.queries.BatchFetchPolicy;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Detects N+1 lazy loading of a relationship, and batch fetches the remaining relationships.
+ * <p>
+ * The group contains the rows of the objects built by a read all query execution for a lazy mapping,
+ * their value holders are AutoBatchValueHolders referencing the group.
+ * The first value holders instantiated execute their own query, once the threshold of instantiated
+ * value holders is reached, the relationships of all the remaining objects are read using IN batch fetching,
+ * the same way as if the mapping had been batch fetched by the query.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setAutoBatchFetchThreshold(int)
+ */
+public class AutoBatchGroup {
+    /** The query property storing the groups of the query execution, by mapping. */
+    public static final String GROUPS_PROPERTY = "eclipselink.batch.auto-groups";
+
+    protected final ForeignReferenceMapping mapping;
+    protected final ObjectLevelReadQuery sourceQuery;
+    protected final AbstractSession session;
+    protected final int threshold;
+
+    /** The rows of the source objects, until the group is batched. */
+    protected List<AbstractRecord> rows;
+
+    /** The rows of the value holders instantiated by their own query, until the group is batched. */
+    protected Set<AbstractRecord> instantiatedRows;
+
+    /** The original query of the batch, fetching the remaining rows. */
+    protected volatile ObjectLevelReadQuery batchSourceQuery;
+
+    /** The IN batch query of the mapping. */
+    protected volatile ReadQuery batchQuery;
+
+    public AutoBatchGroup(ForeignReferenceMapping mapping, ObjectLevelReadQuery sourceQuery, AbstractSession session, int threshold) {
+        this.mapping = mapping;
+        this.sourceQuery = sourceQuery;
+        this.session = session;
+        this.threshold = threshold;
+        this.rows = new ArrayList<>();
+        this.instantiatedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Add the row of a source object to the group.
+     * Return false if the group is already batched, a new group must then be used.
+     */
+    public synchronized boolean add(AbstractRecord row) {
+        if (this.batchQuery != null) {
+            return false;
+        }
+        this.rows.add(row);
+        return true;
+    }
+
+    /**
+     * Return if the value holder of the row must be instantiated from the batch.
+     * The first threshold value holders of the group are instantiated by their own query,
+     * the group is batched on the next one, if there are other value holders remaining.
+     */
+    public synchronized boolean shouldInstantiateFromBatch(AbstractRecord row) {
+        if (this.batchQuery != null) {
+            return true;
+        }
+        if ((this.instantiatedRows.size() < this.threshold) || (this.rows.size() - this.instantiatedRows.size() <= 1)) {
+            this.instantiatedRows.add(row);
+            return false;
+        }
+        prepareBatch();
+        return true;
+    }
+
+    /**
+     * Prepare the IN batch query for the rows of the value holders not yet instantiated.
+     */
+    protected void prepareBatch() {
+        List<AbstractRecord> remainingRows = new ArrayList<>(this.rows.size() - this.instantiatedRows.size());
+        for (AbstractRecord row : this.rows) {
+            if (!this.instantiatedRows.contains(row)) {
+                remainingRows.add(row);
+            }
+        }
+        ObjectLevelReadQuery batchSourceQuery = (ObjectLevelReadQuery)this.sourceQuery.clone();
+        batchSourceQuery.setIsExecutionClone(true);
+        batchSourceQuery.setSession(this.session);
+        BatchFetchPolicy policy = new BatchFetchPolicy();
+        policy.setIsAdaptive(true);
+        policy.setDataResults(remainingRows);
+        batchSourceQuery.setBatchFetchPolicy(policy);
+        ReadQuery batchQuery = this.mapping.prepareNestedBatchQuery(batchSourceQuery);
+        batchQuery.setIsExecutionClone(true);
+        this.session.log(SessionLog.FINER, SessionLog.QUERY, "auto_batch_fetch", new Object[] {this.instantiatedRows.size(), this.mapping, remainingRows.size()});
+        this.batchSourceQuery = batchSourceQuery;
+        this.batchQuery = batchQuery;
+        this.rows = null;
+        this.instantiatedRows = null;
+    }
+
+    /**
+     * Return the value of the row's relationship from the batch.
+     */
+    public Object instantiateFromBatch(AbstractRecord row, AbstractSession session) {
+        return this.mapping.extractResultFromBatchQuery(this.batchQuery, null, row, session, this.batchSourceQuery);
+    }
+
+    /**
+     * Return if the relationships of the remaining value holders are batch fetched.
+     */
+    public boolean isBatched() {
+        return this.batchQuery != null;
+    }
+
+    public ForeignReferenceMapping getMapping() {
+        return mapping;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.indirection;
+
+import org.eclipse.persistence.exceptions.DatabaseException;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.ReadQuery;
+
+/**
+ * AutoBatchValueHolder is used by lazy mappings that are not batch fetched, to detect N+1 lazy loading.
+ * It is instantiated by its own query, as a QueryBasedValueHolder, until enough value holders of its
+ * group are instantiated, it is then instantiated from the batch fetching the group's remaining relationships.
+ *
+ * @see AutoBatchGroup
+ */
+public class AutoBatchValueHolder extends QueryBasedValueHolder {
+    protected transient AutoBatchGroup group;
+
+    /**
+     * Initialize the query-based value holder.
+     * @param query The query that returns the object when executed.
+     * @param row The row representation of the object.
+     * @param session The session the value holder is instantiated in.
+     * @param group The value holders of the same query execution and mapping.
+     */
+    public AutoBatchValueHolder(ReadQuery query, AbstractRecord row, AbstractSession session, AutoBatchGroup group) {
+        super(query, row, session);
+        this.group = group;
+    }
+
+    /**
+     * Instantiate the object from the group's batch if it is batched, otherwise execute the query.
+     */
+    @Override
+    protected Object instantiate(AbstractSession session) throws DatabaseException {
+        AutoBatchGroup group = this.group;
+        if ((group != null) && group.shouldInstantiateFromBatch(this.row)) {
+            return group.instantiateFromBatch(this.row, session);
+        }
+        return super.instantiate(session);
+    }
+
+    /**
+     * Reset all the fields that are not needed after instantiation.
+     */
+    @Override
+    protected void resetFields() {
+        super.resetFields();
+        this.group = null;
+    }
+}
@@ -497,6 +497,16 @@ public Object valueFromBatchQuery(ReadQuery batchQuery, AbstractRecord row, Obje
         return new BatchValueHolder(batchQuery, row, this.getForeignReferenceMapping(), originalQuery, parentCacheKey);
     }
 
+    /**
+     * INTERNAL:
+     * Return the value to be stored in the object's attribute.
+     * In this case, wrap the query in a ValueHolder for later invocation, using the group's batch once batched.
+     */
+    @Override
+    public Object valueFromAutoBatch(ReadQuery query, AbstractRecord row, AutoBatchGroup group, AbstractSession session) {
+        return new AutoBatchValueHolder(query, row, session, group);
+    }
+
     /**
      * INTERNAL:
      * Return the value to be stored in the object's attribute.
@@ -394,6 +394,17 @@ public Object valueFromBatchQuery(ReadQuery batchQuery, AbstractRecord row, Obje
         return buildContainer(valueHolder);
     }
 
+    /**
+     * INTERNAL:
+     * Return the value to be stored in the object's attribute.
+     * In this case, wrap the query in a ValueHolder for later invocation, using the group's batch once batched.
+     */
+    @Override
+    public Object valueFromAutoBatch(ReadQuery query, AbstractRecord row, AutoBatchGroup group, AbstractSession session) {
+        ValueHolderInterface valueHolder = (ValueHolderInterface)super.valueFromAutoBatch(query, row, group, session);
+        return buildContainer(valueHolder);
+    }
+
     /**
      * INTERNAL:
      * Return the value to be stored in the object's attribute.
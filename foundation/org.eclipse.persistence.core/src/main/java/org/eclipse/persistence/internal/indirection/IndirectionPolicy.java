@@ -510,6 +510,16 @@ public void validateSetMethodParameterTypeForCollection(Class parameterType, Int
      */
     public abstract Object valueFromBatchQuery(ReadQuery batchQuery, AbstractRecord row, ObjectLevelReadQuery originalQuery, CacheKey parentCacheKey);
 
+    /**
+     * INTERNAL:
+     * Return the value to be stored in the object's attribute.
+     * This value is determined by the query, or by the batch of the group if N+1 lazy loading is detected.
+     * By default the value is determined by the query only.
+     */
+    public Object valueFromAutoBatch(ReadQuery query, AbstractRecord row, AutoBatchGroup group, AbstractSession session) {
+        return valueFromQuery(query, row, session);
+    }
+
     /**
      * INTERNAL:
      * Return the value to be stored in the object's attribute.
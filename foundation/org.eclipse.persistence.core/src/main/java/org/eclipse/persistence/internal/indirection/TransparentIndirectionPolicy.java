@@ -716,6 +716,16 @@ public Object valueFromBatchQuery(ReadQuery batchQuery, AbstractRecord row, Obje
         return this.buildIndirectContainer(new BatchValueHolder(batchQuery, row, getForeignReferenceMapping(), originalQuery, parentCacheKey));
     }
 
+    /**
+     * INTERNAL:
+     * Return the value to be stored in the object's attribute.
+     * In this case, wrap the query in an IndirectContainer for later invocation, using the group's batch once batched.
+     */
+    @Override
+    public Object valueFromAutoBatch(ReadQuery query, AbstractRecord row, AutoBatchGroup group, AbstractSession session) {
+        return this.buildIndirectContainer(new AutoBatchValueHolder(query, row, session, group));
+    }
+
     /**
      * INTERNAL:
      * Return the value to be stored in the object's attribute.
@@ -489,7 +489,11 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "dbws_xml_schema_read_error", "The [{0}] XML schema could not be read."},
         { "dbws_orm_metadata_read_error", "The [{0}] ORM metadata could not be read."},
         { "dbws_oxm_metadata_read_error", "The [{0}] OXM metadata could not be read."},
-        { "dbws_no_wsdl_inline_schema", "The [{0}] WSDL inline schema could not be read."}
+        { "dbws_no_wsdl_inline_schema", "The [{0}] WSDL inline schema could not be read."},
+        // Cache warm-up
+        { "cache_preload_failed", "The objects of [{0}] could not be preloaded into the shared cache: {1}"},
+        { "cache_snapshot_read_failed", "The cache snapshot [{0}] could not be reloaded, it is ignored: {1}"},
+        { "cache_snapshot_write_failed", "The cache snapshot [{0}] could not be written: {1}"}
     };
 
     /**
@@ -92,6 +92,10 @@ public class ToStringLocalizationResource extends ListResourceBundle {
                                            { "staticweave_commandline_help_message_11of19", "           Specify logging file." },
                                            { "staticweave_commandline_help_message_12of19", "    -loglevel" },
                                            { "staticweave_commandline_help_message_13of19", "           Specify the integer value of the logging level (8=OFF,7=SEVERE,6=WARNING,5=INFO,4=CONFIG,3=FINE,2=FINER(default),1=FINEST,0=ALL)." },
+                                           { "staticweave_commandline_help_message_threads", "    -threads" },
+                                           { "staticweave_commandline_help_message_threads_description", "           Specify the number of threads weaving the classes (1=default)." },
+                                           { "staticweave_commandline_help_message_incremental", "    -incremental" },
+                                           { "staticweave_commandline_help_message_incremental_description", "           Specify the file recording the content hashes of the source, to skip the entries unchanged since the previous weaving into the target directory." },
                                            { "staticweave_commandline_help_message_14of19", "    The classpath must contain all the classes necessary to load the classes in the source." },
                                            { "staticweave_commandline_help_message_15of19", "    The weaving will be performed in place if source and target point to the same location.  Weaving in place is ONLY applicable for directory-based sources." },
                                            { "staticweave_commandline_help_message_16of19", "  Example:" },
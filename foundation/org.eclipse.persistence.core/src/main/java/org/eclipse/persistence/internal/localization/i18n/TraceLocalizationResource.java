@@ -64,6 +64,15 @@ public class TraceLocalizationResource extends ListResourceBundle {
         { "unregister", "Unregister the object {0}" },
         { "begin_batch_statements", "Begin batch statements" },
         { "end_batch_statements", "End Batch Statements" },
+        { "auto_batch_fetch", "{0} lazy relationships loaded individually for mapping: {1}, batch fetching the remaining {2} relationships" },
+        { "auto_fetch_group", "Named query: {0} given the fetch group of the attributes used: {1}" },
+        { "auto_fetch_group_not_applied", "Named query: {0} not given a fetch group, the attributes used: {1}" },
+        { "descriptor_initialization_phase", "Descriptor {0} of {1} descriptors in {2} groups took {3} ms using {4} threads" },
+        { "named_query_precompilation", "Prepared {0} of {1} named queries in the background, {2} failed, in {3} ms using {4} threads" },
+        { "descriptor_lazy_initialization", "Deferred initialization of descriptor {0} initialized {1} descriptors in {2} ms, {3} descriptors remain deferred" },
+        { "metadata_index_loaded", "Metadata index of archive: {0} loaded, {1} classes are not scanned" },
+        { "metadata_index_not_current", "Metadata index of archive: {0} does not match the classes of the archive, the archive is scanned" },
+        { "project_cache_class_changed", "Project cache: {0} is not used, the class: {1} has changed" },
         { "query_column_meta_data_with_column", "query column meta data ({0}.{1}.{2}.{3})" },
         { "query_column_meta_data", "query table meta data ({0}.{1}.{2})" },
         { "reconnecting_to_external_connection_pool", "reconnecting to external connection pool" },
@@ -376,7 +385,9 @@ public class TraceLocalizationResource extends ListResourceBundle {
         { "moxy_write_to_moxy_json_provider", "MOXyJsonProvider.writeTo(...) is called."},
         { "moxy_set_marshaller_property", "Setting marshaller property (name/value): {0}/{1}"},
         { "moxy_set_unmarshaller_property", "Setting unmarshaller property (name/value): {0}/{1}"},
-        { "moxy_set_jaxb_context_property", "Setting JAXBContext property (name/value): {0}/{1}"}
+        { "moxy_set_jaxb_context_property", "Setting JAXBContext property (name/value): {0}/{1}"},
+        { "cache_preloaded", "Preloaded [{0}] objects of [{1}] into the shared cache, in [{2}] ms."},
+        { "cache_snapshot_loaded", "Reloaded [{0}] of [{1}] objects of [{2}] from the cache snapshot."}
     };
 
     /**
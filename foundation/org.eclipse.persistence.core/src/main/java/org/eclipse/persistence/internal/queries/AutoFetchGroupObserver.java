@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.queries;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.FetchGroupManager;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.FetchGroup;
+import org.eclipse.persistence.queries.FetchGroupTracker;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Gives a named query a fetch group of the attributes the application uses from its results.
+ * <p>
+ * During the warm-up, the objects returned by the query in a unit of work are given an observing fetch group,
+ * containing all the attributes, that records the attributes accessed through the woven entity methods.
+ * Once the warm-up executions are observed, the query is given a fetch group of the observed attributes,
+ * so the other columns are no longer selected.
+ * If the application accesses an attribute that is not fetched, the object is loaded as for any fetch group,
+ * and the attribute is added to the query's fetch group.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setAutoFetchGroupWarmUp(int)
+ */
+public class AutoFetchGroupObserver {
+    /** The query property storing the observer of a named query. */
+    public static final String PROPERTY = "eclipselink.fetch-group.auto-observer";
+
+    /** The named query, replaced by a copy whenever its fetch group changes. */
+    protected volatile ObjectLevelReadQuery query;
+    protected final ClassDescriptor descriptor;
+    protected final AbstractSession session;
+    protected final int warmUpExecutions;
+    protected final AtomicInteger executions;
+
+    /** The attributes accessed by the application, or missed by the fetch group. */
+    protected final Set<String> accessedAttributes;
+
+    /** The fetch group set on the objects returned during the warm-up. */
+    protected final ObservingFetchGroup observingFetchGroup;
+
+    /** The fetch group given to the query, null during the warm-up. */
+    protected volatile AutoFetchGroup autoFetchGroup;
+
+    public AutoFetchGroupObserver(ObjectLevelReadQuery query, ClassDescriptor descriptor, AbstractSession session, int warmUpExecutions) {
+        this.query = query;
+        this.descriptor = descriptor;
+        this.session = session;
+        this.warmUpExecutions = warmUpExecutions;
+        this.executions = new AtomicInteger();
+        this.accessedAttributes = ConcurrentHashMap.newKeySet();
+        this.observingFetchGroup = new ObservingFetchGroup(this, descriptor.getFetchGroupManager().createFullFetchGroup().getAttributeNames());
+    }
+
+    /**
+     * Observe the query if it reads complete objects of a class supporting fetch groups,
+     * and does not define a fetch group.
+     */
+    public static void observe(DatabaseQuery query, int warmUpExecutions, AbstractSession session) {
+        if (!query.isObjectLevelReadQuery() || query.isReportQuery() || (query.getReferenceClass() == null)) {
+            return;
+        }
+        ObjectLevelReadQuery readQuery = (ObjectLevelReadQuery)query;
+        ClassDescriptor descriptor = session.getDescriptor(readQuery.getReferenceClass());
+        if ((descriptor == null) || !descriptor.hasFetchGroupManager() || descriptor.hasInheritance() || descriptor.isAggregateDescriptor()
+                || (descriptor.getFetchGroupManager().getDefaultFetchGroup() != null)
+                || (readQuery.getFetchGroup() != null) || (readQuery.getFetchGroupName() != null) || readQuery.hasPartialAttributeExpressions()) {
+            return;
+        }
+        readQuery.setProperty(PROPERTY, new AutoFetchGroupObserver(readQuery, descriptor, session, warmUpExecutions));
+    }
+
+    /**
+     * Observe the result of an execution of the query in a unit of work.
+     * The objects of the warm-up executions are given the observing fetch group,
+     * the query is given its fetch group by the next execution.
+     */
+    public void observeResult(Object result, ObjectLevelReadQuery executedQuery) {
+        if ((this.autoFetchGroup != null) || (result == null)
+                || (executedQuery.getFetchGroup() != null) || (executedQuery.getFetchGroupName() != null)) {
+            return;
+        }
+        int execution = this.executions.incrementAndGet();
+        if (execution > this.warmUpExecutions) {
+            applyFetchGroup();
+            return;
+        }
+        if (result instanceof Collection) {
+            for (Object object : (Collection)result) {
+                observeObject(object);
+            }
+        } else {
+            observeObject(result);
+        }
+    }
+
+    /**
+     * Set the observing fetch group on the object, if it is fully fetched.
+     */
+    protected void observeObject(Object object) {
+        if ((object != null) && (object.getClass() == this.descriptor.getJavaClass())) {
+            FetchGroupTracker tracker = (FetchGroupTracker)object;
+            if (tracker._persistence_getFetchGroup() == null) {
+                tracker._persistence_setFetchGroup(this.observingFetchGroup);
+            }
+        }
+    }
+
+    /**
+     * Give the query the fetch group of the observed attributes.
+     * The query is not given a fetch group if no attributes were observed, or all of them were.
+     */
+    protected synchronized void applyFetchGroup() {
+        if (this.autoFetchGroup != null) {
+            return;
+        }
+        Set<String> attributes = new TreeSet<>(this.accessedAttributes);
+        FetchGroupManager fetchGroupManager = this.descriptor.getFetchGroupManager();
+        if (attributes.isEmpty() || attributes.containsAll(fetchGroupManager.createFullFetchGroup().getAttributeNames())) {
+            this.session.log(SessionLog.FINER, SessionLog.QUERY, "auto_fetch_group_not_applied", new Object[] {this.query.getName(), attributes});
+            // The query is no longer observed.
+            replaceQuery(null);
+            return;
+        }
+        AutoFetchGroup fetchGroup = new AutoFetchGroup(this, attributes);
+        this.session.log(SessionLog.FINER, SessionLog.QUERY, "auto_fetch_group", new Object[] {this.query.getName(), attributes});
+        replaceQuery(fetchGroup);
+        this.autoFetchGroup = fetchGroup;
+    }
+
+    /**
+     * Replace the named query by a prepared copy with the fetch group, or no longer observed if the fetch group is null.
+     * The named query is shared, it is not modified as other threads may be preparing or executing it.
+     */
+    protected void replaceQuery(AutoFetchGroup fetchGroup) {
+        ObjectLevelReadQuery query = this.query;
+        ObjectLevelReadQuery newQuery = (ObjectLevelReadQuery)query.clone();
+        if (fetchGroup == null) {
+            newQuery.removeProperty(PROPERTY);
+        } else {
+            newQuery.setFetchGroup(fetchGroup);
+            newQuery.checkPrepare(this.session, new DatabaseRecord());
+        }
+        List<DatabaseQuery> queries = this.session.getQueries().get(query.getName());
+        if (queries != null) {
+            // Queries are equal if they have the same definition, the identical query is replaced.
+            for (int index = 0; index < queries.size(); index++) {
+                if (queries.get(index) == query) {
+                    queries.set(index, newQuery);
+                    break;
+                }
+            }
+        }
+        this.query = newQuery;
+    }
+
+    /**
+     * Record the attribute accessed by the application, during the warm-up.
+     */
+    protected void recordAccess(String attributeName) {
+        if ((attributeName != null) && (this.autoFetchGroup == null)) {
+            this.accessedAttributes.add(attributeName);
+        }
+    }
+
+    /**
+     * Add the attribute accessed by the application, but not fetched, to the query's fetch group.
+     */
+    protected synchronized void recordMiss(String attributeName) {
+        if ((attributeName == null) || (this.autoFetchGroup == null) || !this.accessedAttributes.add(attributeName)) {
+            return;
+        }
+        Set<String> attributes = new TreeSet<>(this.accessedAttributes);
+        AutoFetchGroup fetchGroup = new AutoFetchGroup(this, attributes);
+        this.session.log(SessionLog.FINER, SessionLog.QUERY, "auto_fetch_group", new Object[] {this.query.getName(), attributes});
+        replaceQuery(fetchGroup);
+        this.autoFetchGroup = fetchGroup;
+    }
+
+    /**
+     * Return the current named query.
+     */
+    public ObjectLevelReadQuery getQuery() {
+        return this.query;
+    }
+
+    /**
+     * Return the number of executions observed.
+     */
+    public int getExecutions() {
+        return this.executions.get();
+    }
+
+    /**
+     * Return the attributes accessed by the application.
+     */
+    public Set<String> getAccessedAttributes() {
+        return this.accessedAttributes;
+    }
+
+    /**
+     * Return the fetch group given to the query, or null during the warm-up.
+     */
+    public FetchGroup getAutoFetchGroup() {
+        return this.autoFetchGroup;
+    }
+
+    public ObservingFetchGroup getObservingFetchGroup() {
+        return this.observingFetchGroup;
+    }
+
+    /**
+     * INTERNAL:
+     * The fetch group of fully fetched objects, recording the attributes accessed by the application.
+     * It is ignored by the FetchGroupManager, so the objects are handled as fully fetched.
+     */
+    public static class ObservingFetchGroup extends EntityFetchGroup {
+        protected transient AutoFetchGroupObserver observer;
+
+        public ObservingFetchGroup(AutoFetchGroupObserver observer, Collection<String> attributeNames) {
+            super(attributeNames);
+            this.observer = observer;
+        }
+
+        /**
+         * Record the access, all the attributes are fetched.
+         */
+        @Override
+        public boolean containsAttributeOnAccess(String attributeName) {
+            AutoFetchGroupObserver observer = this.observer;
+            if (observer != null) {
+                observer.recordAccess(attributeName);
+            }
+            return true;
+        }
+
+        /**
+         * The object is fully fetched, nothing is loaded.
+         */
+        @Override
+        public String onUnfetchedAttribute(FetchGroupTracker entity, String attributeName) {
+            return null;
+        }
+
+        /**
+         * The object is fully fetched, nothing is loaded.
+         */
+        @Override
+        public String onUnfetchedAttributeForSet(FetchGroupTracker entity, String attributeName) {
+            return null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The fetch group given to the query, its objects record the attributes that are not fetched when accessed.
+     */
+    public static class AutoFetchGroup extends FetchGroup {
+        protected transient AutoFetchGroupObserver observer;
+
+        public AutoFetchGroup(AutoFetchGroupObserver observer, Collection<String> attributeNames) {
+            super("auto");
+            this.observer = observer;
+            for (String attributeName : attributeNames) {
+                addAttribute(attributeName);
+            }
+        }
+
+        @Override
+        public EntityFetchGroup getEntityFetchGroup(FetchGroupManager fetchGroupManager) {
+            if (this.entityFetchGroup == null) {
+                this.entityFetchGroup = new AutoEntityFetchGroup(this.observer, getAttributeNames());
+            }
+            return this.entityFetchGroup;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The entity fetch group of the objects read with the query's fetch group.
+     */
+    public static class AutoEntityFetchGroup extends EntityFetchGroup {
+        protected transient AutoFetchGroupObserver observer;
+
+        public AutoEntityFetchGroup(AutoFetchGroupObserver observer, Collection<String> attributeNames) {
+            super(attributeNames);
+            this.observer = observer;
+        }
+
+        @Override
+        public String onUnfetchedAttribute(FetchGroupTracker entity, String attributeName) {
+            AutoFetchGroupObserver observer = this.observer;
+            if (observer != null) {
+                observer.recordMiss(attributeName);
+            }
+            return super.onUnfetchedAttribute(entity, attributeName);
+        }
+    }
+}
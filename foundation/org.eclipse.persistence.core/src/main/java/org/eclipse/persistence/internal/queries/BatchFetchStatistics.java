@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.queries;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: The observed fan-out of the IN batch fetches of a mapping.
+ * <p>
+ * The fan-out, the number of target rows fetched per source key, is used by adaptive batch fetching
+ * to size the next batches of the mapping, so each batch fetches a bounded number of rows.
+ *
+ * @see org.eclipse.persistence.queries.BatchFetchPolicy#isAdaptive()
+ */
+public class BatchFetchStatistics implements Serializable {
+    protected final LongAdder executions;
+    protected final LongAdder keys;
+    protected final LongAdder targets;
+    protected final AtomicInteger lastSize;
+
+    public BatchFetchStatistics() {
+        this.executions = new LongAdder();
+        this.keys = new LongAdder();
+        this.targets = new LongAdder();
+        this.lastSize = new AtomicInteger();
+    }
+
+    /**
+     * Record a batch query execution fetching the targets of the source keys.
+     */
+    public void record(int keys, int targets) {
+        this.executions.increment();
+        this.keys.add(keys);
+        this.targets.add(targets);
+        this.lastSize.set(keys);
+    }
+
+    /**
+     * Return the number of batch queries executed.
+     */
+    public long getExecutions() {
+        return this.executions.sum();
+    }
+
+    /**
+     * Return the number of source keys fetched.
+     */
+    public long getKeys() {
+        return this.keys.sum();
+    }
+
+    /**
+     * Return the number of target objects fetched.
+     */
+    public long getTargets() {
+        return this.targets.sum();
+    }
+
+    /**
+     * Return the number of source keys of the last batch query.
+     */
+    public int getLastSize() {
+        return this.lastSize.get();
+    }
+
+    /**
+     * Return the average number of targets per source key, or 1 if no batch was fetched.
+     */
+    public double getAverageFanOut() {
+        long keys = getKeys();
+        if (keys == 0) {
+            return 1.0;
+        }
+        return (double)getTargets() / keys;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFetchStatistics(executions=" + getExecutions() + ", keys=" + getKeys() + ", targets=" + getTargets()
+                + ", fan-out=" + String.format("%.2f", getAverageFanOut()) + ", last size=" + getLastSize() + ")";
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.queries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.queries.BatchFetchPolicy;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Executes the batch query of a batch fetched mapping in the background,
+ * as soon as the objects of the original query are built.
+ * <p>
+ * The batch query is shared with the mapping's BatchValueHolders, which synchronize on it,
+ * so a value holder accessed during the prefetch waits for it to complete instead of executing the query.
+ * If the prefetch fails the batch is reset, and the value holders execute the batch query on access.
+ *
+ * @see BatchFetchPolicy#setIsPrefetch(boolean)
+ */
+public class BatchPrefetch implements Runnable {
+    protected final ForeignReferenceMapping mapping;
+    protected final ReadQuery batchQuery;
+    protected final ObjectLevelReadQuery originalQuery;
+    protected final AbstractSession session;
+    protected final CacheKey parentCacheKey;
+    protected final AbstractRecord row;
+
+    /** The source rows to fetch the relationships of, set when launched. */
+    protected List<AbstractRecord> rows;
+
+    public BatchPrefetch(ForeignReferenceMapping mapping, ReadQuery batchQuery, ObjectLevelReadQuery originalQuery, AbstractSession session, CacheKey parentCacheKey, AbstractRecord row) {
+        this.mapping = mapping;
+        this.batchQuery = batchQuery;
+        this.originalQuery = originalQuery;
+        this.session = session;
+        this.parentCacheKey = parentCacheKey;
+        this.row = row;
+    }
+
+    /**
+     * Return the session to execute the batch query of objects built in the session in the background,
+     * or null if it cannot be executed in the background.
+     * This is the root session the mapping's value holders execute the batch query on,
+     * so objects built by a client session, or for a unit of work, are prefetched by the server session.
+     * Only a server session reads using its read connection pool, other sessions share their connection
+     * or their unit of work with the application thread, so objects built directly in a unit of work,
+     * or in an isolated client session, are not prefetched.
+     */
+    public static AbstractSession getPrefetchSession(AbstractSession session, ReadQuery batchQuery) {
+        if (session.isUnitOfWork()) {
+            return null;
+        }
+        AbstractSession rootSession = session.getRootSession(batchQuery);
+        if (!rootSession.isServerSession()) {
+            return null;
+        }
+        return rootSession;
+    }
+
+    /**
+     * Launch the prefetch on the server platform's thread pool.
+     * This must be called by the thread that executed the original query,
+     * once all of its objects are built.
+     */
+    public void launch() {
+        BatchFetchPolicy policy = this.originalQuery.getBatchFetchPolicy();
+        if (policy.isIN()) {
+            // IN fetches the rows by pages, all the rows are accessed to fetch all the pages.
+            this.rows = new ArrayList<>(policy.getDataResults(this.mapping));
+        } else {
+            // JOIN and EXISTS fetch all the relationships on the first access.
+            this.rows = Collections.singletonList(this.row);
+        }
+        this.session.getServerPlatform().launchContainerRunnable(this);
+    }
+
+    /**
+     * Fetch the relationships of the rows, the same way as if their value holders were accessed.
+     */
+    @Override
+    public void run() {
+        BatchFetchPolicy policy = this.originalQuery.getBatchFetchPolicy();
+        for (AbstractRecord sourceRow : this.rows) {
+            synchronized (this.batchQuery) {
+                try {
+                    this.mapping.extractResultFromBatchQuery(this.batchQuery, this.parentCacheKey, sourceRow, this.session, this.originalQuery);
+                } catch (RuntimeException error) {
+                    // Reset the batch so the value holders execute it on access.
+                    this.batchQuery.setBatchObjects(null);
+                    if (policy.isIN()) {
+                        policy.setDataResults(this.mapping, this.rows);
+                    }
+                    this.session.logThrowable(SessionLog.WARNING, SessionLog.QUERY, error);
+                    return;
+                }
+            }
+        }
+    }
+
+    public ForeignReferenceMapping getMapping() {
+        return mapping;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.queries;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
+import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.ReadQuery;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Iterates the objects of a cursor for a stream, building them as they are consumed.
+ * <p>
+ * The objects read so far are released from the cursor every page, as with Cursor.clear().
+ * If the objects are released from the unit of work, each object is unregistered from the unit of work
+ * once the next object is requested, or the stream is closed, so a large result is streamed in constant memory.
+ * Only the objects registered by the cursor are released, the objects already registered when the stream
+ * was created, and the new or deleted objects, stay managed by the unit of work.
+ *
+ * @see Cursor#stream(boolean)
+ */
+public class CursorSpliterator extends Spliterators.AbstractSpliterator<Object> {
+    protected final Cursor cursor;
+    protected final boolean shouldReleaseObjects;
+    protected final int pageSize;
+
+    /** The number of objects read. */
+    protected int count;
+
+    /** The last object consumed, released when the next object is requested. */
+    protected Object previous;
+
+    /** The objects registered in the unit of work before the stream, that must not be released. */
+    protected Set<Object> registeredObjects;
+
+    public CursorSpliterator(Cursor cursor, boolean shouldReleaseObjects) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.cursor = cursor;
+        ReadQuery query = cursor.getQuery();
+        this.shouldReleaseObjects = shouldReleaseObjects && cursor.getSession().isUnitOfWork()
+                && query.isObjectLevelReadQuery() && !query.isReportQuery();
+        this.pageSize = Math.max(cursor.getPageSize(), 1);
+        if (this.shouldReleaseObjects) {
+            this.registeredObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.registeredObjects.addAll(((UnitOfWorkImpl)cursor.getSession()).getCloneMapping().keySet());
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Object> action) {
+        release();
+        if (!this.cursor.hasNext()) {
+            return false;
+        }
+        Object next = this.cursor.next();
+        this.count++;
+        if ((this.count % this.pageSize) == 0) {
+            this.cursor.clear();
+        }
+        this.previous = next;
+        action.accept(next);
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Unregister the previous object from the unit of work, if the objects are released
+     * and the object was registered by the cursor.
+     * This is called when the next object is requested, and when the stream is closed.
+     */
+    public void release() {
+        Object previous = this.previous;
+        this.previous = null;
+        if ((previous == null) || !this.shouldReleaseObjects || this.registeredObjects.contains(previous)) {
+            return;
+        }
+        UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl)this.cursor.getSession();
+        if ((unitOfWork.getDescriptor(previous) != null) && !unitOfWork.isCloneNewObject(previous)
+                && !unitOfWork.isObjectDeleted(previous)) {
+            unitOfWork.unregisterObject(previous, 0, true);
+        }
+    }
+
+    /**
+     * Return the number of objects read.
+     */
+    public int getCount() {
+        return this.count;
+    }
+}
@@ -179,6 +179,12 @@ public Expression buildBaseSelectionCriteria(boolean isSubSelect, Map clonedExpr
     public Expression buildBaseSelectionCriteria(boolean isSubSelect, Map clonedExpressions, boolean shouldUseAdditionalJoinExpression) {
         Expression expression = getSelectionCriteria();
 
+        // Keyset pagination selects the objects ordered after the last object of the previous page.
+        if ((!isSubSelect) && getQuery().isReadAllQuery() && ((ReadAllQuery)getQuery()).hasKeysetValues()) {
+            Expression keysetCriteria = ((ReadAllQuery)getQuery()).buildKeysetCriteria(getSession().getPlatform());
+            expression = (expression == null) ? keysetCriteria : expression.and(keysetCriteria);
+        }
+
         // For Flashback: builder.asOf(value) counts as a non-trivial selection criteria.
         // Also for bug 2612185 try to preserve the original builder as far as possible.
         if ((expression == null) && getQuery().isObjectLevelReadQuery()) {
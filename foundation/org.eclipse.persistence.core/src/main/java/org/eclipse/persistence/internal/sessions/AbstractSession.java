@@ -2390,7 +2390,11 @@ public ClassDescriptor getClassDescriptor(Object domainObject) {
      */
     @Override
     public ClassDescriptor getClassDescriptorForAlias(String alias) {
-        return project.getDescriptorForAlias(alias);
+        ClassDescriptor descriptor = project.getDescriptorForAlias(alias);
+        if (descriptor != null) {
+            descriptor.initializeIfDeferred();
+        }
+        return descriptor;
     }
 
     /**
@@ -2453,6 +2457,11 @@ public ClassDescriptor getDescriptor(Class theClass) {
             }
         }
 
+        if (descriptor != null) {
+            // Complete the initialization deferred on login to the first use.
+            descriptor.initializeIfDeferred();
+        }
+
         // Cache for optimization.
         this.lastDescriptorAccessed = descriptor;
 
@@ -2489,6 +2498,9 @@ public ClassDescriptor getDescriptorForAlias(final String alias) {
         // descriptor which will have been initialized locally on the session.
         // The project descriptor will be not initialized.
         final ClassDescriptor desc = project.getDescriptorForAlias(alias);
+        if (desc != null) {
+            desc.initializeIfDeferred();
+        }
         if (desc != null && desc.hasMultitenantPolicy() && this.descriptors != null) {
             return this.descriptors.get(desc.getJavaClass());
         } else {
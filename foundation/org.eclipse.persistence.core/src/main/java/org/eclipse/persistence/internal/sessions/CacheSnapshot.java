@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p><b>Purpose</b>: A compact snapshot of the rows of the objects in the shared cache.
+ * <p>
+ * The snapshot records, for each class, the names of the fields and the field values and version
+ * of each object. It is written in a compressed binary format that only supports the basic
+ * JDBC value types, objects with other values are not added to the snapshot.
+ * No Java serialization is used, so reading a snapshot cannot instantiate arbitrary classes.
+ * <p><b>Responsibilities</b>:<ul>
+ * <li> Record the rows and versions of the cached objects.
+ * <li> Write and read the snapshot file.
+ * </ul>
+ * @see CacheWarmUpManager
+ */
+public class CacheSnapshot {
+
+    /** Identifies a snapshot file. */
+    protected static final int MAGIC = 0x454C4353;
+
+    /** The version of the snapshot file format. */
+    protected static final int FORMAT_VERSION = 1;
+
+    protected static final byte NULL = 0;
+    protected static final byte STRING = 1;
+    protected static final byte INTEGER = 2;
+    protected static final byte LONG = 3;
+    protected static final byte SHORT = 4;
+    protected static final byte BYTE = 5;
+    protected static final byte DOUBLE = 6;
+    protected static final byte FLOAT = 7;
+    protected static final byte BOOLEAN = 8;
+    protected static final byte CHARACTER = 9;
+    protected static final byte BIG_DECIMAL = 10;
+    protected static final byte BIG_INTEGER = 11;
+    protected static final byte SQL_DATE = 12;
+    protected static final byte TIME = 13;
+    protected static final byte TIMESTAMP = 14;
+    protected static final byte UTIL_DATE = 15;
+    protected static final byte BYTES = 16;
+
+    /** The name of the session the snapshot was taken from. */
+    protected String sessionName;
+
+    /** The rows of each class, keyed by class name. */
+    protected Map<String, ClassSnapshot> classSnapshots;
+
+    public CacheSnapshot(String sessionName) {
+        this.sessionName = sessionName;
+        this.classSnapshots = new LinkedHashMap<>();
+    }
+
+    public String getSessionName() {
+        return sessionName;
+    }
+
+    /**
+     * Return the rows of each class.
+     */
+    public Collection<ClassSnapshot> getClassSnapshots() {
+        return classSnapshots.values();
+    }
+
+    /**
+     * Return the rows of the class, or null if the snapshot contains none.
+     */
+    public ClassSnapshot getClassSnapshot(String className) {
+        return classSnapshots.get(className);
+    }
+
+    /**
+     * Add the row and version of an object of the class.
+     * The row is not added if it does not have the same fields as the rows previously added for the class,
+     * or if any of its values, or its version, are not of a supported type.
+     * @return if the row was added.
+     */
+    public boolean addRow(String className, String[] fieldNames, Object[] values, Object version) {
+        if (!isSupported(version)) {
+            return false;
+        }
+        for (Object value : values) {
+            if (!isSupported(value)) {
+                return false;
+            }
+        }
+        ClassSnapshot classSnapshot = this.classSnapshots.get(className);
+        if (classSnapshot == null) {
+            classSnapshot = new ClassSnapshot(className, fieldNames);
+            this.classSnapshots.put(className, classSnapshot);
+        } else if (!Arrays.equals(classSnapshot.fieldNames, fieldNames)) {
+            return false;
+        }
+        classSnapshot.rows.add(values);
+        classSnapshot.versions.add(version);
+        return true;
+    }
+
+    /**
+     * Return if the value can be written to the snapshot.
+     */
+    public static boolean isSupported(Object value) {
+        return (value == null) || (value instanceof String) || (value instanceof Integer) || (value instanceof Long)
+                || (value instanceof Short) || (value instanceof Byte) || (value instanceof Double) || (value instanceof Float)
+                || (value instanceof Boolean) || (value instanceof Character) || (value instanceof BigDecimal)
+                || (value instanceof BigInteger) || (value instanceof java.util.Date) || (value instanceof byte[]);
+    }
+
+    /**
+     * Write the snapshot to the file.
+     * The snapshot is first written to a temporary file, that then replaces the file,
+     * so a failure cannot leave a partially written snapshot.
+     */
+    public void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if ((directory != null) && !directory.exists()) {
+            directory.mkdirs();
+        }
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temporaryFile))))) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(FORMAT_VERSION);
+            writeString(stream, this.sessionName);
+            stream.writeInt(this.classSnapshots.size());
+            for (ClassSnapshot classSnapshot : this.classSnapshots.values()) {
+                writeString(stream, classSnapshot.className);
+                stream.writeInt(classSnapshot.fieldNames.length);
+                for (String fieldName : classSnapshot.fieldNames) {
+                    writeString(stream, fieldName);
+                }
+                int size = classSnapshot.rows.size();
+                stream.writeInt(size);
+                for (int index = 0; index < size; index++) {
+                    writeValue(stream, classSnapshot.versions.get(index));
+                    for (Object value : classSnapshot.rows.get(index)) {
+                        writeValue(stream, value);
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read the snapshot from the file.
+     * @throws IOException if the file cannot be read, or is not a valid snapshot.
+     */
+    public static CacheSnapshot read(File file) throws IOException {
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if ((stream.readInt() != MAGIC) || (stream.readInt() != FORMAT_VERSION)) {
+                throw new StreamCorruptedException(file.getPath());
+            }
+            CacheSnapshot snapshot = new CacheSnapshot(readString(stream));
+            int classes = stream.readInt();
+            for (int classIndex = 0; classIndex < classes; classIndex++) {
+                String className = readString(stream);
+                String[] fieldNames = new String[stream.readInt()];
+                for (int index = 0; index < fieldNames.length; index++) {
+                    fieldNames[index] = readString(stream);
+                }
+                ClassSnapshot classSnapshot = new ClassSnapshot(className, fieldNames);
+                int size = stream.readInt();
+                for (int rowIndex = 0; rowIndex < size; rowIndex++) {
+                    classSnapshot.versions.add(readValue(stream));
+                    Object[] values = new Object[fieldNames.length];
+                    for (int index = 0; index < values.length; index++) {
+                        values[index] = readValue(stream);
+                    }
+                    classSnapshot.rows.add(values);
+                }
+                snapshot.classSnapshots.put(className, classSnapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    protected static void writeString(DataOutputStream stream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    protected static String readString(DataInputStream stream) throws IOException {
+        return new String(readBytes(stream), StandardCharsets.UTF_8);
+    }
+
+    protected static byte[] readBytes(DataInputStream stream) throws IOException {
+        int length = stream.readInt();
+        if (length < 0) {
+            throw new StreamCorruptedException();
+        }
+        byte[] bytes = new byte[length];
+        stream.readFully(bytes);
+        return bytes;
+    }
+
+    protected static void writeValue(DataOutputStream stream, Object value) throws IOException {
+        if (value == null) {
+            stream.writeByte(NULL);
+        } else if (value instanceof String) {
+            stream.writeByte(STRING);
+            writeString(stream, (String)value);
+        } else if (value instanceof Integer) {
+            stream.writeByte(INTEGER);
+            stream.writeInt((Integer)value);
+        } else if (value instanceof Long) {
+            stream.writeByte(LONG);
+            stream.writeLong((Long)value);
+        } else if (value instanceof Short) {
+            stream.writeByte(SHORT);
+            stream.writeShort((Short)value);
+        } else if (value instanceof Byte) {
+            stream.writeByte(BYTE);
+            stream.writeByte((Byte)value);
+        } else if (value instanceof Double) {
+            stream.writeByte(DOUBLE);
+            stream.writeDouble((Double)value);
+        } else if (value instanceof Float) {
+            stream.writeByte(FLOAT);
+            stream.writeFloat((Float)value);
+        } else if (value instanceof Boolean) {
+            stream.writeByte(BOOLEAN);
+            stream.writeBoolean((Boolean)value);
+        } else if (value instanceof Character) {
+            stream.writeByte(CHARACTER);
+            stream.writeChar((Character)value);
+        } else if (value instanceof BigDecimal) {
+            stream.writeByte(BIG_DECIMAL);
+            writeString(stream, value.toString());
+        } else if (value instanceof BigInteger) {
+            stream.writeByte(BIG_INTEGER);
+            writeString(stream, value.toString());
+        } else if (value instanceof java.sql.Date) {
+            stream.writeByte(SQL_DATE);
+            stream.writeLong(((java.sql.Date)value).getTime());
+        } else if (value instanceof Time) {
+            stream.writeByte(TIME);
+            stream.writeLong(((Time)value).getTime());
+        } else if (value instanceof Timestamp) {
+            stream.writeByte(TIMESTAMP);
+            stream.writeLong(((Timestamp)value).getTime());
+            stream.writeInt(((Timestamp)value).getNanos());
+        } else if (value instanceof java.util.Date) {
+            stream.writeByte(UTIL_DATE);
+            stream.writeLong(((java.util.Date)value).getTime());
+        } else if (value instanceof byte[]) {
+            stream.writeByte(BYTES);
+            stream.writeInt(((byte[])value).length);
+            stream.write((byte[])value);
+        } else {
+            throw new StreamCorruptedException(value.getClass().getName());
+        }
+    }
+
+    protected static Object readValue(DataInputStream stream) throws IOException {
+        byte type = stream.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(stream);
+            case INTEGER:
+                return stream.readInt();
+            case LONG:
+                return stream.readLong();
+            case SHORT:
+                return stream.readShort();
+            case BYTE:
+                return stream.readByte();
+            case DOUBLE:
+                return stream.readDouble();
+            case FLOAT:
+                return stream.readFloat();
+            case BOOLEAN:
+                return stream.readBoolean();
+            case CHARACTER:
+                return stream.readChar();
+            case BIG_DECIMAL:
+                return new BigDecimal(readString(stream));
+            case BIG_INTEGER:
+                return new BigInteger(readString(stream));
+            case SQL_DATE:
+                return new java.sql.Date(stream.readLong());
+            case TIME:
+                return new Time(stream.readLong());
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(stream.readLong());
+                timestamp.setNanos(stream.readInt());
+                return timestamp;
+            case UTIL_DATE:
+                return new java.util.Date(stream.readLong());
+            case BYTES:
+                return readBytes(stream);
+            default:
+                throw new StreamCorruptedException(String.valueOf(type));
+        }
+    }
+
+    /**
+     * The rows and versions of the objects of a class.
+     */
+    public static class ClassSnapshot {
+        protected String className;
+        protected String[] fieldNames;
+        protected List<Object[]> rows;
+        protected List<Object> versions;
+
+        public ClassSnapshot(String className, String[] fieldNames) {
+            this.className = className;
+            this.fieldNames = fieldNames;
+            this.rows = new ArrayList<>();
+            this.versions = new ArrayList<>();
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Return the qualified names of the fields of the rows.
+         */
+        public String[] getFieldNames() {
+            return fieldNames;
+        }
+
+        /**
+         * Return the field values of each object, in the order of the field names.
+         */
+        public List<Object[]> getRows() {
+            return rows;
+        }
+
+        /**
+         * Return the version of each object, in the order of the rows.
+         */
+        public List<Object> getVersions() {
+            return versions;
+        }
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.VersionLockingPolicy;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping.WriteType;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.platform.server.ServerPlatform;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReportQuery;
+import org.eclipse.persistence.queries.ReportQueryResult;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.server.ClientSession;
+import org.eclipse.persistence.sessions.server.ServerSession;
+
+/**
+ * <p><b>Purpose</b>: Warm up the shared cache of a session in the background after it logs in.
+ * <p>
+ * The objects of the classes configured to be preloaded are read into the shared cache.
+ * Classes with a single numeric primary key field are read in partitions of the primary key range,
+ * which on a server session are read in parallel using client sessions.
+ * The warm-up runs on the threads of the session's server platform, so does not delay the login,
+ * and on JPA is started once the persistence unit is deployed and its DDL generated.
+ * <p>
+ * If the project defines a cache snapshot file, the rows of the shared cache objects using
+ * version optimistic locking are written to the file on logout, and after login the objects whose
+ * version still matches the database are rebuilt into the shared cache without reading their rows.
+ * The versions are read in chunks of the snapshot's primary keys.
+ * <p>
+ * Failures are logged, and never fail the login or logout.
+ * <p><b>Responsibilities</b>:<ul>
+ * <li> Preload the configured classes in parallel partitions.
+ * <li> Write the cache snapshot on logout.
+ * <li> Validate and reload the cache snapshot after login.
+ * </ul>
+ * @see org.eclipse.persistence.descriptors.CachePolicy#setShouldPreload(boolean)
+ * @see org.eclipse.persistence.sessions.Project#setCacheSnapshotFileName(String)
+ */
+public class CacheWarmUpManager {
+
+    /** The number of objects of the snapshot whose versions are read by each query. */
+    public static final int VERSION_CHUNK_SIZE = 500;
+
+    /** The session whose shared cache is warmed up. */
+    protected DatabaseSessionImpl session;
+
+    /** Counted down once the warm-up is completed. */
+    protected final CountDownLatch completed = new CountDownLatch(1);
+
+    /** Set on logout, the remaining queries are not executed. */
+    protected volatile boolean isStopped;
+
+    public CacheWarmUpManager(DatabaseSessionImpl session) {
+        this.session = session;
+    }
+
+    /**
+     * Return if the session has a cache snapshot file or classes to preload.
+     */
+    public boolean isWarmUpRequired() {
+        return (this.session.getProject().getCacheSnapshotFileName() != null) || !getPreloadDescriptors().isEmpty();
+    }
+
+    /**
+     * Start warming up the shared cache in the background, on a thread of the server platform.
+     */
+    public void start() {
+        this.session.getServerPlatform().launchContainerRunnable(() -> {
+            try {
+                warmUp();
+            } finally {
+                this.completed.countDown();
+            }
+        });
+    }
+
+    /**
+     * Wait for the warm-up to complete, return false if the timeout elapsed first.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.completed.await(timeout, unit);
+    }
+
+    /**
+     * Stop warming up the shared cache, the queries in progress complete.
+     */
+    public void stop() {
+        this.isStopped = true;
+    }
+
+    /**
+     * Reload the cache snapshot, if any, then preload the configured classes.
+     */
+    public void warmUp() {
+        String fileName = this.session.getProject().getCacheSnapshotFileName();
+        if (fileName != null) {
+            File file = new File(fileName);
+            if (file.exists()) {
+                try {
+                    loadSnapshot(CacheSnapshot.read(file));
+                } catch (Exception exception) {
+                    this.session.log(SessionLog.WARNING, SessionLog.CACHE, "cache_snapshot_read_failed", fileName, exception);
+                }
+            }
+        }
+        List<ClassDescriptor> descriptors = getPreloadDescriptors();
+        if (!descriptors.isEmpty() && !this.isStopped) {
+            preload(descriptors);
+        }
+    }
+
+    /**
+     * Return the descriptors of the classes to preload.
+     * Subclasses are not returned if a superclass is preloaded, as they are read with it.
+     */
+    protected List<ClassDescriptor> getPreloadDescriptors() {
+        List<ClassDescriptor> descriptors = new ArrayList<>();
+        for (ClassDescriptor descriptor : this.session.getProject().getOrderedDescriptors()) {
+            if (!descriptor.getCachePolicy().shouldPreload() || descriptor.isDescriptorTypeAggregate() || !descriptor.isSharedIsolation()) {
+                continue;
+            }
+            boolean isPreloadedByParent = false;
+            ClassDescriptor parent = descriptor;
+            while (!isPreloadedByParent && parent.isChildDescriptor()) {
+                parent = parent.getInheritancePolicy().getParentDescriptor();
+                isPreloadedByParent = parent.getCachePolicy().shouldPreload();
+            }
+            if (!isPreloadedByParent) {
+                descriptors.add(descriptor);
+            }
+        }
+        return descriptors;
+    }
+
+    /**
+     * Read all of the objects of the classes into the shared cache.
+     * On a server session the partitions are read in parallel on the threads of the server platform,
+     * each using its own client session.
+     */
+    protected void preload(List<ClassDescriptor> descriptors) {
+        int threads = this.session.getProject().getCacheWarmUpThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        long start = System.currentTimeMillis();
+        List<ReadAllQuery> queries = new ArrayList<>();
+        List<ClassDescriptor> queryDescriptors = new ArrayList<>();
+        for (ClassDescriptor descriptor : descriptors) {
+            try {
+                for (ReadAllQuery query : buildPreloadQueries(descriptor, threads)) {
+                    queries.add(query);
+                    queryDescriptors.add(descriptor);
+                }
+            } catch (Exception exception) {
+                this.session.log(SessionLog.WARNING, SessionLog.CACHE, "cache_preload_failed", descriptor.getJavaClassName(), exception);
+            }
+        }
+        Map<ClassDescriptor, Integer> counts = new LinkedHashMap<>();
+        if ((threads == 1) || (queries.size() == 1) || !this.session.isServerSession()) {
+            for (int index = 0; (index < queries.size()) && !this.isStopped; index++) {
+                ClassDescriptor descriptor = queryDescriptors.get(index);
+                try {
+                    counts.merge(descriptor, ((List)this.session.executeQuery(queries.get(index))).size(), Integer::sum);
+                } catch (Exception exception) {
+                    this.session.log(SessionLog.WARNING, SessionLog.CACHE, "cache_preload_failed", descriptor.getJavaClassName(), exception);
+                }
+            }
+        } else {
+            Object[] results = executeInParallel(queries, Math.min(threads, queries.size()));
+            for (int index = 0; index < results.length; index++) {
+                ClassDescriptor descriptor = queryDescriptors.get(index);
+                if (results[index] instanceof Integer) {
+                    counts.merge(descriptor, (Integer)results[index], Integer::sum);
+                } else if (results[index] instanceof Exception) {
+                    this.session.log(SessionLog.WARNING, SessionLog.CACHE, "cache_preload_failed", descriptor.getJavaClassName(), results[index]);
+                }
+            }
+        }
+        long time = System.currentTimeMillis() - start;
+        for (Map.Entry<ClassDescriptor, Integer> entry : counts.entrySet()) {
+            this.session.log(SessionLog.FINE, SessionLog.CACHE, "cache_preloaded", entry.getValue(), entry.getKey().getJavaClassName(), time);
+        }
+    }
+
+    /**
+     * Execute the queries on the threads of the server platform, each using its own client session,
+     * and return the number of objects read by each query, or its failure, or null if not executed.
+     * The calling thread executes queries as well, so it does not only wait for the platform's threads.
+     */
+    protected Object[] executeInParallel(List<ReadAllQuery> queries, int threads) {
+        ServerSession serverSession = (ServerSession)this.session;
+        ServerPlatform platform = this.session.getServerPlatform();
+        Object[] results = new Object[queries.size()];
+        ConcurrentLinkedQueue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int index = 0; index < queries.size(); index++) {
+            pending.add(index);
+        }
+        CountDownLatch executed = new CountDownLatch(queries.size());
+        Runnable worker = () -> {
+            Integer index;
+            while ((index = pending.poll()) != null) {
+                try {
+                    if (!this.isStopped) {
+                        ClientSession clientSession = serverSession.acquireClientSession();
+                        try {
+                            results[index] = ((List)clientSession.executeQuery(queries.get(index))).size();
+                        } finally {
+                            clientSession.release();
+                        }
+                    }
+                } catch (Exception exception) {
+                    results[index] = exception;
+                } finally {
+                    executed.countDown();
+                }
+            }
+        };
+        for (int thread = 1; thread < threads; thread++) {
+            platform.launchContainerRunnable(worker);
+        }
+        worker.run();
+        try {
+            executed.await();
+        } catch (InterruptedException exception) {
+            this.isStopped = true;
+            Thread.currentThread().interrupt();
+        }
+        return results;
+    }
+
+    /**
+     * Return the queries to read all of the objects of the class.
+     * If the class has a single numeric primary key field, its range is split into a query for each partition,
+     * otherwise a single query is returned.
+     */
+    protected List<ReadAllQuery> buildPreloadQueries(ClassDescriptor descriptor, int partitions) {
+        List<ReadAllQuery> queries = new ArrayList<>(partitions);
+        List<DatabaseField> primaryKeyFields = descriptor.getPrimaryKeyFields();
+        if ((partitions > 1) && (primaryKeyFields.size() == 1)) {
+            DatabaseField field = primaryKeyFields.get(0);
+            DatabaseMapping mapping = descriptor.getObjectBuilder().getMappingForField(field);
+            if ((mapping != null) && mapping.isAbstractDirectMapping() && (((AbstractDirectMapping)mapping).getAttributeClassification() != null)
+                    && Number.class.isAssignableFrom(Helper.getObjectClass(((AbstractDirectMapping)mapping).getAttributeClassification()))) {
+                ReportQuery rangeQuery = new ReportQuery(descriptor.getJavaClass(), new ExpressionBuilder());
+                rangeQuery.addMinimum("min", rangeQuery.getExpressionBuilder().getField(field));
+                rangeQuery.addMaximum("max", rangeQuery.getExpressionBuilder().getField(field));
+                rangeQuery.setShouldReturnSingleResult(true);
+                ReportQueryResult range = (ReportQueryResult)this.session.executeQuery(rangeQuery);
+                if ((range != null) && (range.get("min") instanceof Number) && (range.get("max") instanceof Number)) {
+                    long min = ((Number)range.get("min")).longValue();
+                    long max = ((Number)range.get("max")).longValue();
+                    // A negative span is an overflow of a very large range, that is not partitioned.
+                    if ((max - min) >= partitions) {
+                        long step = ((max - min) / partitions) + 1;
+                        for (int partition = 0; partition < partitions; partition++) {
+                            ExpressionBuilder builder = new ExpressionBuilder();
+                            Expression criteria = null;
+                            if (partition > 0) {
+                                criteria = builder.getField(field).greaterThanEqual(min + (step * partition));
+                            }
+                            if (partition < (partitions - 1)) {
+                                criteria = builder.getField(field).lessThan(min + (step * (partition + 1))).and(criteria);
+                            }
+                            queries.add(buildPreloadQuery(descriptor, builder, criteria));
+                        }
+                        return queries;
+                    }
+                }
+            }
+        }
+        queries.add(buildPreloadQuery(descriptor, new ExpressionBuilder(), null));
+        return queries;
+    }
+
+    /**
+     * Return a query reading the full objects matching the criteria into the shared cache.
+     */
+    protected ReadAllQuery buildPreloadQuery(ClassDescriptor descriptor, ExpressionBuilder builder, Expression criteria) {
+        ReadAllQuery query = new ReadAllQuery(descriptor.getJavaClass(), builder);
+        query.setSelectionCriteria(criteria);
+        query.setShouldUseDefaultFetchGroup(false);
+        return query;
+    }
+
+    /**
+     * Return if the objects of the class can be stored in the cache snapshot.
+     * Only the shared objects using version locking can be validated against the database.
+     */
+    protected boolean isSnapshotDescriptor(ClassDescriptor descriptor) {
+        return !descriptor.isDescriptorTypeAggregate() && descriptor.isSharedIsolation() && descriptor.usesVersionLocking();
+    }
+
+    /**
+     * Write the rows of the shared cache objects to the cache snapshot file.
+     */
+    public void writeSnapshot() {
+        String fileName = this.session.getProject().getCacheSnapshotFileName();
+        try {
+            CacheSnapshot snapshot = new CacheSnapshot(this.session.getName());
+            for (ClassDescriptor descriptor : this.session.getProject().getOrderedDescriptors()) {
+                // The identity map is shared by the whole inheritance hierarchy.
+                if (descriptor.isChildDescriptor() || !isSnapshotDescriptor(descriptor)) {
+                    continue;
+                }
+                IdentityMap identityMap = this.session.getIdentityMapAccessorInstance().getIdentityMapManager().getIdentityMap(descriptor, true);
+                if (identityMap == null) {
+                    continue;
+                }
+                for (Enumeration<CacheKey> cacheKeys = identityMap.keys(false); cacheKeys.hasMoreElements();) {
+                    CacheKey cacheKey = cacheKeys.nextElement();
+                    Object object = cacheKey.getObject();
+                    if ((object == null) || descriptor.getCacheInvalidationPolicy().isInvalidated(cacheKey)) {
+                        continue;
+                    }
+                    ClassDescriptor concreteDescriptor = this.session.getDescriptor(object.getClass());
+                    if ((concreteDescriptor == null) || !isSnapshotDescriptor(concreteDescriptor)
+                            || (concreteDescriptor.hasFetchGroupManager() && concreteDescriptor.getFetchGroupManager().isPartialObject(object))) {
+                        continue;
+                    }
+                    VersionLockingPolicy lockingPolicy = (VersionLockingPolicy)concreteDescriptor.getOptimisticLockingPolicy();
+                    Object version = lockingPolicy.isStoredInCache() ? cacheKey.getWriteLockValue() : lockingPolicy.getWriteLockValue(object, cacheKey.getKey(), this.session);
+                    if (version == null) {
+                        continue;
+                    }
+                    AbstractRecord row = concreteDescriptor.getObjectBuilder().buildRow(object, this.session, WriteType.UNDEFINED);
+                    List<DatabaseField> fields = row.getFields();
+                    String[] fieldNames = new String[fields.size()];
+                    for (int index = 0; index < fieldNames.length; index++) {
+                        fieldNames[index] = fields.get(index).getQualifiedName();
+                    }
+                    snapshot.addRow(concreteDescriptor.getJavaClassName(), fieldNames, row.getValues().toArray(), version);
+                }
+            }
+            snapshot.write(new File(fileName));
+        } catch (Exception exception) {
+            this.session.log(SessionLog.WARNING, SessionLog.CACHE, "cache_snapshot_write_failed", fileName, exception);
+        }
+    }
+
+    /**
+     * Rebuild the objects of the snapshot into the shared cache, if their version matches the database.
+     * The snapshot of a class is ignored if its fields no longer match the descriptor.
+     */
+    protected void loadSnapshot(CacheSnapshot snapshot) {
+        if (!this.session.getName().equals(snapshot.getSessionName())) {
+            return;
+        }
+        Map<String, ClassDescriptor> descriptorsByName = new HashMap<>();
+        for (ClassDescriptor descriptor : this.session.getProject().getOrderedDescriptors()) {
+            descriptorsByName.put(descriptor.getJavaClassName(), descriptor);
+        }
+        for (CacheSnapshot.ClassSnapshot classSnapshot : snapshot.getClassSnapshots()) {
+            if (this.isStopped) {
+                return;
+            }
+            ClassDescriptor descriptor = descriptorsByName.get(classSnapshot.getClassName());
+            if ((descriptor == null) || !isSnapshotDescriptor(descriptor)) {
+                continue;
+            }
+            try {
+                loadClassSnapshot(descriptor, classSnapshot);
+            } catch (Exception exception) {
+                this.session.log(SessionLog.WARNING, SessionLog.CACHE, "cache_snapshot_read_failed", classSnapshot.getClassName(), exception);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the objects of the class from the snapshot rows, if their version matches the database.
+     * The rows are validated in chunks, reading the versions of the objects of each chunk.
+     */
+    protected void loadClassSnapshot(ClassDescriptor descriptor, CacheSnapshot.ClassSnapshot classSnapshot) {
+        Map<String, DatabaseField> descriptorFields = new HashMap<>();
+        for (DatabaseField field : descriptor.getFields()) {
+            descriptorFields.put(field.getQualifiedName(), field);
+        }
+        String[] fieldNames = classSnapshot.getFieldNames();
+        DatabaseField[] fields = new DatabaseField[fieldNames.length];
+        for (int index = 0; index < fields.length; index++) {
+            fields[index] = descriptorFields.get(fieldNames[index]);
+            if (fields[index] == null) {
+                return;
+            }
+        }
+        VersionLockingPolicy lockingPolicy = (VersionLockingPolicy)descriptor.getOptimisticLockingPolicy();
+        DatabaseField versionField = lockingPolicy.getWriteLockField();
+        ReadAllQuery buildQuery = buildPreloadQuery(descriptor, new ExpressionBuilder(), null);
+        buildQuery.checkPrepare(this.session, new DatabaseRecord());
+        buildQuery.setSession(this.session);
+        List<Object[]> rows = classSnapshot.getRows();
+        List<Object> versions = classSnapshot.getVersions();
+        int loaded = 0;
+        for (int chunkStart = 0; (chunkStart < rows.size()) && !this.isStopped; chunkStart += VERSION_CHUNK_SIZE) {
+            int chunkEnd = Math.min(chunkStart + VERSION_CHUNK_SIZE, rows.size());
+            List<AbstractRecord> chunkRows = new ArrayList<>(chunkEnd - chunkStart);
+            for (int index = chunkStart; index < chunkEnd; index++) {
+                Object[] values = rows.get(index);
+                AbstractRecord row = new DatabaseRecord(fields.length + 1);
+                for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+                    row.add(fields[fieldIndex], values[fieldIndex]);
+                }
+                if (!row.containsKey(versionField)) {
+                    row.add(versionField, versions.get(index));
+                }
+                chunkRows.add(row);
+            }
+            Map<Object, Object> currentVersions = readVersions(descriptor, versionField, chunkRows);
+            for (int index = chunkStart; index < chunkEnd; index++) {
+                AbstractRecord row = chunkRows.get(index - chunkStart);
+                Object version = versions.get(index);
+                Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromRow(row, this.session);
+                Object currentVersion = (primaryKey == null) ? null : currentVersions.get(primaryKey);
+                if ((currentVersion == null) || (lockingPolicy.compareWriteLockValues(version, this.session.getDatasourcePlatform().convertObject(currentVersion, version.getClass())) != 0)) {
+                    continue;
+                }
+                buildQuery.buildObject(row);
+                loaded++;
+            }
+        }
+        this.session.log(SessionLog.FINE, SessionLog.CACHE, "cache_snapshot_loaded", loaded, rows.size(), descriptor.getJavaClassName());
+    }
+
+    /**
+     * Return the current version in the database of each object of the snapshot rows, keyed by primary key.
+     * A single primary key field is compared with an in, a composite primary key with an or of its values.
+     */
+    protected Map<Object, Object> readVersions(ClassDescriptor descriptor, DatabaseField versionField, List<AbstractRecord> rows) {
+        ReportQuery query = new ReportQuery(descriptor.getJavaClass(), new ExpressionBuilder());
+        ExpressionBuilder builder = query.getExpressionBuilder();
+        List<DatabaseField> primaryKeyFields = descriptor.getPrimaryKeyFields();
+        Expression criteria = null;
+        if (primaryKeyFields.size() == 1) {
+            DatabaseField field = primaryKeyFields.get(0);
+            List<Object> values = new ArrayList<>(rows.size());
+            for (AbstractRecord row : rows) {
+                values.add(row.get(field));
+            }
+            criteria = builder.getField(field).in(values);
+        } else {
+            for (AbstractRecord row : rows) {
+                Expression rowCriteria = null;
+                for (DatabaseField field : primaryKeyFields) {
+                    rowCriteria = builder.getField(field).equal(row.get(field)).and(rowCriteria);
+                }
+                criteria = (criteria == null) ? rowCriteria : criteria.or(rowCriteria);
+            }
+        }
+        query.setSelectionCriteria(criteria);
+        query.retrievePrimaryKeys();
+        query.addItem("version", builder.getField(versionField));
+        List<ReportQueryResult> results = (List<ReportQueryResult>)this.session.executeQuery(query);
+        Map<Object, Object> versions = new HashMap<>(results.size());
+        for (ReportQueryResult result : results) {
+            if (result.getId() != null) {
+                versions.put(result.getId(), result.get("version"));
+            }
+        }
+        return versions;
+    }
+}
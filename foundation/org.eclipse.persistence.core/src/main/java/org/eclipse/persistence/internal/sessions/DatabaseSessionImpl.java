@@ -45,6 +45,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.function.Consumer;
 
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
@@ -56,6 +57,7 @@
 import org.eclipse.persistence.exceptions.ValidationException;
 import org.eclipse.persistence.internal.databaseaccess.Platform;
 import org.eclipse.persistence.internal.helper.DBPlatformHelper;
+import org.eclipse.persistence.internal.queries.AutoFetchGroupObserver;
 import org.eclipse.persistence.internal.sequencing.Sequencing;
 import org.eclipse.persistence.internal.sequencing.SequencingFactory;
 import org.eclipse.persistence.internal.sequencing.SequencingHome;
@@ -130,6 +132,31 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
      */
     protected long connectedTime;
 
+    /**
+     * INTERNAL:
+     * Completes the initialization of the descriptors deferred on login, null if none are deferred.
+     */
+    protected LazyDescriptorInitializer lazyDescriptorInitializer;
+
+    /**
+     * INTERNAL:
+     * Prepares the named queries in the background after login, null if not configured.
+     */
+    protected NamedQueryPrecompiler namedQueryPrecompiler;
+
+    /**
+     * INTERNAL:
+     * Warms up the shared cache in the background after login, null if not configured.
+     */
+    protected CacheWarmUpManager cacheWarmUpManager;
+
+    /**
+     * INTERNAL:
+     * Set if the cache warm-up is started by the caller once it has set up the database,
+     * such as after JPA's DDL generation, instead of on login.
+     */
+    protected boolean shouldDeferCacheWarmUp;
+
     /**
      * INTERNAL
      * Indicate if this session is logged in.
@@ -656,6 +683,15 @@ public void initializeDescriptors() {
                 }
             }
         }
+        // Observe the attributes used from the results of named queries, to give them fetch groups.
+        int autoFetchGroupWarmUp = getProject().getAutoFetchGroupWarmUp();
+        if (autoFetchGroupWarmUp > 0) {
+            for (List<DatabaseQuery> queries : getQueries().values()) {
+                for (DatabaseQuery query : queries) {
+                    AutoFetchGroupObserver.observe(query, autoFetchGroupWarmUp, this);
+                }
+            }
+        }
         for (AttributeGroup group : getProject().getAttributeGroups().values()){
             getAttributeGroups().put(group.getName(), group);
             this.getDescriptor(group.getType()).addAttributeGroup(group);
@@ -702,58 +738,41 @@ public void initializeDescriptors(Collection descriptors, boolean shouldInitiali
             addDescriptorsToSequencing(descriptors);
         }
 
+        LazyDescriptorInitializer lazyInitializer = null;
         try {
-            // First initialize basic properties (things that do not depend on anything else)
-            Iterator iterator = descriptors.iterator();
-            while (iterator.hasNext()) {
-                ClassDescriptor descriptor = (ClassDescriptor)iterator.next();
-                try {
-                    AbstractSession session = getSessionForClass(descriptor.getJavaClass());
-                    if (descriptor.requiresInitialization(session)) {
-                        descriptor.preInitialize(session);
-                    } else if (descriptor.hasTablePerMultitenantPolicy()) {
-                        // If the descriptor doesn't require initialization and
-                        // has a table per tenant policy then add to the list
-                        // to be cloned and initialized per client session.
-                        addTablePerTenantDescriptor(descriptor);
+            ParallelDescriptorInitializer initializer = null;
+            int threads = getProject().getDescriptorInitializationThreads();
+            if ((threads > 1) && (descriptors.size() > 1)) {
+                initializer = new ParallelDescriptorInitializer(descriptors, threads);
+                // Interface descriptors register their implementors in the session and table per tenant descriptors
+                // are collected in order by the session, so these must be initialized sequentially.
+                for (Object descriptor : descriptors) {
+                    if (((ClassDescriptor)descriptor).hasInterfacePolicy() || ((ClassDescriptor)descriptor).hasTablePerMultitenantPolicy()) {
+                        initializer = null;
+                        break;
                     }
-
-                    //check if inheritance is involved in aggregate relationship, and let the parent know the child descriptor
-                    if (descriptor.isDescriptorTypeAggregate() && descriptor.isChildDescriptor()) {
-                        descriptor.initializeAggregateInheritancePolicy(session);
-                    }
-                } catch (RuntimeException exception) {
-                    getIntegrityChecker().handleError(exception);
                 }
             }
+            // Create the integrity checker before it is shared by the threads.
+            getIntegrityChecker();
 
-            // Second initialize basic mappings
-            iterator = descriptors.iterator();
-            while (iterator.hasNext()) {
-                ClassDescriptor descriptor = (ClassDescriptor)iterator.next();
-                try {
-                    AbstractSession session = getSessionForClass(descriptor.getJavaClass());
-                    if (descriptor.requiresInitialization(session)) {
-                        descriptor.initialize(session);
-                    }
-                } catch (RuntimeException exception) {
-                    getIntegrityChecker().handleError(exception);
+            // First initialize basic properties (things that do not depend on anything else)
+            initializeDescriptorsPhase(descriptors, initializer, SessionProfiler.DescriptorPreInitialize, "preInitialize", this::preInitializeDescriptor);
+
+            // On login only the eager descriptors and their dependencies are initialized, the others on their first use.
+            if (shouldInitializeSequencing && getProject().usesLazyDescriptorInitialization()) {
+                lazyInitializer = new LazyDescriptorInitializer(this, descriptors);
+                descriptors = lazyInitializer.deferInitialization(getProject().getEagerDescriptorNames());
+                if (initializer != null) {
+                    initializer = new ParallelDescriptorInitializer(descriptors, threads);
                 }
             }
 
+            // Second initialize basic mappings
+            initializeDescriptorsPhase(descriptors, initializer, SessionProfiler.DescriptorInitialize, "initialize", this::initializeDescriptor);
+
             // Third initialize child dependencies
-            iterator = descriptors.iterator();
-            while (iterator.hasNext()) {
-                ClassDescriptor descriptor = (ClassDescriptor)iterator.next();
-                try {
-                    AbstractSession session = getSessionForClass(descriptor.getJavaClass());
-                    if (descriptor.requiresInitialization(session)) {
-                        descriptor.postInitialize(session);
-                    }
-                } catch (RuntimeException exception) {
-                    getIntegrityChecker().handleError(exception);
-                }
-            }
+            initializeDescriptorsPhase(descriptors, initializer, SessionProfiler.DescriptorPostInitialize, "postInitialize", this::postInitializeDescriptor);
 
             if (getIntegrityChecker().hasErrors()) {
                 //CR#4011
@@ -764,6 +783,112 @@ public void initializeDescriptors(Collection descriptors, boolean shouldInitiali
         }
 
         getCommitManager().initializeCommitOrder();
+        this.lazyDescriptorInitializer = lazyInitializer;
+        if (lazyInitializer != null) {
+            lazyInitializer.start();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize the descriptors whose initialization was deferred on login to their first use,
+     * as required by the operations using every descriptor, such as generating the DDL.
+     * @see org.eclipse.persistence.sessions.Project#setUsesLazyDescriptorInitialization(boolean)
+     */
+    public void initializeLazyDescriptors() {
+        if (this.lazyDescriptorInitializer != null) {
+            this.lazyDescriptorInitializer.initializeAll();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the initializer completing the initialization of the descriptors deferred on login, null if none are deferred.
+     */
+    public LazyDescriptorInitializer getLazyDescriptorInitializer() {
+        return lazyDescriptorInitializer;
+    }
+
+    /**
+     * INTERNAL:
+     * Run the initialization phase for the descriptors, on several threads if the initializer is given,
+     * and report the time taken to the profiler and the log.
+     */
+    protected void initializeDescriptorsPhase(Collection descriptors, ParallelDescriptorInitializer initializer, String operationName, String phaseName, Consumer<ClassDescriptor> phase) {
+        startOperationProfile(operationName);
+        long start = System.nanoTime();
+        try {
+            if (initializer == null) {
+                for (Object descriptor : descriptors) {
+                    phase.accept((ClassDescriptor)descriptor);
+                }
+            } else {
+                initializer.runPhase(phase);
+            }
+        } finally {
+            endOperationProfile(operationName);
+        }
+        if (shouldLog(SessionLog.FINER, SessionLog.METADATA)) {
+            long time = (System.nanoTime() - start) / 1000000;
+            int groups = (initializer == null) ? descriptors.size() : initializer.getGroups().size();
+            int threads = (initializer == null) ? 1 : getProject().getDescriptorInitializationThreads();
+            log(SessionLog.FINER, SessionLog.METADATA, "descriptor_initialization_phase", new Object[] {phaseName, descriptors.size(), groups, time, threads});
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Pre-initialize the descriptor, the errors are handled by the integrity checker.
+     */
+    protected void preInitializeDescriptor(ClassDescriptor descriptor) {
+        try {
+            AbstractSession session = getSessionForClass(descriptor.getJavaClass());
+            if (descriptor.requiresInitialization(session)) {
+                descriptor.preInitialize(session);
+            } else if (descriptor.hasTablePerMultitenantPolicy()) {
+                // If the descriptor doesn't require initialization and
+                // has a table per tenant policy then add to the list
+                // to be cloned and initialized per client session.
+                addTablePerTenantDescriptor(descriptor);
+            }
+
+            //check if inheritance is involved in aggregate relationship, and let the parent know the child descriptor
+            if (descriptor.isDescriptorTypeAggregate() && descriptor.isChildDescriptor()) {
+                descriptor.initializeAggregateInheritancePolicy(session);
+            }
+        } catch (RuntimeException exception) {
+            getIntegrityChecker().handleError(exception);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize the descriptor, the errors are handled by the integrity checker.
+     */
+    protected void initializeDescriptor(ClassDescriptor descriptor) {
+        try {
+            AbstractSession session = getSessionForClass(descriptor.getJavaClass());
+            if (descriptor.requiresInitialization(session)) {
+                descriptor.initialize(session);
+            }
+        } catch (RuntimeException exception) {
+            getIntegrityChecker().handleError(exception);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Post-initialize the descriptor, the errors are handled by the integrity checker.
+     */
+    protected void postInitializeDescriptor(ClassDescriptor descriptor) {
+        try {
+            AbstractSession session = getSessionForClass(descriptor.getJavaClass());
+            if (descriptor.requiresInitialization(session)) {
+                descriptor.postInitialize(session);
+            }
+        } catch (RuntimeException exception) {
+            getIntegrityChecker().handleError(exception);
+        }
     }
 
     /**
@@ -916,7 +1041,57 @@ protected void postConnectDatasource(){
         if ((getDatasourcePlatform() instanceof DatabasePlatform) && getPlatform().getBatchWritingMechanism() != null) {
             getPlatform().getBatchWritingMechanism().initialize(this);
         }
+        // Preload the shared cache and reload its snapshot in the background, if configured.
+        if (!this.shouldDeferCacheWarmUp) {
+            startCacheWarmUp();
+        }
+        // Prepare the named queries in the background, once the platform is initialized.
+        if (!hasBroker() && (getProject().getNamedQueryPrecompilationThreads() > 0)) {
+            this.namedQueryPrecompiler = new NamedQueryPrecompiler(this, getProject().getNamedQueryPrecompilationThreads());
+            this.namedQueryPrecompiler.start();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the precompiler preparing the named queries in the background after login, null if not configured.
+     */
+    public NamedQueryPrecompiler getNamedQueryPrecompiler() {
+        return namedQueryPrecompiler;
+    }
+
+    /**
+     * INTERNAL:
+     * Start preloading the shared cache and reloading its snapshot in the background, if configured.
+     * This is called on login, unless deferred.
+     * @see #setShouldDeferCacheWarmUp(boolean)
+     */
+    public void startCacheWarmUp() {
+        if (hasBroker() || isBroker() || (this.cacheWarmUpManager != null)) {
+            return;
+        }
+        CacheWarmUpManager manager = new CacheWarmUpManager(this);
+        if (manager.isWarmUpRequired()) {
+            this.cacheWarmUpManager = manager;
+            manager.start();
+        }
+    }
 
+    /**
+     * INTERNAL:
+     * Return the manager warming up the shared cache in the background after login, null if not configured.
+     */
+    public CacheWarmUpManager getCacheWarmUpManager() {
+        return cacheWarmUpManager;
+    }
+
+    /**
+     * INTERNAL:
+     * Set if the cache warm-up is started by the caller once it has set up the database,
+     * such as after JPA's DDL generation, instead of on login.
+     */
+    public void setShouldDeferCacheWarmUp(boolean shouldDeferCacheWarmUp) {
+        this.shouldDeferCacheWarmUp = shouldDeferCacheWarmUp;
     }
 
     /**
@@ -971,6 +1146,15 @@ public void logout() throws DatabaseException {
 
         cleanUpInjectionManager();
 
+        if (this.namedQueryPrecompiler != null) {
+            this.namedQueryPrecompiler.stop();
+            this.namedQueryPrecompiler = null;
+        }
+        if (this.cacheWarmUpManager != null) {
+            this.cacheWarmUpManager.stop();
+            this.cacheWarmUpManager = null;
+        }
+
         // Reset cached data, as may be invalid later on.
         this.lastDescriptorAccessed = null;
 
@@ -989,6 +1173,10 @@ public void logout() throws DatabaseException {
         // We're logging out so turn off change propagation.
         setShouldPropagateChanges(false);
 
+        if (!hasBroker() && !isBroker() && (getProject().getCacheSnapshotFileName() != null)) {
+            new CacheWarmUpManager(this).writeSnapshot();
+        }
+
         if (!hasBroker()) {
             if (getCommandManager() != null) {
                 getCommandManager().shutdown();
@@ -875,6 +875,15 @@ public void invalidateQueryCache(Class classThatChanged) {
         getIdentityMapManager().invalidateQueryCache(classThatChanged);
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove the results for the class from the query cache that are affected by the change set.
+     * This is used to invalidate the query cache on commit.
+     */
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        getIdentityMapManager().invalidateQueryCache(classThatChanged, changeSet);
+    }
+
     /**
      * ADVANCED:
      * Set all of the objects from all identity maps to be invalid in the cache.
@@ -1020,7 +1029,18 @@ public Object putInIdentityMap(Object object, Object key, Object writeLockValue,
      * different parameter values access different caches.
      */
     public void putQueryResult(ReadQuery query, List parameters, Object results) {
-        getIdentityMapManager().putQueryResult(query, parameters, results);
+        putQueryResult(query, parameters, null, results);
+    }
+
+    /**
+     * INTERNAL:
+     * Set the results for a query.
+     * Query results are cached based on the parameter values provided to the query
+     * different parameter values access different caches.
+     * The translation row is required for queries that invalidate by primary key.
+     */
+    public void putQueryResult(ReadQuery query, List parameters, AbstractRecord translationRow, Object results) {
+        getIdentityMapManager().putQueryResult(query, parameters, translationRow, results);
     }
 
     /**
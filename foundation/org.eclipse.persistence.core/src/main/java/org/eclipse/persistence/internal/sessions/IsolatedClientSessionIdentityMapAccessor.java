@@ -540,6 +540,20 @@ public void invalidateQueryCache(Class classThatChanged) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove the results for the class from the query cache that are affected by the change set.
+     * This is used to invalidate the query cache on commit.
+     */
+    @Override
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        if (!session.getDescriptor(classThatChanged).getCachePolicy().isSharedIsolation()) {
+            getIdentityMapManager().invalidateQueryCache(classThatChanged, changeSet);
+        } else {
+            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().invalidateQueryCache(classThatChanged, changeSet);
+        }
+    }
+
     /**
      * PUBLIC:
      * Reset the entire local object cache.
@@ -562,11 +576,11 @@ public void initializeIdentityMaps() {
      * different parameter values access different caches.
      */
     @Override
-    public void putQueryResult(ReadQuery query, List parameters, Object results) {
+    public void putQueryResult(ReadQuery query, List parameters, AbstractRecord translationRow, Object results) {
         if (((IsolatedClientSession)session).isIsolatedQuery(query)) {
-            getIdentityMapManager().putQueryResult(query, parameters, results);
+            getIdentityMapManager().putQueryResult(query, parameters, translationRow, results);
         } else {
-            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().putQueryResult(query, parameters, results);
+            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().putQueryResult(query, parameters, translationRow, results);
         }
     }
 
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.exceptions.IntegrityException;
+import org.eclipse.persistence.logging.SessionLog;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Complete the initialization of descriptors on their first use rather than on login.
+ * <p>
+ * On login all the descriptors are pre-initialized, the descriptors listed as eager and the descriptors
+ * they depend on are fully initialized, the initialization of the other descriptors is deferred.
+ * When a deferred descriptor is looked up by the session, it is initialized and post-initialized
+ * with the deferred descriptors it depends on, as on login, in dependency order.
+ * The initialization is serialized, the threads looking up a deferred descriptor waiting for it to complete.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setUsesLazyDescriptorInitialization(boolean)
+ */
+public class LazyDescriptorInitializer {
+    protected final DatabaseSessionImpl session;
+
+    /** The dependency graph of the descriptors. */
+    protected final ParallelDescriptorInitializer graph;
+
+    /** The index of the group of each descriptor. */
+    protected final Map<ClassDescriptor, Integer> groupIndexes = new IdentityHashMap<>();
+
+    /** The descriptors whose initialization is deferred. */
+    protected final Set<ClassDescriptor> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Indicates descriptors are being initialized, the lookups made by their initialization are not deferred. */
+    protected boolean isInitializing;
+
+    /**
+     * Build the dependency graph of the pre-initialized descriptors.
+     */
+    public LazyDescriptorInitializer(DatabaseSessionImpl session, Collection<ClassDescriptor> descriptors) {
+        this.session = session;
+        this.graph = new ParallelDescriptorInitializer(descriptors, 1);
+        List<List<ClassDescriptor>> groups = this.graph.getGroups();
+        for (int group = 0; group < groups.size(); group++) {
+            for (ClassDescriptor descriptor : groups.get(group)) {
+                this.groupIndexes.put(descriptor, group);
+            }
+        }
+    }
+
+    /**
+     * Return the descriptors to initialize on login, in dependency order:
+     * the descriptors listed by class name or alias, the descriptors that are not looked up through the session
+     * when used, such as aggregates and isolated descriptors, the descriptors whose initialization changes
+     * other descriptors, such as the descriptors referencing isolated descriptors or cascading their locking,
+     * and the descriptors they depend on.
+     * The initialization of the other descriptors is deferred to their first use.
+     */
+    public List<ClassDescriptor> deferInitialization(Collection<String> eagerDescriptorNames) {
+        List<List<ClassDescriptor>> groups = this.graph.getGroups();
+        boolean[] eager = new boolean[groups.size()];
+        for (int group = groups.size() - 1; group >= 0; group--) {
+            if (dependsOnNonSharedDescriptor(group)) {
+                addDependencies(group, eager);
+                continue;
+            }
+            for (ClassDescriptor descriptor : groups.get(group)) {
+                if (isEager(descriptor, eagerDescriptorNames)) {
+                    addDependencies(group, eager);
+                    break;
+                }
+            }
+        }
+        List<ClassDescriptor> eagerDescriptors = new ArrayList<>();
+        for (int group = 0; group < groups.size(); group++) {
+            if (eager[group]) {
+                eagerDescriptors.addAll(groups.get(group));
+            } else {
+                this.pending.addAll(groups.get(group));
+            }
+        }
+        return eagerDescriptors;
+    }
+
+    /**
+     * Mark the deferred descriptors, once the eager descriptors are initialized.
+     */
+    public void start() {
+        for (ClassDescriptor descriptor : this.pending) {
+            descriptor.setLazyInitializer(this);
+        }
+    }
+
+    /**
+     * Return if the descriptor must be initialized on login.
+     * The descriptors cascading their optimistic locking add cascade locking policies to the descriptors they reference,
+     * which must not change once in use, as these are their dependencies they are also initialized on login.
+     */
+    protected boolean isEager(ClassDescriptor descriptor, Collection<String> eagerDescriptorNames) {
+        if ((descriptor.getJavaClass() == null) || descriptor.isDescriptorTypeAggregate() || descriptor.isDescriptorForInterface()
+                || descriptor.hasInterfacePolicy() || descriptor.hasTablePerMultitenantPolicy() || descriptor.hasMultitenantPolicy()
+                || (descriptor.getHistoryPolicy() != null) || !descriptor.isSharedIsolation()
+                || (descriptor.usesOptimisticLocking() && descriptor.getOptimisticLockingPolicy().isCascaded())
+                || descriptor.hasCascadeLockingPolicies()) {
+            return true;
+        }
+        return eagerDescriptorNames.contains(descriptor.getJavaClassName()) || eagerDescriptorNames.contains(descriptor.getAlias());
+    }
+
+    /**
+     * Return if the group references a descriptor that is not shared.
+     * The descriptors referencing an isolated descriptor are made protected when it is post-initialized on login,
+     * so they must be initialized on login to be registered as referencing it.
+     */
+    protected boolean dependsOnNonSharedDescriptor(int group) {
+        for (int dependency : this.graph.dependencies[group]) {
+            for (ClassDescriptor descriptor : this.graph.getGroups().get(dependency)) {
+                if (!descriptor.isSharedIsolation()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mark the group and the groups it depends on.
+     */
+    protected void addDependencies(int group, boolean[] marked) {
+        if (marked[group]) {
+            return;
+        }
+        marked[group] = true;
+        for (int dependency : this.graph.dependencies[group]) {
+            addDependencies(dependency, marked);
+        }
+    }
+
+    /**
+     * Return the number of descriptors whose initialization is deferred.
+     */
+    public synchronized int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Initialize the descriptor with the deferred descriptors it depends on.
+     * A descriptor looked up by the initialization of another is not initialized,
+     * as the initialization on login does not require the descriptors it does not depend on to be initialized.
+     */
+    public synchronized void initialize(ClassDescriptor descriptor) {
+        if (this.isInitializing || !this.pending.contains(descriptor)) {
+            return;
+        }
+        Integer group = this.groupIndexes.get(descriptor);
+        boolean[] marked = new boolean[this.graph.getGroups().size()];
+        addDependencies(group, marked);
+        List<ClassDescriptor> descriptors = new ArrayList<>();
+        for (int index = 0; index <= group; index++) {
+            if (marked[index]) {
+                for (ClassDescriptor dependency : this.graph.getGroups().get(index)) {
+                    if (this.pending.contains(dependency)) {
+                        descriptors.add(dependency);
+                    }
+                }
+            }
+        }
+        initializeDescriptors(descriptor.getJavaClassName(), descriptors);
+    }
+
+    /**
+     * Initialize all the deferred descriptors, as required to generate the DDL or build the metamodel.
+     */
+    public synchronized void initializeAll() {
+        if (this.isInitializing || this.pending.isEmpty()) {
+            return;
+        }
+        List<ClassDescriptor> descriptors = new ArrayList<>();
+        for (List<ClassDescriptor> group : this.graph.getGroups()) {
+            for (ClassDescriptor descriptor : group) {
+                if (this.pending.contains(descriptor)) {
+                    descriptors.add(descriptor);
+                }
+            }
+        }
+        initializeDescriptors("*", descriptors);
+    }
+
+    /**
+     * Initialize then post-initialize the descriptors, given in dependency order, and update the commit order.
+     */
+    protected void initializeDescriptors(String name, List<ClassDescriptor> descriptors) {
+        long start = System.nanoTime();
+        this.isInitializing = true;
+        try {
+            for (ClassDescriptor descriptor : descriptors) {
+                this.session.initializeDescriptor(descriptor);
+            }
+            for (ClassDescriptor descriptor : descriptors) {
+                this.session.postInitializeDescriptor(descriptor);
+            }
+            if (this.session.getIntegrityChecker().hasErrors()) {
+                this.session.handleSevere(new IntegrityException(this.session.getIntegrityChecker()));
+            }
+        } finally {
+            this.session.clearIntegrityChecker();
+            for (ClassDescriptor descriptor : descriptors) {
+                descriptor.setLazyInitializer(null);
+                this.pending.remove(descriptor);
+            }
+        }
+        try {
+            this.session.getCommitManager().initializeCommitOrder();
+        } finally {
+            this.isInitializing = false;
+        }
+        if (this.session.shouldLog(SessionLog.FINER, SessionLog.METADATA)) {
+            long time = (System.nanoTime() - start) / 1000000;
+            this.session.log(SessionLog.FINER, SessionLog.METADATA, "descriptor_lazy_initialization",
+                    new Object[] {name, descriptors.size(), time, this.pending.size()});
+        }
+    }
+}
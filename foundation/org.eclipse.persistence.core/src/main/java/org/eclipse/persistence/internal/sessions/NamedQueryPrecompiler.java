@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Prepare the named queries of a session in the background after login.
+ * <p>
+ * Each query is prepared as on its first execution, its SQL generated, on a pool of threads.
+ * The preparation of a query is synchronized, so a query executed while being prepared waits for it,
+ * and a query already prepared by its execution is skipped.
+ * A query failing to prepare is left unprepared, the failure being reported on its execution.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setNamedQueryPrecompilationThreads(int)
+ */
+public class NamedQueryPrecompiler {
+    protected final AbstractSession session;
+    protected final int threads;
+    protected final List<DatabaseQuery> queries;
+    protected final CountDownLatch completed;
+    protected final AtomicInteger prepared = new AtomicInteger();
+    protected final AtomicInteger failed = new AtomicInteger();
+    protected ForkJoinPool pool;
+    protected volatile boolean isStopped;
+    protected long start;
+
+    public NamedQueryPrecompiler(AbstractSession session, int threads) {
+        this.session = session;
+        this.threads = threads;
+        this.queries = new ArrayList<>();
+        for (List<DatabaseQuery> namedQueries : session.getQueries().values()) {
+            for (DatabaseQuery query : namedQueries) {
+                if (!query.isPrepared()) {
+                    this.queries.add(query);
+                }
+            }
+        }
+        this.completed = new CountDownLatch(this.queries.size());
+    }
+
+    /**
+     * Start preparing the queries in the background.
+     */
+    public void start() {
+        if (this.queries.isEmpty()) {
+            return;
+        }
+        this.start = System.nanoTime();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        this.pool = new ForkJoinPool(this.threads, workerPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(workerPool);
+            thread.setContextClassLoader(loader);
+            return thread;
+        }, null, true);
+        for (DatabaseQuery query : this.queries) {
+            this.pool.execute(() -> prepare(query));
+        }
+        this.pool.shutdown();
+    }
+
+    /**
+     * Prepare the query as JPA does before executing a named query.
+     */
+    protected void prepare(DatabaseQuery query) {
+        try {
+            if (this.isStopped) {
+                return;
+            }
+            query.checkPrepare(this.session, new DatabaseRecord());
+            if (query.isPrepared()) {
+                this.prepared.incrementAndGet();
+            }
+        } catch (RuntimeException exception) {
+            this.failed.incrementAndGet();
+            this.session.logThrowable(SessionLog.FINER, SessionLog.QUERY, exception);
+        } finally {
+            this.completed.countDown();
+            if (this.completed.getCount() == 0) {
+                logCompletion();
+            }
+        }
+    }
+
+    protected void logCompletion() {
+        if (this.session.shouldLog(SessionLog.FINER, SessionLog.QUERY)) {
+            long time = (System.nanoTime() - this.start) / 1000000;
+            this.session.log(SessionLog.FINER, SessionLog.QUERY, "named_query_precompilation",
+                    new Object[] {this.prepared.get(), this.queries.size(), this.failed.get(), time, this.threads});
+        }
+    }
+
+    /**
+     * Wait for the queries to be prepared, return false if the timeout elapsed first.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.completed.await(timeout, unit);
+    }
+
+    /**
+     * Stop preparing the queries, the queries not yet prepared are prepared on their first execution.
+     */
+    public void stop() {
+        this.isStopped = true;
+        if (this.pool != null) {
+            this.pool.shutdownNow();
+        }
+    }
+}
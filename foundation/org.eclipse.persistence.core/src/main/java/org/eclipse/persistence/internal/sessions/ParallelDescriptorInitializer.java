@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
+import org.eclipse.persistence.internal.queries.MappedKeyMapContainerPolicy;
+import org.eclipse.persistence.mappings.AggregateMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Run the initialization phases of descriptors on several threads.
+ * <p>
+ * A descriptor depends on the descriptors of its inheritance parent, aggregates and relationship targets.
+ * The descriptors depending on each other, such as the classes of an inheritance hierarchy or
+ * of a bidirectional relationship, form a group that is initialized on a single thread in the order given.
+ * A group is initialized once the groups it depends on have completed the phase,
+ * so each phase runs in parallel across the independent groups.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setDescriptorInitializationThreads(int)
+ */
+public class ParallelDescriptorInitializer {
+    protected final int threads;
+
+    /** The groups of descriptors depending on each other, in dependency order. */
+    protected final List<List<ClassDescriptor>> groups;
+
+    /** The indexes of the groups each group depends on. */
+    protected final int[][] dependencies;
+
+    /** The indexes of the groups depending on each group. */
+    protected final int[][] dependents;
+
+    public ParallelDescriptorInitializer(Collection<ClassDescriptor> descriptors, int threads) {
+        this.threads = threads;
+        List<ClassDescriptor> nodes = new ArrayList<>(descriptors);
+        Map<Class, Integer> indexes = new HashMap<>();
+        for (int index = 0; index < nodes.size(); index++) {
+            Class javaClass = nodes.get(index).getJavaClass();
+            if (javaClass != null) {
+                indexes.put(javaClass, index);
+            }
+        }
+        List<Set<Integer>> edges = new ArrayList<>(nodes.size());
+        for (int index = 0; index < nodes.size(); index++) {
+            edges.add(new LinkedHashSet<>());
+        }
+        for (int index = 0; index < nodes.size(); index++) {
+            ClassDescriptor descriptor = nodes.get(index);
+            if (descriptor.hasInheritance() && (descriptor.getInheritancePolicy().getParentClass() != null)) {
+                // The parent and its children initialize each other, so the hierarchy is a single group.
+                Integer parent = indexes.get(descriptor.getInheritancePolicy().getParentClass());
+                if (parent != null) {
+                    edges.get(index).add(parent);
+                    edges.get(parent).add(index);
+                }
+            }
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                addReferences(mapping, indexes, edges.get(index));
+            }
+            edges.get(index).remove(index);
+        }
+        this.groups = new ArrayList<>();
+        int[] groupIndexes = buildGroups(nodes, edges);
+        this.dependencies = new int[this.groups.size()][];
+        this.dependents = new int[this.groups.size()][];
+        List<Set<Integer>> groupDependencies = new ArrayList<>();
+        List<List<Integer>> groupDependents = new ArrayList<>();
+        for (int group = 0; group < this.groups.size(); group++) {
+            groupDependencies.add(new LinkedHashSet<>());
+            groupDependents.add(new ArrayList<>());
+        }
+        for (int index = 0; index < nodes.size(); index++) {
+            int group = groupIndexes[index];
+            for (Integer target : edges.get(index)) {
+                int targetGroup = groupIndexes[target];
+                if ((targetGroup != group) && groupDependencies.get(group).add(targetGroup)) {
+                    groupDependents.get(targetGroup).add(group);
+                }
+            }
+        }
+        for (int group = 0; group < this.groups.size(); group++) {
+            this.dependencies[group] = groupDependencies.get(group).stream().mapToInt(Integer::intValue).toArray();
+            this.dependents[group] = groupDependents.get(group).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Add the indexes of the descriptors referenced by the mapping.
+     */
+    protected void addReferences(DatabaseMapping mapping, Map<Class, Integer> indexes, Set<Integer> references) {
+        Class referenceClass = null;
+        if (mapping.isForeignReferenceMapping()) {
+            referenceClass = ((ForeignReferenceMapping)mapping).getReferenceClass();
+        } else if (mapping.isAggregateMapping()) {
+            referenceClass = ((AggregateMapping)mapping).getReferenceClass();
+        }
+        if (referenceClass != null) {
+            Integer reference = indexes.get(referenceClass);
+            if (reference != null) {
+                references.add(reference);
+            }
+        }
+        if (!mapping.isCollectionMapping()) {
+            return;
+        }
+        ContainerPolicy containerPolicy = mapping.getContainerPolicy();
+        if ((containerPolicy != null) && containerPolicy.isMappedKeyMapPolicy()) {
+            Object keyMapping = ((MappedKeyMapContainerPolicy)containerPolicy).getKeyMapping();
+            if (keyMapping instanceof DatabaseMapping) {
+                addReferences((DatabaseMapping)keyMapping, indexes, references);
+            }
+        }
+    }
+
+    /**
+     * Group the strongly connected descriptors (Tarjan's algorithm), iteratively to support deep graphs.
+     * As a group is completed after the groups it depends on, the groups are built in dependency order.
+     * The descriptors of a group keep the order given.
+     * Return the group index of each descriptor.
+     */
+    protected int[] buildGroups(List<ClassDescriptor> nodes, List<Set<Integer>> edges) {
+        int size = nodes.size();
+        int[] order = new int[size];
+        int[] lowLink = new int[size];
+        int[] groupIndexes = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(order, -1);
+        Deque<Integer> stack = new ArrayDeque<>();
+        Deque<int[]> calls = new ArrayDeque<>();
+        List<Integer[]> edgeArrays = new ArrayList<>(size);
+        for (Set<Integer> nodeEdges : edges) {
+            edgeArrays.add(nodeEdges.toArray(new Integer[nodeEdges.size()]));
+        }
+        int counter = 0;
+        for (int root = 0; root < size; root++) {
+            if (order[root] != -1) {
+                continue;
+            }
+            // Each call is the node and the position in its edges.
+            calls.push(new int[] {root, 0});
+            order[root] = lowLink[root] = counter++;
+            stack.push(root);
+            onStack[root] = true;
+            while (!calls.isEmpty()) {
+                int[] call = calls.peek();
+                int node = call[0];
+                Integer[] nodeEdges = edgeArrays.get(node);
+                if (call[1] < nodeEdges.length) {
+                    int target = nodeEdges[call[1]++];
+                    if (order[target] == -1) {
+                        calls.push(new int[] {target, 0});
+                        order[target] = lowLink[target] = counter++;
+                        stack.push(target);
+                        onStack[target] = true;
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], order[target]);
+                    }
+                    continue;
+                }
+                calls.pop();
+                if (!calls.isEmpty()) {
+                    int caller = calls.peek()[0];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                }
+                if (lowLink[node] == order[node]) {
+                    List<Integer> members = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack[member] = false;
+                        groupIndexes[member] = this.groups.size();
+                        members.add(member);
+                    } while (member != node);
+                    members.sort(null);
+                    List<ClassDescriptor> group = new ArrayList<>(members.size());
+                    for (Integer index : members) {
+                        group.add(nodes.get(index));
+                    }
+                    this.groups.add(group);
+                }
+            }
+        }
+        return groupIndexes;
+    }
+
+    /**
+     * Return the groups of descriptors initialized together, in dependency order.
+     */
+    public List<List<ClassDescriptor>> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Run the phase for every descriptor, each group once the groups it depends on have completed.
+     * The first exception thrown by the phase is thrown once the running groups have completed,
+     * the remaining groups are not run.
+     */
+    public void runPhase(Consumer<ClassDescriptor> phase) {
+        int size = this.groups.size();
+        if (size == 0) {
+            return;
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(this.threads, workerPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(workerPool);
+            thread.setContextClassLoader(loader);
+            return thread;
+        }, null, false);
+        try {
+            PhaseRun run = new PhaseRun(pool, phase);
+            for (int group = 0; group < size; group++) {
+                if (this.dependencies[group].length == 0) {
+                    run.submit(group);
+                }
+            }
+            run.await();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The state of a phase run.
+     */
+    protected class PhaseRun {
+        protected final ForkJoinPool pool;
+        protected final Consumer<ClassDescriptor> phase;
+        protected final AtomicInteger[] pending;
+        protected final CountDownLatch completed;
+        protected final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        protected PhaseRun(ForkJoinPool pool, Consumer<ClassDescriptor> phase) {
+            this.pool = pool;
+            this.phase = phase;
+            this.pending = new AtomicInteger[groups.size()];
+            for (int group = 0; group < this.pending.length; group++) {
+                this.pending[group] = new AtomicInteger(dependencies[group].length);
+            }
+            this.completed = new CountDownLatch(this.pending.length);
+        }
+
+        protected void submit(int group) {
+            this.pool.execute(() -> run(group));
+        }
+
+        protected void run(int group) {
+            try {
+                if (this.failure.get() == null) {
+                    for (ClassDescriptor descriptor : groups.get(group)) {
+                        this.phase.accept(descriptor);
+                    }
+                }
+            } catch (Throwable error) {
+                this.failure.compareAndSet(null, error);
+            } finally {
+                for (int dependent : dependents[group]) {
+                    if (this.pending[dependent].decrementAndGet() == 0) {
+                        submit(dependent);
+                    }
+                }
+                this.completed.countDown();
+            }
+        }
+
+        protected void await() {
+            try {
+                this.completed.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(exception);
+            }
+            Throwable error = this.failure.get();
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException)error;
+            } else if (error instanceof Error) {
+                throw (Error)error;
+            }
+        }
+    }
+}
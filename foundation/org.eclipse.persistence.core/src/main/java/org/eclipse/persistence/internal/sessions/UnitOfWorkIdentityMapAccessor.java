@@ -58,6 +58,16 @@ public void invalidateQueryCache(Class classThatChanged) {
         this.session.getParent().getIdentityMapAccessor().invalidateQueryCache(classThatChanged);
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove the results for the class from the query cache that are affected by the change set.
+     * This is used to invalidate the query cache on commit.
+     */
+    @Override
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        this.session.getParent().getIdentityMapAccessorInstance().invalidateQueryCache(classThatChanged, changeSet);
+    }
+
     /**
      * ADVANCED:
      * Clear the query class associated with the passed-in read query
@@ -234,8 +244,8 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean checkExpi
      *  Results are only cached in the parent session for UnitOfWorks
      */
     @Override
-    public void putQueryResult(ReadQuery query, List parameters, Object results) {
-        this.session.getParent().getIdentityMapAccessorInstance().putQueryResult(query, parameters, results);
+    public void putQueryResult(ReadQuery query, List parameters, AbstractRecord translationRow, Object results) {
+        this.session.getParent().getIdentityMapAccessorInstance().putQueryResult(query, parameters, translationRow, results);
     }
 
     /**
@@ -75,6 +75,7 @@
 import org.eclipse.persistence.internal.descriptors.DescriptorIterator.CascadeCondition;
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.descriptors.PersistenceEntity;
+import org.eclipse.persistence.internal.expressions.ConformPredicate;
 import org.eclipse.persistence.internal.helper.ConcurrencyManager;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.helper.IdentityHashSet;
@@ -1568,7 +1569,12 @@ protected void commitToDatabaseWithChangeSet(boolean commitTransaction) throws D
                         this.unitOfWorkChangeSet = new UnitOfWorkChangeSet(this);
                     }
                     // PERF: clone is faster than new.
-                    calculateChanges(getCloneMapping(), this.unitOfWorkChangeSet, true, true);
+                    startOperationProfile(SessionProfiler.UowCalculateChanges);
+                    try {
+                        calculateChanges(getCloneMapping(), this.unitOfWorkChangeSet, true, true);
+                    } finally {
+                        endOperationProfile(SessionProfiler.UowCalculateChanges);
+                    }
 
                 } catch (RuntimeException exception){
                     // The number of SQL statements been prepared need be stored into UOW
@@ -2002,6 +2008,8 @@ public Vector getAllFromNewObjects(Expression selectionCriteria, Class theClass,
         ClassDescriptor descriptor = getDescriptor(theClass);
         boolean readSubclassesOrNoInheritance = (!descriptor.hasInheritance() || descriptor.getInheritancePolicy().shouldReadSubclasses());
 
+        // PERF: Conform using the compiled expression.
+        ConformPredicate conformPredicate = (selectionCriteria == null) ? null : selectionCriteria.getConformPredicate();
         Vector objects = new Vector();
         for (Iterator newObjectsEnum = getNewObjectsCloneToOriginal().keySet().iterator();
                  newObjectsEnum.hasNext();) {
@@ -2010,7 +2018,7 @@ public Vector getAllFromNewObjects(Expression selectionCriteria, Class theClass,
             if ((object.getClass() == theClass) || (readSubclassesOrNoInheritance && (theClass.isInstance(object)))) {
                 if (selectionCriteria == null) {
                     objects.addElement(object);
-                } else if (selectionCriteria.doesConform(object, this, translationRow, valueHolderPolicy)) {
+                } else if (conformPredicate.conforms(object, this, translationRow, valueHolderPolicy, false)) {
                     objects.addElement(object);
                 }
             }
@@ -3407,7 +3415,7 @@ protected void mergeChangesIntoParent() {
                 postMergeChanges(classesChanged);
 
                 for (Class changedClass : classesChanged) {
-                    this.parent.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass);
+                    this.parent.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass, uowChangeSet);
                 }
                 // If change propagation enabled through RemoteCommandManager then go for it
                 if (this.parent.shouldPropagateChanges() && (this.parent.getCommandManager() != null)) {
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions.factories;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.eclipse.persistence.Version;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Versioned binary format of a project, read without deserializing the project as a whole.
+ * <p>
+ * The descriptors are split into blocks that do not share any object, each block being
+ * serialized on its own, so the blocks of a project are read in parallel. The descriptors sharing
+ * objects with each other, or with the project, are in the same block. The project itself is in
+ * the first block and references the descriptors of the other blocks by their index.
+ * <p>
+ * Each descriptor is first serialized alone, recording the objects it shares with the other descriptors.
+ * The bytes of a descriptor sharing nothing are its block, only the descriptors sharing objects are
+ * serialized again, together.
+ * <p>
+ * The format starts with the format version and EclipseLink version, as the serialized
+ * form of descriptors is specific to the version, followed by the checksums of the classes
+ * the project was built from and the table of the descriptors and blocks.
+ */
+public class ProjectBinaryFormat {
+    public static final int MAGIC = 0x454C5052;
+    public static final int VERSION = 2;
+
+    /**
+     * Write the project with the checksums of its classes.
+     */
+    public static void write(Project project, Map<String, Long> checksums, OutputStream output) throws IOException {
+        List<ClassDescriptor> descriptors = new ArrayList<>();
+        Map<ClassDescriptor, Integer> indexes = new IdentityHashMap<>();
+        for (ClassDescriptor descriptor : project.getOrderedDescriptors()) {
+            if (!indexes.containsKey(descriptor)) {
+                indexes.put(descriptor, descriptors.size());
+                descriptors.add(descriptor);
+            }
+        }
+        for (ClassDescriptor descriptor : project.getMappedSuperclassDescriptors().values()) {
+            if (!indexes.containsKey(descriptor)) {
+                indexes.put(descriptor, descriptors.size());
+                descriptors.add(descriptor);
+            }
+        }
+        // Each node, the project or a descriptor, is written as if alone in its block,
+        // the nodes referencing the same objects are joined.
+        int[] parents = new int[descriptors.size() + 1];
+        for (int node = 0; node < parents.length; node++) {
+            parents[node] = node;
+        }
+        Map<Object, Integer> owners = new IdentityHashMap<>();
+        byte[][] nodeBytes = new byte[parents.length][];
+        for (int node = 0; node < parents.length; node++) {
+            Object root = (node == 0) ? new Object[] {project, new ClassDescriptor[0]} : new ClassDescriptor[] {descriptors.get(node - 1)};
+            nodeBytes[node] = writeBlock(root, indexes, owners, parents, node);
+        }
+        int[] blockIndexes = buildBlocks(parents, descriptors.size());
+        int blockCount = 1;
+        for (int block : blockIndexes) {
+            blockCount = Math.max(blockCount, block + 1);
+        }
+        List<List<Integer>> members = new ArrayList<>(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            members.add(new ArrayList<>());
+        }
+        int[] positions = new int[descriptors.size()];
+        for (int index = 0; index < descriptors.size(); index++) {
+            List<Integer> blockMembers = members.get(blockIndexes[index]);
+            positions[index] = blockMembers.size();
+            blockMembers.add(index);
+        }
+        List<byte[]> blocks = new ArrayList<>(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            List<Integer> blockMembers = members.get(block);
+            if ((block == 0) && blockMembers.isEmpty()) {
+                blocks.add(nodeBytes[0]);
+            } else if ((block != 0) && (blockMembers.size() == 1)) {
+                blocks.add(nodeBytes[blockMembers.get(0) + 1]);
+            } else {
+                ClassDescriptor[] blockDescriptors = new ClassDescriptor[blockMembers.size()];
+                for (int position = 0; position < blockDescriptors.length; position++) {
+                    blockDescriptors[position] = descriptors.get(blockMembers.get(position));
+                }
+                Object root = (block == 0) ? new Object[] {project, blockDescriptors} : blockDescriptors;
+                blocks.add(writeBlock(root, indexes, null, blockIndexes, block));
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(Version.getVersionString());
+        out.writeInt(checksums.size());
+        for (Map.Entry<String, Long> checksum : checksums.entrySet()) {
+            out.writeUTF(checksum.getKey());
+            out.writeLong(checksum.getValue());
+        }
+        out.writeInt(descriptors.size());
+        for (int index = 0; index < descriptors.size(); index++) {
+            out.writeInt(blockIndexes[index]);
+            out.writeInt(positions[index]);
+        }
+        out.writeInt(blocks.size());
+        for (byte[] block : blocks) {
+            out.writeInt(block.length);
+        }
+        for (byte[] block : blocks) {
+            out.write(block);
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the root of a block.
+     */
+    protected static byte[] writeBlock(Object root, Map<ClassDescriptor, Integer> indexes, Map<Object, Integer> owners, int[] blocks, int block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BlockOutputStream out = new BlockOutputStream(bytes, indexes, owners, blocks, block)) {
+            out.writeObject(root);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Return the block of each descriptor from the joined nodes, the descriptors sharing objects being in the same block.
+     * The descriptors sharing objects with the project are in the first block.
+     */
+    protected static int[] buildBlocks(int[] parents, int size) {
+        Map<Integer, Integer> blocks = new HashMap<>();
+        blocks.put(find(parents, 0), 0);
+        int[] blockIndexes = new int[size];
+        for (int index = 0; index < size; index++) {
+            Integer block = blocks.get(find(parents, index + 1));
+            if (block == null) {
+                block = blocks.size();
+                blocks.put(find(parents, index + 1), block);
+            }
+            blockIndexes[index] = block;
+        }
+        return blockIndexes;
+    }
+
+    protected static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    protected static void join(int[] parents, int node, int other) {
+        parents[find(parents, node)] = find(parents, other);
+    }
+
+    /**
+     * Return if the object can be serialized in several blocks, as its identity does not matter.
+     */
+    protected static boolean isValue(Object object) {
+        return (object instanceof String) || (object instanceof Number) || (object instanceof Boolean)
+                || (object instanceof Character) || (object instanceof Class) || (object instanceof Enum)
+                || (object instanceof DescriptorReference);
+    }
+
+    /**
+     * The reference to a descriptor of another block.
+     */
+    protected static class DescriptorReference implements Serializable {
+        private static final long serialVersionUID = 1L;
+        protected final int index;
+
+        protected DescriptorReference(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * Write a block, the descriptors of the other blocks being written as references.
+     * Before the blocks are built, the blocks are the nodes being joined, each node is written alone
+     * and the objects written are recorded to join the nodes referencing the same objects.
+     */
+    protected static class BlockOutputStream extends ObjectOutputStream {
+        protected final Map<ClassDescriptor, Integer> indexes;
+        protected final Map<Object, Integer> owners;
+        protected final int[] blocks;
+        protected final int block;
+        protected boolean isRoot = true;
+
+        protected BlockOutputStream(OutputStream out, Map<ClassDescriptor, Integer> indexes, Map<Object, Integer> owners, int[] blocks, int block) throws IOException {
+            super(out);
+            this.indexes = indexes;
+            this.owners = owners;
+            this.blocks = blocks;
+            this.block = block;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object object) throws IOException {
+            if (this.isRoot) {
+                this.isRoot = false;
+                if (this.owners != null) {
+                    this.owners.put(object, this.block);
+                }
+                return object;
+            }
+            Integer index = (object instanceof ClassDescriptor) ? this.indexes.get(object) : null;
+            if (this.owners != null) {
+                if ((index != null) && (index + 1 == this.block)) {
+                    return object;
+                }
+                if (index != null) {
+                    // A descriptor referencing another descriptor is in its block, the project only references it.
+                    if (this.block != 0) {
+                        join(this.blocks, this.block, index + 1);
+                    }
+                    return new DescriptorReference(index);
+                }
+                if (!isValue(object)) {
+                    Integer owner = this.owners.putIfAbsent(object, this.block);
+                    if ((owner != null) && (owner != this.block)) {
+                        // The node is written again with its owner, the object was already traversed.
+                        join(this.blocks, this.block, owner);
+                        return null;
+                    }
+                }
+                return object;
+            }
+            if ((index != null) && (this.blocks[index] != this.block)) {
+                return new DescriptorReference(index);
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Read the bytes written, the project is then read from the reader.
+     */
+    public static Reader read(InputStream input, ClassLoader loader) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return new Reader(bytes.toByteArray(), loader);
+    }
+
+    /**
+     * INTERNAL:
+     * Reads the blocks of a project.
+     */
+    public static class Reader {
+        protected final byte[] bytes;
+        protected final ClassLoader loader;
+        protected final Map<String, Long> checksums;
+        protected final int[] descriptorBlocks;
+        protected final int[] descriptorPositions;
+        protected final int[] blockOffsets;
+        protected final int[] blockLengths;
+        protected final Object[] blocks;
+
+        public Reader(byte[] bytes, ClassLoader loader) throws IOException {
+            this.bytes = bytes;
+            this.loader = loader;
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != MAGIC) {
+                throw new StreamCorruptedException("Not a project");
+            }
+            int version = in.readInt();
+            String productVersion = in.readUTF();
+            if ((version != VERSION) || !productVersion.equals(Version.getVersionString())) {
+                throw new StreamCorruptedException("Unsupported project version: " + version + " " + productVersion);
+            }
+            int size = in.readInt();
+            Map<String, Long> checksums = new LinkedHashMap<>();
+            for (int index = 0; index < size; index++) {
+                checksums.put(in.readUTF(), in.readLong());
+            }
+            this.checksums = Collections.unmodifiableMap(checksums);
+            size = in.readInt();
+            this.descriptorBlocks = new int[size];
+            this.descriptorPositions = new int[size];
+            for (int index = 0; index < size; index++) {
+                this.descriptorBlocks[index] = in.readInt();
+                this.descriptorPositions[index] = in.readInt();
+            }
+            size = in.readInt();
+            this.blockOffsets = new int[size];
+            this.blockLengths = new int[size];
+            for (int index = 0; index < size; index++) {
+                this.blockLengths[index] = in.readInt();
+            }
+            int offset = bytes.length - in.available();
+            for (int index = 0; index < size; index++) {
+                this.blockOffsets[index] = offset;
+                offset = offset + this.blockLengths[index];
+            }
+            if (offset != bytes.length) {
+                throw new StreamCorruptedException("Invalid project length");
+            }
+            this.blocks = new Object[size];
+        }
+
+        /**
+         * Return the checksums of the classes, by class name, the project was written with.
+         */
+        public Map<String, Long> getChecksums() {
+            return checksums;
+        }
+
+        /**
+         * Return the descriptor of the index, reading its block.
+         */
+        protected ClassDescriptor getDescriptor(int index) throws IOException {
+            int block = this.descriptorBlocks[index];
+            Object root = readBlock(block);
+            ClassDescriptor[] descriptors = (ClassDescriptor[])((block == 0) ? ((Object[])root)[1] : root);
+            return descriptors[this.descriptorPositions[index]];
+        }
+
+        /**
+         * Return the project, the blocks of descriptors being read in parallel.
+         */
+        public Project readProject() throws IOException {
+            try {
+                IntStream.range(1, this.blocks.length).parallel().forEach(block -> {
+                    try {
+                        readBlock(block);
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            } catch (UncheckedIOException exception) {
+                throw exception.getCause();
+            }
+            return (Project)((Object[])readBlock(0))[0];
+        }
+
+        protected Object readBlock(int block) throws IOException {
+            synchronized (this.blocks) {
+                if (this.blocks[block] != null) {
+                    return this.blocks[block];
+                }
+            }
+            Object root;
+            try (BlockInputStream in = new BlockInputStream(new ByteArrayInputStream(this.bytes, this.blockOffsets[block], this.blockLengths[block]))) {
+                root = in.readObject();
+            } catch (ClassNotFoundException exception) {
+                throw new IOException(exception);
+            }
+            synchronized (this.blocks) {
+                if (this.blocks[block] == null) {
+                    this.blocks[block] = root;
+                }
+                return this.blocks[block];
+            }
+        }
+
+        /**
+         * Read a block, resolving the classes with the class loader and the references to descriptors.
+         */
+        protected class BlockInputStream extends ObjectInputStream {
+            protected BlockInputStream(InputStream in) throws IOException {
+                super(in);
+                enableResolveObject(true);
+            }
+
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass description) throws IOException, ClassNotFoundException {
+                if (loader != null) {
+                    try {
+                        return Class.forName(description.getName(), false, loader);
+                    } catch (ClassNotFoundException exception) {
+                        // Primitive types and classes of EclipseLink not visible to the loader.
+                    }
+                }
+                return super.resolveClass(description);
+            }
+
+            @Override
+            protected Object resolveObject(Object object) throws IOException {
+                if (object instanceof DescriptorReference) {
+                    return getDescriptor(((DescriptorReference)object).index);
+                }
+                return object;
+            }
+        }
+    }
+}
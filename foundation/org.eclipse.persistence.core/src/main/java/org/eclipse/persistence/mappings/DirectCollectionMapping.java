@@ -1901,6 +1901,15 @@ public boolean isDirectCollectionMapping() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the mapping's lazy relationships can be batch fetched once N+1 lazy loading is detected.
+     */
+    @Override
+    protected boolean isAutoBatchFetchSupported() {
+        return true;
+    }
+
     /**
      * INTERNAL:
      */
@@ -50,6 +50,7 @@
 import org.eclipse.persistence.history.AsOfClause;
 import org.eclipse.persistence.indirection.ValueHolder;
 import org.eclipse.persistence.indirection.ValueHolderInterface;
+import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
 import org.eclipse.persistence.internal.descriptors.DescriptorIterator;
 import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
 import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
@@ -62,6 +63,7 @@
 import org.eclipse.persistence.internal.helper.NonSynchronizedVector;
 import org.eclipse.persistence.internal.identitymaps.CacheId;
 import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.indirection.AutoBatchGroup;
 import org.eclipse.persistence.internal.indirection.BasicIndirectionPolicy;
 import org.eclipse.persistence.internal.indirection.ContainerIndirectionPolicy;
 import org.eclipse.persistence.internal.indirection.DatabaseValueHolder;
@@ -69,6 +71,8 @@
 import org.eclipse.persistence.internal.indirection.NoIndirectionPolicy;
 import org.eclipse.persistence.internal.indirection.WeavedObjectBasicIndirectionPolicy;
 import org.eclipse.persistence.internal.queries.AttributeItem;
+import org.eclipse.persistence.internal.queries.BatchFetchStatistics;
+import org.eclipse.persistence.internal.queries.BatchPrefetch;
 import org.eclipse.persistence.internal.queries.JoinedAttributeManager;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.internal.security.PrivilegedClassForName;
@@ -93,6 +97,7 @@
 import org.eclipse.persistence.queries.ReadQuery;
 import org.eclipse.persistence.queries.ReportQuery;
 import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.sessions.remote.DistributedSession;
 
 /**
@@ -186,6 +191,9 @@ enum ExtendPessimisticLockScope {
     /** Stores JPA metadata about whether another mapping is the owning mapping.  Only populated for JPA models **/
     protected String mappedBy;
 
+    /** The observed fan-out of the adaptive IN batch fetches of the mapping. */
+    protected transient volatile BatchFetchStatistics batchFetchStatistics;
+
     protected ForeignReferenceMapping() {
         this.isPrivateOwned = false;
         this.hasCustomSelectionQuery = false;
@@ -276,6 +284,12 @@ protected Object batchedValueFromRow(AbstractRecord row, ObjectLevelReadQuery qu
                 batchQuery.setIsExecutionClone(true);
             }
             query.setProperty(this, batchQuery);
+            if (query.isBatchFetchPrefetch() && this.indirectionPolicy.usesIndirection()) {
+                AbstractSession prefetchSession = BatchPrefetch.getPrefetchSession(query.getSession(), batchQuery);
+                if (prefetchSession != null) {
+                    query.getBatchFetchPolicy().addPrefetch(new BatchPrefetch(this, batchQuery, query, prefetchSession, parentCacheKey, row));
+                }
+            }
         }
         return this.indirectionPolicy.valueFromBatchQuery(batchQuery, row, query, parentCacheKey);
     }
@@ -563,12 +577,22 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                 translationRow = new DatabaseRecord();
             }
             // Execute query and index resulting object sets by key.
+            Set batchKeys = null;
             if (originalPolicy.isIN()) {
                 // Need to extract all foreign key values from all parent rows for IN parameter.
                 List<AbstractRecord> parentRows = originalPolicy.getDataResults(this);
                 // Execute queries by batch if too many rows.
                 int rowsSize = parentRows.size();
-                int size = Math.min(rowsSize, originalPolicy.getSize());
+                int batchSize = originalPolicy.getSize();
+                // The number of key values is limited by the platform for adaptive batches, composite keys use several.
+                int maxKeyValues = 0;
+                if (originalPolicy.isAdaptive()) {
+                    ClassDescriptor referenceDescriptor = getReferenceDescriptor();
+                    int rowWidth = (referenceDescriptor == null) ? 1 : referenceDescriptor.getAllSelectionFields().size();
+                    batchSize = originalPolicy.computeAdaptiveSize(getBatchFetchStatistics().getAverageFanOut(), rowWidth);
+                    maxKeyValues = ((DatasourcePlatform)session.getPlatform(this.referenceClass)).getBindParameterLimit();
+                }
+                int size = Math.min(rowsSize, batchSize);
                 if (size == 0) {
                     return null;
                 }
@@ -608,6 +632,10 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                                     count--;
                                 } else {
                                     Object[] key = ((CacheId)foreignKey).getPrimaryKey();
+                                    if ((maxKeyValues > 0) && !foreignKeyValues.isEmpty() && ((foreignKeyValues.size() + 1) * key.length > maxKeyValues)) {
+                                        // The batch is full, the row is left for the next batch.
+                                        break;
+                                    }
                                     Object foreignKeyValue = key[0];
                                     // Support composite keys using nested IN.
                                     if (key.length > 1) {
@@ -641,11 +669,15 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                 for (Object foreignKey : foreignKeys) {
                     batchedObjects.put(foreignKey, Helper.NULL_VALUE);
                 }
+                batchKeys = foreignKeys;
             } else if (batchQuery.isReadAllQuery() && ((ReadAllQuery)batchQuery).getBatchFetchPolicy().isIN()) {
                 throw QueryException.originalQueryMustUseBatchIN(this, originalQuery);
             }
             executeBatchQuery(batchQuery, parentCacheKey, batchedObjects, session, translationRow);
             batchQuery.setSession(null);
+            if ((batchKeys != null) && originalPolicy.isAdaptive()) {
+                recordAdaptiveBatch(batchKeys, batchedObjects, originalQuery, session);
+            }
         }
         result = batchedObjects.get(sourceKey);
         if (result == Helper.NULL_VALUE) {
@@ -655,6 +687,46 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
         }
     }
 
+    /**
+     * INTERNAL:
+     * Record the fan-out of the adaptive batch fetch, used to size the next batches,
+     * and report it to the profiler.
+     */
+    protected void recordAdaptiveBatch(Set foreignKeys, Map<Object, Object> batchedObjects, ObjectLevelReadQuery originalQuery, AbstractSession session) {
+        int targets = 0;
+        for (Object foreignKey : foreignKeys) {
+            Object value = batchedObjects.get(foreignKey);
+            if ((value == null) || (value == Helper.NULL_VALUE)) {
+                continue;
+            } else if (value instanceof Collection) {
+                targets = targets + ((Collection)value).size();
+            } else if (value instanceof Map) {
+                targets = targets + ((Map)value).size();
+            } else {
+                targets++;
+            }
+        }
+        BatchFetchStatistics statistics = getBatchFetchStatistics();
+        statistics.record(foreignKeys.size(), targets);
+        if (session.isInProfile()) {
+            session.incrementProfile(SessionProfiler.BatchFetchQueries, originalQuery);
+            session.updateProfile(SessionProfiler.BatchFetchStatistics + getDescriptor().getJavaClassName() + "." + getAttributeName(), statistics);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the observed fan-out of the adaptive IN batch fetches of the mapping.
+     */
+    public BatchFetchStatistics getBatchFetchStatistics() {
+        BatchFetchStatistics statistics = this.batchFetchStatistics;
+        if (statistics == null) {
+            statistics = new BatchFetchStatistics();
+            this.batchFetchStatistics = statistics;
+        }
+        return statistics;
+    }
+
     /**
      * INTERNAL:
      * Extract the batch key value from the source row.
@@ -969,6 +1041,12 @@ public ReadQuery prepareNestedBatchQuery(ObjectLevelReadQuery query) {
 
         batchQuery.setBatchFetchType(batchType);
         batchQuery.setBatchFetchSize(query.getBatchFetchPolicy().getSize());
+        if (query.getBatchFetchPolicy().isAdaptive() && (batchType == BatchFetchType.IN)) {
+            BatchFetchPolicy batchPolicy = batchQuery.getBatchFetchPolicy();
+            batchPolicy.setIsAdaptive(true);
+            batchPolicy.setMaxAdaptiveSize(query.getBatchFetchPolicy().getMaxAdaptiveSize());
+            batchPolicy.setAdaptiveFetchLimit(query.getBatchFetchPolicy().getAdaptiveFetchLimit());
+        }
         // Allow subclasses to further prepare.
         postPrepareNestedBatchQuery(batchQuery, query);
 
@@ -2341,9 +2419,53 @@ protected Object valueFromRowInternal(AbstractRecord row, JoinedAttributeManager
         }
         targetQuery = prepareHistoricalQuery(targetQuery, sourceQuery, executionSession);
 
+        // Detect N+1 lazy loading of the objects read by the query, and batch fetch the remaining relationships.
+        if ((targetQuery == this.selectionQuery) && this.indirectionPolicy.usesIndirection()) {
+            AutoBatchGroup group = getAutoBatchGroup(row, sourceQuery, executionSession);
+            if (group != null) {
+                return this.indirectionPolicy.valueFromAutoBatch(targetQuery, row, group, executionSession);
+            }
+        }
         return this.indirectionPolicy.valueFromQuery(targetQuery, row, executionSession);
     }
 
+    /**
+     * INTERNAL:
+     * Return if the mapping's lazy relationships can be batch fetched once N+1 lazy loading is detected.
+     * Only mappings supporting IN batch fetching support it.
+     */
+    protected boolean isAutoBatchFetchSupported() {
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the group of value holders of the mapping for the source query execution, and add the row to it.
+     * Return null if the automatic batch fetching is not enabled for the project, or not supported by the mapping or the query.
+     * @see org.eclipse.persistence.sessions.Project#setAutoBatchFetchThreshold(int)
+     */
+    protected AutoBatchGroup getAutoBatchGroup(AbstractRecord row, ObjectBuildingQuery sourceQuery, AbstractSession executionSession) {
+        int threshold = executionSession.getProject().getAutoBatchFetchThreshold();
+        if ((threshold <= 0) || this.hasCustomSelectionQuery || !isAutoBatchFetchSupported()
+                || !sourceQuery.isReadAllQuery()
+                || ((ReadAllQuery)sourceQuery).getContainerPolicy().isCursorPolicy()
+                || (row.getSopObject() != null) || executionSession.isHistoricalSession()) {
+            return null;
+        }
+        Map<DatabaseMapping, AutoBatchGroup> groups = (Map<DatabaseMapping, AutoBatchGroup>)sourceQuery.getProperty(AutoBatchGroup.GROUPS_PROPERTY);
+        if (groups == null) {
+            groups = new HashMap<>();
+            sourceQuery.setProperty(AutoBatchGroup.GROUPS_PROPERTY, groups);
+        }
+        AutoBatchGroup group = groups.get(this);
+        if ((group == null) || !group.add(row)) {
+            group = new AutoBatchGroup(this, (ObjectLevelReadQuery)sourceQuery, executionSession, threshold);
+            group.add(row);
+            groups.put(this, group);
+        }
+        return group;
+    }
+
     /**
      * INTERNAL:
      * Indicates whether the source query's pessimistic lock scope scope should be extended in the target query.
@@ -753,6 +753,15 @@ public boolean isManyToManyMapping() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the mapping's lazy relationships can be batch fetched once N+1 lazy loading is detected.
+     */
+    @Override
+    protected boolean isAutoBatchFetchSupported() {
+        return true;
+    }
+
     /**
      * INTERNAL:
      * Ensure the container policy is post initialized
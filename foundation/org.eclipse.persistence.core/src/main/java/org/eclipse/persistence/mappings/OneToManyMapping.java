@@ -889,6 +889,15 @@ public boolean isOneToManyMapping() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the mapping's lazy relationships can be batch fetched once N+1 lazy loading is detected.
+     */
+    @Override
+    protected boolean isAutoBatchFetchSupported() {
+        return true;
+    }
+
     /**
      * Return whether the source key is specified.
      * It will be empty when #setTargetForeignKeyFieldName(String) is used.
@@ -1480,6 +1480,15 @@ public boolean isOneToOneMapping() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the mapping's lazy relationships can be batch fetched once N+1 lazy loading is detected.
+     */
+    @Override
+    protected boolean isAutoBatchFetchSupported() {
+        return true;
+    }
+
     /**
      * INTERNAL:
      */
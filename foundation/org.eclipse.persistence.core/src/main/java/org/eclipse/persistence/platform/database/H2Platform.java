@@ -164,6 +164,11 @@ public boolean supportsGlobalTempTables() {
         return true;
     }
 
+    @Override
+    public boolean supportsRowValueComparisons() {
+        return true;
+    }
+
     @Override
     protected String getCreateTempTableSqlPrefix() {
         return "CREATE TEMPORARY TABLE IF NOT EXISTS ";
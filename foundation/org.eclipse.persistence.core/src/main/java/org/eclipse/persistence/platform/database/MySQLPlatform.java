@@ -575,6 +575,15 @@ public boolean supportsCountDistinctWithMultipleFields() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Indicates whether the platform supports ordering comparisons of row values.
+     */
+    @Override
+    public boolean supportsRowValueComparisons() {
+        return true;
+    }
+
     /**
      * INTERNAL:
      * Return if this database requires the table name when dropping an index.
@@ -394,6 +394,15 @@ public boolean supportsLocalTempTables() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Indicates whether the platform supports ordering comparisons of row values.
+     */
+    @Override
+    public boolean supportsRowValueComparisons() {
+        return true;
+    }
+
     /**
      * INTERNAL:
      */
@@ -657,4 +666,13 @@ protected void setNullFromDatabaseField(DatabaseField databaseField, PreparedSta
             statement.setNull(index, jdbcType);
         }
     }
+
+    /**
+     * INTERNAL:
+     * The PostgreSQL protocol allows 32767 parameters, some are left for the other parameters of the statement.
+     */
+    @Override
+    public int getBindParameterLimit() {
+        return 32000;
+    }
 }
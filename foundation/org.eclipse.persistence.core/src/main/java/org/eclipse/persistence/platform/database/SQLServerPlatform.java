@@ -874,4 +874,13 @@ public void setParameterValueInDatabaseCall(Object parameter, CallableStatement
 
         super.setParameterValueInDatabaseCall(parameter, statement, name, session);
     }
+
+    /**
+     * INTERNAL:
+     * SQL Server allows 2100 parameters, some are left for the other parameters of the statement.
+     */
+    @Override
+    public int getBindParameterLimit() {
+        return 2000;
+    }
 }
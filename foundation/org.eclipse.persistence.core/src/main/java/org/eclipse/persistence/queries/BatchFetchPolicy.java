@@ -24,6 +24,7 @@
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.expressions.Expression;
 import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
+import org.eclipse.persistence.internal.queries.BatchPrefetch;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.mappings.DatabaseMapping;
 
@@ -34,10 +35,23 @@
  * @author James Sutherland
  */
 public class BatchFetchPolicy implements Serializable, Cloneable {
+    /** The default maximum number of source keys of an adaptive batch. */
+    public static final int DEFAULT_MAX_ADAPTIVE_SIZE = 10000;
+    /** The default maximum number of values, rows times fields, fetched by an adaptive batch. */
+    public static final int DEFAULT_ADAPTIVE_FETCH_LIMIT = 250000;
+
     /** Define the type of batch fetching to use. */
     protected BatchFetchType type;
     /** Define the batch size for IN style batch fetching. */
     protected int size = 500;
+    /** Define if the IN batch size is computed for each batch from the observed fan-out of the mapping. */
+    protected boolean isAdaptive;
+    /** Define the maximum number of source keys of an adaptive batch. */
+    protected int maxAdaptiveSize = DEFAULT_MAX_ADAPTIVE_SIZE;
+    /** Define the maximum number of values, rows times fields, fetched by an adaptive batch. */
+    protected int adaptiveFetchLimit = DEFAULT_ADAPTIVE_FETCH_LIMIT;
+    /** Define if the batch queries are executed in the background as soon as the objects are built. */
+    protected boolean isPrefetch;
     /** Define the attributes to be batch fetched. */
     protected List<Expression> attributeExpressions;
     /** Define the mapping to be batch fetched (from mapping settings). */
@@ -50,6 +64,8 @@ public class BatchFetchPolicy implements Serializable, Cloneable {
     protected transient Map<Object, List<AbstractRecord>> dataResults;
     /** Stores temporary map of batched objects (this queries results). */
     protected transient Map<Object, Object> batchObjects;
+    /** Stores temporary list of the prefetches of the batched mappings of the query execution. */
+    protected transient List<BatchPrefetch> prefetches;
 
     public BatchFetchPolicy() {
         this.type = BatchFetchType.JOIN;
@@ -70,6 +86,7 @@ public BatchFetchPolicy clone() {
         if (clone.dataResults != null) {
             clone.dataResults.put(clone, clone.dataResults.get(this));
         }
+        clone.prefetches = null;
         return clone;
     }
 
@@ -122,6 +139,87 @@ public void setSize(int size) {
         this.size = size;
     }
 
+    /**
+     * Return if the IN batch size is computed for each batch.
+     * An adaptive batch fetches all the remaining source keys in as few queries as possible,
+     * each query fetching at most the adaptive fetch limit of values based on the observed fan-out
+     * and row width of the mapping, the max adaptive size of keys, and the platform's bind parameter limit.
+     */
+    public boolean isAdaptive() {
+        return isAdaptive;
+    }
+
+    /**
+     * Set if the IN batch size is computed for each batch.
+     * Adaptive batch fetching uses the IN fetch type.
+     */
+    public void setIsAdaptive(boolean isAdaptive) {
+        this.isAdaptive = isAdaptive;
+        if (isAdaptive) {
+            this.type = BatchFetchType.IN;
+        }
+    }
+
+    /**
+     * Return if the batch queries are executed in the background as soon as the objects are built.
+     * The relationships are then loaded in parallel while the application processes the objects,
+     * instead of on the first access of each relationship.
+     * Only the relationships of objects read in the shared cache of a server session are prefetched,
+     * using the server platform's thread pool.
+     */
+    public boolean isPrefetch() {
+        return isPrefetch;
+    }
+
+    /**
+     * Set if the batch queries are executed in the background as soon as the objects are built.
+     */
+    public void setIsPrefetch(boolean isPrefetch) {
+        this.isPrefetch = isPrefetch;
+    }
+
+    /**
+     * Return the maximum number of source keys of an adaptive batch.
+     */
+    public int getMaxAdaptiveSize() {
+        return maxAdaptiveSize;
+    }
+
+    /**
+     * Set the maximum number of source keys of an adaptive batch.
+     */
+    public void setMaxAdaptiveSize(int maxAdaptiveSize) {
+        this.maxAdaptiveSize = maxAdaptiveSize;
+    }
+
+    /**
+     * Return the maximum number of values, rows times fields, fetched by an adaptive batch.
+     */
+    public int getAdaptiveFetchLimit() {
+        return adaptiveFetchLimit;
+    }
+
+    /**
+     * Set the maximum number of values, rows times fields, fetched by an adaptive batch.
+     */
+    public void setAdaptiveFetchLimit(int adaptiveFetchLimit) {
+        this.adaptiveFetchLimit = adaptiveFetchLimit;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of source keys of the next adaptive batch,
+     * for the average number of target rows per key, and the number of fields per target row.
+     */
+    public int computeAdaptiveSize(double averageFanOut, int rowWidth) {
+        double valuesPerKey = Math.max(averageFanOut, 1.0) * Math.max(rowWidth, 1);
+        double size = this.adaptiveFetchLimit / valuesPerKey;
+        if (size >= this.maxAdaptiveSize) {
+            return this.maxAdaptiveSize;
+        }
+        return Math.max((int)size, 1);
+    }
+
     /**
      * INTERNAL:
      * PERF: Return the internally stored prepared mapping queries.
@@ -320,4 +418,30 @@ public Map<Object, Object> getBatchObjects() {
     public void setBatchObjects(Map<Object, Object> batchObjects) {
         this.batchObjects = batchObjects;
     }
+
+    /**
+     * INTERNAL:
+     * Add the prefetch of a batched mapping, launched once the query's objects are built.
+     */
+    public void addPrefetch(BatchPrefetch prefetch) {
+        if (this.prefetches == null) {
+            this.prefetches = new ArrayList<>();
+        }
+        this.prefetches.add(prefetch);
+    }
+
+    /**
+     * INTERNAL:
+     * Launch the prefetches of the batched mappings, once the query's objects are built.
+     */
+    public void launchPrefetches() {
+        if (this.prefetches == null) {
+            return;
+        }
+        List<BatchPrefetch> prefetches = this.prefetches;
+        this.prefetches = null;
+        for (BatchPrefetch prefetch : prefetches) {
+            prefetch.launch();
+        }
+    }
 }
@@ -16,11 +16,14 @@
 
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.expressions.*;
 import org.eclipse.persistence.internal.databaseaccess.*;
 import org.eclipse.persistence.internal.helper.*;
+import org.eclipse.persistence.internal.queries.CursorSpliterator;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
@@ -431,6 +434,36 @@ public int size() throws DatabaseException {
         return this.size;
     }
 
+    /**
+     * PUBLIC:
+     * Return a sequential stream of the remaining objects of the cursor.
+     * The objects are read and built as the stream is consumed, and the objects read so far
+     * are released from the cursor every page, so clear() is not required.
+     * Closing the stream closes the cursor.
+     */
+    public Stream<Object> stream() {
+        return stream(false);
+    }
+
+    /**
+     * PUBLIC:
+     * Return a sequential stream of the remaining objects of the cursor.
+     * The objects are read and built as the stream is consumed, and the objects read so far
+     * are released from the cursor every page, so clear() is not required.
+     * Closing the stream closes the cursor.
+     * @param shouldReleaseObjects if the cursor was opened in a unit of work, unregister each object from it
+     * once the next object is read or the stream is closed, so a large result can be streamed in constant memory.
+     * Only the objects registered by the cursor are released, the objects already registered in the unit of work
+     * stay managed. The objects released are no longer managed, their changes are not committed.
+     */
+    public Stream<Object> stream(boolean shouldReleaseObjects) {
+        CursorSpliterator spliterator = new CursorSpliterator(this, shouldReleaseObjects);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            spliterator.release();
+            close();
+        });
+    }
+
     /**
      * PUBLIC:
      * Remove is not support with cursors.
@@ -127,6 +127,19 @@ public FetchGroup(String name) {
         super(name);
     }
 
+    /**
+     * INTERNAL:
+     * Return if the attribute is fetched, when the application accesses it.
+     * By default this is the same as containsAttributeInternal, which is used internally.
+     * <p>
+     * This method is typically only invoked through woven code in the
+     * persistence object introduced when {@link FetchGroupTracker} is woven
+     * into the entity.
+     */
+    public boolean containsAttributeOnAccess(String attributeName) {
+        return containsAttributeInternal(attributeName);
+    }
+
     /**
      * INTERNAL:
      * Called on attempt to get value of an attribute that hasn't been fetched yet.
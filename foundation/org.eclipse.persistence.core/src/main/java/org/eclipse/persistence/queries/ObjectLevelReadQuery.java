@@ -62,6 +62,7 @@
 import org.eclipse.persistence.internal.helper.InvalidObject;
 import org.eclipse.persistence.internal.helper.NonSynchronizedVector;
 import org.eclipse.persistence.internal.history.UniversalAsOfClause;
+import org.eclipse.persistence.internal.queries.AutoFetchGroupObserver;
 import org.eclipse.persistence.internal.queries.DatabaseQueryMechanism;
 import org.eclipse.persistence.internal.queries.ExpressionQueryMechanism;
 import org.eclipse.persistence.internal.queries.JoinedAttributeManager;
@@ -1281,6 +1282,11 @@ public Object executeInUnitOfWork(UnitOfWorkImpl unitOfWork, AbstractRecord tran
             result = unitOfWork.getParent().executeQuery(this, translationRow);
         } else {
             result = execute(unitOfWork, translationRow);
+            // Observe the attributes the application uses from the results of a named query.
+            AutoFetchGroupObserver observer = (AutoFetchGroupObserver)getProperty(AutoFetchGroupObserver.PROPERTY);
+            if (observer != null) {
+                observer.observeResult(result, this);
+            }
         }
 
         // If a lockModeType was set (from JPA) we need to check if we need
@@ -3459,6 +3465,39 @@ public void setBatchFetchSize(int size) {
         setIsPrepared(false);
     }
 
+    /**
+     * PUBLIC:
+     * Set if the IN batch size is computed for each batch from the observed fan-out
+     * and row width of the batched mappings, and the database's bind parameter limit.
+     * Adaptive batch fetching uses the IN batch fetch type.
+     *
+     * @see BatchFetchPolicy#isAdaptive()
+     */
+    public void setBatchFetchAdaptive(boolean isAdaptive) {
+        getBatchFetchPolicy().setIsAdaptive(isAdaptive);
+        setIsPrepared(false);
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the batch queries of the batched mappings are executed in the background
+     * as soon as the objects are built, instead of on the first access of each relationship.
+     *
+     * @see BatchFetchPolicy#isPrefetch()
+     */
+    public void setBatchFetchPrefetch(boolean isPrefetch) {
+        getBatchFetchPolicy().setIsPrefetch(isPrefetch);
+    }
+
+    /**
+     * PUBLIC:
+     * Return if the batch queries of the batched mappings are executed in the background
+     * as soon as the objects are built.
+     */
+    public boolean isBatchFetchPrefetch() {
+        return (this.batchFetchPolicy != null) && this.batchFetchPolicy.isPrefetch();
+    }
+
     /**
      * INTERNAL:
      * Return temporary map of batched objects.
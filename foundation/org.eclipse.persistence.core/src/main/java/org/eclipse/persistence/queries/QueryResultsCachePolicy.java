@@ -30,6 +30,10 @@
  * Query results are cached based on the parameter values of a query, and the maximum number
  * of results refers to the maximum number of parameter sets results will be cached for.\
  * By default query result caching is not used.
+ * <p>
+ * The invalidation policy applies to each cached result independently of the object cache invalidation,
+ * so a TimeToLiveCacheInvalidationPolicy gives each result its own time to live.
+ * Expired results are removed from the cache when they are accessed.
  *
  * @see org.eclipse.persistence.queries.ReadQuery#setQueryResultsCachePolicy(QueryResultsCachePolicy)
  */
@@ -46,6 +50,8 @@ public class QueryResultsCachePolicy implements Serializable, Cloneable {
     protected boolean invalidateOnChange;
     /** Stores the set of classes that should trigger the query cached results to be invalidated. */
     protected Set<Class> invalidationClasses;
+    /** Allows the query cache to only invalidate the results affected by a change, instead of all results of the changed class. */
+    protected boolean invalidateByPrimaryKey;
 
     /**
      * PUBLIC:
@@ -139,10 +145,36 @@ public void setInvalidateOnChange(boolean invalidateOnChange) {
         this.invalidateOnChange = invalidateOnChange;
     }
 
+    /**
+     * PUBLIC:
+     * Return if a change should only invalidate the query results that it can affect.
+     * By default any change to an object of the query class invalidates all of the query results.
+     */
+    public boolean shouldInvalidateByPrimaryKey() {
+        return invalidateByPrimaryKey;
+    }
+
+    /**
+     * PUBLIC:
+     * Configure if a change should only invalidate the query results that it can affect.
+     * The primary keys of the objects in each result and the query parameters are cached with the result.
+     * On commit, a result is only invalidated if it contains a changed or deleted object,
+     * or if a new or changed object now conforms to the query's selection criteria (evaluated in memory
+     * with the cached parameters). Changes to other classes the query depends on, such as joined classes,
+     * and criteria that cannot be evaluated in memory, still invalidate the result.
+     * This only applies to object queries that invalidate on change, and keeps the cache hit rate high
+     * for classes that are frequently written.
+     * By default this is false, and any change to an object of the query class invalidates all of the query results.
+     * @see #setInvalidateOnChange(boolean)
+     */
+    public void setInvalidateByPrimaryKey(boolean invalidateByPrimaryKey) {
+        this.invalidateByPrimaryKey = invalidateByPrimaryKey;
+    }
+
     /**
      * PUBLIC:
      * Return the type of the cache used for the query results.
-     * This defaults to a LRU cache (CacheIdentityMap), but can be
+     * This defaults to a fixed sized LRU cache (CacheIdentityMap), but can be
      * set to any IdentityMap class, such as Full or Soft.
      */
     public Class getCacheType() {
@@ -152,7 +184,7 @@ public Class getCacheType() {
     /**
      * PUBLIC:
      * Set the type of the cache used for the query results.
-     * This defaults to a LRU cache (CacheIdentityMap), but can be
+     * This defaults to a fixed sized LRU cache (CacheIdentityMap), but can be
      * set to any IdentityMap class, such as Full or Soft.
      */
     public void setCacheType(Class cacheType) {
@@ -189,13 +221,25 @@ public void useSoftLRUCache() {
     /**
      * PUBLIC:
      * Set the type of the cache used for the query results to a CacheIdentityMap.
-     * This will uses a fixed size LRU cache.
+     * This will uses a fixed size LRU cache, that locks on each access to maintain an exact LRU order.
      * This is the default.
      */
     public void useLRUCache() {
         setCacheType(ClassConstants.CacheIdentityMap_Class);
     }
 
+    /**
+     * PUBLIC:
+     * Set the type of the cache used for the query results to a QueryResultsIdentityMap.
+     * This will uses a fixed size cache that evicts the least recently used results,
+     * does not lock on lookup, and tracks the approximate memory used by the results
+     * to enforce the project's maximum query results cache memory.
+     * @see org.eclipse.persistence.sessions.Project#setQueryResultsCacheMaximumMemory(long)
+     */
+    public void useConcurrentCache() {
+        setCacheType(ClassConstants.QueryResultsIdentityMap_Class);
+    }
+
     /**
      * PUBLIC:
      * Build a QueryResultsCachePolicy and supply a CacheInvalidationPolicy. The default
@@ -34,10 +34,12 @@
 import org.eclipse.persistence.exceptions.QueryException;
 import org.eclipse.persistence.expressions.Expression;
 import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.expressions.ExpressionOperator;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseAccessor;
 import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
 import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
+import org.eclipse.persistence.internal.expressions.FunctionExpression;
 import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.DatabaseField;
@@ -80,6 +82,12 @@ public class ReadAllQuery extends ObjectLevelReadQuery {
     protected List<Expression> orderSiblingsByExpressions;
     protected Direction direction;
 
+    /** The prefix of the names of the parameters of the keyset pagination criteria. */
+    public static final String KEYSET_PARAMETER_PREFIX = "eclipselink.keyset.";
+
+    /** Used for keyset pagination, the ordering values of the last object of the previous page. */
+    protected List<Object> keysetValues;
+
     /**
      * Specifies the direction in which the hierarchy is traversed in a
      * hierarchical query.
@@ -204,6 +212,87 @@ public void addAscendingOrdering(String queryKeyName) {
         addOrdering(getExpressionBuilder().get(queryKeyName).ascending());
     }
 
+    /**
+     * INTERNAL:
+     * Build the keyset pagination criteria, selecting the objects ordered after the keyset values.
+     * The values are bound as parameters, so the query is prepared once for all the pages.
+     * If all the orderings have the same direction and the platform supports it,
+     * a row value comparison is used, i.e. (A, B) &gt; (?, ?),
+     * otherwise the equivalent comparisons, i.e. A &gt;= ? AND ((A &gt; ?) OR (A = ? AND B &gt; ?)).
+     */
+    public Expression buildKeysetCriteria(DatabasePlatform platform) {
+        int size = this.keysetValues.size();
+        if (!hasOrderByExpressions() || (getOrderByExpressions().size() != size)) {
+            throw QueryException.keysetValuesDoNotMatchOrdering(this, this.keysetValues, getOrderByExpressions());
+        }
+        Expression[] keys = new Expression[size];
+        Expression[] parameters = new Expression[size];
+        boolean[] isDescending = new boolean[size];
+        boolean isSameDirection = true;
+        for (int index = 0; index < size; index++) {
+            Expression key = getOrderByExpressions().get(index);
+            // Unwrap the ordering operators, i.e. descending().
+            while (key.isFunctionExpression()) {
+                int selector = key.getOperator().getSelector();
+                if (selector == ExpressionOperator.Descending) {
+                    isDescending[index] = true;
+                } else if ((selector == ExpressionOperator.NullsFirst) || (selector == ExpressionOperator.NullsLast)) {
+                    // The comparisons do not select null values, so the ordering of nulls cannot be paginated.
+                    throw QueryException.keysetPaginationDoesNotSupportNulls(this, this.keysetValues, getOrderByExpressions());
+                } else if (selector != ExpressionOperator.Ascending) {
+                    break;
+                }
+                key = ((FunctionExpression)key).getBaseExpression();
+            }
+            keys[index] = key;
+            parameters[index] = key.getParameter(KEYSET_PARAMETER_PREFIX + index);
+            parameters[index].setLocalBase(key);
+            isSameDirection = isSameDirection && (isDescending[index] == isDescending[0]);
+        }
+        if ((size > 1) && isSameDirection && platform.supportsRowValueComparisons()) {
+            List<String> strings = new ArrayList<>((size * 2) + 1);
+            strings.add("(");
+            for (int index = 1; index < size; index++) {
+                strings.add(", ");
+            }
+            strings.add(isDescending[0] ? ") < (" : ") > (");
+            for (int index = 1; index < size; index++) {
+                strings.add(", ");
+            }
+            strings.add(")");
+            ExpressionOperator operator = new ExpressionOperator();
+            operator.setType(ExpressionOperator.FunctionOperator);
+            operator.printsAs(strings);
+            operator.bePrefix();
+            operator.setNodeClass(ClassConstants.FunctionExpression_Class);
+            List<Expression> arguments = new ArrayList<>((size * 2) - 1);
+            for (int index = 1; index < size; index++) {
+                arguments.add(keys[index]);
+            }
+            for (int index = 0; index < size; index++) {
+                arguments.add(parameters[index]);
+            }
+            return keys[0].performOperator(operator, arguments);
+        }
+        Expression criteria = null;
+        Expression equalities = null;
+        for (int index = 0; index < size; index++) {
+            Expression comparison = isDescending[index] ? keys[index].lessThan(parameters[index]) : keys[index].greaterThan(parameters[index]);
+            if (equalities != null) {
+                comparison = equalities.and(comparison);
+            }
+            criteria = (criteria == null) ? comparison : criteria.or(comparison);
+            Expression equality = keys[index].equal(parameters[index]);
+            equalities = (equalities == null) ? equality : equalities.and(equality);
+        }
+        if (size > 1) {
+            // The range of the first ordering allows its index to be used.
+            Expression range = isDescending[0] ? keys[0].lessThanEqual(parameters[0]) : keys[0].greaterThanEqual(parameters[0]);
+            criteria = range.and(criteria);
+        }
+        return criteria;
+    }
+
     /**
      * INTERNAL:
      * <P> This method is called by the object builder when building an original.
@@ -604,6 +693,10 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
                     }
                     this.descriptor.getObjectBuilder().buildObjectsInto(this, rows, result);
                 }
+                // Load the batched relationships in the background while the application processes the objects.
+                if ((this.batchFetchPolicy != null) && this.batchFetchPolicy.isPrefetch()) {
+                    this.batchFetchPolicy.launchPrefetches();
+                }
 
                 if (sopObject != null) {
                     if (!this.descriptor.getObjectBuilder().isSimple()) {
@@ -753,6 +846,22 @@ public Direction getDirection() {
         return direction;
     }
 
+    /**
+     * PUBLIC:
+     * Return the ordering values of the last object of the previous page, used for keyset pagination.
+     */
+    public List<Object> getKeysetValues() {
+        return keysetValues;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the query uses keyset pagination.
+     */
+    public boolean hasKeysetValues() {
+        return this.keysetValues != null;
+    }
+
     /**
      * INTERNAL:
      * Verify that we have hierarchical query expressions
@@ -773,6 +882,7 @@ public boolean isDefaultPropertiesQuery() {
         return super.isDefaultPropertiesQuery()
             && (!hasBatchReadAttributes())
             && (!hasHierarchicalExpressions())
+            && (this.keysetValues == null)
             && (!this.containerPolicy.isCursorPolicy());
     }
 
@@ -893,6 +1003,14 @@ public void prepareForExecution() throws QueryException {
 
         this.containerPolicy.prepareForExecution();
 
+        // The keyset values are bound to the parameters of the keyset criteria.
+        if (this.keysetValues != null) {
+            translationRow = translationRow.clone();
+            for (int index = 0; index < this.keysetValues.size(); index++) {
+                translationRow.put(new DatabaseField(KEYSET_PARAMETER_PREFIX + index), this.keysetValues.get(index));
+            }
+        }
+
         // Modifying the translation row here will modify it on the original
         // query which is not good. So we have to clone the translation row if
         // we are going to append tenant discriminator fields to it.
@@ -1205,6 +1323,39 @@ public void setHierarchicalQueryClause(Expression startWith, Expression connectB
         setIsPrepared(false);
     }
 
+    /**
+     * PUBLIC:
+     * Set the ordering values of the last object of the previous page, to read the next page using keyset pagination.
+     * The query selects the objects ordered after the values, instead of skipping the objects of the previous pages
+     * as with setFirstResult(), so reading any page is as cheap as reading the first one.
+     * A value is required for each order by expression of the query,
+     * and the ordering must be unique and not null, i.e. end with the primary key.
+     * Null values and NULLS FIRST or NULLS LAST orderings are not supported and throw a QueryException.
+     * The page size is set with setMaxRows(), and null values read the first page.
+     * <p>Example:
+     * <p>query.addAscendingOrdering("lastName");
+     * <p>query.addAscendingOrdering("id");
+     * <p>query.setMaxRows(100);
+     * <p>query.setKeysetValues(Arrays.asList(last.getLastName(), last.getId()));
+     * @see #setMaxRows(int)
+     */
+    public void setKeysetValues(List<?> keysetValues) {
+        if (keysetValues != null) {
+            for (Object value : keysetValues) {
+                if (value == null) {
+                    throw QueryException.keysetPaginationDoesNotSupportNulls(this, keysetValues, getOrderByExpressions());
+                }
+            }
+        }
+        // The criteria only depends on the number of values, the values are bound on execution.
+        if ((keysetValues == null) || (this.keysetValues == null) || (keysetValues.size() != this.keysetValues.size())) {
+            if ((keysetValues != null) || (this.keysetValues != null)) {
+                setIsPrepared(false);
+            }
+        }
+        this.keysetValues = (keysetValues == null) ? null : new ArrayList<>(keysetValues);
+    }
+
     /**
      * PUBLIC:
      * Configure the mapping to use an instance of the specified container class
@@ -43,6 +43,7 @@
 import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.helper.LockContentionMonitor;
 import org.eclipse.persistence.internal.identitymaps.CacheIdentityMap;
 import org.eclipse.persistence.internal.identitymaps.CacheKey;
 import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
@@ -479,6 +480,85 @@ public void printIdentityMapLocks(String registeredClassName) {
           getSession().getIdentityMapAccessorInstance().getIdentityMapManager().printLocks(registeredClass);
       }
 
+      /**
+       *        Return the minimum cache lock wait time recorded, in milliseconds, or -1 if lock contention is not monitored.
+       *   Lock waits are recorded for all sessions.
+       */
+      public long getLockContentionThreshold() {
+          LockContentionMonitor monitor = LockContentionMonitor.getMonitor();
+          return (monitor == null) ? -1 : monitor.getThreshold();
+      }
+
+      /**
+       *        Start recording the cache lock waits longer than the threshold, in milliseconds.
+       *   A negative threshold stops recording the lock waits.
+       */
+      public void setLockContentionThreshold(long threshold) {
+          if (threshold < 0) {
+              LockContentionMonitor.disable();
+          } else {
+              LockContentionMonitor.enable(threshold);
+          }
+      }
+
+      /**
+       *        Return the most recent cache lock waits longer than the threshold, the most recent first.
+       *   Each wait describes the lock type, wait time, waiting and owning threads, class and primary key.
+       */
+      public List<String> getLockContentionWaits() {
+          List<String> waits = new ArrayList<>();
+          LockContentionMonitor monitor = LockContentionMonitor.getMonitor();
+          if (monitor != null) {
+              for (LockContentionMonitor.LockWait wait : monitor.getWaits()) {
+                  waits.add(wait.toString());
+              }
+          }
+          return waits;
+      }
+
+      /**
+       *        Return the cache lock waits longer than the threshold totaled by class, the longest total wait first.
+       */
+      public List<String> getLockContentionByClass() {
+          List<String> classes = new ArrayList<>();
+          LockContentionMonitor monitor = LockContentionMonitor.getMonitor();
+          if (monitor != null) {
+              for (LockContentionMonitor.ClassContention contention : monitor.getContendedClasses()) {
+                  classes.add(contention.toString());
+              }
+          }
+          return classes;
+      }
+
+      /**
+       *        Discard the recorded cache lock waits.
+       */
+      public void resetLockContention() {
+          LockContentionMonitor monitor = LockContentionMonitor.getMonitor();
+          if (monitor != null) {
+              monitor.reset();
+          }
+      }
+
+      /**
+       *        This will log at the INFO level the cache lock waits totaled by class, and the most recent lock waits.
+       */
+      public void printLockContention() {
+          LockContentionMonitor monitor = LockContentionMonitor.getMonitor();
+          if (monitor == null) {
+              return;
+          }
+          StringBuilder buffer = new StringBuilder();
+          buffer.append("Lock contention: ").append(monitor.getCount()).append(" waits longer than ").append(monitor.getThreshold()).append(" ms");
+          for (LockContentionMonitor.ClassContention contention : monitor.getContendedClasses()) {
+              buffer.append(Helper.cr()).append('\t').append(contention);
+          }
+          for (LockContentionMonitor.LockWait wait : monitor.getWaits()) {
+              buffer.append(Helper.cr()).append('\t').append(wait);
+          }
+          getSession().getSessionLog().info(buffer.toString());
+      }
+
       /**
        *        This method assumes EclipseLink Profiling (as opposed to Java profiling).
        *        This will log at the INFO level a summary of all elements in the profile.
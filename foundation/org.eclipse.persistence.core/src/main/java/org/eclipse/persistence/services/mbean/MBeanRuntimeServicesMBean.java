@@ -416,6 +416,37 @@ public interface MBeanRuntimeServicesMBean {
     */
     void printIdentityMapLocks(String registeredClassName);
 
+    /**
+    *        Return the minimum cache lock wait time recorded, in milliseconds, or -1 if lock contention is not monitored.
+    */
+    long getLockContentionThreshold();
+
+    /**
+    *        Start recording the cache lock waits longer than the threshold, in milliseconds.
+    *   A negative threshold stops recording the lock waits.
+    */
+    void setLockContentionThreshold(long threshold);
+
+    /**
+    *        Return the most recent cache lock waits longer than the threshold, the most recent first.
+    */
+    List<String> getLockContentionWaits();
+
+    /**
+    *        Return the cache lock waits longer than the threshold totaled by class, the longest total wait first.
+    */
+    List<String> getLockContentionByClass();
+
+    /**
+    *        Discard the recorded cache lock waits.
+    */
+    void resetLockContention();
+
+    /**
+    *        This will log at the INFO level the cache lock waits totaled by class, and the most recent lock waits.
+    */
+    void printLockContention();
+
     /**
     *        This method assumes EclipseLink Profiling (as opposed to Java profiling).
     *        This will log at the INFO level a summary of all elements in the profile.
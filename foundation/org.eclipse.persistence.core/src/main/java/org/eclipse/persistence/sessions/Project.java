@@ -44,6 +44,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -111,6 +112,9 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
     /** PERF: Provide an JPQL parse cache to optimize dynamic JPQL. */
     protected transient ConcurrentFixedCache jpqlParseCache;
 
+    /** PERF: Provide a cache of prepared criteria queries, by the shape of the criteria, to optimize criteria queries. */
+    protected transient ConcurrentFixedCache criteriaQueryCache;
+
     /** Define the default setting for configuring if dates and calendars are mutable. */
     protected boolean defaultTemporalMutable = false;
 
@@ -131,6 +135,36 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
     /** Default value for query caching options for all named queries. */
     protected QueryResultsCachePolicy defaultQueryResultsCachePolicy;
 
+    /** The approximate maximum memory in bytes used by the results of all query results caches, 0 means unbounded. */
+    protected long queryResultsCacheMaximumMemory = 0;
+
+    /** The number of threads used to preload the shared cache after login, 0 means the number of processors. */
+    protected int cacheWarmUpThreads = 0;
+
+    /** The number of lazy relationships of a query result loaded individually before the remaining ones are batch fetched, 0 means never. */
+    protected int autoBatchFetchThreshold = 0;
+
+    /** The number of executions of a named query observed before it is given a fetch group of the attributes used, 0 means never. */
+    protected int autoFetchGroupWarmUp = 0;
+
+    /** The number of threads initializing the descriptors on login, 1 means the descriptors are initialized sequentially. */
+    protected int descriptorInitializationThreads = 1;
+
+    /** The number of threads preparing the named queries in the background after login, 0 to prepare them on first use. */
+    protected int namedQueryPrecompilationThreads = 0;
+
+    /** Indicates the descriptors not listed as eager are initialized on their first use rather than on login. */
+    protected boolean usesLazyDescriptorInitialization = false;
+
+    /** The class names or aliases of the descriptors initialized on login when the descriptor initialization is lazy. */
+    protected Collection<String> eagerDescriptorNames = new HashSet<>();
+
+    /** Define if the attributes and constructors of classes that are not weaved are accessed through method handles. */
+    protected boolean usesMethodHandleAccessors = false;
+
+    /** The file the shared cache snapshot is written to on logout, and reloaded from after login, null means no snapshot. */
+    protected String cacheSnapshotFileName;
+
     /** Default value for ClassDescriptor.idValidation. */
     protected IdValidation defaultIdValidation;
 
@@ -246,6 +280,228 @@ public void setDefaultQueryResultsCachePolicy(QueryResultsCachePolicy defaultQue
         this.defaultQueryResultsCachePolicy = defaultQueryResultsCachePolicy;
     }
 
+    /**
+     * PUBLIC:
+     * Return the approximate maximum memory in bytes used by the results of all query results caches.
+     * By default this is 0, and the memory is only bounded by the maximum number of results of each query.
+     */
+    public long getQueryResultsCacheMaximumMemory() {
+        return queryResultsCacheMaximumMemory;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the approximate maximum memory in bytes used by the results of all query results caches.
+     * When exceeded, the least recently used results of all queries are evicted.
+     * The memory is estimated from the size of the cached result containers, the result objects
+     * themselves are held by the object cache and are not counted.
+     * This only applies to the query results caches of the concurrent type.
+     * By default this is 0, and the memory is only bounded by the maximum number of results of each query.
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#useConcurrentCache()
+     */
+    public void setQueryResultsCacheMaximumMemory(long queryResultsCacheMaximumMemory) {
+        this.queryResultsCacheMaximumMemory = queryResultsCacheMaximumMemory;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of threads used to preload the shared cache after login.
+     * By default this is 0, which uses the number of available processors.
+     */
+    public int getCacheWarmUpThreads() {
+        return cacheWarmUpThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of threads used to preload the shared cache after login.
+     * The objects of each class configured to be preloaded are read in this many partitions,
+     * which are read in parallel using client sessions when the session is a server session.
+     * By default this is 0, which uses the number of available processors.
+     * @see org.eclipse.persistence.descriptors.CachePolicy#setShouldPreload(boolean)
+     */
+    public void setCacheWarmUpThreads(int cacheWarmUpThreads) {
+        this.cacheWarmUpThreads = cacheWarmUpThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of lazy relationships of the objects read by a query that are loaded
+     * individually, before the relationships of the remaining objects are batch fetched.
+     * By default this is 0, which disables the automatic batch fetching.
+     */
+    public int getAutoBatchFetchThreshold() {
+        return autoBatchFetchThreshold;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of lazy relationships of the objects read by a query that are loaded
+     * individually, before the relationships of the remaining objects are batch fetched.
+     * This detects the N+1 select pattern of an application iterating over the results of a query
+     * and accessing a lazy relationship of each object, for relationships that are not batch fetched or join fetched.
+     * Once the threshold of a mapping is reached for a query execution, the relationships of the objects
+     * that are not yet loaded are read using IN batch fetching, in batches sized from the observed fan-out.
+     * By default this is 0, which disables the automatic batch fetching.
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#addBatchReadAttribute(String)
+     * @see org.eclipse.persistence.queries.BatchFetchPolicy#setIsAdaptive(boolean)
+     */
+    public void setAutoBatchFetchThreshold(int autoBatchFetchThreshold) {
+        this.autoBatchFetchThreshold = autoBatchFetchThreshold;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of executions of a named query observed before the query is given
+     * a fetch group of the attributes the application uses from its results.
+     * By default this is 0, which disables the automatic fetch groups.
+     */
+    public int getAutoFetchGroupWarmUp() {
+        return autoFetchGroupWarmUp;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of executions of a named query observed before the query is given
+     * a fetch group of the attributes the application uses from its results.
+     * The objects returned in a unit of work by the warm-up executions record the attributes accessed
+     * through their woven methods, the other attributes are then no longer selected by the query.
+     * If an attribute that is not fetched is accessed, the object is loaded, and the attribute is added to the fetch group.
+     * Only named queries reading a class woven for fetch groups, that do not define a fetch group, are observed.
+     * By default this is 0, which disables the automatic fetch groups.
+     * @see org.eclipse.persistence.queries.FetchGroup
+     */
+    public void setAutoFetchGroupWarmUp(int autoFetchGroupWarmUp) {
+        this.autoFetchGroupWarmUp = autoFetchGroupWarmUp;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of threads initializing the descriptors on login.
+     * By default this is 1, the descriptors are initialized sequentially.
+     */
+    public int getDescriptorInitializationThreads() {
+        return descriptorInitializationThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of threads initializing the descriptors on login.
+     * Each initialization phase of a descriptor runs once the descriptors of its inheritance parent,
+     * aggregates and relationship targets have completed the phase, the descriptors depending on each other
+     * are initialized on the same thread. This reduces the login time of projects with many descriptors.
+     * By default this is 1, the descriptors are initialized sequentially.
+     */
+    public void setDescriptorInitializationThreads(int descriptorInitializationThreads) {
+        this.descriptorInitializationThreads = descriptorInitializationThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of threads preparing the named queries in the background after login.
+     * By default this is 0, the named queries are prepared on their first execution.
+     */
+    public int getNamedQueryPrecompilationThreads() {
+        return namedQueryPrecompilationThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of threads preparing the named queries in the background after login.
+     * The named queries of the session are prepared, their SQL generated, as on their first execution,
+     * so that the first requests after login do not wait for their preparation.
+     * A query executed while being prepared waits for its preparation to complete.
+     * By default this is 0, the named queries are prepared on their first execution.
+     */
+    public void setNamedQueryPrecompilationThreads(int namedQueryPrecompilationThreads) {
+        this.namedQueryPrecompilationThreads = namedQueryPrecompilationThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if the descriptors not listed as eager are initialized on their first use rather than on login.
+     * By default this is false, all the descriptors are initialized on login.
+     */
+    public boolean usesLazyDescriptorInitialization() {
+        return usesLazyDescriptorInitialization;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the descriptors not listed as eager are initialized on their first use rather than on login.
+     * The descriptors are then only pre-initialized on login, and fully initialized with the descriptors
+     * they depend on when first looked up by the session, to query, persist or merge their objects.
+     * This reduces the login time and memory of projects with many rarely used descriptors.
+     * The descriptors with an isolated cache, history or interface policy are always initialized on login,
+     * and all the descriptors are initialized to generate the DDL or build the JPA metamodel.
+     * By default this is false, all the descriptors are initialized on login.
+     * @see #setEagerDescriptorNames(Collection)
+     */
+    public void setUsesLazyDescriptorInitialization(boolean usesLazyDescriptorInitialization) {
+        this.usesLazyDescriptorInitialization = usesLazyDescriptorInitialization;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the class names or aliases of the descriptors initialized on login when the descriptor initialization is lazy.
+     */
+    public Collection<String> getEagerDescriptorNames() {
+        return eagerDescriptorNames;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the class names or aliases of the descriptors initialized on login when the descriptor initialization is lazy,
+     * with the descriptors they depend on.
+     * @see #setUsesLazyDescriptorInitialization(boolean)
+     */
+    public void setEagerDescriptorNames(Collection<String> eagerDescriptorNames) {
+        this.eagerDescriptorNames = eagerDescriptorNames;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if the attributes and default constructors of the classes that are not weaved
+     * are accessed through method handles built on login instead of reflection.
+     * By default this is false.
+     */
+    public boolean usesMethodHandleAccessors() {
+        return usesMethodHandleAccessors;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the attributes and default constructors of the classes that are not weaved
+     * are accessed through method handles built on login instead of reflection.
+     * This avoids the reflective access checks on every access when weaving is disabled.
+     * Method handles are not used with a security manager.
+     * By default this is false.
+     */
+    public void setUsesMethodHandleAccessors(boolean usesMethodHandleAccessors) {
+        this.usesMethodHandleAccessors = usesMethodHandleAccessors;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the file the shared cache snapshot is written to on logout, and reloaded from after login.
+     */
+    public String getCacheSnapshotFileName() {
+        return cacheSnapshotFileName;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the file the shared cache snapshot is written to on logout, and reloaded from after login.
+     * The snapshot contains the rows of the cached objects of classes using version optimistic locking.
+     * After login the versions are validated against the database in the background, and only the objects
+     * whose version has not changed are rebuilt into the shared cache.
+     * A missing, invalid or stale snapshot is ignored.
+     * By default this is null, and no snapshot is used.
+     */
+    public void setCacheSnapshotFileName(String cacheSnapshotFileName) {
+        this.cacheSnapshotFileName = cacheSnapshotFileName;
+    }
+
     /**
      * PUBLIC:
      * Return the default setting for configuring if dates and calendars are mutable.
@@ -332,6 +588,38 @@ protected void setJPQLParseCache(ConcurrentFixedCache jpqlParseCache) {
         this.jpqlParseCache = jpqlParseCache;
     }
 
+    /**
+     * INTERNAL:
+     * Return the criteria query cache.
+     * This is used to optimize criteria queries.
+     */
+    public ConcurrentFixedCache getCriteriaQueryCache() {
+        if (criteriaQueryCache == null) {
+            criteriaQueryCache = new ConcurrentFixedCache(0);
+        }
+        return criteriaQueryCache;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the criteria query cache max size.
+     * The cache shares the prepared query, and its SQL, between the criteria queries of the same shape,
+     * the literals compared to attributes in their where clause are bound as parameters of the cached query.
+     * By default the size is 0, which disables the cache.
+     */
+    public void setCriteriaQueryCacheMaxSize(int maxSize) {
+        this.criteriaQueryCache = new ConcurrentFixedCache(maxSize);
+    }
+
+    /**
+     * ADVANCED:
+     * Return the criteria query cache max size.
+     * This is used to optimize criteria queries.
+     */
+    public int getCriteriaQueryCacheMaxSize() {
+        return getCriteriaQueryCache().getMaxSize();
+    }
+
     /**
      * INTERNAL:
      * List of queries that upon initialization are copied over to the session
@@ -35,6 +35,8 @@ public interface SessionProfiler {
     String LoginTime = "Info:LoginTime";
     String RcmStatus = "Info:CacheCoordinationStatus";
     String CacheSize = "Info:CacheSize";//TODO
+    String QueryResultsCacheMemory = "Info:QueryResultsCacheMemory";
+    String BatchFetchStatistics = "Info:BatchFetch:";
 
     String ClientSessionCreated = "Counter:ClientSessionCreates";
     String ClientSessionReleased = "Counter:ClientSessionReleases";
@@ -50,6 +52,8 @@ public interface SessionProfiler {
     String Disconnects = "Counter:DisconnectCalls";
     String CacheHits = "Counter:CacheHits";
     String CacheMisses = "Counter:CacheMisses";
+    String QueryResultsCacheEvictions = "Counter:QueryResultsCacheEvictions";
+    String BatchFetchQueries = "Counter:AdaptiveBatchFetchQueries";
     String ChangeSetsProcessed = "Counter:ChangesProcessed";
     String ChangeSetsNotProcessed = "Counter:ChangesNotProcessed";
 
@@ -74,10 +78,14 @@ public interface SessionProfiler {
     String JtsAfterCompletion = "Timer:TXAfterCompletion";
     String Transaction = "Timer:Transactions";
     String UowCommit = "Timer:UnitOfWorkCommit";
+    String UowCalculateChanges = "Timer:UnitOfWorkCalculateChanges";
     String ConnectionPing = "Timer:ConnectionPing";
     String Remote = "Timer:Remote";
     String RemoteLazy = "Timer:RemoteLazy";
     String RemoteMetadata = "Timer:RemoteMetadata";
+    String DescriptorPreInitialize = "Timer:DescriptorPreInitialize";
+    String DescriptorInitialize = "Timer:DescriptorInitialize";
+    String DescriptorPostInitialize = "Timer:DescriptorPostInitialize";
 
     /**
      * INTERNAL:
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p><b>Purpose</b>: A concurrent log-linear histogram of latencies in nanoseconds.
+ * <p>
+ * Each power of two range is split into 16 linear buckets, so recorded values are
+ * accurate to within about 6%. Values from 0 to 2^41 ns (about 36 minutes) are tracked,
+ * larger values are counted in the last bucket.
+ * Recording a value does not lock or allocate, it only increments the value's bucket.
+ *
+ * @see PerformanceMetricsMonitor
+ */
+public class LatencyHistogram {
+
+    /** The number of bits of each value used to select its linear bucket. */
+    protected static final int SUB_BUCKET_BITS = 4;
+
+    /** The number of linear buckets in each power of two range. */
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** The highest power of two tracked. */
+    protected static final int MAX_EXPONENT = 40;
+
+    /** The number of buckets. */
+    protected static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    protected final AtomicLongArray buckets;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    /**
+     * Return the index of the bucket counting the value.
+     */
+    protected static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (value < 0) ? 0 : (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) * SUB_BUCKET_COUNT) + (int)((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Return the highest value counted by the bucket.
+     */
+    protected static long bucketHighestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index / SUB_BUCKET_COUNT) - 1;
+        long mantissa = (index % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Record the value.
+     */
+    public void record(long value) {
+        this.buckets.incrementAndGet(bucketIndex(value));
+    }
+
+    /**
+     * Return the number of values recorded.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            count = count + this.buckets.get(index);
+        }
+        return count;
+    }
+
+    /**
+     * Return the values at the percentiles, such as 50.0, 99.0 and 99.9.
+     * Each value is the highest value of the bucket containing the percentile,
+     * the values are computed from a single pass over the buckets.
+     * If no values were recorded, 0 is returned.
+     */
+    public long[] getValuesAtPercentiles(double... percentiles) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts[index] = this.buckets.get(index);
+            total = total + counts[index];
+        }
+        long[] values = new long[percentiles.length];
+        if (total == 0) {
+            return values;
+        }
+        for (int percentileIndex = 0; percentileIndex < percentiles.length; percentileIndex++) {
+            long rank = (long)Math.ceil((percentiles[percentileIndex] / 100.0) * total);
+            if (rank < 1) {
+                rank = 1;
+            }
+            long count = 0;
+            for (int index = 0; index < BUCKET_COUNT; index++) {
+                count = count + counts[index];
+                if (count >= rank) {
+                    values[percentileIndex] = bucketHighestValue(index);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Return the value at the percentile, such as 99.0.
+     */
+    public long getValueAtPercentile(double percentile) {
+        return getValuesAtPercentiles(percentile)[0];
+    }
+
+    /**
+     * Return the highest value recorded, within the accuracy of the buckets.
+     */
+    public long getMaximum() {
+        for (int index = BUCKET_COUNT - 1; index >= 0; index--) {
+            if (this.buckets.get(index) > 0) {
+                return bucketHighestValue(index);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Clear the recorded values.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            this.buckets.set(index, 0);
+        }
+    }
+}
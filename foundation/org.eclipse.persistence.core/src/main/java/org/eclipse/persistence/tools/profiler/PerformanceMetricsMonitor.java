@@ -0,0 +1,594 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.Record;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * <p><b>Purpose</b>: A low overhead performance monitor, that records latency percentiles.
+ * <p>
+ * This records the same operations as the {@link PerformanceMonitor}, but is intended to be used under load:
+ * <ul>
+ * <li> Each operation, query, and operation of a query has its own metric, created on first use and then reused.
+ * <li> Counts and total times use striped {@link LongAdder} counters, and times are recorded in a
+ * {@link LatencyHistogram}, so recording does not lock, and threads do not contend on a shared total.
+ * <li> The start times of the operations in progress are kept in a preallocated stack of the thread,
+ * so recording an operation does not allocate, and operation names are never concatenated.
+ * </ul>
+ * A snapshot of the metrics, with the 50th, 99th and 99.9th percentile of each timed operation,
+ * can be obtained at any time, and is logged periodically.
+ *
+ * @see LatencyHistogram
+ */
+public class PerformanceMetricsMonitor implements SessionProfiler, Cloneable {
+    protected static final String TIMER = "Timer:";
+
+    /** The maximum number of operations tracked in progress by a thread, older operations are discarded if exceeded. */
+    protected static final int MAX_OPERATIONS_IN_PROGRESS = 256;
+
+    protected AbstractSession session;
+
+    /** The metrics of the operations, keyed by operation name. */
+    protected ConcurrentMap<String, Metric> operationMetrics;
+
+    /** The metrics of the queries, keyed by query monitor name. */
+    protected ConcurrentMap<String, QueryMetrics> queryMetrics;
+
+    /** The metrics of the executions of each query class. */
+    protected ConcurrentMap<Class, Metric> queryClassMetrics;
+
+    /** The operations in progress of each thread. */
+    protected ThreadLocal<OperationStack> operationsInProgress;
+
+    protected AtomicLong lastDumpTime;
+    protected long dumpTime;
+    protected int profileWeight;
+
+    /**
+     * PUBLIC:
+     * Create a new profiler.
+     * The profiler can be registered with a session to record performance metrics.
+     */
+    public PerformanceMetricsMonitor() {
+        this.operationMetrics = new ConcurrentHashMap<>();
+        this.queryMetrics = new ConcurrentHashMap<>();
+        this.queryClassMetrics = new ConcurrentHashMap<>();
+        this.operationsInProgress = ThreadLocal.withInitial(OperationStack::new);
+        this.lastDumpTime = new AtomicLong(System.currentTimeMillis());
+        this.dumpTime = 60000; // 1 minute
+        this.profileWeight = SessionProfiler.ALL;
+    }
+
+    @Override
+    public PerformanceMetricsMonitor clone() {
+        try {
+            return (PerformanceMetricsMonitor)super.clone();
+        } catch (CloneNotSupportedException exception) {
+            throw new InternalError();
+        }
+    }
+
+    /**
+     * Return the number of milliseconds after which the metrics should be logged.
+     */
+    public long getDumpTime() {
+        return dumpTime;
+    }
+
+    /**
+     * Set the number of milliseconds after which the metrics should be logged.
+     * A dump time of 0 or less disables the periodic logging.
+     */
+    public void setDumpTime(long dumpTime) {
+        this.dumpTime = dumpTime;
+    }
+
+    /**
+     * Export the metrics after a set amount of time has passed.
+     * Only one thread exports the metrics for each period.
+     */
+    public void checkDumpTime() {
+        if (this.dumpTime <= 0) {
+            return;
+        }
+        long lastDumpTime = this.lastDumpTime.get();
+        long now = System.currentTimeMillis();
+        if (((now - lastDumpTime) > this.dumpTime) && this.lastDumpTime.compareAndSet(lastDumpTime, now)) {
+            exportSnapshot(getSnapshot());
+        }
+    }
+
+    /**
+     * Log the metrics to the session's log.
+     */
+    public void dumpResults() {
+        this.lastDumpTime.set(System.currentTimeMillis());
+        exportSnapshot(getSnapshot());
+    }
+
+    /**
+     * Export the snapshot of the metrics, by default it is written to the session's log.
+     * Subclasses can override this to publish the metrics elsewhere.
+     */
+    protected void exportSnapshot(Map<String, MetricSnapshot> snapshot) {
+        if (this.session == null) {
+            return;
+        }
+        StringWriter writer = new StringWriter();
+        writer.write("\nPerformance Metrics Monitor:");
+        writer.write(String.valueOf(System.currentTimeMillis()));
+        writer.write("\nOperation\tCount\tTotal (ns)\tMean (ns)\tp50 (ns)\tp99 (ns)\tp99.9 (ns)\tMax (ns)\n");
+        NumberFormat formatter = NumberFormat.getInstance();
+        for (MetricSnapshot metric : snapshot.values()) {
+            writer.write(metric.getName());
+            if (metric.getValue() != null) {
+                writer.write("\t");
+                writer.write(String.valueOf(metric.getValue()));
+            } else {
+                writer.write("\t");
+                writer.write(formatter.format(metric.getCount()));
+                if (metric.isTimer()) {
+                    writer.write("\t");
+                    writer.write(formatter.format(metric.getTotalTime()));
+                    writer.write("\t");
+                    writer.write(formatter.format(metric.getMeanTime()));
+                    writer.write("\t");
+                    writer.write(formatter.format(metric.getP50()));
+                    writer.write("\t");
+                    writer.write(formatter.format(metric.getP99()));
+                    writer.write("\t");
+                    writer.write(formatter.format(metric.getP999()));
+                    writer.write("\t");
+                    writer.write(formatter.format(metric.getMaximum()));
+                }
+            }
+            writer.write("\n");
+        }
+        try {
+            this.session.getLog().write(writer.toString());
+            this.session.getLog().flush();
+        } catch (IOException error) {
+            // ignore
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * Return a snapshot of all of the metrics, sorted by name.
+     * The metrics of a query are named with the query's monitor name,
+     * and the metrics of the query's operations with the query's monitor name and the operation name.
+     */
+    public Map<String, MetricSnapshot> getSnapshot() {
+        Map<String, MetricSnapshot> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Metric> entry : this.operationMetrics.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().buildSnapshot(entry.getKey()));
+        }
+        for (Map.Entry<Class, Metric> entry : this.queryClassMetrics.entrySet()) {
+            String name = TIMER + entry.getKey().getSimpleName();
+            snapshot.put(name, entry.getValue().buildSnapshot(name));
+        }
+        for (Map.Entry<String, QueryMetrics> entry : this.queryMetrics.entrySet()) {
+            String name = TIMER + entry.getKey();
+            snapshot.put(name, entry.getValue().execution.buildSnapshot(name));
+            for (Map.Entry<String, Metric> operation : entry.getValue().operations.entrySet()) {
+                String operationName = operation.getKey();
+                int index = operationName.indexOf(':');
+                if (index == -1) {
+                    name = entry.getKey() + ":" + operationName;
+                } else {
+                    name = operationName.substring(0, index + 1) + entry.getKey() + operationName.substring(index);
+                }
+                snapshot.put(name, operation.getValue().buildSnapshot(name));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the snapshot of the metric, or null if the operation has not been recorded.
+     */
+    public MetricSnapshot getMetric(String operationName) {
+        return getSnapshot().get(operationName);
+    }
+
+    /**
+     * PUBLIC:
+     * Clear all of the metrics.
+     */
+    public void reset() {
+        this.operationMetrics.clear();
+        this.queryMetrics.clear();
+        this.queryClassMetrics.clear();
+    }
+
+    /**
+     * Return the metric of the operation, creating it on first use.
+     */
+    protected Metric getOperationMetric(String operationName) {
+        Metric metric = this.operationMetrics.get(operationName);
+        if (metric == null) {
+            metric = this.operationMetrics.computeIfAbsent(operationName, Metric::new);
+        }
+        return metric;
+    }
+
+    /**
+     * Return the metrics of the query, creating them on first use.
+     */
+    protected QueryMetrics getQueryMetrics(DatabaseQuery query) {
+        String monitorName = query.getMonitorName();
+        QueryMetrics metrics = this.queryMetrics.get(monitorName);
+        if (metrics == null) {
+            metrics = this.queryMetrics.computeIfAbsent(monitorName, name -> new QueryMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * INTERNAL:
+     * Start the operation timing.
+     */
+    @Override
+    public void startOperationProfile(String operationName) {
+        if (this.profileWeight < SessionProfiler.HEAVY) {
+            return;
+        }
+        this.operationsInProgress.get().push(operationName, null, System.nanoTime());
+    }
+
+    /**
+     * INTERNAL:
+     * Start the operation timing.
+     */
+    @Override
+    public void startOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if ((this.profileWeight < weight) || (this.profileWeight < SessionProfiler.HEAVY)) {
+            return;
+        }
+        this.operationsInProgress.get().push(operationName, query, System.nanoTime());
+    }
+
+    /**
+     * INTERNAL:
+     * End the operation timing.
+     */
+    @Override
+    public void endOperationProfile(String operationName) {
+        endOperationProfile(operationName, null, SessionProfiler.HEAVY);
+    }
+
+    /**
+     * INTERNAL:
+     * End the operation timing, and record it for the operation, and the query's operation.
+     */
+    @Override
+    public void endOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if ((this.profileWeight < weight) || (this.profileWeight < SessionProfiler.HEAVY)) {
+            return;
+        }
+        long endTime = System.nanoTime();
+        long startTime = this.operationsInProgress.get().pop(operationName, query);
+        if (startTime == -1) {
+            return;
+        }
+        long time = endTime - startTime;
+        getOperationMetric(operationName).recordTime(time);
+        if (query != null) {
+            getQueryMetrics(query).getOperationMetric(operationName).recordTime(time);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Record the execution time of the query, and of its query class.
+     */
+    @Override
+    public Object profileExecutionOfQuery(DatabaseQuery query, Record row, AbstractSession session) {
+        if (this.profileWeight < SessionProfiler.HEAVY) {
+            return session.internalExecuteQuery(query, (AbstractRecord)row);
+        }
+        long startTime = System.nanoTime();
+        try {
+            return session.internalExecuteQuery(query, (AbstractRecord)row);
+        } finally {
+            long time = System.nanoTime() - startTime;
+            getQueryMetrics(query).execution.recordTime(time);
+            Class queryClass = query.getClass();
+            Metric metric = this.queryClassMetrics.get(queryClass);
+            if (metric == null) {
+                metric = this.queryClassMetrics.computeIfAbsent(queryClass, type -> new Metric(TIMER));
+            }
+            metric.recordTime(time);
+            checkDumpTime();
+        }
+    }
+
+    @Override
+    public void update(String operationName, Object value) {
+        getOperationMetric(operationName).value = value;
+    }
+
+    @Override
+    public void occurred(String operationName, AbstractSession session) {
+        if (this.profileWeight < SessionProfiler.NORMAL) {
+            return;
+        }
+        getOperationMetric(operationName).count.increment();
+    }
+
+    @Override
+    public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+        if (this.profileWeight < SessionProfiler.NORMAL) {
+            return;
+        }
+        getOperationMetric(operationName).count.increment();
+        getQueryMetrics(query).getOperationMetric(operationName).count.increment();
+    }
+
+    public AbstractSession getSession() {
+        return session;
+    }
+
+    @Override
+    public void setSession(Session session) {
+        this.session = (AbstractSession)session;
+    }
+
+    /**
+     * Set the level of profiling.
+     * One of ALL, HEAVY, NORMAL, NONE.
+     * The higher the level, the more operations are profiled.
+     * @see SessionProfiler
+     */
+    @Override
+    public void setProfileWeight(int profileWeight) {
+        this.profileWeight = profileWeight;
+    }
+
+    /**
+     * Return the level of profiling.
+     * One of ALL, HEAVY, NORMAL, NONE.
+     * @see SessionProfiler
+     */
+    @Override
+    public int getProfileWeight() {
+        return profileWeight;
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    /**
+     * INTERNAL:
+     * The counters and latency histogram of an operation.
+     * Only timed operations have a histogram.
+     */
+    protected static class Metric {
+        protected final LongAdder count;
+        protected final LongAdder totalTime;
+        protected final LatencyHistogram histogram;
+        protected volatile Object value;
+
+        protected Metric(String operationName) {
+            this.count = new LongAdder();
+            this.totalTime = new LongAdder();
+            this.histogram = operationName.startsWith(TIMER) ? new LatencyHistogram() : null;
+        }
+
+        protected void recordTime(long time) {
+            this.count.increment();
+            if (this.histogram != null) {
+                this.totalTime.add(time);
+                this.histogram.record(time);
+            }
+        }
+
+        protected MetricSnapshot buildSnapshot(String name) {
+            if (this.histogram == null) {
+                return new MetricSnapshot(name, this.count.sum(), 0, null, this.value);
+            }
+            return new MetricSnapshot(name, this.count.sum(), this.totalTime.sum(), this.histogram, this.value);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The metrics of the executions of a query, and of its operations.
+     */
+    protected static class QueryMetrics {
+        protected final Metric execution = new Metric(TIMER);
+        protected final ConcurrentMap<String, Metric> operations = new ConcurrentHashMap<>();
+
+        protected Metric getOperationMetric(String operationName) {
+            Metric metric = this.operations.get(operationName);
+            if (metric == null) {
+                metric = this.operations.computeIfAbsent(operationName, Metric::new);
+            }
+            return metric;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The start times of the operations in progress of a thread.
+     * Operations are usually ended in the reverse order they were started,
+     * so the operation is searched from the most recently started.
+     */
+    protected static class OperationStack {
+        protected String[] operationNames = new String[16];
+        protected DatabaseQuery[] queries = new DatabaseQuery[16];
+        protected long[] startTimes = new long[16];
+        protected int size;
+
+        protected void push(String operationName, DatabaseQuery query, long startTime) {
+            if (this.size == this.operationNames.length) {
+                if (this.size >= MAX_OPERATIONS_IN_PROGRESS) {
+                    // Operations that were never ended, discard the oldest half.
+                    int discarded = this.size / 2;
+                    remove(0, discarded);
+                } else {
+                    int length = this.size * 2;
+                    this.operationNames = Arrays.copyOf(this.operationNames, length);
+                    this.queries = Arrays.copyOf(this.queries, length);
+                    this.startTimes = Arrays.copyOf(this.startTimes, length);
+                }
+            }
+            this.operationNames[this.size] = operationName;
+            this.queries[this.size] = query;
+            this.startTimes[this.size] = startTime;
+            this.size++;
+        }
+
+        /**
+         * Remove the operation, and return its start time, or -1 if it was not started.
+         */
+        protected long pop(String operationName, DatabaseQuery query) {
+            for (int index = this.size - 1; index >= 0; index--) {
+                String name = this.operationNames[index];
+                if (((name == operationName) || name.equals(operationName)) && (this.queries[index] == query)) {
+                    long startTime = this.startTimes[index];
+                    remove(index, 1);
+                    return startTime;
+                }
+            }
+            return -1;
+        }
+
+        protected void remove(int index, int length) {
+            int moved = this.size - index - length;
+            if (moved > 0) {
+                System.arraycopy(this.operationNames, index + length, this.operationNames, index, moved);
+                System.arraycopy(this.queries, index + length, this.queries, index, moved);
+                System.arraycopy(this.startTimes, index + length, this.startTimes, index, moved);
+            }
+            for (int cleared = this.size - length; cleared < this.size; cleared++) {
+                this.operationNames[cleared] = null;
+                this.queries[cleared] = null;
+            }
+            this.size = this.size - length;
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * A snapshot of the metrics of an operation.
+     * Times are in nanoseconds, percentiles are accurate to within about 6%.
+     */
+    public static class MetricSnapshot {
+        protected String name;
+        protected long count;
+        protected long totalTime;
+        protected long p50;
+        protected long p99;
+        protected long p999;
+        protected long maximum;
+        protected boolean isTimer;
+        protected Object value;
+
+        protected MetricSnapshot(String name, long count, long totalTime, LatencyHistogram histogram, Object value) {
+            this.name = name;
+            this.count = count;
+            this.totalTime = totalTime;
+            this.value = value;
+            if (histogram != null) {
+                this.isTimer = true;
+                long[] percentiles = histogram.getValuesAtPercentiles(50.0, 99.0, 99.9);
+                this.p50 = percentiles[0];
+                this.p99 = percentiles[1];
+                this.p999 = percentiles[2];
+                this.maximum = histogram.getMaximum();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Return the number of times the operation occurred, or was timed.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        public long getMeanTime() {
+            return (count == 0) ? 0 : (totalTime / count);
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMaximum() {
+            return maximum;
+        }
+
+        /**
+         * Return if the operation is timed.
+         */
+        public boolean isTimer() {
+            return isTimer;
+        }
+
+        /**
+         * Return the value of an informational metric, such as the session name.
+         */
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            if (this.value != null) {
+                return this.name + "=" + this.value;
+            }
+            if (!this.isTimer) {
+                return this.name + "=" + this.count;
+            }
+            return this.name + "(count=" + this.count + ", total=" + this.totalTime + ", p50=" + this.p50
+                    + ", p99=" + this.p99 + ", p99.9=" + this.p999 + ", max=" + this.maximum + ")";
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p><b>Purpose</b>: Flight Recorder event for a query cache hit or miss.
+ * As it can occur at a very high rate it is disabled by default, and must be enabled in the recording settings.
+ *
+ * @see JFRPerformanceProfiler
+ */
+@Name("org.eclipse.persistence.CacheAccess")
+@Label("Cache Access")
+@Category({"EclipseLink", "Cache"})
+@Description("A query was answered from the cache (hit), or had to access the database (miss)")
+@StackTrace(false)
+@Enabled(false)
+public class CacheAccessEvent extends Event {
+
+    @Label("Session")
+    String session;
+
+    @Label("Query")
+    String query;
+
+    @Label("Reference Class")
+    Class<?> referenceClass;
+
+    @Label("Hit")
+    boolean hit;
+}
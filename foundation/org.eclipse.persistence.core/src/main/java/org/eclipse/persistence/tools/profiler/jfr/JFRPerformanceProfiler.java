@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler.jfr;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
+import org.eclipse.persistence.internal.helper.LockWaitListener;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.Record;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * <p><b>Purpose</b>: A profiler recording JDK Flight Recorder events.
+ * <p>
+ * This records the execution of queries, the profiled operations such as the unit of work commit,
+ * change calculation and merge, query cache hits and misses, and cache lock waits, as custom
+ * Flight Recorder events in the "EclipseLink" category. The events can be correlated with the
+ * JVM's own events, such as garbage collections and thread states.
+ * <p>
+ * When no recording is in progress, or the events are disabled in the recording settings,
+ * the profiler only checks if the event is enabled, so it can be left on in production.
+ * Query and operation events have a default threshold of 1 ms, and cache access events are
+ * disabled by default, these can be changed in the recording settings.
+ * <p>
+ * This profiler requires a JDK that supports the jdk.jfr API, it is selected using the
+ * persistence unit property "eclipselink.profiler"="JFRProfiler".
+ *
+ * @see org.eclipse.persistence.config.ProfilerType#JFRProfiler
+ */
+public class JFRPerformanceProfiler implements SessionProfiler, Cloneable {
+    protected static final String TIMER = "Timer:";
+
+    /** Records the lock waits of all sessions, lock waits are not associated to a session. */
+    protected static final LockWaitListener LOCK_WAIT_RECORDER = new LockWaitRecorder();
+
+    /** The number of logged in sessions using the lock wait recorder, it is registered while any are. */
+    protected static int lockWaitRecorderUsers;
+
+    protected AbstractSession session;
+    protected String sessionName;
+    protected int profileWeight;
+
+    /** Unregisters the lock wait recorder when the session logs out, if it is registered for this profiler. */
+    protected SessionEventAdapter lockWaitRecorderLogout;
+
+    /** The operations in progress, and the object building time of the query executing, on each thread. */
+    protected ThreadLocal<ThreadProfile> threadProfiles;
+
+    /**
+     * PUBLIC:
+     * Create a new profiler.
+     */
+    public JFRPerformanceProfiler() {
+        this.profileWeight = SessionProfiler.ALL;
+        this.threadProfiles = ThreadLocal.withInitial(ThreadProfile::new);
+    }
+
+    @Override
+    public JFRPerformanceProfiler clone() {
+        try {
+            JFRPerformanceProfiler clone = (JFRPerformanceProfiler)super.clone();
+            clone.lockWaitRecorderLogout = null;
+            return clone;
+        } catch (CloneNotSupportedException exception) {
+            throw new InternalError();
+        }
+    }
+
+    /**
+     * Register the lock wait recorder once, for all sessions.
+     */
+    protected static synchronized void registerLockWaitRecorder() {
+        if (lockWaitRecorderUsers++ == 0) {
+            ConcurrencyManager.addLockWaitListener(LOCK_WAIT_RECORDER);
+        }
+    }
+
+    /**
+     * Unregister the lock wait recorder once no logged in session uses it.
+     */
+    protected static synchronized void unregisterLockWaitRecorder() {
+        if ((lockWaitRecorderUsers > 0) && (--lockWaitRecorderUsers == 0)) {
+            ConcurrencyManager.removeLockWaitListener(LOCK_WAIT_RECORDER);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the lock wait recorder is registered.
+     */
+    public static synchronized boolean isLockWaitRecorderRegistered() {
+        return lockWaitRecorderUsers > 0;
+    }
+
+    /**
+     * INTERNAL:
+     * Record a query execution event, with the object building time of the query.
+     */
+    @Override
+    public Object profileExecutionOfQuery(DatabaseQuery query, Record row, AbstractSession session) {
+        if (this.profileWeight < SessionProfiler.HEAVY) {
+            return session.internalExecuteQuery(query, (AbstractRecord)row);
+        }
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        if (!event.isEnabled()) {
+            return session.internalExecuteQuery(query, (AbstractRecord)row);
+        }
+        ThreadProfile profile = this.threadProfiles.get();
+        // Queries are executed while building the objects of other queries, so the outer query's building state is saved.
+        long outerObjectBuildingTime = profile.objectBuildingTime;
+        long outerObjectBuildingStart = profile.objectBuildingStart;
+        int outerObjectBuildingDepth = profile.objectBuildingDepth;
+        profile.objectBuildingTime = 0;
+        profile.objectBuildingDepth = 0;
+        Object result = null;
+        event.begin();
+        try {
+            result = session.internalExecuteQuery(query, (AbstractRecord)row);
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.session = this.sessionName;
+                event.query = query.getMonitorName();
+                event.queryClass = query.getClass();
+                event.referenceClass = query.getReferenceClass();
+                event.sql = query.getSQLString();
+                event.rows = countRows(result);
+                event.objectBuildingTime = profile.objectBuildingTime;
+                event.commit();
+            }
+            profile.objectBuildingTime = outerObjectBuildingTime;
+            profile.objectBuildingStart = outerObjectBuildingStart;
+            profile.objectBuildingDepth = outerObjectBuildingDepth;
+        }
+    }
+
+    /**
+     * Return the number of objects or rows returned, or modified, by the query.
+     */
+    protected int countRows(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Collection) {
+            return ((Collection)result).size();
+        } else if (result instanceof Map) {
+            return ((Map)result).size();
+        } else if (result instanceof Integer) {
+            return (Integer)result;
+        }
+        return 1;
+    }
+
+    /**
+     * INTERNAL:
+     * Start the operation timing.
+     */
+    @Override
+    public void startOperationProfile(String operationName) {
+        startOperationProfile(operationName, null, SessionProfiler.HEAVY);
+    }
+
+    /**
+     * INTERNAL:
+     * Start the operation timing.
+     * Object building is accumulated into the query execution event, other operations have their own event.
+     */
+    @Override
+    public void startOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if ((this.profileWeight < weight) || (this.profileWeight < SessionProfiler.HEAVY)) {
+            return;
+        }
+        if (SessionProfiler.ObjectBuilding.equals(operationName)) {
+            ThreadProfile profile = this.threadProfiles.get();
+            // Object building is recursive, only the outermost building is timed.
+            if (profile.objectBuildingDepth++ == 0) {
+                profile.objectBuildingStart = System.nanoTime();
+            }
+            return;
+        }
+        OperationEvent event = new OperationEvent();
+        if (event.isEnabled()) {
+            this.threadProfiles.get().push(operationName, query, event);
+            event.begin();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * End the operation timing.
+     */
+    @Override
+    public void endOperationProfile(String operationName) {
+        endOperationProfile(operationName, null, SessionProfiler.HEAVY);
+    }
+
+    /**
+     * INTERNAL:
+     * End the operation timing, and record its event.
+     */
+    @Override
+    public void endOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if ((this.profileWeight < weight) || (this.profileWeight < SessionProfiler.HEAVY)) {
+            return;
+        }
+        ThreadProfile profile = this.threadProfiles.get();
+        if (SessionProfiler.ObjectBuilding.equals(operationName)) {
+            if ((profile.objectBuildingDepth > 0) && (--profile.objectBuildingDepth == 0)) {
+                profile.objectBuildingTime = profile.objectBuildingTime + (System.nanoTime() - profile.objectBuildingStart);
+            }
+            return;
+        }
+        OperationEvent event = profile.pop(operationName, query);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.session = this.sessionName;
+            event.operation = operationName.startsWith(TIMER) ? operationName.substring(TIMER.length()) : operationName;
+            if (query != null) {
+                event.query = query.getMonitorName();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Record the query cache hits and misses.
+     */
+    @Override
+    public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+        if (this.profileWeight < SessionProfiler.NORMAL) {
+            return;
+        }
+        boolean hit = SessionProfiler.CacheHits.equals(operationName);
+        if (!hit && !SessionProfiler.CacheMisses.equals(operationName)) {
+            return;
+        }
+        CacheAccessEvent event = new CacheAccessEvent();
+        if (event.isEnabled()) {
+            event.session = this.sessionName;
+            event.query = query.getMonitorName();
+            event.referenceClass = query.getReferenceClass();
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Counters without a query are not recorded.
+     */
+    @Override
+    public void occurred(String operationName, AbstractSession session) {
+    }
+
+    /**
+     * INTERNAL:
+     * Informational values are not recorded.
+     */
+    @Override
+    public void update(String operationName, Object value) {
+    }
+
+    public AbstractSession getSession() {
+        return session;
+    }
+
+    @Override
+    public void setSession(Session session) {
+        this.session = (AbstractSession)session;
+        this.sessionName = (session == null) ? null : session.getName();
+    }
+
+    /**
+     * Set the level of profiling.
+     * One of ALL, HEAVY, NORMAL, NONE.
+     * The higher the level, the more operations are profiled.
+     * @see SessionProfiler
+     */
+    @Override
+    public void setProfileWeight(int profileWeight) {
+        this.profileWeight = profileWeight;
+    }
+
+    /**
+     * Return the level of profiling.
+     * One of ALL, HEAVY, NORMAL, NONE.
+     * @see SessionProfiler
+     */
+    @Override
+    public int getProfileWeight() {
+        return profileWeight;
+    }
+
+    /**
+     * INTERNAL:
+     * Called on login, register the lock wait recorder until the session logs out.
+     */
+    @Override
+    public void initialize() {
+        if (this.session != null) {
+            this.sessionName = this.session.getName();
+            if (this.lockWaitRecorderLogout == null) {
+                this.lockWaitRecorderLogout = new SessionEventAdapter() {
+                    @Override
+                    public void postLogout(SessionEvent event) {
+                        unregisterLockWaitRecorder();
+                    }
+                };
+                this.session.getEventManager().addListener(this.lockWaitRecorderLogout);
+            }
+            registerLockWaitRecorder();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The profiling state of a thread.
+     * Operations are usually ended in the reverse order they were started,
+     * so the operation is searched from the most recently started.
+     */
+    protected static class ThreadProfile {
+        protected String[] operationNames = new String[8];
+        protected DatabaseQuery[] queries = new DatabaseQuery[8];
+        protected OperationEvent[] events = new OperationEvent[8];
+        protected int size;
+
+        protected long objectBuildingStart;
+        protected long objectBuildingTime;
+        protected int objectBuildingDepth;
+
+        protected void push(String operationName, DatabaseQuery query, OperationEvent event) {
+            if (this.size == this.operationNames.length) {
+                if (this.size >= 256) {
+                    // Operations that were never ended are discarded.
+                    this.size = 0;
+                    Arrays.fill(this.operationNames, null);
+                    Arrays.fill(this.queries, null);
+                    Arrays.fill(this.events, null);
+                } else {
+                    int length = this.size * 2;
+                    this.operationNames = Arrays.copyOf(this.operationNames, length);
+                    this.queries = Arrays.copyOf(this.queries, length);
+                    this.events = Arrays.copyOf(this.events, length);
+                }
+            }
+            this.operationNames[this.size] = operationName;
+            this.queries[this.size] = query;
+            this.events[this.size] = event;
+            this.size++;
+        }
+
+        /**
+         * Remove and return the event of the operation, or null if it was not started.
+         */
+        protected OperationEvent pop(String operationName, DatabaseQuery query) {
+            for (int index = this.size - 1; index >= 0; index--) {
+                String name = this.operationNames[index];
+                if (name.equals(operationName) && (this.queries[index] == query)) {
+                    OperationEvent event = this.events[index];
+                    int moved = this.size - index - 1;
+                    if (moved > 0) {
+                        System.arraycopy(this.operationNames, index + 1, this.operationNames, index, moved);
+                        System.arraycopy(this.queries, index + 1, this.queries, index, moved);
+                        System.arraycopy(this.events, index + 1, this.events, index, moved);
+                    }
+                    this.size--;
+                    this.operationNames[this.size] = null;
+                    this.queries[this.size] = null;
+                    this.events[this.size] = null;
+                    return event;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Records a lock wait event for cache lock waits.
+     */
+    protected static class LockWaitRecorder implements LockWaitListener {
+        @Override
+        public void lockWaited(ConcurrencyManager lock, int lockType, Thread owner, long waitTime) {
+            LockWaitEvent event = new LockWaitEvent();
+            if (!event.isEnabled()) {
+                return;
+            }
+            event.lockType = ((lockType >= 0) && (lockType < LOCK_TYPE_NAMES.length)) ? LOCK_TYPE_NAMES[lockType] : String.valueOf(lockType);
+            event.owner = owner;
+            event.waitTime = waitTime;
+            if (lock instanceof CacheKey) {
+                event.entityClass = ((CacheKey)lock).getLockedClass();
+                event.primaryKey = String.valueOf(((CacheKey)lock).getKey());
+            }
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * <p><b>Purpose</b>: Flight Recorder event for a thread waiting on a cache lock.
+ * The event is recorded when the wait ends, with the wait duration.
+ *
+ * @see JFRPerformanceProfiler
+ */
+@Name("org.eclipse.persistence.LockWait")
+@Label("Lock Wait")
+@Category({"EclipseLink", "Cache"})
+@Description("A thread waited to acquire a cache key lock")
+public class LockWaitEvent extends Event {
+
+    @Label("Lock Type")
+    String lockType;
+
+    @Label("Entity Class")
+    Class<?> entityClass;
+
+    @Label("Primary Key")
+    String primaryKey;
+
+    @Label("Owner")
+    @Description("The thread owning the lock when the wait started")
+    Thread owner;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+}
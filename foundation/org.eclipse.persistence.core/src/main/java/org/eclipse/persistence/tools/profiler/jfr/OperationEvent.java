@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * <p><b>Purpose</b>: Flight Recorder event for a profiled operation,
+ * such as the commit, change calculation and merge of a unit of work.
+ *
+ * @see JFRPerformanceProfiler
+ * @see org.eclipse.persistence.sessions.SessionProfiler
+ */
+@Name("org.eclipse.persistence.Operation")
+@Label("Operation")
+@Category({"EclipseLink", "Operation"})
+@Description("A profiled operation, such as a unit of work commit phase")
+@StackTrace(false)
+@Threshold("1 ms")
+public class OperationEvent extends Event {
+
+    @Label("Session")
+    String session;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Query")
+    @Description("The monitor name of the query the operation was executed for, if any")
+    String query;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.profiler.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * <p><b>Purpose</b>: Flight Recorder event for the execution of a query.
+ *
+ * @see JFRPerformanceProfiler
+ */
+@Name("org.eclipse.persistence.QueryExecution")
+@Label("Query Execution")
+@Category({"EclipseLink", "Query"})
+@Description("Execution of a query, with its SQL, number of result rows and object building time")
+@StackTrace(false)
+@Threshold("1 ms")
+public class QueryExecutionEvent extends Event {
+
+    @Label("Session")
+    String session;
+
+    @Label("Query")
+    @Description("The monitor name of the query, its type, reference class and name")
+    String query;
+
+    @Label("Query Class")
+    Class<?> queryClass;
+
+    @Label("Reference Class")
+    Class<?> referenceClass;
+
+    @Label("SQL")
+    @Description("The SQL of the query, with parameter markers if parameters are bound")
+    String sql;
+
+    @Label("Rows")
+    @Description("The number of objects or rows returned, or the number of rows modified")
+    int rows;
+
+    @Label("Object Building Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long objectBuildingTime;
+}
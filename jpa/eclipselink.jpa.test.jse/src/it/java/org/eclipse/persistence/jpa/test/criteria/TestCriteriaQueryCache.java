@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.persistence.jpa.test.criteria;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.jpa.EJBQueryImpl;
+import org.eclipse.persistence.internal.jpa.EntityManagerImpl;
+import org.eclipse.persistence.internal.jpa.QueryImpl;
+import org.eclipse.persistence.internal.jpa.querydef.CriteriaQueryShape;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
+import org.eclipse.persistence.jpa.test.criteria.model.CriteriaCacheEntity;
+import org.eclipse.persistence.jpa.test.framework.DDLGen;
+import org.eclipse.persistence.jpa.test.framework.Emf;
+import org.eclipse.persistence.jpa.test.framework.EmfRunner;
+import org.eclipse.persistence.jpa.test.framework.Property;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The criteria query cache only translates and prepares the queries, so no database is used.
+ */
+@RunWith(EmfRunner.class)
+public class TestCriteriaQueryCache {
+
+    private static final String LITERAL = CriteriaQueryShape.LITERAL_PARAMETER_PREFIX + "0";
+
+    @Emf(createTables = DDLGen.NONE, classes = { CriteriaCacheEntity.class }, properties = {
+            @Property(name = PersistenceUnitProperties.VALIDATION_ONLY_PROPERTY, value = "true"),
+            @Property(name = PersistenceUnitProperties.CRITERIA_QUERY_CACHE_SIZE, value = "100") })
+    private EntityManagerFactory emf;
+
+    /**
+     * The factory logs in when it creates an entity manager, so bypass it on the validated session.
+     */
+    private EntityManager createEntityManager() {
+        return new EntityManagerImpl(((JpaEntityManagerFactory)emf).unwrap(), null, null);
+    }
+
+    private EJBQueryImpl<CriteriaCacheEntity> createQuery(EntityManager em, BiFunction<CriteriaBuilder, Root<CriteriaCacheEntity>, Predicate> where) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<CriteriaCacheEntity> criteria = builder.createQuery(CriteriaCacheEntity.class);
+        Root<CriteriaCacheEntity> root = criteria.from(CriteriaCacheEntity.class);
+        criteria.where(where.apply(builder, root));
+        return (EJBQueryImpl<CriteriaCacheEntity>)em.createQuery(criteria);
+    }
+
+    /**
+     * The literal parameters are not declared by the criteria query, so they are not visible through the JPA API.
+     */
+    private Object literalValue(EJBQueryImpl<CriteriaCacheEntity> query) throws Exception {
+        Field parameterValues = QueryImpl.class.getDeclaredField("parameterValues");
+        parameterValues.setAccessible(true);
+        return ((Map<?, ?>)parameterValues.get(query)).get(LITERAL);
+    }
+
+    @Test
+    public void testSameShapeReusesCachedQuery() throws Exception {
+        EntityManager em = createEntityManager();
+        try {
+            EJBQueryImpl<CriteriaCacheEntity> first = createQuery(em, (builder, root) -> builder.equal(root.get("name"), "first"));
+            EJBQueryImpl<CriteriaCacheEntity> second = createQuery(em, (builder, root) -> builder.equal(root.get("name"), "second"));
+            DatabaseQuery cached = first.getDatabaseQueryInternal();
+            Assert.assertSame(cached, second.getDatabaseQueryInternal());
+            Assert.assertTrue(cached.isPrepared());
+            Assert.assertTrue(cached.getArguments().contains(LITERAL));
+            Assert.assertEquals("first", literalValue(first));
+            Assert.assertEquals("second", literalValue(second));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void testDifferentShapeIsCachedSeparately() {
+        EntityManager em = createEntityManager();
+        try {
+            DatabaseQuery equal = createQuery(em, (builder, root) -> builder.equal(root.get("name"), "name")).getDatabaseQueryInternal();
+            DatabaseQuery like = createQuery(em, (builder, root) -> builder.like(root.get("name"), "name%")).getDatabaseQueryInternal();
+            DatabaseQuery otherAttribute = createQuery(em, (builder, root) -> builder.equal(root.get("id"), 1)).getDatabaseQueryInternal();
+            Assert.assertNotSame(equal, like);
+            Assert.assertNotSame(equal, otherAttribute);
+            Assert.assertNotSame(like, otherAttribute);
+            Assert.assertSame(like, createQuery(em, (builder, root) -> builder.like(root.get("name"), "other%")).getDatabaseQueryInternal());
+            Assert.assertSame(otherAttribute, createQuery(em, (builder, root) -> builder.equal(root.get("id"), 2)).getDatabaseQueryInternal());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void testNullBooleanAndCollectionLiteralsInShape() {
+        EntityManager em = createEntityManager();
+        try {
+            // Null and boolean literals change the SQL, so they are not parameters.
+            DatabaseQuery isNull = createQuery(em, (builder, root) -> builder.equal(root.get("name"), builder.nullLiteral(String.class))).getDatabaseQueryInternal();
+            DatabaseQuery notNull = createQuery(em, (builder, root) -> builder.equal(root.get("name"), "name")).getDatabaseQueryInternal();
+            Assert.assertNotSame(isNull, notNull);
+            Assert.assertFalse(isNull.getArguments().contains(LITERAL));
+
+            DatabaseQuery active = createQuery(em, (builder, root) -> builder.equal(root.get("active"), true)).getDatabaseQueryInternal();
+            DatabaseQuery inactive = createQuery(em, (builder, root) -> builder.equal(root.get("active"), false)).getDatabaseQueryInternal();
+            Assert.assertNotSame(active, inactive);
+            Assert.assertFalse(active.getArguments().contains(LITERAL));
+            Assert.assertSame(active, createQuery(em, (builder, root) -> builder.equal(root.get("active"), true)).getDatabaseQueryInternal());
+
+            // The values of an IN list are part of the shape.
+            DatabaseQuery in = createQuery(em, (builder, root) -> root.get("name").in("a", "b")).getDatabaseQueryInternal();
+            DatabaseQuery otherIn = createQuery(em, (builder, root) -> root.get("name").in("c", "d")).getDatabaseQueryInternal();
+            Assert.assertNotSame(in, otherIn);
+            Assert.assertSame(in, createQuery(em, (builder, root) -> root.get("name").in("a", "b")).getDatabaseQueryInternal());
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -30,6 +30,7 @@
 
 import org.eclipse.persistence.testing.tests.jpa22.jta.JTATestSuite;
 import org.eclipse.persistence.testing.tests.jpa22.metadata.MetadataASMFactoryTest;
+import org.eclipse.persistence.testing.tests.jpa22.metadata.MetadataIndexTest;
 
 public class JPA22TestSuite extends TestSuite {
 
@@ -54,6 +55,7 @@ public static Test suite() {
         fullSuite.addTest(XMLEntityGraphTestSuite.suite());
         fullSuite.addTest(AnnotationsTestSuite.suite());
         fullSuite.addTest(MetadataASMFactoryTest.suite());
+        fullSuite.addTest(MetadataIndexTest.suite());
         fullSuite.addTest(JTATestSuite.suite());
 
         //make sure EntityManagerFactoryTestSuite#testGetPersistenceUnitUtilOnCloseEMF
@@ -16,6 +16,12 @@
 //       - 535250: Test meta-annotations with dependency cycle
 package org.eclipse.persistence.testing.tests.jpa22.metadata;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAnnotation;
@@ -45,6 +51,8 @@ public static Test suite() {
         suite.addTest(new MetadataASMFactoryTest("testMetadataAnnotations"));
         suite.addTest(new MetadataASMFactoryTest("testAnnotationsWithCycle"));
         suite.addTest(new MetadataASMFactoryTest("testAnnotationsWithPrimitiveCycle"));
+        suite.addTest(new MetadataASMFactoryTest("testLoadMetadataClasses"));
+        suite.addTest(new MetadataASMFactoryTest("testLoadMetadataClassesInterrupted"));
         return suite;
     }
 
@@ -88,4 +96,45 @@ public void testAnnotationsWithPrimitiveCycle() {
         }
     }
 
+    /**
+     * Check the classes read concurrently are all added to the factory,
+     * and the lazy classes are read as lazy.
+     */
+    public void testLoadMetadataClasses() throws InterruptedException {
+        MetadataAsmFactory fact = new MetadataAsmFactory(new MetadataLogger(null), MetadataASMFactoryTest.class.getClassLoader());
+        List<String> classNames = Arrays.asList(Employee.class.getName(), LogListener.class.getName(), CycleA.class.getName(),
+                CycleB.class.getName(), CycleSelf.class.getName(), MetadataASMFactoryTest.class.getName(), "org.eclipse.samples.Missing");
+        Set<String> lazyClassNames = Collections.singleton(LogListener.class.getName());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            fact.loadMetadataClasses(classNames, lazyClassNames, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (String className : classNames) {
+            Assert.assertTrue(className, fact.metadataClassExists(className));
+        }
+        Assert.assertFalse(fact.getMetadataClass(Employee.class.getName(), true).isLazy());
+        Assert.assertTrue(fact.getMetadataClass(LogListener.class.getName(), true).isLazy());
+        Assert.assertNotNull(fact.getMetadataClass(Employee.class.getName()).getAnnotation("jakarta.persistence.Entity"));
+        Assert.assertFalse(fact.getMetadataClass("org.eclipse.samples.Missing").isAccessible());
+    }
+
+    /**
+     * Check an interrupted read fails instead of returning without the classes.
+     */
+    public void testLoadMetadataClassesInterrupted() {
+        MetadataAsmFactory fact = new MetadataAsmFactory(new MetadataLogger(null), MetadataASMFactoryTest.class.getClassLoader());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Thread.currentThread().interrupt();
+            fact.loadMetadataClasses(Collections.singletonList(Employee.class.getName()), Collections.emptySet(), pool);
+            fail("InterruptedException expected");
+        } catch (InterruptedException expected) {
+            Assert.assertFalse(fact.metadataClassExists(Employee.class.getName()));
+        } finally {
+            Thread.interrupted();
+            pool.shutdown();
+        }
+    }
 }
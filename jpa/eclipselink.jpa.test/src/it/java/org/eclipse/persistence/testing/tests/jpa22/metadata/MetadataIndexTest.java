@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.jpa22.metadata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataIndex;
+import org.eclipse.persistence.testing.framework.junit.JUnitTestCase;
+import org.eclipse.persistence.tools.metadata.jpa.StaticMetadataIndex;
+import org.junit.Assert;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+public class MetadataIndexTest extends JUnitTestCase {
+
+    private File directory;
+
+    public MetadataIndexTest() {
+    }
+
+    public MetadataIndexTest(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        TestSuite suite = new TestSuite();
+        suite.setName("MetadataIndexTest");
+        suite.addTest(new MetadataIndexTest("testWriteAndRead"));
+        suite.addTest(new MetadataIndexTest("testIndexNotCurrent"));
+        suite.addTest(new MetadataIndexTest("testJarIndexCurrent"));
+        return suite;
+    }
+
+    @Override
+    public void setUp() {
+        try {
+            this.directory = Files.createTempDirectory("metadata-index").toFile();
+            copyClass(Employee.class);
+            copyClass(LogListener.class);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    @Override
+    public void tearDown() {
+        try (Stream<Path> files = Files.walk(this.directory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private File copyClass(Class<?> javaClass) throws Exception {
+        String entry = javaClass.getName().replace('.', '/') + ".class";
+        File file = new File(this.directory, entry);
+        file.getParentFile().mkdirs();
+        try (InputStream stream = MetadataIndexTest.class.getClassLoader().getResourceAsStream(entry)) {
+            Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    private List<String> writeIndex() throws Exception {
+        StaticMetadataIndex indexer = new StaticMetadataIndex(this.directory, null);
+        indexer.setClassLoader(new URLClassLoader(new URL[] {this.directory.toURI().toURL()}, MetadataIndexTest.class.getClassLoader()));
+        return indexer.writeIndex();
+    }
+
+    private MetadataIndex readIndex() throws Exception {
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), MetadataIndexTest.class.getClassLoader());
+        try (InputStream stream = new FileInputStream(new File(this.directory, MetadataIndex.INDEX_ENTRY))) {
+            return MetadataIndex.read(stream, factory);
+        }
+    }
+
+    private boolean isCurrent(MetadataIndex index) throws Exception {
+        return index.isCurrent(MetadataIndex.getArchiveFile(this.directory.toURI().toURL()));
+    }
+
+    private File writeJar(String name, byte[] employeeSuffix) throws Exception {
+        File jar = new File(this.directory.getParentFile(), this.directory.getName() + name);
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (Class<?> javaClass : new Class<?>[] {Employee.class, LogListener.class}) {
+                String entry = javaClass.getName().replace('.', '/') + ".class";
+                out.putNextEntry(new JarEntry(entry));
+                out.write(Files.readAllBytes(new File(this.directory, entry).toPath()));
+                if (javaClass == Employee.class) {
+                    out.write(employeeSuffix);
+                }
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    /**
+     * Check the classes written to the index are read with their annotations.
+     */
+    public void testWriteAndRead() throws Exception {
+        Assert.assertEquals(Collections.singletonList(Employee.class.getName()), writeIndex());
+        MetadataIndex index = readIndex();
+        Assert.assertEquals(1, index.getClasses().size());
+        MetadataClass employee = index.getClasses().get(0);
+        Assert.assertEquals(Employee.class.getName(), employee.getName());
+        Assert.assertTrue(PersistenceUnitProcessor.isEntity(employee));
+        Assert.assertNotNull(employee.getAnnotation("jakarta.persistence.EntityListeners"));
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), MetadataIndexTest.class.getClassLoader());
+        Assert.assertEquals(factory.getMetadataClass(Employee.class.getName()).getFields().keySet(), employee.getFields().keySet());
+        Assert.assertEquals(factory.getMetadataClass(Employee.class.getName()).getMethods().keySet(), employee.getMethods().keySet());
+        Assert.assertTrue(isCurrent(index));
+    }
+
+    /**
+     * Check the index is not current once an indexed class is changed, or a class is added or removed.
+     */
+    public void testIndexNotCurrent() throws Exception {
+        writeIndex();
+        MetadataIndex index = readIndex();
+        Assert.assertTrue(isCurrent(index));
+
+        File employee = new File(this.directory, Employee.class.getName().replace('.', '/') + ".class");
+        byte[] bytes = Files.readAllBytes(employee.toPath());
+        long lastModified = employee.lastModified();
+        Files.write(employee.toPath(), new byte[] {0}, StandardOpenOption.APPEND);
+        Assert.assertFalse("changed class", isCurrent(index));
+        Files.write(employee.toPath(), bytes);
+        Assert.assertFalse("modified class", isCurrent(index));
+        employee.setLastModified(lastModified);
+        Assert.assertTrue(isCurrent(index));
+
+        File added = copyClass(MetadataIndexTest.class);
+        Assert.assertFalse("added class", isCurrent(index));
+        added.delete();
+        Assert.assertTrue(isCurrent(index));
+
+        new File(this.directory, LogListener.class.getName().replace('.', '/') + ".class").delete();
+        Assert.assertFalse("removed class", isCurrent(index));
+    }
+
+    /**
+     * Check the index of a jar is validated from the CRCs of its central directory,
+     * and the jar root URL of the persistence unit is resolved to the jar.
+     */
+    public void testJarIndexCurrent() throws Exception {
+        File source = writeJar("-source.jar", new byte[0]);
+        File target = new File(this.directory.getParentFile(), this.directory.getName() + ".jar");
+        try {
+            StaticMetadataIndex indexer = new StaticMetadataIndex(source, target);
+            indexer.setClassLoader(new URLClassLoader(new URL[] {source.toURI().toURL()}, MetadataIndexTest.class.getClassLoader()));
+            Assert.assertEquals(Collections.singletonList(Employee.class.getName()), indexer.writeIndex());
+            MetadataIndex index;
+            MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), MetadataIndexTest.class.getClassLoader());
+            try (ZipFile jar = new ZipFile(target);
+                    InputStream stream = jar.getInputStream(jar.getEntry(MetadataIndex.INDEX_ENTRY))) {
+                index = MetadataIndex.read(stream, factory);
+            }
+            Assert.assertEquals(target, MetadataIndex.getArchiveFile(new URL("jar:" + target.toURI() + "!/")));
+            Assert.assertTrue(index.isCurrent(target));
+            Assert.assertTrue("same classes", index.isCurrent(source));
+            Assert.assertFalse("changed class", index.isCurrent(writeJar("-changed.jar", new byte[] {0})));
+        } finally {
+            new File(this.directory.getParentFile(), this.directory.getName() + "-changed.jar").delete();
+            source.delete();
+            target.delete();
+        }
+    }
+}
@@ -20,6 +20,9 @@
 import java.util.ArrayList;
 import java.util.Collection;
 
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.descriptors.DirectAttributesPersistenceObject;
+import org.eclipse.persistence.internal.descriptors.IndexedPersistenceObject;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
 import org.eclipse.persistence.internal.jpa.weaving.PersistenceWeaver;
@@ -28,8 +31,10 @@
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.sessions.Session;
 import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.models.weaving.SimpleAggregate;
 import org.eclipse.persistence.testing.models.weaving.SimpleObject;
 import org.eclipse.persistence.testing.models.weaving.SimpleProject;
+import org.eclipse.persistence.testing.models.weaving.SimpleSubObject;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -136,6 +141,30 @@ public void runTest() {
                 buildWeaver(session, entities);
             }
         });
+        suite.addTest(new SimpleWeaverTestSuite("weave indexed get and set for a class hierarchy") {
+            @Override
+            public void setUp() {
+            }
+            @Override
+            public void tearDown() {
+            }
+            @Override
+            public void runTest() throws Exception {
+                indexedGetSetHierarchyTest();
+            }
+        });
+        suite.addTest(new SimpleWeaverTestSuite("weave direct copy and compare for a class hierarchy") {
+            @Override
+            public void setUp() {
+            }
+            @Override
+            public void tearDown() {
+            }
+            @Override
+            public void runTest() throws Exception {
+                directCopyCompareHierarchyTest();
+            }
+        });
         return suite;
     }
 
@@ -196,6 +225,190 @@ public PersistenceWeaver buildWeaver(Session session, Collection entities) {
         return tw;
     }
 
+    /**
+     * Weave SimpleObject and its subclass SimpleSubObject, and define them in a new class loader.
+     */
+    public Class[] buildWeavedHierarchy() throws Exception {
+        SimpleProject project = new SimpleProject();
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(SimpleSubObject.class);
+        descriptor.getInheritancePolicy().setParentClass(SimpleObject.class);
+        descriptor.addDirectMapping("description", "SIMPLE.DESCRIPTION");
+        descriptor.addDirectMapping("discount", "SIMPLE.DISCOUNT");
+        descriptor.addDirectMapping("quantity", "SIMPLE.QUANTITY");
+        descriptor.addDirectMapping("weight", "SIMPLE.WEIGHT");
+        project.addDescriptor(descriptor);
+        Session session = new ServerSession(project);
+        session.setLogLevel(SessionLog.OFF);
+
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), SimpleWeaverTestSuite.class.getClassLoader());
+        Collection hierarchy = new ArrayList();
+        hierarchy.add(factory.getMetadataClass(SimpleObject.class.getName()));
+        hierarchy.add(factory.getMetadataClass(SimpleSubObject.class.getName()));
+        // weave internal methods, without REST that needs the JPA-RS classes
+        PersistenceWeaver weaver = TransformerFactory.createTransformerAndModifyProject(session, hierarchy, SimpleWeaverTestSuite.class.getClassLoader(), true, false, true, true, false, false);
+
+        // the superclass is defined first, to be the one the subclass extends
+        SimpleClassLoader loader = new SimpleClassLoader();
+        String[] classNames = {SimpleObject.class.getName(), SimpleSubObject.class.getName()};
+        Class[] weavedClasses = new Class[classNames.length];
+        for (int index = 0; index < classNames.length; index++) {
+            String resource = classNames[index].replace('.', '/');
+            byte[] bytes = readStreamContentsIntoByteArray(loader.getResourceAsStream(resource + ".class"));
+            byte[] weavedBytes = weaver.transform(loader, resource, null, null, bytes);
+            assertNotNull("class not weaved: " + classNames[index], weavedBytes);
+            weavedClasses[index] = loader.define_class(classNames[index], weavedBytes, 0, weavedBytes.length);
+        }
+        return weavedClasses;
+    }
+
+    /**
+     * Check the attributes of a subclass are indexed after the inherited attributes,
+     * and are read and written by index, primitives being wrapped.
+     */
+    public void indexedGetSetHierarchyTest() throws Exception {
+        Class[] weavedClasses = buildWeavedHierarchy();
+        IndexedPersistenceObject object = (IndexedPersistenceObject)weavedClasses[0].getConstructor().newInstance();
+        IndexedPersistenceObject subObject = (IndexedPersistenceObject)weavedClasses[1].getConstructor().newInstance();
+
+        // SimpleObject attributes are indexed by name, from booleanAttribute to version
+        String[] inherited = {"booleanAttribute", "byteAttribute", "charAttribute", "doubleAttribute", "floatAttribute",
+                "id", "longAttribute", "name", "shortAttribute", "simpleAggregate", "version"};
+        String[] own = {"description", "discount", "quantity", "weight"};
+        for (int index = 0; index < inherited.length; index++) {
+            assertEquals(inherited[index], index, object._persistence_index(inherited[index]));
+            assertEquals(inherited[index], index, subObject._persistence_index(inherited[index]));
+        }
+        for (int index = 0; index < own.length; index++) {
+            assertEquals(own[index], inherited.length + index, subObject._persistence_index(own[index]));
+            assertEquals(own[index], -1, object._persistence_index(own[index]));
+        }
+        assertEquals(-1, subObject._persistence_index("unknown"));
+
+        // inherited attributes, set through the subclass
+        Object[] inheritedValues = {Boolean.TRUE, Byte.valueOf((byte)1), Character.valueOf('c'), Double.valueOf(2.5d), Float.valueOf(3.5f),
+                Integer.valueOf(4), Long.valueOf(5L), "name", Short.valueOf((short)6), null, Integer.valueOf(7)};
+        for (int index = 0; index < inherited.length; index++) {
+            subObject._persistence_set(index, inheritedValues[index]);
+        }
+        for (int index = 0; index < inherited.length; index++) {
+            assertEquals(inherited[index], inheritedValues[index], getAttribute(subObject, inherited[index]));
+        }
+        for (int index = 0; index < inherited.length; index++) {
+            assertEquals(inherited[index], inheritedValues[index], subObject._persistence_get(index));
+        }
+
+        // own attributes
+        Object[] ownValues = {"description", Float.valueOf(0.5f), Integer.valueOf(8), Double.valueOf(9.5d)};
+        for (int index = 0; index < own.length; index++) {
+            subObject._persistence_set(inherited.length + index, ownValues[index]);
+        }
+        for (int index = 0; index < own.length; index++) {
+            assertEquals(own[index], ownValues[index], getAttribute(subObject, own[index]));
+        }
+        for (int index = 0; index < own.length; index++) {
+            assertEquals(own[index], ownValues[index], subObject._persistence_get(inherited.length + index));
+        }
+        subObject._persistence_set(inherited.length + 1, null);
+        assertNull(getAttribute(subObject, "discount"));
+        assertNull(subObject._persistence_get(inherited.length + 1));
+
+        // indexes past the attributes are ignored
+        assertNull(subObject._persistence_get(inherited.length + own.length));
+        assertNull(object._persistence_get(inherited.length));
+        subObject._persistence_set(inherited.length + own.length, "ignored");
+    }
+
+    /**
+     * Check the direct attributes of a class and its subclass are copied and compared by the
+     * weaved methods, primitives by value, objects by equals, and a NaN being always changed.
+     */
+    public void directCopyCompareHierarchyTest() throws Exception {
+        Class[] weavedClasses = buildWeavedHierarchy();
+        // all attributes are direct but simpleAggregate, indexed 9
+        long objectMask = 0x7FFL & ~(1L << 9);
+        long subObjectMask = 0x7FFFL & ~(1L << 9);
+        assertEquals(objectMask, ((DirectAttributesPersistenceObject)weavedClasses[0].getConstructor().newInstance())._persistence_direct_attributes());
+        assertEquals(subObjectMask, ((DirectAttributesPersistenceObject)weavedClasses[1].getConstructor().newInstance())._persistence_direct_attributes());
+
+        Object[] values = {Boolean.TRUE, Byte.valueOf((byte)1), Character.valueOf('c'), Double.valueOf(2.5d), Float.valueOf(3.5f),
+                Integer.valueOf(4), Long.valueOf(5L), "name", Short.valueOf((short)6), new SimpleAggregate(), Integer.valueOf(7),
+                "description", Float.valueOf(0.5f), Integer.valueOf(8), Double.valueOf(9.5d)};
+        IndexedPersistenceObject original = (IndexedPersistenceObject)weavedClasses[1].getConstructor().newInstance();
+        for (int index = 0; index < values.length; index++) {
+            original._persistence_set(index, values[index]);
+        }
+
+        // the copy has the direct attributes of both classes, but not the aggregate
+        IndexedPersistenceObject copy = (IndexedPersistenceObject)weavedClasses[1].getConstructor().newInstance();
+        ((DirectAttributesPersistenceObject)original)._persistence_copy_direct(copy);
+        for (int index = 0; index < values.length; index++) {
+            if (index == 9) {
+                assertNull(copy._persistence_get(index));
+            } else {
+                assertEquals("attribute " + index, values[index], copy._persistence_get(index));
+            }
+        }
+        assertEquals(0L, changedDirectAttributes(copy, original, subObjectMask));
+
+        // inherited and own primitives, floating values and objects changed
+        copy._persistence_set(0, Boolean.FALSE);
+        copy._persistence_set(4, Float.valueOf(3.75f));
+        copy._persistence_set(6, Long.valueOf(50L));
+        copy._persistence_set(13, Integer.valueOf(80));
+        copy._persistence_set(14, Double.valueOf(-9.5d));
+        copy._persistence_set(11, new String("description"));
+        assertEquals((1L << 0) | (1L << 4) | (1L << 6) | (1L << 13) | (1L << 14), changedDirectAttributes(copy, original, subObjectMask));
+
+        // nulls are equal to nulls only
+        copy = (IndexedPersistenceObject)weavedClasses[1].getConstructor().newInstance();
+        ((DirectAttributesPersistenceObject)original)._persistence_copy_direct(copy);
+        copy._persistence_set(7, null);
+        copy._persistence_set(12, null);
+        assertEquals((1L << 7) | (1L << 12), changedDirectAttributes(copy, original, subObjectMask));
+        original._persistence_set(7, null);
+        original._persistence_set(12, null);
+        assertEquals(0L, changedDirectAttributes(copy, original, subObjectMask));
+
+        // a NaN is not equal to itself, so is always changed
+        original._persistence_set(4, Float.valueOf(Float.NaN));
+        original._persistence_set(14, Double.valueOf(Double.NaN));
+        ((DirectAttributesPersistenceObject)original)._persistence_copy_direct(copy);
+        assertTrue(Float.isNaN((Float)copy._persistence_get(4)));
+        assertEquals((1L << 4) | (1L << 14), changedDirectAttributes(copy, original, subObjectMask));
+
+        // the superclass only copies and compares its own attributes
+        IndexedPersistenceObject object = (IndexedPersistenceObject)weavedClasses[0].getConstructor().newInstance();
+        IndexedPersistenceObject objectCopy = (IndexedPersistenceObject)weavedClasses[0].getConstructor().newInstance();
+        object._persistence_set(3, Double.valueOf(2.5d));
+        object._persistence_set(7, "name");
+        ((DirectAttributesPersistenceObject)object)._persistence_copy_direct(objectCopy);
+        assertEquals(Double.valueOf(2.5d), objectCopy._persistence_get(3));
+        assertEquals("name", objectCopy._persistence_get(7));
+        assertEquals(0L, changedDirectAttributes(objectCopy, object, objectMask));
+        objectCopy._persistence_set(2, Character.valueOf('x'));
+        assertEquals(1L << 2, changedDirectAttributes(objectCopy, object, objectMask));
+    }
+
+    /**
+     * Return the bits of the direct attributes changed in the clone from its backup.
+     */
+    public static long changedDirectAttributes(Object clone, Object backup, long mask) {
+        return ((DirectAttributesPersistenceObject)clone)._persistence_compare_direct(backup) & mask;
+    }
+
+    /**
+     * Return the value of the attribute from its get method, the weaved classes not being
+     * the classes of the test.
+     */
+    public static Object getAttribute(Object object, String attribute) throws Exception {
+        String suffix = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+        if (attribute.equals("booleanAttribute")) {
+            return object.getClass().getMethod("is" + suffix).invoke(object);
+        }
+        return object.getClass().getMethod("get" + suffix).invoke(object);
+    }
+
     public void buildWeavedClass(byte[] weavedBytes) {
 
         Class weavedClass = null;
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.weaving;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import org.eclipse.persistence.internal.jpa.deployment.ArchiveFactoryImpl;
+import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveIndex;
+import org.eclipse.persistence.jpa.Archive;
+import org.eclipse.persistence.testing.models.weaving.SimpleAggregate;
+import org.eclipse.persistence.testing.models.weaving.SimpleObject;
+import org.eclipse.persistence.testing.models.weaving.SimpleSubObject;
+import org.eclipse.persistence.tools.weaving.jpa.StaticWeaveProcessor;
+
+import junit.framework.TestCase;
+
+public class StaticWeaveProcessorTest extends TestCase {
+
+    private static final String PERSISTENCE_XML =
+            "<persistence xmlns=\"https://jakarta.ee/xml/ns/persistence\" version=\"3.0\">\n"
+            + "  <persistence-unit name=\"static-weave\" transaction-type=\"RESOURCE_LOCAL\">\n"
+            + "    <provider>org.eclipse.persistence.jpa.PersistenceProvider</provider>\n"
+            + "    <class>" + SimpleObject.class.getName() + "</class>\n"
+            + "    <class>" + SimpleSubObject.class.getName() + "</class>\n"
+            + "    <class>" + SimpleAggregate.class.getName() + "</class>\n"
+            + "    <exclude-unlisted-classes>true</exclude-unlisted-classes>\n"
+            + "  </persistence-unit>\n"
+            + "</persistence>\n";
+
+    private File directory;
+    private File source;
+
+    public StaticWeaveProcessorTest(String name) {
+        super(name);
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        this.directory = Files.createTempDirectory("static-weave").toFile();
+        this.source = new File(this.directory, "source");
+        write("META-INF/persistence.xml", PERSISTENCE_XML.getBytes(StandardCharsets.UTF_8));
+        copyClass(SimpleObject.class);
+        copyClass(SimpleSubObject.class);
+        copyClass(SimpleAggregate.class);
+        copyClass(SimpleClassLoader.class);
+        copyClass(SimpleSessionLogWrapper.class);
+        // enough entries for the parallel weaving to hold some of them pending
+        for (int index = 0; index < 200; index++) {
+            byte[] bytes = new byte[index * 10];
+            Arrays.fill(bytes, (byte)('a' + (index % 26)));
+            write("resources/entry" + index + ".txt", bytes);
+        }
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.walk(this.directory.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private File write(String entryName, byte[] bytes) throws IOException {
+        File file = new File(this.source, entryName);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), bytes);
+        return file;
+    }
+
+    private File copyClass(Class<?> javaClass) throws IOException {
+        String entryName = classEntry(javaClass);
+        File file = new File(this.source, entryName);
+        file.getParentFile().mkdirs();
+        try (InputStream stream = StaticWeaveProcessorTest.class.getClassLoader().getResourceAsStream(entryName)) {
+            Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    private static String classEntry(Class<?> javaClass) {
+        return javaClass.getName().replace('.', '/') + ".class";
+    }
+
+    private void weave(File target, int threads, File incrementalIndex) throws Exception {
+        StaticWeaveProcessor processor = new StaticWeaveProcessor(this.source, target);
+        processor.setClassLoader(StaticWeaveProcessorTest.class.getClassLoader());
+        processor.setThreads(threads);
+        processor.setIncrementalIndex(incrementalIndex);
+        processor.performWeaving();
+    }
+
+    private static List<String> readEntries(File jar, List<byte[]> contents) throws IOException {
+        List<String> entryNames = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                entryNames.add(entry.getName());
+                contents.add(SimpleWeaverTestSuite.readStreamContentsIntoByteArray(jarFile.getInputStream(entry)));
+            }
+        }
+        return entryNames;
+    }
+
+    /**
+     * Check the index records the hashes of the entries for the same fingerprint only.
+     */
+    public void testStaticWeaveIndex() throws Exception {
+        File file = new File(this.directory, "weave.index");
+        StaticWeaveIndex index = new StaticWeaveIndex(file, "fingerprint");
+        assertFalse("no previous index", index.isUnchanged("a/A.class", "1"));
+        assertFalse("no previous index", index.isUnchanged("b/B.class", "2"));
+        index.write();
+
+        index = new StaticWeaveIndex(file, "fingerprint");
+        assertTrue(index.isUnchanged("a/A.class", "1"));
+        assertFalse("changed entry", index.isUnchanged("b/B.class", "3"));
+        assertFalse("added entry", index.isUnchanged("c/C.class", "4"));
+        index.write();
+
+        // the entries of the last weaving only are recorded
+        index = new StaticWeaveIndex(file, "fingerprint");
+        assertTrue(index.isUnchanged("b/B.class", "3"));
+        assertTrue(index.isUnchanged("c/C.class", "4"));
+
+        index = new StaticWeaveIndex(file, "other fingerprint");
+        assertFalse("changed fingerprint", index.isUnchanged("a/A.class", "1"));
+    }
+
+    /**
+     * Check the entries weaved in parallel are written in the order of the source,
+     * and are the entries weaved by a single thread.
+     */
+    public void testParallelWeavingOrder() throws Exception {
+        File serialTarget = new File(this.directory, "serial.jar");
+        File parallelTarget = new File(this.directory, "parallel.jar");
+        weave(serialTarget, 1, null);
+        weave(parallelTarget, 4, null);
+
+        List<byte[]> serialContents = new ArrayList<>();
+        List<byte[]> parallelContents = new ArrayList<>();
+        List<String> serialEntries = readEntries(serialTarget, serialContents);
+        List<String> parallelEntries = readEntries(parallelTarget, parallelContents);
+        assertEquals(serialEntries, parallelEntries);
+        for (int index = 0; index < serialEntries.size(); index++) {
+            assertTrue(serialEntries.get(index), Arrays.equals(serialContents.get(index), parallelContents.get(index)));
+        }
+
+        int simpleObject = parallelEntries.indexOf(classEntry(SimpleObject.class));
+        assertTrue(simpleObject >= 0);
+        assertFalse("not weaved", Arrays.equals(Files.readAllBytes(new File(this.source, classEntry(SimpleObject.class)).toPath()), parallelContents.get(simpleObject)));
+
+        // the files of the target are in the order of the entries of the source
+        List<String> sourceEntries = new ArrayList<>();
+        Archive archive = new ArchiveFactoryImpl().createArchive(this.source.toURI().toURL(), null, null);
+        try {
+            Iterator<String> entries = archive.getEntries();
+            while (entries.hasNext()) {
+                sourceEntries.add(entries.next());
+            }
+        } finally {
+            archive.close();
+        }
+        List<String> parallelFiles = new ArrayList<>();
+        for (String entryName : parallelEntries) {
+            if (!entryName.endsWith("/")) {
+                parallelFiles.add(entryName);
+            }
+        }
+        assertEquals(sourceEntries, parallelFiles);
+    }
+
+    /**
+     * Check the incremental weaving skips the unchanged entries, and weaves all the entries
+     * again when a persistence class changes, such as a class referenced by an entity.
+     */
+    public void testIncrementalWeaving() throws Exception {
+        File target = new File(this.directory, "target");
+        File incrementalIndex = new File(this.directory, "weave.index");
+        weave(target, 2, incrementalIndex);
+        File weavedSimpleObject = new File(target, classEntry(SimpleObject.class));
+        File weavedLoader = new File(target, classEntry(SimpleClassLoader.class));
+        byte[] weavedBytes = Files.readAllBytes(weavedSimpleObject.toPath());
+        byte[] loaderBytes = Files.readAllBytes(weavedLoader.toPath());
+        byte[] marker = "unchanged".getBytes(StandardCharsets.UTF_8);
+
+        // nothing changed, nothing is written
+        Files.write(weavedSimpleObject.toPath(), marker);
+        weave(target, 2, incrementalIndex);
+        assertTrue(Arrays.equals(marker, Files.readAllBytes(weavedSimpleObject.toPath())));
+
+        // a class other than a persistence class is written alone
+        Files.write(new File(this.source, classEntry(SimpleClassLoader.class)).toPath(), new byte[] {0}, StandardOpenOption.APPEND);
+        weave(target, 2, incrementalIndex);
+        assertFalse(Arrays.equals(loaderBytes, Files.readAllBytes(weavedLoader.toPath())));
+        assertTrue(Arrays.equals(marker, Files.readAllBytes(weavedSimpleObject.toPath())));
+
+        // the embeddable of SimpleObject changed, SimpleObject is weaved again
+        Files.write(new File(this.source, classEntry(SimpleAggregate.class)).toPath(), new byte[] {0}, StandardOpenOption.APPEND);
+        weave(target, 2, incrementalIndex);
+        assertTrue(Arrays.equals(weavedBytes, Files.readAllBytes(weavedSimpleObject.toPath())));
+    }
+}
@@ -30,6 +30,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import jakarta.persistence.FlushModeType;
 import jakarta.persistence.LockModeType;
@@ -39,11 +40,14 @@
 import jakarta.persistence.TemporalType;
 import jakarta.persistence.TypedQuery;
 
+import org.eclipse.persistence.config.QueryHints;
 import org.eclipse.persistence.exceptions.QueryException;
 import org.eclipse.persistence.expressions.Expression;
 import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
 import org.eclipse.persistence.internal.helper.ClassConstants;
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
 import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.jpa.querydef.CriteriaQueryShape;
 import org.eclipse.persistence.internal.jpa.querydef.ParameterExpressionImpl;
 import org.eclipse.persistence.internal.localization.ExceptionLocalization;
 import org.eclipse.persistence.internal.queries.ContainerPolicy;
@@ -67,6 +71,9 @@
  * executed.
  */
 public class EJBQueryImpl<X> extends QueryImpl implements JpaQuery<X> {
+    /** The page size of the cursor of a result stream, and its JDBC fetch size, if no fetch size is set. */
+    public static final int DEFAULT_STREAM_PAGE_SIZE = 100;
+
     /**
      * Base constructor for EJBQueryImpl. Initializes basic variables.
      */
@@ -199,6 +206,35 @@ public static DatabaseQuery buildEJBQLDatabaseQuery(String queryName, String jpq
         return databaseQuery;
     }
 
+    /**
+     * Build an EJBQueryImpl for the query translated from a criteria query.
+     * PERF: Use the prepared query of the criteria query cache, if the cache is enabled.
+     * The criteria queries of the same shape share the cached query, the literals
+     * of their where clause are given as the values of its parameters.
+     *
+     * @see CriteriaQueryShape
+     */
+    public static <X> EJBQueryImpl<X> buildCriteriaQuery(DatabaseQuery query, EntityManagerImpl entityManager) {
+        AbstractSession session = entityManager.getActiveSessionIfExists();
+        ConcurrentFixedCache cache = session.getProject().getCriteriaQueryCache();
+        CriteriaQueryShape shape = null;
+        if (cache.getMaxSize() > 0) {
+            shape = CriteriaQueryShape.build(query);
+        }
+        if (shape == null) {
+            return new EJBQueryImpl<X>(query, entityManager);
+        }
+        DatabaseQuery databaseQuery = (DatabaseQuery) cache.get(shape.getKey());
+        if ((databaseQuery == null) || (!databaseQuery.isPrepared())) {
+            databaseQuery = shape.buildCacheableQuery();
+            databaseQuery.checkPrepare(session, new DatabaseRecord());
+            cache.put(shape.getKey(), databaseQuery);
+        }
+        EJBQueryImpl<X> jpaQuery = new EJBQueryImpl<X>(databaseQuery, entityManager);
+        jpaQuery.parameterValues.putAll(shape.getLiteralValues());
+        return jpaQuery;
+    }
+
     /**
      * Build a ReadAllQuery from a class and sql string.
      */
@@ -288,6 +324,24 @@ public TypedQuery<X> setHint(String hintName, Object value) {
         }
     }
 
+    /**
+     * Read the page after the ordering values of the last result of the previous page, using keyset pagination.
+     *
+     * @param values
+     * @return the same query instance
+     */
+    @Override
+    public EJBQueryImpl<X> setKeyset(List<?> values) {
+        try {
+            entityManager.verifyOpen();
+            setHintInternal(QueryHints.KEYSET, values);
+            return this;
+        } catch (RuntimeException e) {
+            setRollbackOnly();
+            throw e;
+        }
+    }
+
     /**
      * Set the lock mode type to be used for the query execution.
      *
@@ -390,6 +444,51 @@ public Cursor getResultCursor() {
         }
     }
 
+    /**
+     * Execute the query and return the results as a stream, built as the stream is consumed.
+     * A read all query is executed with a CursoredStream, closed when the stream is closed,
+     * the JDBC fetch size defaults to the cursor page size.
+     * The objects are released from the persistence context once consumed if the
+     * "eclipselink.cursor.release" hint is set.
+     *
+     * @return a stream of the results
+     * @see QueryHints#CURSOR_RELEASE
+     */
+    @Override
+    public Stream<X> getResultStream() {
+        // bug51411440: need to throw IllegalStateException if query executed on closed em
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        if (!getDatabaseQueryInternal().isReadAllQuery()) {
+            return getResultList().stream();
+        }
+        try {
+            setAsSQLReadQuery();
+            propagateResultProperties();
+            ReadAllQuery query = (ReadAllQuery) getDatabaseQueryInternal();
+            if (!query.getContainerPolicy().isCursorPolicy()) {
+                cloneSharedQuery();
+                query = (ReadAllQuery) getDatabaseQueryInternal();
+                int pageSize = (query.getFetchSize() > 0) ? query.getFetchSize() : DEFAULT_STREAM_PAGE_SIZE;
+                query.useCursoredStream(pageSize, pageSize);
+                query.setFetchSize(pageSize);
+            }
+            Cursor cursor = (Cursor) executeReadQuery();
+            boolean shouldReleaseObjects = Boolean.TRUE.equals(query.getProperty(QueryHints.CURSOR_RELEASE));
+            return (Stream<X>) (Stream) cursor.stream(shouldReleaseObjects);
+        } catch (LockTimeoutException e) {
+            throw e;
+        } catch (PersistenceException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (IllegalStateException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (RuntimeException exception) {
+            setRollbackOnly();
+            throw new PersistenceException(exception);
+        }
+    }
+
     /**
      * Execute a query that returns a single result.
      *
@@ -1679,7 +1679,7 @@ public jakarta.persistence.Query createQuery(DatabaseQuery databaseQuery) {
     public <T> TypedQuery<T> createQuery(CriteriaQuery<T> criteriaQuery) {
         try{
             verifyOpen();
-            return new EJBQueryImpl<T>(((CriteriaQueryImpl<T>)criteriaQuery).translate(), this);
+            return EJBQueryImpl.buildCriteriaQuery(((CriteriaQueryImpl<T>)criteriaQuery).translate(), this);
         }catch (RuntimeException e){
             setRollbackOnly();
             throw e;
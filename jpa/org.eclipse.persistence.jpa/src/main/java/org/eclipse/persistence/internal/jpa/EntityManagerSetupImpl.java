@@ -250,6 +250,7 @@
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
 import org.eclipse.persistence.internal.sessions.PropertiesHandler;
 import org.eclipse.persistence.internal.sessions.remote.RemoteConnection;
+import org.eclipse.persistence.jpa.metadata.BinaryProjectCache;
 import org.eclipse.persistence.jpa.metadata.FileBasedProjectCache;
 import org.eclipse.persistence.jpa.metadata.MetadataSource;
 import org.eclipse.persistence.jpa.metadata.ProjectCache;
@@ -296,6 +297,7 @@
 import org.eclipse.persistence.sessions.server.ExternalConnectionPool;
 import org.eclipse.persistence.sessions.server.ReadConnectionPool;
 import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.tools.profiler.PerformanceMetricsMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceProfiler;
 import org.eclipse.persistence.tools.profiler.QueryMonitor;
@@ -764,6 +766,8 @@ public AbstractSession deploy(ClassLoader realClassLoader, Map additionalPropert
                             try {
                                 updateTunerDeploy(deployProperties, classLoaderToUse);
                                 updateFreeMemory(deployProperties);
+                                // The cache is warmed up once the DDL is generated.
+                                getDatabaseSession().setShouldDeferCacheWarmUp(true);
                                 if (this.isSessionLoadedFromSessionsXML) {
                                     getDatabaseSession().login();
                                 } else {
@@ -815,6 +819,7 @@ public Object handleException(RuntimeException exception) {
 
                             // Generate the DDL using the correct connection.
                             writeDDL(deployProperties, getDatabaseSession(deployProperties), classLoaderToUse);
+                            getDatabaseSession().startCacheWarmUp();
                         }
                     }
                     // Initialize platform specific identity sequences.
@@ -824,10 +829,13 @@ public Object handleException(RuntimeException exception) {
                     isLockAcquired = false;
                 }
                 // 266912: Initialize the Metamodel, a login should have already occurred.
-                try {
-                    this.getMetamodel(classLoaderToUse);
-                } catch (Exception e) {
-                    this.session.log(SessionLog.FINEST, SessionLog.METAMODEL, "metamodel_init_failed", new Object[]{e.getMessage()});
+                // The metamodel initializes every descriptor, so is built on first access if their initialization is deferred.
+                if (!this.session.getProject().usesLazyDescriptorInitialization()) {
+                    try {
+                        this.getMetamodel(classLoaderToUse);
+                    } catch (Exception e) {
+                        this.session.log(SessionLog.FINEST, SessionLog.METAMODEL, "metamodel_init_failed", new Object[]{e.getMessage()});
+                    }
                 }
             }
             // Clear the weaver's reference to meta-data information, as it is held by the class loader and will never gc.
@@ -1329,10 +1337,17 @@ protected void updateProfiler(Map persistenceProperties,ClassLoader loader) {
                 session.setProfiler(new PerformanceMonitor());
                 return;
             }
+            if (newProfilerClassName.equals(ProfilerType.PerformanceMetricsMonitor)) {
+                session.setProfiler(new PerformanceMetricsMonitor());
+                return;
+            }
 
             if (newProfilerClassName.equals(ProfilerType.DMSProfiler)) {
                 newProfilerClassName = ProfilerType.DMSProfilerClassName;
             }
+            if (newProfilerClassName.equals(ProfilerType.JFRProfiler)) {
+                newProfilerClassName = ProfilerType.JFRProfilerClassName;
+            }
 
             String originalProfilerClassNamer = null;
             if (session.getProfiler() != null) {
@@ -1498,11 +1513,33 @@ protected void updateDescriptorCacheSettings(Map m, ClassLoader loader) {
         if ((queryCache != null) && queryCache.equalsIgnoreCase("true")) {
             session.getProject().setDefaultQueryResultsCachePolicy(new QueryResultsCachePolicy());
         }
+        String queryCacheMaxMemory = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.QUERY_CACHE_MAX_MEMORY, m, session);
+        if (queryCacheMaxMemory != null) {
+            try {
+                session.getProject().setQueryResultsCacheMaximumMemory(Long.parseLong(queryCacheMaxMemory.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(queryCacheMaxMemory, PersistenceUnitProperties.QUERY_CACHE_MAX_MEMORY, exception));
+            }
+        }
+
+        String warmUpThreads = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.CACHE_WARM_UP_THREADS, m, session);
+        if (warmUpThreads != null) {
+            try {
+                session.getProject().setCacheWarmUpThreads(Integer.parseInt(warmUpThreads.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(warmUpThreads, PersistenceUnitProperties.CACHE_WARM_UP_THREADS, exception));
+            }
+        }
+        String snapshotFile = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.CACHE_SNAPSHOT_FILE, m, session);
+        if (snapshotFile != null) {
+            session.getProject().setCacheSnapshotFileName(snapshotFile);
+        }
 
         Map typeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_TYPE_, m, session);
         Map sizeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_SIZE_, m, session);
         Map sharedMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_SHARED_, m, session);
-        if(typeMap.isEmpty() && sizeMap.isEmpty() && sharedMap.isEmpty()) {
+        Map preloadMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_PRELOAD_, m, session);
+        if(typeMap.isEmpty() && sizeMap.isEmpty() && sharedMap.isEmpty() && preloadMap.isEmpty()) {
             return;
         }
 
@@ -1529,8 +1566,10 @@ protected void updateDescriptorCacheSettings(Map m, ClassLoader loader) {
                         ? CacheIsolationType.SHARED : CacheIsolationType.ISOLATED);
             }
 
+            String defaultPreloadString = (String)preloadMap.remove(PersistenceUnitProperties.DEFAULT);
+
             Iterator it = session.getDescriptors().values().iterator();
-            while (it.hasNext() && (!typeMap.isEmpty() || !sizeMap.isEmpty() || !sharedMap.isEmpty())) {
+            while (it.hasNext() && (!typeMap.isEmpty() || !sizeMap.isEmpty() || !sharedMap.isEmpty() || !preloadMap.isEmpty() || (defaultPreloadString != null))) {
                 ClassDescriptor descriptor = (ClassDescriptor)it.next();
 
                 if (descriptor.isDescriptorTypeAggregate()) {
@@ -1574,6 +1613,19 @@ protected void updateDescriptorCacheSettings(Map m, ClassLoader loader) {
                     boolean shared = Boolean.parseBoolean(sharedString);
                     descriptor.setCacheIsolation(shared ? CacheIsolationType.SHARED : CacheIsolationType.ISOLATED);
                 }
+
+                name = entityName;
+                String preloadString = (String)preloadMap.remove(name);
+                if (preloadString == null) {
+                    name = className;
+                    preloadString = (String)preloadMap.remove(name);
+                }
+                if (preloadString == null) {
+                    preloadString = defaultPreloadString;
+                }
+                if (preloadString != null) {
+                    descriptor.getCachePolicy().setShouldPreload(Boolean.parseBoolean(preloadString));
+                }
             }
         } catch (NumberFormatException exception) {
             this.session.handleException(ValidationException.invalidValueForProperty(value, PersistenceUnitProperties.CACHE_SIZE_, exception));
@@ -2894,6 +2946,13 @@ protected void updateSession(Map m, ClassLoader loader) {
             updatePessimisticLockTimeoutUnit(m);
             updateQueryTimeout(m);
             updateQueryTimeoutUnit(m);
+            updateAutoBatchFetchThreshold(m);
+            updateAutoFetchGroupWarmUp(m);
+            updateDescriptorInitializationThreads(m);
+            updateMethodHandleAccessors(m);
+            updateLazyDescriptorInitialization(m);
+            updateNamedQueryPrecompilationThreads(m);
+            updateCriteriaQueryCacheSize(m);
             updateLockingTimestampDefault(m);
             updateSQLCallDeferralDefault(m);
             updateNamingIntoIndexed(m);
@@ -3395,6 +3454,8 @@ protected void updateProjectCache(Map m, ClassLoader loader){
                 String accessorType = (String)accessor;
                 if (accessorType.equalsIgnoreCase("java-serialization")) {
                     projectCacheAccessor = new FileBasedProjectCache();
+                } else if (accessorType.equalsIgnoreCase("binary")) {
+                    projectCacheAccessor = new BinaryProjectCache();
                 } else {
                     Class transportClass = findClassForProperty(accessorType, PersistenceUnitProperties.PROJECT_CACHE, loader);
                     try {
@@ -3683,6 +3744,96 @@ private void updateQueryTimeout(Map persistenceProperties) {
         }
     }
 
+    private void updateAutoBatchFetchThreshold(Map persistenceProperties) {
+        String threshold = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.BATCH_FETCH_AUTO_THRESHOLD, persistenceProperties, session);
+        try {
+            if (threshold != null) {
+                session.getProject().setAutoBatchFetchThreshold(Integer.parseInt(threshold.trim()));
+            }
+        } catch (NumberFormatException exception) {
+            this.session.handleException(ValidationException.invalidValueForProperty(threshold, PersistenceUnitProperties.BATCH_FETCH_AUTO_THRESHOLD, exception));
+        }
+    }
+
+    private void updateAutoFetchGroupWarmUp(Map persistenceProperties) {
+        String warmUp = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.FETCH_GROUP_AUTO_WARM_UP, persistenceProperties, session);
+        try {
+            if (warmUp != null) {
+                session.getProject().setAutoFetchGroupWarmUp(Integer.parseInt(warmUp.trim()));
+            }
+        } catch (NumberFormatException exception) {
+            this.session.handleException(ValidationException.invalidValueForProperty(warmUp, PersistenceUnitProperties.FETCH_GROUP_AUTO_WARM_UP, exception));
+        }
+    }
+
+    private void updateCriteriaQueryCacheSize(Map persistenceProperties) {
+        String size = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.CRITERIA_QUERY_CACHE_SIZE, persistenceProperties, session);
+        try {
+            if (size != null) {
+                session.getProject().setCriteriaQueryCacheMaxSize(Integer.parseInt(size.trim()));
+            }
+        } catch (NumberFormatException exception) {
+            this.session.handleException(ValidationException.invalidValueForProperty(size, PersistenceUnitProperties.CRITERIA_QUERY_CACHE_SIZE, exception));
+        }
+    }
+
+    private void updateDescriptorInitializationThreads(Map persistenceProperties) {
+        String threads = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.DESCRIPTOR_INITIALIZATION_THREADS, persistenceProperties, session);
+        try {
+            if (threads != null) {
+                session.getProject().setDescriptorInitializationThreads(Integer.parseInt(threads.trim()));
+            }
+        } catch (NumberFormatException exception) {
+            this.session.handleException(ValidationException.invalidValueForProperty(threads, PersistenceUnitProperties.DESCRIPTOR_INITIALIZATION_THREADS, exception));
+        }
+    }
+
+    private void updateNamedQueryPrecompilationThreads(Map persistenceProperties) {
+        String threads = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.NAMED_QUERY_PRECOMPILATION_THREADS, persistenceProperties, session);
+        try {
+            if (threads != null) {
+                session.getProject().setNamedQueryPrecompilationThreads(Integer.parseInt(threads.trim()));
+            }
+        } catch (NumberFormatException exception) {
+            this.session.handleException(ValidationException.invalidValueForProperty(threads, PersistenceUnitProperties.NAMED_QUERY_PRECOMPILATION_THREADS, exception));
+        }
+    }
+
+    private void updateMethodHandleAccessors(Map persistenceProperties) {
+        String methodHandles = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.METHOD_HANDLE_ACCESSORS, persistenceProperties, session);
+        if (methodHandles != null) {
+            if (methodHandles.equalsIgnoreCase("true")) {
+                session.getProject().setUsesMethodHandleAccessors(true);
+            } else if (methodHandles.equalsIgnoreCase("false")) {
+                session.getProject().setUsesMethodHandleAccessors(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(methodHandles, PersistenceUnitProperties.METHOD_HANDLE_ACCESSORS));
+            }
+        }
+    }
+
+    private void updateLazyDescriptorInitialization(Map persistenceProperties) {
+        String lazy = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.DESCRIPTOR_LAZY_INITIALIZATION, persistenceProperties, session);
+        if (lazy != null) {
+            if (lazy.equalsIgnoreCase("true")) {
+                session.getProject().setUsesLazyDescriptorInitialization(true);
+            } else if (lazy.equalsIgnoreCase("false")) {
+                session.getProject().setUsesLazyDescriptorInitialization(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(lazy, PersistenceUnitProperties.DESCRIPTOR_LAZY_INITIALIZATION));
+            }
+        }
+        String eager = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.DESCRIPTOR_EAGER_INITIALIZATION, persistenceProperties, session);
+        if (eager != null) {
+            Set<String> names = new HashSet<>();
+            StringTokenizer tokenizer = new StringTokenizer(eager, " ,");
+            while (tokenizer.hasMoreTokens()) {
+                names.add(tokenizer.nextToken());
+            }
+            session.getProject().setEagerDescriptorNames(names);
+        }
+    }
+
     //Bug #456067: Added persistence unit support for timeout units
     private void updateQueryTimeoutUnit(Map persistenceProperties) {
         String timeoutUnit = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.QUERY_TIMEOUT_UNIT, persistenceProperties, session);
@@ -3832,6 +3983,7 @@ private static ValidationMode getValidationMode(PersistenceUnitInfo persitenceUn
     public Metamodel getMetamodel(ClassLoader classLoader) {
         preInitializeMetamodel();
         if (!((MetamodelImpl)metaModel).isInitialized()){
+            getDatabaseSession().initializeLazyDescriptors();
             ((MetamodelImpl)metaModel).initialize(classLoader);
             // If the canonical metamodel classes exist, initialize them
             initializeCanonicalMetamodel(metaModel);
@@ -4390,6 +4542,7 @@ protected void writeDDL(String ddlGeneration, Map props, DatabaseSessionImpl ses
 
             // Optimize for cases where the value is explicitly set to NONE
             if (! ddlGenerationMode.equals(NONE)) {
+                session.initializeLazyDescriptors();
                 if (isCompositeMember()) {
                     // debug output added to make it easier to navigate the log because the method is called outside of composite member deploy
                     session.log(SessionLog.FINEST, SessionLog.PROPERTIES, "composite_member_begin_call", new Object[]{"generateDDL", persistenceUnitInfo.getPersistenceUnitName(), state});
@@ -4433,6 +4586,7 @@ protected void writeDDL(String ddlGeneration, Map props, DatabaseSessionImpl ses
     protected void writeDDL(String generationSourceProperty, String scriptGenerationSourceProperty, TableCreationType tableCreationType, Map props, DatabaseSessionImpl session, ClassLoader loader) {
         String generationSource = getConfigPropertyAsString(generationSourceProperty, props);
         Object scriptGenerationSource = getConfigProperty(scriptGenerationSourceProperty, props);
+        session.initializeLazyDescriptors();
 
         if (generationSource == null) {
             if (scriptGenerationSource == null) {
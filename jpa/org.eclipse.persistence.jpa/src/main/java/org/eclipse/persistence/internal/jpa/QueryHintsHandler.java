@@ -34,9 +34,12 @@
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.sql.Time;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -257,6 +260,8 @@ protected static abstract class Hint {
             addHint(new BatchHint());
             addHint(new BatchTypeHint());
             addHint(new BatchSizeHint());
+            addHint(new BatchAdaptiveHint());
+            addHint(new BatchPrefetchHint());
             addHint(new FetchHint());
             addHint(new LeftFetchHint());
             addHint(new ReadOnlyHint());
@@ -268,6 +273,8 @@ protected static abstract class Hint {
             addHint(new JDBCFetchSizeHint());
             addHint(new JDBCMaxRowsHint());
             addHint(new JDBCFirstResultHint());
+            addHint(new KeysetHint());
+            addHint(new CursorReleaseHint());
             addHint(new ResultCollectionTypeHint());
             addHint(new RedirectorHint());
             addHint(new PartitioningHint());
@@ -306,6 +313,7 @@ protected static abstract class Hint {
             addHint(new QueryCacheTypeHint());
             addHint(new QueryCacheIgnoreNullHint());
             addHint(new QueryCacheInvalidateOnChangeHint());
+            addHint(new QueryCacheInvalidateByPrimaryKeyHint());
             addHint(new QueryCacheRandomizedExpiryHint());
             // 325167: Make reserved # bind parameter char generic to enable native SQL pass through
             addHint(new ParameterDelimiterHint());
@@ -1331,6 +1339,33 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    /**
+     * Define the query cache invalidate by primary key hint.
+     * Only reset the query cache if unset (as other query cache properties may be set first).
+     */
+    protected static class QueryCacheInvalidateByPrimaryKeyHint extends Hint {
+        QueryCacheInvalidateByPrimaryKeyHint() {
+            super(QueryHints.QUERY_RESULTS_CACHE_INVALIDATE_BY_PRIMARY_KEY, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        @Override
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadQuery()) {
+                if (((ReadQuery)query).getQueryResultsCachePolicy() == null) {
+                    ((ReadQuery)query).cacheQueryResults();
+                }
+                ((ReadQuery)query).getQueryResultsCachePolicy().setInvalidateByPrimaryKey(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
     /**
      * Define the query cache randomized expiry hint.
      * Only reset the query cache if unset (as other query cache properties may be set first).
@@ -1450,6 +1485,8 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
                     readQuery.getQueryResultsCachePolicy().setCacheType(ClassConstants.CacheIdentityMap_Class);
                 } else if (valueToApply.equals(CacheType.NONE.name())) {
                     readQuery.getQueryResultsCachePolicy().setCacheType(ClassConstants.NoIdentityMap_Class);
+                } else if (valueToApply.equals(QueryHints.QUERY_RESULTS_CACHE_TYPE_CONCURRENT)) {
+                    readQuery.getQueryResultsCachePolicy().useConcurrentCache();
                 } else {
                     throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-query-hint-value",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
                 }
@@ -1574,6 +1611,48 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class BatchAdaptiveHint extends Hint {
+        BatchAdaptiveHint() {
+            super(QueryHints.BATCH_ADAPTIVE, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        @Override
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery) query).setBatchFetchAdaptive(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+
+            return query;
+        }
+    }
+
+    protected static class BatchPrefetchHint extends Hint {
+        BatchPrefetchHint() {
+            super(QueryHints.BATCH_PREFETCH, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        @Override
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery) query).setBatchFetchPrefetch(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+
+            return query;
+        }
+    }
+
     protected static class FetchHint extends Hint {
         FetchHint() {
             super(QueryHints.FETCH, "");
@@ -1832,6 +1911,27 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class CursorReleaseHint extends Hint {
+        CursorReleaseHint() {
+            super(QueryHints.CURSOR_RELEASE, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        @Override
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadAllQuery()) {
+                // The hint is used by getResultStream().
+                query.setProperty(QueryHints.CURSOR_RELEASE, valueToApply);
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
     protected static class ScrollableCursorHint extends Hint {
         ScrollableCursorHint() {
             super(QueryHints.SCROLLABLE_CURSOR, HintValues.FALSE);
@@ -2076,6 +2176,30 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class KeysetHint extends Hint {
+        KeysetHint() {
+            super(QueryHints.KEYSET, "");
+        }
+
+        @Override
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadAllQuery()) {
+                List values = null;
+                if (valueToApply instanceof List) {
+                    values = (List)valueToApply;
+                } else if (valueToApply instanceof Object[]) {
+                    values = Arrays.asList((Object[])valueToApply);
+                } else if (valueToApply != null) {
+                    values = Collections.singletonList(valueToApply);
+                }
+                ((ReadAllQuery)query).setKeysetValues(values);
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
     protected static class ResultCollectionTypeHint extends Hint {
         ResultCollectionTypeHint() {
             super(QueryHints.RESULT_COLLECTION_TYPE, "");
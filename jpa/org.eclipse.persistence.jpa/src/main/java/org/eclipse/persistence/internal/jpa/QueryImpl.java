@@ -56,6 +56,7 @@
 import org.eclipse.persistence.internal.helper.ConversionManager;
 import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.jpa.querydef.CriteriaQueryShape;
 import org.eclipse.persistence.internal.jpa.querydef.ParameterExpressionImpl;
 import org.eclipse.persistence.internal.localization.ExceptionLocalization;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
@@ -411,6 +412,11 @@ protected Map<String, Parameter<?>> getInternalParameters() {
             if (query.getArguments() != null && !query.getArguments().isEmpty()) {
                 boolean checkParameterType = query.getArgumentParameterTypes().size() == query.getArguments().size();
                 for (String argName : query.getArguments()) {
+                    if (argName.startsWith(CriteriaQueryShape.LITERAL_PARAMETER_PREFIX)) {
+                        // The literals of a cached criteria query are not parameters of the JPA query.
+                        ++count;
+                        continue;
+                    }
                     Parameter<?> param = null;
                     ParameterType type = null;
                     if (checkParameterType){
@@ -41,7 +41,9 @@
 //       - 414974: allow eclipselink.archive.factory to be specified as an integration property of PersistenceProvider.createContainerEntityManagerFactory(PersistenceUnitInfo, Map)
 package org.eclipse.persistence.internal.jpa.metadata;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -54,6 +56,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import jakarta.persistence.spi.PersistenceUnitInfo;
 
@@ -61,6 +67,7 @@
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.exceptions.PersistenceUnitLoadingException;
 import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryProvider;
 import org.eclipse.persistence.internal.jpa.EntityManagerSetupImpl;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor.Mode;
@@ -72,6 +79,7 @@
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataIndex;
 import org.eclipse.persistence.internal.jpa.metadata.converters.StructConverterMetadata;
 import org.eclipse.persistence.internal.jpa.metadata.xml.XMLEntityMappings;
 import org.eclipse.persistence.internal.jpa.metadata.xml.XMLEntityMappingsReader;
@@ -329,19 +337,76 @@ protected void initPersistenceUnitClasses() {
         // persistence.xml file.
         PersistenceUnitInfo persistenceUnitInfo = m_project.getPersistenceUnitInfo();
         List<String> classNames = new ArrayList<String>();
+        Set<String> unlistedClasses = Collections.EMPTY_SET;
 
         // Add all the <class> specifications.
         classNames.addAll(persistenceUnitInfo.getManagedClassNames());
 
-        // Add all the classes from the <jar> specifications.
+        // The archives with a metadata index written at build time are not scanned,
+        // the indexed classes are added to the factory.
+        List<URL> jarFileUrls = new ArrayList<URL>();
         for (URL url : persistenceUnitInfo.getJarFileUrls()) {
-            classNames.addAll(PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, null));
+            Set<String> indexedClasses = loadMetadataIndex(url);
+            if (indexedClasses == null) {
+                jarFileUrls.add(url);
+            } else {
+                classNames.addAll(indexedClasses);
+            }
         }
-
-        // Add all the classes off the classpath at the persistence unit root url.
-        Set<String> unlistedClasses = Collections.EMPTY_SET;
+        // The listed classes are also read from the index of the root.
+        URL rootUrl = null;
+        Set<String> rootIndexedClasses = loadMetadataIndex(persistenceUnitInfo.getPersistenceUnitRootUrl());
         if (! persistenceUnitInfo.excludeUnlistedClasses()) {
-            unlistedClasses = PersistenceUnitProcessor.getClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties);
+            if (rootIndexedClasses == null) {
+                rootUrl = persistenceUnitInfo.getPersistenceUnitRootUrl();
+            } else {
+                unlistedClasses = rootIndexedClasses;
+            }
+        }
+
+        int threads = getMetadataScanThreads();
+        if (threads > 1) {
+            // Scan the archives and read the class metadata concurrently.
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                List<Callable<Set<String>>> scans = new ArrayList<>();
+                for (URL url : jarFileUrls) {
+                    scans.add(() -> PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, null));
+                }
+                if (rootUrl != null) {
+                    URL url = rootUrl;
+                    scans.add(() -> PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, m_predeployProperties));
+                }
+                List<Future<Set<String>>> results = pool.invokeAll(scans);
+                for (int index = 0; index < results.size(); index++) {
+                    Set<String> scannedClasses = getScanResult(results.get(index));
+                    if ((rootUrl == null) || (index < results.size() - 1)) {
+                        classNames.addAll(scannedClasses);
+                    } else {
+                        unlistedClasses = scannedClasses;
+                    }
+                }
+                Set<String> lazyClasses = new HashSet<String>(unlistedClasses);
+                lazyClasses.removeAll(classNames);
+                List<String> allClassNames = new ArrayList<String>(classNames);
+                allClassNames.addAll(unlistedClasses);
+                m_factory.loadMetadataClasses(allClassNames, lazyClasses, pool);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(exception);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            // Add all the classes from the <jar> specifications.
+            for (URL url : jarFileUrls) {
+                classNames.addAll(PersistenceUnitProcessor.getClassNamesFromURL(url, m_loader, null));
+            }
+
+            // Add all the classes off the classpath at the persistence unit root url.
+            if (rootUrl != null) {
+                unlistedClasses = PersistenceUnitProcessor.getClassNamesFromURL(rootUrl, m_loader, m_predeployProperties);
+            }
         }
 
         // 5 - Go through all the class names we found and add those classes
@@ -384,6 +449,91 @@ protected void initPersistenceUnitClasses() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the number of threads scanning the archives and reading the class metadata
+     * of the persistence unit, 1 by default.
+     */
+    protected int getMetadataScanThreads() {
+        String threads = EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.METADATA_SCAN_THREADS, m_predeployProperties);
+        if (threads == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(threads.trim());
+        } catch (NumberFormatException exception) {
+            throw ValidationException.invalidValueForProperty(threads, PersistenceUnitProperties.METADATA_SCAN_THREADS, exception);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Add the classes of the metadata index of the archive to the factory, and return their names.
+     * Return null if the archive has no index, or the index is disabled, cannot be read
+     * or is not current for the classes of the archive, then the archive must be scanned.
+     * The index of an archive that is not a local directory or jar cannot be validated and is not used.
+     */
+    protected Set<String> loadMetadataIndex(URL url) {
+        if ((url == null) || "false".equalsIgnoreCase(EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.METADATA_INDEX, m_predeployProperties))) {
+            return null;
+        }
+        InputStream stream = null;
+        try {
+            URL indexUrl;
+            String path = url.toExternalForm();
+            if (path.endsWith(".jar") && !path.startsWith("jar:")) {
+                indexUrl = new URL("jar:" + path + "!/" + MetadataIndex.INDEX_ENTRY);
+            } else {
+                indexUrl = new URL(path.endsWith("/") ? url : new URL(path + "/"), MetadataIndex.INDEX_ENTRY);
+            }
+            stream = indexUrl.openStream();
+        } catch (IOException notFound) {
+            return null;
+        }
+        try {
+            MetadataIndex index = MetadataIndex.read(stream, m_factory);
+            // An index written before the classes of the archive changed is not used.
+            File archive = MetadataIndex.getArchiveFile(url);
+            if ((archive == null) || !index.isCurrent(archive)) {
+                m_session.log(SessionLog.FINER, SessionLog.METADATA, "metadata_index_not_current", new Object[] {url});
+                return null;
+            }
+            Set<String> classNames = new HashSet<String>();
+            for (MetadataClass metadataClass : index.getClasses()) {
+                if (! m_factory.metadataClassExists(metadataClass.getName())) {
+                    m_factory.addMetadataClass(metadataClass);
+                }
+                classNames.add(metadataClass.getName());
+            }
+            m_session.log(SessionLog.FINER, SessionLog.METADATA, "metadata_index_loaded", new Object[] {url, classNames.size()});
+            return classNames;
+        } catch (IOException | RuntimeException exception) {
+            m_session.logThrowable(SessionLog.WARNING, SessionLog.METADATA, exception);
+            return null;
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException ignore) {
+                // Ignore.
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class names of an archive scan, throwing its exception.
+     */
+    protected Set<String> getScanResult(Future<Set<String>> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)exception.getCause();
+            }
+            throw new RuntimeException(exception.getCause());
+        }
+    }
+
     /**
      * INTERNAL:
      * This method is responsible for figuring out list of mapping files to
@@ -167,6 +167,14 @@ public void addMetaAnnotation(MetadataAnnotation annotation) {
         m_metaAnnotations.put(annotation.getName(), annotation);
     }
 
+    /**
+     * INTERNAL:
+     * Return the meta-annotations defined for the element, keyed by meta-annotation name.
+     */
+    public Map<String, MetadataAnnotation> getMetaAnnotations() {
+        return m_metaAnnotations;
+    }
+
     /**
      * INTERNAL:
      */
@@ -32,7 +32,13 @@
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
@@ -86,6 +92,19 @@ public MetadataAsmFactory(MetadataLogger logger, ClassLoader loader) {
      * byte codes.
      */
     protected void buildClassMetadata(MetadataClass metadataClass, String className, boolean isLazy) {
+        MetadataClass classMetadata = readClassMetadata(metadataClass, className, isLazy);
+        if ((classMetadata != null) && (classMetadata != metadataClass)) {
+            addMetadataClass(classMetadata);
+        }
+    }
+
+    /**
+     * Read the class metadata for the class name using ASM to read the class
+     * byte codes, into the metadata class given if it has the same name.
+     * Return the class metadata read, or a virtual class if the class cannot be read.
+     * The class metadata is not added to the factory, so classes can be read concurrently.
+     */
+    protected MetadataClass readClassMetadata(MetadataClass metadataClass, String className, boolean isLazy) {
         ClassMetadataVisitor visitor = new ClassMetadataVisitor(metadataClass, isLazy);
         InputStream stream = null;
         try {
@@ -128,10 +147,10 @@ public InputStream run() {
                         entry.setMessage(ExceptionLocalization.buildMessage("unsupported_classfile_version", new Object[] { className }));
                         log.log(entry);
                     }
-                    addMetadataClass(getVirtualMetadataClass(className));
+                    return getVirtualMetadataClass(className);
                 }
             } else {
-                addMetadataClass(getVirtualMetadataClass(className));
+                return getVirtualMetadataClass(className);
             }
         } catch (Exception exception) {
             SessionLog log = getLogger().getSession() != null
@@ -139,7 +158,7 @@ public InputStream run() {
             if (log.shouldLog(SessionLog.FINEST, SessionLog.METADATA)) {
                 log.logThrowable(SessionLog.FINEST, SessionLog.METADATA, exception);
             }
-            addMetadataClass(getVirtualMetadataClass(className));
+            return getVirtualMetadataClass(className);
         } finally {
             try {
                 if (stream != null) {
@@ -149,6 +168,38 @@ public InputStream run() {
                 // Ignore.
             }
         }
+        return visitor.classMetadata;
+    }
+
+    /**
+     * INTERNAL:
+     * Read the metadata of the classes not yet read on the threads of the pool,
+     * then add it to the factory on the calling thread, as the factory is not thread safe.
+     */
+    @Override
+    public void loadMetadataClasses(Collection<String> classNames, Set<String> lazyClassNames, ForkJoinPool pool) throws InterruptedException {
+        List<String> unreadClassNames = new ArrayList<>();
+        for (String className : new LinkedHashSet<>(classNames)) {
+            if ((className != null) && !metadataClassExists(className)) {
+                unreadClassNames.add(className);
+            }
+        }
+        List<MetadataClass> classes;
+        try {
+            classes = pool.submit(() -> unreadClassNames.parallelStream()
+                    .map(className -> readClassMetadata(null, className, lazyClassNames.contains(className)))
+                    .collect(Collectors.toList())).get();
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)exception.getCause();
+            }
+            throw new RuntimeException(exception.getCause());
+        }
+        for (MetadataClass classMetadata : classes) {
+            if ((classMetadata != null) && !metadataClassExists(classMetadata.getName())) {
+                addMetadataClass(classMetadata);
+            }
+        }
     }
 
     /**
@@ -253,9 +304,9 @@ public class ClassMetadataVisitor extends ClassVisitor {
         @Override
         public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
             String className = toClassName(name);
+            // The new class metadata is added to the factory once read, see buildClassMetadata().
             if ((this.classMetadata == null) || !this.classMetadata.getName().equals(className)) {
                 this.classMetadata = new MetadataClass(MetadataAsmFactory.this, className, isLazy);
-                addMetadataClass(this.classMetadata);
             }
             this.classMetadata.setName(className);
             this.classMetadata.setSuperclassName(toClassName(superName));
@@ -14,9 +14,12 @@
 //     James Sutherland - initial impl
 package org.eclipse.persistence.internal.jpa.metadata.accessors.objects;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
@@ -102,7 +105,7 @@ protected Map<String, MetadataClass> getMetadataClasses() {
     /**
      * INTERNAL:
      */
-    protected boolean metadataClassExists(String className) {
+    public boolean metadataClassExists(String className) {
         return m_metadataClasses.containsKey(className);
     }
 
@@ -116,6 +119,17 @@ protected boolean metadataClassExists(String className) {
      */
     public abstract MetadataClass getMetadataClass(String className, boolean isLazy);
 
+    /**
+     * INTERNAL:
+     * Read the metadata of the classes ahead of their processing, using the threads of the pool.
+     * The classes in the lazy class names are read as lazy classes.
+     * By default the classes are read when requested, factories able to read classes
+     * concurrently override this.
+     * @throws InterruptedException if the thread is interrupted while the classes are read
+     */
+    public void loadMetadataClasses(Collection<String> classNames, Set<String> lazyClassNames, ForkJoinPool pool) throws InterruptedException {
+    }
+
     /**
      * INTERNAL:
      */
@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.metadata.accessors.objects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Read and write the index of the class metadata of the persistence classes of an archive.
+ * <p>
+ * The index is written at build time into the archive, the classes it contains are then
+ * not scanned and read at deployment. The index stores the class, field and method metadata
+ * with their annotations, the strings are written once in a table.
+ * <p>
+ * The index also stores a checksum of the class entries of the archive, their names and sizes
+ * with their CRCs from the central directory of a jar, or their modification times in a directory,
+ * so an index that is no longer current, because a class was changed, added or removed after
+ * it was written, is detected and not used, without reading the classes.
+ *
+ * @see org.eclipse.persistence.tools.metadata.jpa.StaticMetadataIndex
+ */
+public class MetadataIndex {
+    /** The archive entry of the index. */
+    public static final String INDEX_ENTRY = "META-INF/eclipselink-metadata.index";
+
+    protected static final int MAGIC = 0x454C4D49;
+    protected static final int VERSION = 3;
+
+    // Annotation value tags.
+    protected static final byte NULL = 0;
+    protected static final byte STRING = 1;
+    protected static final byte INTEGER = 2;
+    protected static final byte LONG = 3;
+    protected static final byte BOOLEAN = 4;
+    protected static final byte CHARACTER = 5;
+    protected static final byte BYTE = 6;
+    protected static final byte SHORT = 7;
+    protected static final byte FLOAT = 8;
+    protected static final byte DOUBLE = 9;
+    protected static final byte ANNOTATION = 10;
+    protected static final byte ARRAY = 11;
+
+    /** The classes of the index. */
+    protected List<MetadataClass> classes;
+
+    /** The checksum of the class entries of the archive indexed, see {@link #stamp(File)}. */
+    protected long archiveStamp;
+
+    private MetadataIndex() {
+    }
+
+    /**
+     * Return the classes of the index.
+     */
+    public List<MetadataClass> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Return the local directory or jar file of the archive URL, or null if the archive is not local,
+     * then its index cannot be validated and is not used.
+     */
+    public static File getArchiveFile(URL url) {
+        String path = url.toExternalForm();
+        if (path.startsWith("jar:file:") && path.endsWith("!/")) {
+            path = path.substring("jar:".length(), path.length() - "!/".length());
+        } else if (!path.startsWith("file:")) {
+            return null;
+        }
+        try {
+            File file = new File(new URI(path));
+            return file.exists() ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Return if the index is current for the directory or jar, i.e. it has the same class entries,
+     * of the same size and CRC for a jar, or of the same size and modification time for a directory,
+     * as when the index was written.
+     */
+    public boolean isCurrent(File archive) throws IOException {
+        return stamp(archive) == this.archiveStamp;
+    }
+
+    /**
+     * Return the checksum of the class entries of the directory or jar.
+     * Only the entry metadata is read, the central directory of a jar or the attributes
+     * of the files of a directory, the classes are not read.
+     */
+    protected static long stamp(File archive) throws IOException {
+        Map<String, long[]> classEntries = new TreeMap<>();
+        if (archive.isDirectory()) {
+            Path root = archive.toPath();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    String entry = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (entry.endsWith(".class")) {
+                        classEntries.put(entry, new long[] {attributes.size(), attributes.lastModifiedTime().toMillis()});
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } else {
+            try (ZipFile jar = new ZipFile(archive)) {
+                for (Enumeration<? extends ZipEntry> entries = jar.entries(); entries.hasMoreElements();) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.getName().endsWith(".class")) {
+                        classEntries.put(entry.getName(), new long[] {entry.getSize(), entry.getCrc()});
+                    }
+                }
+            }
+        }
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        for (Map.Entry<String, long[]> entry : classEntries.entrySet()) {
+            checksum.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            buffer.clear();
+            buffer.putLong(entry.getValue()[0]).putLong(entry.getValue()[1]);
+            checksum.update(buffer.array());
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Write the index of the classes of the archive.
+     * The classes with annotation values that cannot be indexed are not written, return their names.
+     */
+    public static List<String> write(Collection<MetadataClass> classes, File archive, OutputStream stream) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        List<String> skipped = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int count = 0;
+        for (MetadataClass metadataClass : classes) {
+            ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+            Writer writer = new Writer(new DataOutputStream(classBytes), strings);
+            try {
+                writer.writeClass(metadataClass);
+            } catch (IllegalArgumentException unsupported) {
+                skipped.add(metadataClass.getName());
+                continue;
+            }
+            writer.out.flush();
+            classBytes.writeTo(bytes);
+            count++;
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(stamp(archive));
+        out.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+        out.writeInt(count);
+        bytes.writeTo(out);
+        out.flush();
+        return skipped;
+    }
+
+    /**
+     * Read the index, its classes are built for the factory.
+     */
+    public static MetadataIndex read(InputStream stream, MetadataFactory factory) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+            throw new IOException("Unsupported metadata index format");
+        }
+        MetadataIndex metadataIndex = new MetadataIndex();
+        metadataIndex.archiveStamp = in.readLong();
+        String[] strings = new String[in.readInt()];
+        for (int index = 0; index < strings.length; index++) {
+            byte[] encoded = new byte[in.readInt()];
+            in.readFully(encoded);
+            strings[index] = new String(encoded, StandardCharsets.UTF_8);
+        }
+        Reader reader = new Reader(in, strings, factory);
+        int size = in.readInt();
+        List<MetadataClass> classes = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            classes.add(reader.readClass());
+        }
+        metadataIndex.classes = classes;
+        return metadataIndex;
+    }
+
+    /**
+     * Writes the metadata, referencing the strings by their index in the table.
+     */
+    protected static class Writer {
+        protected final DataOutputStream out;
+        protected final Map<String, Integer> strings;
+
+        protected Writer(DataOutputStream out, Map<String, Integer> strings) {
+            this.out = out;
+            this.strings = strings;
+        }
+
+        protected void writeString(String string) throws IOException {
+            if (string == null) {
+                this.out.writeInt(-1);
+                return;
+            }
+            Integer index = this.strings.get(string);
+            if (index == null) {
+                index = this.strings.size();
+                this.strings.put(string, index);
+            }
+            this.out.writeInt(index);
+        }
+
+        protected void writeStrings(List<String> strings) throws IOException {
+            if (strings == null) {
+                this.out.writeInt(-1);
+                return;
+            }
+            this.out.writeInt(strings.size());
+            for (String string : strings) {
+                writeString(string);
+            }
+        }
+
+        protected void writeClass(MetadataClass metadataClass) throws IOException {
+            writeString(metadataClass.getName());
+            this.out.writeInt(metadataClass.getModifiers());
+            writeString(metadataClass.getSuperclassName());
+            writeStrings(metadataClass.getInterfaces());
+            writeElement(metadataClass);
+            this.out.writeInt(metadataClass.getFields().size());
+            for (MetadataField field : metadataClass.getFields().values()) {
+                writeString(field.getName());
+                this.out.writeInt(field.getModifiers());
+                writeElement(field);
+            }
+            List<MetadataMethod> methods = new ArrayList<>();
+            for (MetadataMethod method : metadataClass.getMethods().values()) {
+                for (; method != null; method = method.getNext()) {
+                    methods.add(method);
+                }
+            }
+            this.out.writeInt(methods.size());
+            for (MetadataMethod method : methods) {
+                writeString(method.getName());
+                this.out.writeInt(method.getModifiers());
+                writeString(method.getReturnType());
+                writeStrings(method.getParameters());
+                writeElement(method);
+            }
+        }
+
+        protected void writeElement(MetadataAnnotatedElement element) throws IOException {
+            writeString(element.getAttributeName());
+            writeString(element.getType());
+            writeStrings(element.getGenericType());
+            writeAnnotations(element.getAnnotations());
+            writeAnnotations(element.getMetaAnnotations());
+        }
+
+        protected void writeAnnotations(Map<String, MetadataAnnotation> annotations) throws IOException {
+            this.out.writeInt(annotations.size());
+            for (MetadataAnnotation annotation : annotations.values()) {
+                writeAnnotation(annotation);
+            }
+        }
+
+        protected void writeAnnotation(MetadataAnnotation annotation) throws IOException {
+            writeString(annotation.getName());
+            this.out.writeBoolean(annotation.isMeta());
+            this.out.writeInt(annotation.getAttributes().size());
+            for (Map.Entry<String, Object> attribute : annotation.getAttributes().entrySet()) {
+                writeString(attribute.getKey());
+                writeValue(attribute.getValue());
+            }
+        }
+
+        protected void writeValue(Object value) throws IOException {
+            if (value == null) {
+                this.out.writeByte(NULL);
+            } else if (value instanceof String) {
+                this.out.writeByte(STRING);
+                writeString((String)value);
+            } else if (value instanceof Integer) {
+                this.out.writeByte(INTEGER);
+                this.out.writeInt((Integer)value);
+            } else if (value instanceof Long) {
+                this.out.writeByte(LONG);
+                this.out.writeLong((Long)value);
+            } else if (value instanceof Boolean) {
+                this.out.writeByte(BOOLEAN);
+                this.out.writeBoolean((Boolean)value);
+            } else if (value instanceof Character) {
+                this.out.writeByte(CHARACTER);
+                this.out.writeChar((Character)value);
+            } else if (value instanceof Byte) {
+                this.out.writeByte(BYTE);
+                this.out.writeByte((Byte)value);
+            } else if (value instanceof Short) {
+                this.out.writeByte(SHORT);
+                this.out.writeShort((Short)value);
+            } else if (value instanceof Float) {
+                this.out.writeByte(FLOAT);
+                this.out.writeFloat((Float)value);
+            } else if (value instanceof Double) {
+                this.out.writeByte(DOUBLE);
+                this.out.writeDouble((Double)value);
+            } else if (value instanceof MetadataAnnotation) {
+                this.out.writeByte(ANNOTATION);
+                writeAnnotation((MetadataAnnotation)value);
+            } else if (value instanceof Object[]) {
+                this.out.writeByte(ARRAY);
+                Object[] values = (Object[])value;
+                this.out.writeInt(values.length);
+                for (Object element : values) {
+                    writeValue(element);
+                }
+            } else {
+                throw new IllegalArgumentException(value.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Reads the metadata written by the writer.
+     */
+    protected static class Reader {
+        protected final DataInputStream in;
+        protected final String[] strings;
+        protected final MetadataFactory factory;
+
+        protected Reader(DataInputStream in, String[] strings, MetadataFactory factory) {
+            this.in = in;
+            this.strings = strings;
+            this.factory = factory;
+        }
+
+        protected String readString() throws IOException {
+            int index = this.in.readInt();
+            return (index == -1) ? null : this.strings[index];
+        }
+
+        protected List<String> readStrings() throws IOException {
+            int size = this.in.readInt();
+            if (size == -1) {
+                return null;
+            }
+            List<String> strings = new ArrayList<>(size);
+            for (int index = 0; index < size; index++) {
+                strings.add(readString());
+            }
+            return strings;
+        }
+
+        protected MetadataClass readClass() throws IOException {
+            MetadataClass metadataClass = new MetadataClass(this.factory, readString(), false);
+            metadataClass.setModifiers(this.in.readInt());
+            metadataClass.setSuperclassName(readString());
+            List<String> interfaces = readStrings();
+            if (interfaces != null) {
+                for (String interfaceName : interfaces) {
+                    metadataClass.addInterface(interfaceName);
+                }
+            }
+            readElement(metadataClass);
+            int fields = this.in.readInt();
+            for (int index = 0; index < fields; index++) {
+                MetadataField field = new MetadataField(metadataClass);
+                field.setName(readString());
+                field.setModifiers(this.in.readInt());
+                readElement(field);
+                metadataClass.addField(field);
+            }
+            int methods = this.in.readInt();
+            for (int index = 0; index < methods; index++) {
+                MetadataMethod method = new MetadataMethod(this.factory, metadataClass);
+                method.setName(readString());
+                method.setModifiers(this.in.readInt());
+                method.setReturnType(readString());
+                List<String> parameters = readStrings();
+                if (parameters != null) {
+                    method.setParameters(parameters);
+                }
+                readElement(method);
+                // Methods with the same name are chained, as when read from the byte codes.
+                MetadataMethod existing = metadataClass.getMethods().get(method.getName());
+                if (existing == null) {
+                    metadataClass.getMethods().put(method.getName(), method);
+                } else {
+                    while (existing.getNext() != null) {
+                        existing = existing.getNext();
+                    }
+                    existing.setNext(method);
+                }
+            }
+            return metadataClass;
+        }
+
+        protected void readElement(MetadataAnnotatedElement element) throws IOException {
+            element.setAttributeName(readString());
+            element.setType(readString());
+            element.setGenericType(readStrings());
+            int annotations = this.in.readInt();
+            for (int index = 0; index < annotations; index++) {
+                element.addAnnotation(readAnnotation());
+            }
+            int metaAnnotations = this.in.readInt();
+            for (int index = 0; index < metaAnnotations; index++) {
+                element.addMetaAnnotation(readAnnotation());
+            }
+        }
+
+        protected MetadataAnnotation readAnnotation() throws IOException {
+            MetadataAnnotation annotation = new MetadataAnnotation();
+            annotation.setName(readString());
+            annotation.setIsMeta(this.in.readBoolean());
+            int attributes = this.in.readInt();
+            for (int index = 0; index < attributes; index++) {
+                String name = readString();
+                annotation.addAttribute(name, readValue());
+            }
+            return annotation;
+        }
+
+        protected Object readValue() throws IOException {
+            byte tag = this.in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString();
+                case INTEGER:
+                    return this.in.readInt();
+                case LONG:
+                    return this.in.readLong();
+                case BOOLEAN:
+                    return this.in.readBoolean();
+                case CHARACTER:
+                    return this.in.readChar();
+                case BYTE:
+                    return this.in.readByte();
+                case SHORT:
+                    return this.in.readShort();
+                case FLOAT:
+                    return this.in.readFloat();
+                case DOUBLE:
+                    return this.in.readDouble();
+                case ANNOTATION:
+                    return readAnnotation();
+                case ARRAY:
+                    Object[] values = new Object[this.in.readInt()];
+                    for (int index = 0; index < values.length; index++) {
+                        values[index] = readValue();
+                    }
+                    return values;
+                default:
+                    throw new IOException("Unsupported metadata index value: " + tag);
+            }
+        }
+    }
+}
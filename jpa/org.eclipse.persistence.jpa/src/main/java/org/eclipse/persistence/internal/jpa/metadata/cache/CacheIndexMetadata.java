@@ -45,6 +45,8 @@ public class CacheIndexMetadata extends ORMetadata {
 
     private List<String> m_columnNames = new ArrayList();
     private Boolean updateable;
+    private Boolean unique;
+    private Boolean sorted;
 
     /**
      * INTERNAL:
@@ -66,6 +68,8 @@ public CacheIndexMetadata(MetadataAnnotation index, MetadataAccessor accessor) {
             }
 
             this.updateable = index.getAttributeBooleanDefaultTrue("updateable");
+            this.unique = index.getAttributeBooleanDefaultTrue("unique");
+            this.sorted = index.getAttributeBooleanDefaultFalse("sorted");
         }
     }
 
@@ -76,7 +80,15 @@ public CacheIndexMetadata(MetadataAnnotation index, MetadataAccessor accessor) {
     public boolean equals(Object objectToCompare) {
         if (objectToCompare instanceof CacheIndexMetadata) {
             CacheIndexMetadata index = (CacheIndexMetadata) objectToCompare;
-            if (this.updateable != index.getUpdateable()) {
+            if (! valuesMatch(this.updateable, index.getUpdateable())) {
+                return false;
+            }
+
+            if (! valuesMatch(this.unique, index.getUnique())) {
+                return false;
+            }
+
+            if (! valuesMatch(this.sorted, index.getSorted())) {
                 return false;
             }
 
@@ -90,6 +102,8 @@ public boolean equals(Object objectToCompare) {
     public int hashCode() {
         int result = m_columnNames != null ? m_columnNames.hashCode() : 0;
         result = 31 * result + (updateable != null ? updateable.hashCode() : 0);
+        result = 31 * result + (unique != null ? unique.hashCode() : 0);
+        result = 31 * result + (sorted != null ? sorted.hashCode() : 0);
         return result;
     }
 
@@ -101,6 +115,20 @@ public List<String> getColumnNames() {
         return m_columnNames;
     }
 
+    /**
+     * INTERNAL:
+     */
+    public Boolean getSorted() {
+        return sorted;
+    }
+
+    /**
+     * INTERNAL:
+     */
+    public Boolean getUnique() {
+        return unique;
+    }
+
     /**
      * INTERNAL:
      * Used for OX mapping.
@@ -125,6 +153,12 @@ public void process(MetadataDescriptor descriptor, String defaultColumnName) {
         if (this.updateable != null) {
             index.setIsUpdateable(this.updateable);
         }
+        if (this.unique != null) {
+            index.setIsUnique(this.unique);
+        }
+        if ((this.sorted != null) && this.sorted) {
+            index.setIsSorted(true);
+        }
         descriptor.getClassDescriptor().getCachePolicy().addCacheIndex(index);
     }
 
@@ -136,6 +170,20 @@ public void setColumnNames(List<String> columnNames) {
         this.m_columnNames = columnNames;
     }
 
+    /**
+     * INTERNAL:
+     */
+    public void setSorted(Boolean sorted) {
+        this.sorted = sorted;
+    }
+
+    /**
+     * INTERNAL:
+     */
+    public void setUnique(Boolean unique) {
+        this.unique = unique;
+    }
+
     /**
      * INTERNAL:
      * Used for OX mapping.
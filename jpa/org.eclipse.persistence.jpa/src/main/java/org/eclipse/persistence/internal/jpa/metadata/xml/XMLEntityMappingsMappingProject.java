@@ -1990,6 +1990,20 @@ protected ClassDescriptor buildCacheIndexDescriptor() {
         updateableMapping.setXPath("@updateable");
         descriptor.addMapping(updateableMapping);
 
+        XMLDirectMapping uniqueMapping = new XMLDirectMapping();
+        uniqueMapping.setAttributeName("unique");
+        uniqueMapping.setGetMethodName("getUnique");
+        uniqueMapping.setSetMethodName("setUnique");
+        uniqueMapping.setXPath("@unique");
+        descriptor.addMapping(uniqueMapping);
+
+        XMLDirectMapping sortedMapping = new XMLDirectMapping();
+        sortedMapping.setAttributeName("sorted");
+        sortedMapping.setGetMethodName("getSorted");
+        sortedMapping.setSetMethodName("setSorted");
+        sortedMapping.setXPath("@sorted");
+        descriptor.addMapping(sortedMapping);
+
         return descriptor;
     }
 
@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.querydef;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.internal.expressions.ArgumentListFunctionExpression;
+import org.eclipse.persistence.internal.expressions.CollectionExpression;
+import org.eclipse.persistence.internal.expressions.CompoundExpression;
+import org.eclipse.persistence.internal.expressions.ConstantExpression;
+import org.eclipse.persistence.internal.expressions.FieldExpression;
+import org.eclipse.persistence.internal.expressions.FunctionExpression;
+import org.eclipse.persistence.internal.expressions.LiteralExpression;
+import org.eclipse.persistence.internal.expressions.LogicalExpression;
+import org.eclipse.persistence.internal.expressions.ParameterExpression;
+import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
+import org.eclipse.persistence.internal.expressions.RelationExpression;
+import org.eclipse.persistence.internal.queries.ReportItem;
+import org.eclipse.persistence.queries.ConstructorReportItem;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReportQuery;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: The shape of a translated criteria query, the key of the project's criteria query cache.
+ * <p>
+ * The shape is made of the query's settings and the structure of its expressions.
+ * The literals compared to attributes in the where clause are not part of the shape,
+ * they are converted to parameters of the cached query, and their values are given to each execution.
+ * Other literals, and the parameters of the criteria, are part of the shape.
+ * Queries using expressions that cannot be compared, such as sub-queries, have no shape and are not cached.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setCriteriaQueryCacheMaxSize(int)
+ */
+public class CriteriaQueryShape {
+
+    /** The prefix of the names of the parameters the literals are converted to. */
+    public static final String LITERAL_PARAMETER_PREFIX = "eclipselink.criteria.literal.";
+
+    /** Marks a reference to an expression node already described in the shape. */
+    protected static final Object NODE_REFERENCE = new Object();
+
+    /** Separates the optional parts of the query in the shape. */
+    protected static final Object SEPARATOR = new Object();
+
+    protected final ObjectLevelReadQuery query;
+
+    /** The tokens describing the query, compared to find the same shape. */
+    protected final List<Object> key;
+
+    /** The literals converted to parameters, in the order of their parameter names. */
+    protected final List<ConstantExpression> literals;
+
+    /** The index of the expression nodes described, nodes may be shared within the query. */
+    protected final Map<Expression, Integer> nodes;
+
+    protected CriteriaQueryShape(ObjectLevelReadQuery query) {
+        this.query = query;
+        this.key = new ArrayList<>();
+        this.literals = new ArrayList<>();
+        this.nodes = new IdentityHashMap<>();
+    }
+
+    /**
+     * Return the shape of the translated criteria query, or null if the query cannot be cached.
+     */
+    public static CriteriaQueryShape build(DatabaseQuery query) {
+        if ((query.getClass() != ReadAllQuery.class) && (query.getClass() != ReportQuery.class)) {
+            return null;
+        }
+        CriteriaQueryShape shape = new CriteriaQueryShape((ObjectLevelReadQuery)query);
+        if (!shape.describeQuery()) {
+            return null;
+        }
+        return shape;
+    }
+
+    /**
+     * Return the key of the cached query.
+     */
+    public List<Object> getKey() {
+        return this.key;
+    }
+
+    /**
+     * Return the values of the literals, by the names of their parameters.
+     */
+    public Map<String, Object> getLiteralValues() {
+        Map<String, Object> values = new HashMap<>(this.literals.size());
+        for (int index = 0; index < this.literals.size(); index++) {
+            values.put(LITERAL_PARAMETER_PREFIX + index, this.literals.get(index).getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Convert the literals of the query to parameters, so the query can be cached.
+     * The expressions of the criteria are copied, as they may be translated again.
+     */
+    public ObjectLevelReadQuery buildCacheableQuery() {
+        ObjectLevelReadQuery query = this.query;
+        if (this.literals.isEmpty()) {
+            return query;
+        }
+        Map<Expression, Expression> alreadyDone = new IdentityHashMap<>();
+        List<ParameterExpression> parameters = new ArrayList<>(this.literals.size());
+        for (int index = 0; index < this.literals.size(); index++) {
+            ConstantExpression literal = this.literals.get(index);
+            String name = LITERAL_PARAMETER_PREFIX + index;
+            Class type = literal.getValue().getClass();
+            ParameterExpression parameter = new ParameterExpression(name, literal.getLocalBase(), type);
+            alreadyDone.put(literal, parameter);
+            parameters.add(parameter);
+            query.addArgument(name, type);
+        }
+        query.setExpressionBuilder((ExpressionBuilder)copy(query.getExpressionBuilder(), alreadyDone));
+        query.setSelectionCriteria(copy(query.getSelectionCriteria(), alreadyDone));
+        if (query.hasJoining()) {
+            query.getJoinedAttributeManager().setJoinedAttributeExpressions_(copyAll(query.getJoinedAttributeManager().getJoinedAttributeExpressions(), alreadyDone));
+        }
+        if (query.hasNonFetchJoinedAttributeExpressions()) {
+            query.setNonFetchJoinAttributeExpressions(copyAll(query.getNonFetchJoinAttributeExpressions(), alreadyDone));
+        }
+        if (query.hasOrderByExpressions()) {
+            query.setOrderByExpressions(copyAll(query.getOrderByExpressions(), alreadyDone));
+        }
+        if (query.isReportQuery()) {
+            ReportQuery reportQuery = (ReportQuery)query;
+            copyItems(reportQuery.getItems(), alreadyDone);
+            if (reportQuery.hasGroupByExpressions()) {
+                reportQuery.setGroupByExpressions(copyAll(reportQuery.getGroupByExpressions(), alreadyDone));
+            }
+            reportQuery.setHavingExpression(copy(reportQuery.getHavingExpression(), alreadyDone));
+        }
+        // The parameters convert their values using the copy of the literal's base.
+        for (ParameterExpression parameter : parameters) {
+            parameter.setLocalBase(copy(parameter.getLocalBase(), alreadyDone));
+        }
+        return query;
+    }
+
+    protected Expression copy(Expression expression, Map<Expression, Expression> alreadyDone) {
+        if (expression == null) {
+            return null;
+        }
+        return expression.copiedVersionFrom(alreadyDone);
+    }
+
+    protected List<Expression> copyAll(List<Expression> expressions, Map<Expression, Expression> alreadyDone) {
+        List<Expression> copies = new ArrayList<>(expressions.size());
+        for (Expression expression : expressions) {
+            copies.add(copy(expression, alreadyDone));
+        }
+        return copies;
+    }
+
+    protected void copyItems(List<ReportItem> items, Map<Expression, Expression> alreadyDone) {
+        for (ReportItem item : items) {
+            if (item.isConstructorItem()) {
+                copyItems(((ConstructorReportItem)item).getReportItems(), alreadyDone);
+            } else {
+                item.setAttributeExpression(copy(item.getAttributeExpression(), alreadyDone));
+            }
+        }
+    }
+
+    /**
+     * Describe the query's settings and expressions.
+     * Return false if the query cannot be described.
+     */
+    protected boolean describeQuery() {
+        ObjectLevelReadQuery query = this.query;
+        if (query.hasPartialAttributeExpressions() || query.isReadOnly()
+                || ((query.getLockingClause() != null) && query.getLockingClause().isForUpdateOfClause())) {
+            return false;
+        }
+        this.key.add(query.getClass());
+        this.key.add(query.getReferenceClass());
+        this.key.add(query.getLockMode());
+        this.key.add(query.getDistinctState());
+        this.key.add(query.shouldFilterDuplicates());
+        this.key.add(new ArrayList<>(query.getArguments()));
+        this.key.add(new ArrayList<>(query.getArgumentTypes()));
+        if (!describe(query.getExpressionBuilder(), false) || !describe(query.getSelectionCriteria(), true)) {
+            return false;
+        }
+        if (query.hasJoining() && !describeAll(query.getJoinedAttributeManager().getJoinedAttributeExpressions())) {
+            return false;
+        }
+        this.key.add(SEPARATOR);
+        if (query.hasNonFetchJoinedAttributeExpressions() && !describeAll(query.getNonFetchJoinAttributeExpressions())) {
+            return false;
+        }
+        this.key.add(SEPARATOR);
+        if (query.hasOrderByExpressions() && !describeAll(query.getOrderByExpressions())) {
+            return false;
+        }
+        if (query.isReportQuery()) {
+            ReportQuery reportQuery = (ReportQuery)query;
+            this.key.add(SEPARATOR);
+            this.key.add(reportQuery.getReturnType());
+            if (!describeItems(reportQuery.getItems())) {
+                return false;
+            }
+            this.key.add(SEPARATOR);
+            if (reportQuery.hasGroupByExpressions() && !describeAll(reportQuery.getGroupByExpressions())) {
+                return false;
+            }
+            this.key.add(SEPARATOR);
+            return describe(reportQuery.getHavingExpression(), false);
+        }
+        return true;
+    }
+
+    protected boolean describeAll(List<Expression> expressions) {
+        this.key.add(expressions.size());
+        for (Expression expression : expressions) {
+            if (!describe(expression, false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected boolean describeItems(List<ReportItem> items) {
+        this.key.add(items.size());
+        for (ReportItem item : items) {
+            if (item.hasJoining()) {
+                return false;
+            }
+            this.key.add(item.getClass());
+            this.key.add(item.getName());
+            this.key.add(item.getResultType());
+            if (item.isConstructorItem()) {
+                ConstructorReportItem constructorItem = (ConstructorReportItem)item;
+                Class[] argumentTypes = constructorItem.getConstructorArgTypes();
+                this.key.add((argumentTypes == null) ? null : Arrays.asList(argumentTypes));
+                if (!describeItems(constructorItem.getReportItems())) {
+                    return false;
+                }
+            } else if (!describe(item.getAttributeExpression(), false)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describe the expression node and its children.
+     * The literals compared to attributes are converted to parameters if the literals can be parameterized.
+     * Return false if the expression cannot be described.
+     */
+    protected boolean describe(Expression expression, boolean parameterizeLiterals) {
+        if (expression == null) {
+            this.key.add(null);
+            return true;
+        }
+        Integer index = this.nodes.get(expression);
+        if (index != null) {
+            this.key.add(NODE_REFERENCE);
+            this.key.add(index);
+            return true;
+        }
+        this.nodes.put(expression, this.nodes.size());
+        Class type = expression.getClass();
+        this.key.add(type);
+        if (expression.getAsOfClause() != null) {
+            return false;
+        }
+        if (type == ExpressionBuilder.class) {
+            this.key.add(((ExpressionBuilder)expression).getQueryClass());
+            return true;
+        } else if (type == QueryKeyExpression.class) {
+            QueryKeyExpression queryKey = (QueryKeyExpression)expression;
+            if (queryKey.getJoinSource() != null) {
+                return false;
+            }
+            this.key.add(queryKey.getName());
+            this.key.add(queryKey.shouldQueryToManyRelationship());
+            this.key.add(queryKey.shouldUseOuterJoin());
+            this.key.add(queryKey.getCastClass());
+            return describe(queryKey.getOnClause(), false) && describe(queryKey.getBaseExpression(), false);
+        } else if (type == FieldExpression.class) {
+            this.key.add(((FieldExpression)expression).getField().getQualifiedName());
+            return describe(((FieldExpression)expression).getBaseExpression(), false);
+        } else if ((type == ConstantExpression.class) || (type == CollectionExpression.class)) {
+            this.key.add(((ConstantExpression)expression).getValue());
+            return true;
+        } else if (type == ParameterExpression.class) {
+            this.key.add(((ParameterExpression)expression).getField().getQualifiedName());
+            this.key.add(((ParameterExpression)expression).isProperty());
+            return true;
+        } else if (type == LiteralExpression.class) {
+            this.key.add(((LiteralExpression)expression).getValue());
+            return true;
+        } else if ((type == FunctionExpression.class) || (type == ArgumentListFunctionExpression.class)) {
+            FunctionExpression function = (FunctionExpression)expression;
+            List<Expression> children = function.getChildren();
+            this.key.add(function.getOperator());
+            this.key.add(function.getResultType());
+            this.key.add(children.size());
+            // The pattern of a like, or the bounds of a between, are compared to the first child.
+            boolean isComparison = parameterizeLiterals && isComparison(function.getOperator())
+                    && !children.isEmpty() && !children.get(0).isValueExpression();
+            for (int childIndex = 0; childIndex < children.size(); childIndex++) {
+                Expression child = children.get(childIndex);
+                if (isComparison && (childIndex > 0) && isParameterizable(child)) {
+                    addLiteral((ConstantExpression)child);
+                } else if (!describe(child, parameterizeLiterals)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if ((type == RelationExpression.class) || (type == LogicalExpression.class)) {
+            CompoundExpression compound = (CompoundExpression)expression;
+            Expression first = compound.getFirstChild();
+            Expression second = compound.getSecondChild();
+            this.key.add(compound.getOperator());
+            boolean isComparison = parameterizeLiterals && (type == RelationExpression.class);
+            if (isComparison && isParameterizable(first) && (second != null) && !second.isValueExpression()) {
+                addLiteral((ConstantExpression)first);
+            } else if (!describe(first, parameterizeLiterals)) {
+                return false;
+            }
+            if (isComparison && isParameterizable(second) && (first != null) && !first.isValueExpression()) {
+                addLiteral((ConstantExpression)second);
+                return true;
+            }
+            return describe(second, parameterizeLiterals);
+        }
+        // Sub-selects, map keys, treat and other expressions are not compared.
+        return false;
+    }
+
+    protected void addLiteral(ConstantExpression literal) {
+        this.key.add(ParameterExpression.class);
+        this.key.add(literal.getValue().getClass());
+        this.literals.add(literal);
+    }
+
+    /**
+     * Return if the function compares its first child to its other children.
+     */
+    protected boolean isComparison(ExpressionOperator operator) {
+        switch (operator.getSelector()) {
+            case ExpressionOperator.Like:
+            case ExpressionOperator.NotLike:
+            case ExpressionOperator.LikeEscape:
+            case ExpressionOperator.NotLikeEscape:
+            case ExpressionOperator.Between:
+            case ExpressionOperator.NotBetween:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Return if the expression is a literal that can be bound as a parameter.
+     * Null, boolean and collection values change the SQL, and are part of the shape.
+     */
+    protected boolean isParameterizable(Expression expression) {
+        if ((expression == null) || (expression.getClass() != ConstantExpression.class)) {
+            return false;
+        }
+        Object value = ((ConstantExpression)expression).getValue();
+        return (value instanceof String) || (value instanceof Number) || (value instanceof Character)
+                || (value instanceof java.util.Date) || (value instanceof Temporal) || (value instanceof Enum);
+    }
+}
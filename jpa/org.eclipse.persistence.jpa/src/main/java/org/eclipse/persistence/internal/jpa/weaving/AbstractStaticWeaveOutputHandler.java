@@ -50,6 +50,15 @@
      */
     abstract public void addEntry(InputStream jis,JarEntry entry) throws IOException,URISyntaxException;
 
+    /**
+     * Return if the target already contains the entry written by a previous weaving,
+     * so that an unchanged entry does not need to be written again.
+     * @param entryName
+     */
+    public boolean containsEntry(String entryName) {
+        return false;
+    }
+
 
     /**
      * Close the output stream.
@@ -21,7 +21,10 @@
 //       - 429992: JavaSE 8/ASM 5.0.1 support (EclipseLink silently ignores Entity classes with lambda expressions)
 package org.eclipse.persistence.internal.jpa.weaving;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.libraries.asm.ClassVisitor;
@@ -65,6 +68,8 @@ public class ClassWeaver extends ClassVisitor implements Opcodes {
     public static final String PERSISTENCE_ENTITY_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/PersistenceEntity";
     public static final String PERSISTENCE_OBJECT_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/PersistenceObject";
     public static final String PERSISTENCE_OBJECT_SIGNATURE = "L" + PERSISTENCE_OBJECT_SHORT_SIGNATURE + ";";
+    public static final String INDEXED_PERSISTENCE_OBJECT_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/IndexedPersistenceObject";
+    public static final String DIRECT_ATTRIBUTES_PERSISTENCE_OBJECT_SHORT_SIGNATURE = "org/eclipse/persistence/internal/descriptors/DirectAttributesPersistenceObject";
     public static final String VECTOR_SIGNATURE = "Ljava/util/Vector;";
     public static final String OBJECT_SIGNATURE = "Ljava/lang/Object;";
     public static final String STRING_SIGNATURE = "Ljava/lang/String;";
@@ -1029,6 +1034,304 @@ public void addPersistenceGetSet(ClassDetails classDetails) {
         cv_set.visitMaxs(0, 0);
     }
 
+    /**
+     * Return the attributes of the class accessed by index, ordered by name.
+     */
+    protected static List<AttributeDetails> getIndexedAttributes(ClassDetails classDetails) {
+        List<AttributeDetails> attributes = new ArrayList<>();
+        for (AttributeDetails attributeDetails : classDetails.getAttributesMap().values()) {
+            if (!attributeDetails.isAttributeOnSuperClass() && !attributeDetails.isVirtualProperty()) {
+                attributes.add(attributeDetails);
+            }
+        }
+        attributes.sort(Comparator.comparing(AttributeDetails::getAttributeName));
+        return attributes;
+    }
+
+    /**
+     * Return the index of the first attribute of the class, following the attributes of its superclasses.
+     */
+    protected static int getIndexOffset(ClassDetails classDetails) {
+        int offset = 0;
+        for (ClassDetails superClassDetails = classDetails.getSuperClassDetails(); superClassDetails != null; superClassDetails = superClassDetails.getSuperClassDetails()) {
+            offset = offset + getIndexedAttributes(superClassDetails).size();
+        }
+        return offset;
+    }
+
+    /**
+     * Add the internal generic get and set methods by index. The attributes of a class
+     * are indexed after the attributes of its superclasses, the superclass being called
+     * for the lower indexes.
+     *
+     * public int _persistence_index(String attribute) { if (attribute.equals("address")) {
+     * return 0; } if (attribute.equals("city")) { return 1; } return -1; }
+     *
+     * public Object _persistence_get(int index) { switch (index) { case 0: return
+     * this.address; case 1: return this.city; } return null; }
+     *
+     * public void _persistence_set(int index, Object value) { switch (index) { case 0:
+     * this.address = (String)value; return; case 1: this.city = (String)value; return; } }
+     */
+    public void addPersistenceIndexedGetSet(ClassDetails classDetails) {
+        List<AttributeDetails> attributes = getIndexedAttributes(classDetails);
+        int offset = getIndexOffset(classDetails);
+        boolean hasSuperClass = classDetails.getSuperClassDetails() != null;
+
+        // create the _persistence_index() method
+        MethodVisitor cv_index = cv.visitMethod(ACC_PUBLIC, "_persistence_index", "(Ljava/lang/String;)I", null, null);
+        for (int index = 0; index < attributes.size(); index++) {
+            // if (attribute.equals("address")) return 0;
+            Label next = new Label();
+            cv_index.visitVarInsn(ALOAD, 1);
+            cv_index.visitLdcInsn(attributes.get(index).getAttributeName());
+            cv_index.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+            cv_index.visitJumpInsn(IFEQ, next);
+            cv_index.visitLdcInsn(offset + index);
+            cv_index.visitInsn(IRETURN);
+            cv_index.visitLabel(next);
+        }
+        // call super, or return -1
+        if (hasSuperClass) {
+            cv_index.visitVarInsn(ALOAD, 0);
+            cv_index.visitVarInsn(ALOAD, 1);
+            cv_index.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_index", "(Ljava/lang/String;)I", false);
+        } else {
+            cv_index.visitInsn(ICONST_M1);
+        }
+        cv_index.visitInsn(IRETURN);
+        cv_index.visitMaxs(0, 0);
+
+        // create the _persistence_get() method
+        MethodVisitor cv_get = cv.visitMethod(ACC_PUBLIC, "_persistence_get", "(I)Ljava/lang/Object;", null, null);
+        if (hasSuperClass) {
+            // if (index < offset) return super._persistence_get(index);
+            Label own = new Label();
+            cv_get.visitVarInsn(ILOAD, 1);
+            cv_get.visitLdcInsn(offset);
+            cv_get.visitJumpInsn(IF_ICMPGE, own);
+            cv_get.visitVarInsn(ALOAD, 0);
+            cv_get.visitVarInsn(ILOAD, 1);
+            cv_get.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_get", "(I)Ljava/lang/Object;", false);
+            cv_get.visitInsn(ARETURN);
+            cv_get.visitLabel(own);
+        }
+        Label getDefault = new Label();
+        Label[] getCases = visitIndexSwitch(cv_get, attributes.size(), offset, getDefault);
+        for (int index = 0; index < attributes.size(); index++) {
+            AttributeDetails attributeDetails = attributes.get(index);
+            cv_get.visitLabel(getCases[index]);
+            // return this.address
+            cv_get.visitVarInsn(ALOAD, 0);
+            cv_get.visitFieldInsn(GETFIELD, classDetails.getClassName(), attributeDetails.getAttributeName(), attributeDetails.getReferenceClassType().getDescriptor());
+            // if this is a primitive, get the wrapper class
+            String wrapper = ClassWeaver.wrapperFor(attributeDetails.getReferenceClassType().getSort());
+            if (wrapper != null) {
+                cv_get.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + attributeDetails.getReferenceClassType().getDescriptor() + ")L" + wrapper + ";", false);
+            }
+            cv_get.visitInsn(ARETURN);
+        }
+        cv_get.visitLabel(getDefault);
+        cv_get.visitInsn(ACONST_NULL);
+        cv_get.visitInsn(ARETURN);
+        cv_get.visitMaxs(0, 0);
+
+        // create the _persistence_set() method
+        MethodVisitor cv_set = cv.visitMethod(ACC_PUBLIC, "_persistence_set", "(ILjava/lang/Object;)V", null, null);
+        if (hasSuperClass) {
+            // if (index < offset) { super._persistence_set(index, value); return; }
+            Label own = new Label();
+            cv_set.visitVarInsn(ILOAD, 1);
+            cv_set.visitLdcInsn(offset);
+            cv_set.visitJumpInsn(IF_ICMPGE, own);
+            cv_set.visitVarInsn(ALOAD, 0);
+            cv_set.visitVarInsn(ILOAD, 1);
+            cv_set.visitVarInsn(ALOAD, 2);
+            cv_set.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_set", "(ILjava/lang/Object;)V", false);
+            cv_set.visitInsn(RETURN);
+            cv_set.visitLabel(own);
+        }
+        Label setDefault = new Label();
+        Label[] setCases = visitIndexSwitch(cv_set, attributes.size(), offset, setDefault);
+        for (int index = 0; index < attributes.size(); index++) {
+            AttributeDetails attribute = attributes.get(index);
+            cv_set.visitLabel(setCases[index]);
+            // this.address = (String)value;
+            cv_set.visitVarInsn(ALOAD, 0);
+            cv_set.visitVarInsn(ALOAD, 2);
+            String wrapper = wrapperFor(attribute.getReferenceClassType().getSort());
+            if (wrapper == null) {
+                wrapper = attribute.getReferenceClassName().replace('.', '/');
+            }
+            cv_set.visitTypeInsn(CHECKCAST, wrapper);
+            // Unwrap any primitive wrapper to its value.
+            unwrapPrimitive(attribute, cv_set);
+            cv_set.visitFieldInsn(PUTFIELD, classDetails.getClassName(), attribute.getAttributeName(), attribute.getReferenceClassType().getDescriptor());
+            cv_set.visitInsn(RETURN);
+        }
+        cv_set.visitLabel(setDefault);
+        cv_set.visitInsn(RETURN);
+        cv_set.visitMaxs(0, 0);
+    }
+
+    /**
+     * Return if the attribute is copied and compared by the weaved direct methods:
+     * a direct mapping accessing its field, with an index that fits in the bits of a long.
+     */
+    protected static boolean isDirectAttribute(AttributeDetails attributeDetails, int index) {
+        return (index < 64) && (attributeDetails.getMapping() != null) && attributeDetails.getMapping().isDirectToFieldMapping()
+                && attributeDetails.isMappedWithAttributeAccess() && attributeDetails.hasField() && !attributeDetails.weaveValueHolders();
+    }
+
+    /**
+     * Add the internal methods copying and comparing the fields of the direct attributes,
+     * the superclass being called for its own attributes.
+     *
+     * public long _persistence_direct_attributes() { return super._persistence_direct_attributes() | 0x6L; }
+     *
+     * public void _persistence_copy_direct(Object target) { super._persistence_copy_direct(target);
+     * Address other = (Address)target; other.city = this.city; other.number = this.number; }
+     *
+     * public long _persistence_compare_direct(Object backup) { long changed = super._persistence_compare_direct(backup);
+     * Address other = (Address)backup; if (Objects.equals(this.city, other.city)) { changed = changed &amp; ~0x2L; }
+     * if (this.number == other.number) { changed = changed &amp; ~0x4L; } return changed; }
+     */
+    public void addPersistenceDirectCopyCompare(ClassDetails classDetails) {
+        List<AttributeDetails> attributes = getIndexedAttributes(classDetails);
+        int offset = getIndexOffset(classDetails);
+        boolean hasSuperClass = classDetails.getSuperClassDetails() != null;
+        String className = classDetails.getClassName();
+        List<AttributeDetails> directAttributes = new ArrayList<>();
+        List<Long> directBits = new ArrayList<>();
+        long mask = 0L;
+        for (int index = 0; index < attributes.size(); index++) {
+            if (isDirectAttribute(attributes.get(index), offset + index)) {
+                directAttributes.add(attributes.get(index));
+                directBits.add(1L << (offset + index));
+                mask = mask | (1L << (offset + index));
+            }
+        }
+
+        // create the _persistence_direct_attributes() method
+        MethodVisitor cv_attributes = cv.visitMethod(ACC_PUBLIC, "_persistence_direct_attributes", "()J", null, null);
+        if (hasSuperClass) {
+            cv_attributes.visitVarInsn(ALOAD, 0);
+            cv_attributes.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_direct_attributes", "()J", false);
+            cv_attributes.visitLdcInsn(mask);
+            cv_attributes.visitInsn(LOR);
+        } else {
+            cv_attributes.visitLdcInsn(mask);
+        }
+        cv_attributes.visitInsn(LRETURN);
+        cv_attributes.visitMaxs(0, 0);
+
+        // create the _persistence_copy_direct() method
+        MethodVisitor cv_copy = cv.visitMethod(ACC_PUBLIC, "_persistence_copy_direct", "(Ljava/lang/Object;)V", null, null);
+        if (hasSuperClass) {
+            cv_copy.visitVarInsn(ALOAD, 0);
+            cv_copy.visitVarInsn(ALOAD, 1);
+            cv_copy.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_copy_direct", "(Ljava/lang/Object;)V", false);
+        }
+        if (!directAttributes.isEmpty()) {
+            // Address other = (Address)target;
+            cv_copy.visitVarInsn(ALOAD, 1);
+            cv_copy.visitTypeInsn(CHECKCAST, className);
+            cv_copy.visitVarInsn(ASTORE, 2);
+            for (AttributeDetails attribute : directAttributes) {
+                // other.city = this.city;
+                String descriptor = attribute.getReferenceClassType().getDescriptor();
+                cv_copy.visitVarInsn(ALOAD, 2);
+                cv_copy.visitVarInsn(ALOAD, 0);
+                cv_copy.visitFieldInsn(GETFIELD, className, attribute.getAttributeName(), descriptor);
+                cv_copy.visitFieldInsn(PUTFIELD, className, attribute.getAttributeName(), descriptor);
+            }
+        }
+        cv_copy.visitInsn(RETURN);
+        cv_copy.visitMaxs(0, 0);
+
+        // create the _persistence_compare_direct() method
+        MethodVisitor cv_compare = cv.visitMethod(ACC_PUBLIC, "_persistence_compare_direct", "(Ljava/lang/Object;)J", null, null);
+        if (hasSuperClass) {
+            cv_compare.visitVarInsn(ALOAD, 0);
+            cv_compare.visitVarInsn(ALOAD, 1);
+            cv_compare.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_compare_direct", "(Ljava/lang/Object;)J", false);
+        } else {
+            cv_compare.visitLdcInsn(-1L);
+        }
+        if (!directAttributes.isEmpty()) {
+            // long changed = ...; Address other = (Address)backup;
+            cv_compare.visitVarInsn(LSTORE, 2);
+            cv_compare.visitVarInsn(ALOAD, 1);
+            cv_compare.visitTypeInsn(CHECKCAST, className);
+            cv_compare.visitVarInsn(ASTORE, 4);
+            for (int index = 0; index < directAttributes.size(); index++) {
+                AttributeDetails attribute = directAttributes.get(index);
+                String descriptor = attribute.getReferenceClassType().getDescriptor();
+                Label next = new Label();
+                cv_compare.visitVarInsn(ALOAD, 0);
+                cv_compare.visitFieldInsn(GETFIELD, className, attribute.getAttributeName(), descriptor);
+                cv_compare.visitVarInsn(ALOAD, 4);
+                cv_compare.visitFieldInsn(GETFIELD, className, attribute.getAttributeName(), descriptor);
+                // if (this.city != other.city) skip, floating values being compared as changed if NaN
+                switch (attribute.getReferenceClassType().getSort()) {
+                    case Type.BOOLEAN:
+                    case Type.BYTE:
+                    case Type.CHAR:
+                    case Type.SHORT:
+                    case Type.INT:
+                        cv_compare.visitJumpInsn(IF_ICMPNE, next);
+                        break;
+                    case Type.LONG:
+                        cv_compare.visitInsn(LCMP);
+                        cv_compare.visitJumpInsn(IFNE, next);
+                        break;
+                    case Type.FLOAT:
+                        cv_compare.visitInsn(FCMPL);
+                        cv_compare.visitJumpInsn(IFNE, next);
+                        break;
+                    case Type.DOUBLE:
+                        cv_compare.visitInsn(DCMPL);
+                        cv_compare.visitJumpInsn(IFNE, next);
+                        break;
+                    default:
+                        cv_compare.visitMethodInsn(INVOKESTATIC, "java/util/Objects", "equals", "(Ljava/lang/Object;Ljava/lang/Object;)Z", false);
+                        cv_compare.visitJumpInsn(IFEQ, next);
+                }
+                // changed = changed & ~bit;
+                cv_compare.visitVarInsn(LLOAD, 2);
+                cv_compare.visitLdcInsn(~directBits.get(index));
+                cv_compare.visitInsn(LAND);
+                cv_compare.visitVarInsn(LSTORE, 2);
+                cv_compare.visitLabel(next);
+            }
+            cv_compare.visitVarInsn(LLOAD, 2);
+        }
+        cv_compare.visitInsn(LRETURN);
+        cv_compare.visitMaxs(0, 0);
+    }
+
+    /**
+     * Switch on the index argument less the offset, returning the labels of the cases.
+     * Without cases, jump to the default label.
+     */
+    protected Label[] visitIndexSwitch(MethodVisitor methodVisitor, int size, int offset, Label defaultLabel) {
+        Label[] cases = new Label[size];
+        if (size == 0) {
+            methodVisitor.visitJumpInsn(GOTO, defaultLabel);
+            return cases;
+        }
+        for (int index = 0; index < size; index++) {
+            cases[index] = new Label();
+        }
+        methodVisitor.visitVarInsn(ILOAD, 1);
+        if (offset != 0) {
+            methodVisitor.visitLdcInsn(offset);
+            methodVisitor.visitInsn(ISUB);
+        }
+        methodVisitor.visitTableSwitchInsn(0, size - 1, defaultLabel, cases);
+        return cases;
+    }
+
     /**
      * Adds get/set method for PersistenceEntity interface. This adds the
      * following methods:
@@ -1112,7 +1415,7 @@ public void addFetchGroupVariables() {
      *
      * public void _persistence_isAttributeFetched(String attribute) { return
      * this._persistence_fetchGroup == null ||
-     * _persistence_fetchGroup.containsAttribute(attribute); }
+     * _persistence_fetchGroup.containsAttributeOnAccess(attribute); }
      *
      * public void _persistence_checkFetched(String attribute) { if
      * (this._persistence_fetchGroup != null) {
@@ -1175,7 +1478,7 @@ public void addFetchGroupMethods(ClassDetails classDetails) {
         cv_isAttributeFetched.visitVarInsn(ALOAD, 0);
         cv_isAttributeFetched.visitFieldInsn(GETFIELD, classDetails.getClassName(), "_persistence_fetchGroup", FETCHGROUP_SIGNATURE);
         cv_isAttributeFetched.visitVarInsn(ALOAD, 1);
-        cv_isAttributeFetched.visitMethodInsn(INVOKEVIRTUAL, FETCHGROUP_SHORT_SIGNATURE, "containsAttributeInternal", "(Ljava/lang/String;)Z", false);
+        cv_isAttributeFetched.visitMethodInsn(INVOKEVIRTUAL, FETCHGROUP_SHORT_SIGNATURE, "containsAttributeOnAccess", "(Ljava/lang/String;)Z", false);
         Label gotoFalse = new Label();
         cv_isAttributeFetched.visitJumpInsn(IFEQ, gotoFalse);
         cv_isAttributeFetched.visitLabel(gotoTrue);
@@ -1265,6 +1568,7 @@ public void visit(int version, int access, String name, String signature, String
         if (persistenceObject) {
             persistenceObjectIndex = newInterfacesLength;
             newInterfacesLength++;
+            newInterfacesLength++;
         }
         // FetchGroupTracker
         int fetchGroupTrackerIndex = 0;
@@ -1324,6 +1628,7 @@ public void visit(int version, int access, String name, String signature, String
         // interface.
         if (persistenceObject) {
             newInterfaces[persistenceObjectIndex] = PERSISTENCE_OBJECT_SHORT_SIGNATURE;
+            newInterfaces[persistenceObjectIndex + 1] = DIRECT_ATTRIBUTES_PERSISTENCE_OBJECT_SHORT_SIGNATURE;
         }
         // Add org.eclipse.persistence.queries.FetchGroupTracker interface.
         if (fetchGroupTracker) {
@@ -1403,6 +1708,8 @@ public void visitEnd() {
                 // Add empty new method and generic get/set methods.
                 addPersistenceNew(this.classDetails);
                 addPersistenceGetSet(this.classDetails);
+                addPersistenceIndexedGetSet(this.classDetails);
+                addPersistenceDirectCopyCompare(this.classDetails);
             }
 
             boolean attributeAccess = false;
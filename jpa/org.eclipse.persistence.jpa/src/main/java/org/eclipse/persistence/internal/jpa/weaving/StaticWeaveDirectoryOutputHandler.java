@@ -85,6 +85,15 @@ public void addEntry(JarEntry targetEntry,byte[] entryBytes)throws IOException{
         }
     }
 
+    /**
+     * Return if the target directory contains the file of the entry.
+     * @param entryName
+     */
+    @Override
+    public boolean containsEntry(String entryName) {
+        return new File(this.target.getPath()+entryName).isFile();
+    }
+
     /**
      * Write entry into target, this method usually copy original class into target.
      * @param jis
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.weaving;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.persistence.Version;
+import org.eclipse.persistence.internal.helper.Helper;
+
+/**
+ * INTERNAL:
+ * The content hashes of the entries of a source statically weaved into a target directory,
+ * used to skip the entries unchanged since the previous weaving.
+ * <p>
+ * The index also records a fingerprint of the weaving configuration, the persistence and mapping files,
+ * the persistence classes and the EclipseLink version, the previous hashes being ignored if it changed.
+ * The hash of a class includes the hashes of its superclasses, as these are weaved together.
+ * The index is a text file, the fingerprint on the first line then a hash and an entry name per line.
+ */
+public class StaticWeaveIndex {
+    protected static final String HEADER = "# EclipseLink static weave index ";
+
+    protected final File file;
+
+    /** The fingerprint of the weaving configuration. */
+    protected final String fingerprint;
+
+    /** The hashes of the entries recorded by the previous weaving, empty if its configuration differs. */
+    protected final Map<String, String> previousHashes;
+
+    /** The hashes of the entries of this weaving. */
+    protected final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    /**
+     * Read the index if it exists and was recorded with the same configuration.
+     */
+    public StaticWeaveIndex(File file, String fingerprint) throws IOException {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.previousHashes = new HashMap<>();
+        if (!file.isFile()) {
+            return;
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        try {
+            String header = reader.readLine();
+            if ((header == null) || !header.equals(HEADER + Version.getVersion()) || !fingerprint.equals(reader.readLine())) {
+                return;
+            }
+            String line = reader.readLine();
+            while (line != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    this.previousHashes.put(line.substring(separator + 1), line.substring(0, separator));
+                }
+                line = reader.readLine();
+            }
+        } finally {
+            Helper.close(reader);
+        }
+    }
+
+    /**
+     * Record the hash of the entry and return if it is unchanged since the previous weaving.
+     */
+    public boolean isUnchanged(String entryName, String hash) {
+        this.hashes.put(entryName, hash);
+        return hash.equals(this.previousHashes.get(entryName));
+    }
+
+    /**
+     * Write the hashes of this weaving, once all the entries are written to the target.
+     */
+    public void write() throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.file), StandardCharsets.UTF_8));
+        try {
+            writer.write(HEADER + Version.getVersion());
+            writer.newLine();
+            writer.write(this.fingerprint);
+            writer.newLine();
+            for (Map.Entry<String, String> entry : new TreeMap<>(this.hashes).entrySet()) {
+                writer.write(entry.getValue());
+                writer.write(' ');
+                writer.write(entry.getKey());
+                writer.newLine();
+            }
+        } finally {
+            Helper.close(writer);
+        }
+    }
+
+    /**
+     * Return a new digest computing the content hashes.
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform supports SHA-256.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Return the hexadecimal representation of the digest.
+     */
+    public static String toHash(MessageDigest digest) {
+        return Helper.buildHexStringFromBytes(digest.digest());
+    }
+}
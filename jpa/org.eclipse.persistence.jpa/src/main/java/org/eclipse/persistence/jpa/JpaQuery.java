@@ -15,6 +15,7 @@
 package org.eclipse.persistence.jpa;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.eclipse.persistence.queries.Cursor;
 import org.eclipse.persistence.queries.DatabaseQuery;
@@ -62,4 +63,13 @@
      */
     public void setDatabaseQuery(DatabaseQuery query);
 
+    /**
+     * PUBLIC:
+     * Read the page after the ordering values of the last result of the previous page, using keyset pagination.
+     * A value is required for each order by item of the query, and the ordering must be unique.
+     * The page size is set with setMaxResults(), and null values read the first page.
+     * @see org.eclipse.persistence.config.QueryHints#KEYSET
+     */
+    public JpaQuery<X> setKeyset(List<?> values);
+
 }
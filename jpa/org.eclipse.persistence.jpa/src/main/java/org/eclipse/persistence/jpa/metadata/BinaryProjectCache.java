@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.metadata;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.factories.ProjectBinaryFormat;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * <p><b>Purpose</b>: Support storing/retrieving a project representing application metadata
+ * to/from a file in a versioned binary format.
+ * <p>
+ * The descriptors are stored in blocks read independently, in parallel, instead of the project being
+ * serialized as a whole. The checksums of the persistence classes are stored with the project,
+ * the project is not retrieved if a class has changed, or if the file was stored by another version.
+ * The project is then built from the metadata and stored again.
+ *
+ * @see PersistenceUnitProperties#PROJECT_CACHE
+ * @see PersistenceUnitProperties#PROJECT_CACHE_BINARY_FILE
+ */
+public class BinaryProjectCache extends FileBasedProjectCache {
+
+    @Override
+    public Project retrieveProject(Map properties, ClassLoader loader, SessionLog log) {
+        String fileName = (String)getConfigPropertyLogDebug(
+                PersistenceUnitProperties.PROJECT_CACHE_BINARY_FILE,
+                properties, log);
+        if (fileName == null || fileName.length() == 0) {
+            return null;
+        }
+        File file = new File(fileName);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            ProjectBinaryFormat.Reader reader;
+            try (InputStream in = new FileInputStream(file)) {
+                reader = ProjectBinaryFormat.read(in, loader);
+            }
+            for (Map.Entry<String, Long> checksum : reader.getChecksums().entrySet()) {
+                if (checksum.getValue() != getChecksum(checksum.getKey(), loader)) {
+                    log.log(SessionLog.FINE, SessionLog.JPA, "project_cache_class_changed", new Object[]{fileName, checksum.getKey()});
+                    return null;
+                }
+            }
+            return reader.readProject();
+        } catch (Exception e) {
+            // The project is built from the metadata.
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void storeProject(Project project, Map properties, SessionLog log) {
+        String fileName = (String)getConfigPropertyLogDebug(
+                PersistenceUnitProperties.PROJECT_CACHE_BINARY_FILE,
+                properties, log);
+        if (fileName == null || fileName.length() == 0) {
+            return;
+        }
+        try {
+            Object loader = (properties == null) ? null : properties.get(PersistenceUnitProperties.CLASSLOADER);
+            ClassLoader classLoader = (loader instanceof ClassLoader) ? (ClassLoader)loader : Thread.currentThread().getContextClassLoader();
+            Map<String, Long> checksums = new TreeMap<>();
+            for (ClassDescriptor descriptor : project.getOrderedDescriptors()) {
+                addChecksum(descriptor, classLoader, checksums);
+            }
+            for (ClassDescriptor descriptor : project.getMappedSuperclassDescriptors().values()) {
+                addChecksum(descriptor, classLoader, checksums);
+            }
+            // The file is replaced once written, so a project being retrieved is never partially written.
+            File file = new File(fileName).getAbsoluteFile();
+            File temp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            try {
+                try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+                    ProjectBinaryFormat.write(project, checksums, out);
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp.toPath());
+            }
+        } catch (Exception e) {
+            //the session is still usable, just not cachable so log a warning
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, e);
+        }
+    }
+
+    protected void addChecksum(ClassDescriptor descriptor, ClassLoader loader, Map<String, Long> checksums) throws IOException {
+        String className = descriptor.getJavaClassName();
+        if ((className != null) && !checksums.containsKey(className)) {
+            checksums.put(className, getChecksum(className, loader));
+        }
+    }
+
+    /**
+     * Return the checksum of the class file of the class, or -1 if the class file is not found.
+     */
+    protected long getChecksum(String className, ClassLoader loader) throws IOException {
+        InputStream in = (loader == null) ? null : loader.getResourceAsStream(className.replace('.', '/') + ".class");
+        if (in == null) {
+            return -1;
+        }
+        CRC32 checksum = new CRC32();
+        try {
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                checksum.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return checksum.getValue();
+    }
+}
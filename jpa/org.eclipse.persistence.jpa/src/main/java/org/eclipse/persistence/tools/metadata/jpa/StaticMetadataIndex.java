@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.metadata.jpa;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataIndex;
+
+/**
+ * <p>
+ * <b>Description</b>: Writes the metadata index of the persistence classes of a directory or jar
+ * at build time, such as after compiling or statically weaving the classes.
+ * The entities, embeddables, mapped superclasses, converters and static metamodel classes are indexed
+ * with their annotations into META-INF/eclipselink-metadata.index. On predeploy the classes of an archive
+ * with an index are read from it instead of being scanned and parsed.
+ * The index must be written again when the classes change, an index that does not match the class entries
+ * of the archive is not used and the archive is scanned. The index of a directory records the modification
+ * times of its classes, it must be written after the directory is copied without preserving them.
+ * <p>
+ * <b>Usage</b>:<br>
+ * &nbsp;&nbsp;StaticMetadataIndex [-classpath path] source [target]<br>
+ * The classpath contains the classes referenced by the source, such as annotations used as meta-annotations.
+ * The index of a directory is written into the directory, the target is required for a jar.
+ * The target may be the source jar.
+ *
+ * @see org.eclipse.persistence.config.PersistenceUnitProperties#METADATA_INDEX
+ */
+public class StaticMetadataIndex {
+    private final File source;
+    private final File target;
+    private ClassLoader classLoader;
+
+    public static void main(String[] argv) throws Exception {
+        File source = null;
+        File target = null;
+        List<URL> classpath = new ArrayList<>();
+        for (int index = 0; index < argv.length; index++) {
+            if (argv[index].equalsIgnoreCase("-classpath") && (index + 1 < argv.length)) {
+                for (String path : argv[++index].split(File.pathSeparator)) {
+                    classpath.add(new File(path).toURI().toURL());
+                }
+            } else if (source == null) {
+                source = new File(argv[index]);
+            } else if (target == null) {
+                target = new File(argv[index]);
+            } else {
+                source = null;
+                break;
+            }
+        }
+        if (source == null) {
+            printUsage(System.out);
+            System.exit(1);
+        }
+        StaticMetadataIndex indexer = new StaticMetadataIndex(source, target);
+        classpath.add(0, source.toURI().toURL());
+        indexer.setClassLoader(new URLClassLoader(classpath.toArray(new URL[classpath.size()]), StaticMetadataIndex.class.getClassLoader()));
+        List<String> indexed = indexer.writeIndex();
+        System.out.println(indexed.size() + " classes indexed in " + indexer.getTarget());
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: StaticMetadataIndex [-classpath path] source [target]");
+        out.println("  source    the directory or jar of the persistence classes");
+        out.println("  target    the jar written with the index, the index of a directory is written into the directory");
+    }
+
+    /**
+     * Index the classes of the source directory or jar into the source directory, or the target jar.
+     */
+    public StaticMetadataIndex(File source, File target) {
+        this.source = source;
+        this.target = ((target == null) && source.isDirectory()) ? source : target;
+        if (this.target == null) {
+            throw new IllegalArgumentException("The target jar is required to index the jar: " + source);
+        }
+    }
+
+    /**
+     * Set the class loader reading the classes, by default a class loader of the source.
+     */
+    public void setClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public File getTarget() {
+        return target;
+    }
+
+    /**
+     * Read the persistence classes of the source and write their index.
+     * Return the names of the classes indexed.
+     */
+    public List<String> writeIndex() throws IOException {
+        ClassLoader loader = this.classLoader;
+        if (loader == null) {
+            loader = new URLClassLoader(new URL[] {this.source.toURI().toURL()}, StaticMetadataIndex.class.getClassLoader());
+        }
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), loader);
+        List<MetadataClass> classes = new ArrayList<>();
+        for (String className : new TreeSet<>(PersistenceUnitProcessor.getClassNamesFromURL(this.source.toURI().toURL(), loader, null))) {
+            MetadataClass candidateClass = factory.getMetadataClass(className);
+            if ((candidateClass != null) && (PersistenceUnitProcessor.isEntity(candidateClass)
+                    || PersistenceUnitProcessor.isEmbeddable(candidateClass)
+                    || PersistenceUnitProcessor.isMappedSuperclass(candidateClass)
+                    || PersistenceUnitProcessor.isConverter(candidateClass)
+                    || PersistenceUnitProcessor.isStaticMetamodelClass(candidateClass))) {
+                classes.add(candidateClass);
+            }
+        }
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        List<String> skipped = MetadataIndex.write(classes, this.source, index);
+        if (!skipped.isEmpty()) {
+            // The archive cannot be indexed partially, as the indexed archives are not scanned.
+            throw new IOException("Classes with annotation values that cannot be indexed: " + skipped);
+        }
+        if (this.target.isDirectory()) {
+            File file = new File(this.target, MetadataIndex.INDEX_ENTRY);
+            file.getParentFile().mkdirs();
+            try (OutputStream out = new FileOutputStream(file)) {
+                index.writeTo(out);
+            }
+        } else {
+            writeJar(index);
+        }
+        List<String> classNames = new ArrayList<>(classes.size());
+        for (MetadataClass metadataClass : classes) {
+            classNames.add(metadataClass.getName());
+        }
+        return classNames;
+    }
+
+    /**
+     * Copy the source jar to the target jar with the index.
+     */
+    protected void writeJar(ByteArrayOutputStream index) throws IOException {
+        File output = File.createTempFile("eclipselink-metadata", ".jar", this.target.getAbsoluteFile().getParentFile());
+        try {
+            try (ZipFile jar = new ZipFile(this.source);
+                    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(output))) {
+                byte[] buffer = new byte[8192];
+                for (Enumeration<? extends ZipEntry> entries = jar.entries(); entries.hasMoreElements();) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.getName().equals(MetadataIndex.INDEX_ENTRY)) {
+                        continue;
+                    }
+                    out.putNextEntry(new ZipEntry(entry.getName()));
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                            out.write(buffer, 0, read);
+                        }
+                    }
+                    out.closeEntry();
+                }
+                out.putNextEntry(new ZipEntry(MetadataIndex.INDEX_ENTRY));
+                index.writeTo(out);
+                out.closeEntry();
+            }
+            Files.move(output.toPath(), this.target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(output.toPath());
+        }
+    }
+}
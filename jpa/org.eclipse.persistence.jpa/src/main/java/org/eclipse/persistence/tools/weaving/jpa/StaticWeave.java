@@ -43,7 +43,11 @@
 *&nbsp;&nbsp;-loglevel<br>
 *&nbsp;&nbsp;&nbsp;&nbsp;Specify a literal value for eclipselink log level(OFF,SEVERE,WARNING,INFO,CONFIG,FINE,FINER,FINEST). The default value is OFF.<br>
 *&nbsp;&nbsp;-persistenceinfo<br>
-*&nbsp;&nbsp;&nbsp;&nbsp;The path contains META-INF/persistence.xml. This is ONLY required when the source does not include it.
+*&nbsp;&nbsp;&nbsp;&nbsp;The path contains META-INF/persistence.xml. This is ONLY required when the source does not include it.<br>
+*&nbsp;&nbsp;-threads<br>
+*&nbsp;&nbsp;&nbsp;&nbsp;The number of threads weaving the classes, the default is 1.<br>
+*&nbsp;&nbsp;-incremental<br>
+*&nbsp;&nbsp;&nbsp;&nbsp;The path of the file recording the content hashes of the source, the entries unchanged since the previous weaving into the target directory are skipped.<br>
 *&nbsp;The classpath must contain all the classes necessary in oder to perform weaving.<br><br>
 *&nbsp;The weaving will be performed in place if source and target point to the same location. Weaving in place is ONLY applicable for directory-based sources.<br>
 *<b>Example</b>:<br>
@@ -76,6 +80,11 @@ public class StaticWeave {
 
         private String[] classpaths;
 
+        private int threads = 1;
+
+        // The path of the incremental weaving index, null if none was given
+        private String incrementalIndexPath;
+
         public static void main(String[] argv) {
 
             StaticWeave staticweaver = new StaticWeave(argv);
@@ -114,6 +123,8 @@ public void start() throws Exception {
                staticWeaverProcessor.setLog(logWriter);
             }
             staticWeaverProcessor.setLogLevel(loglevel);
+            staticWeaverProcessor.setThreads(threads);
+            staticWeaverProcessor.setIncrementalIndex(incrementalIndexPath);
             staticWeaverProcessor.performWeaving();
         }
 
@@ -123,7 +134,7 @@ public void start() throws Exception {
          */
         void processCommandLine() throws Exception
         {
-            if (argv.length < 2 || argv.length>12) {
+            if (argv.length < 2 || argv.length>16) {
                 printUsage();
                 System.exit(1);
             }
@@ -159,6 +170,31 @@ void processCommandLine() throws Exception
                     continue;
                 }
 
+                if (argv[i].equalsIgnoreCase("-threads")) {
+                    if ((i + 1) >= argv.length ){
+                           printUsage();
+                           System.exit(1);
+                    }
+                    try {
+                        threads=Integer.parseInt(argv[i+1]);
+                    } catch (NumberFormatException e) {
+                        printUsage();
+                        System.exit(1);
+                    }
+                    i++;
+                    continue;
+                }
+
+                if (argv[i].equalsIgnoreCase("-incremental")) {
+                    if ((i + 1) >= argv.length ){
+                           printUsage();
+                           System.exit(1);
+                    }
+                    incrementalIndexPath=argv[i+1];
+                    i++;
+                    continue;
+                }
+
                 if (argv[i].equalsIgnoreCase("-log")) {
                     if ((i + 1) >= argv.length ){
                            printUsage();
@@ -262,6 +298,14 @@ private void printUsage() {
             messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_12of19");
             messageString += Helper.cr();
             messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_13of19");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_threads");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_threads_description");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_incremental");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_incremental_description");
             messageString += Helper.cr() + Helper.cr();
             messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_14of19");
             messageString += Helper.cr();
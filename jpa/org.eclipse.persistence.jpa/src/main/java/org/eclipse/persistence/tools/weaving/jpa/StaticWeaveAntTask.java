@@ -50,6 +50,8 @@
 * Otherwise composite persistence unit member may or may not specify persistenceInfo of its composite.
 * <li>log - specify a logging file. This is optional.
 * <li>loglevel - specify a literal value of EclipseLink logging level(OFF,SEVERE,WARNING,INFO,CONFIG,FINE,FINER,FINEST) The default value is OFF(8). This is optional.
+* <li>threads - specify the number of threads weaving the classes. The default value is 1. This is optional.
+* <li>incremental - specify the file recording the content hashes of the source, to skip the entries unchanged since the previous weaving into the target directory. This is optional.
 * </ul>
 * <li>The weaving will be performed in place if source and target point to the same location. Weaving in place is ONLY applicable for directory-based sources.
 * </ul>
@@ -78,6 +80,8 @@ public class StaticWeaveAntTask extends Task{
     private Vector classPaths = new Vector();
     private int logLevel = SessionLog.OFF;
     private Writer logWriter;
+    private int threads = 1;
+    private String incremental;
 
     /**
      * Set the input archive to be used to weave.
@@ -120,6 +124,20 @@ public void setLogLevel(String logLevel) {
         }
     }
 
+    /**
+     * Set the number of threads weaving the classes.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Set the file recording the content hashes of the source, to weave incrementally.
+     */
+    public void setIncremental(String incremental) {
+        this.incremental = incremental;
+    }
+
     public void setPersistenceinfo(String persistenceinfo) {
         this.persistenceinfo = persistenceinfo;
     }
@@ -215,6 +233,8 @@ private void start() {
                weave.setLog(logWriter);
            }
            weave.setLogLevel(this.logLevel);
+           weave.setThreads(this.threads);
+           weave.setIncrementalIndex(this.incremental);
            weave.performWeaving();
        } catch (Exception e) {
            AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.SEVERE, AbstractSessionLog.WEAVER, e);
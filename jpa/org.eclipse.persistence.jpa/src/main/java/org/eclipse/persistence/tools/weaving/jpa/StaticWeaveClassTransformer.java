@@ -26,6 +26,8 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.zip.ZipException;
 
 import jakarta.persistence.spi.ClassTransformer;
@@ -35,6 +37,7 @@
 import org.eclipse.persistence.internal.jpa.deployment.ArchiveFactoryImpl;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.deployment.SEPersistenceUnitInfo;
+import org.eclipse.persistence.internal.jpa.weaving.PersistenceWeaver;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.exceptions.PersistenceUnitLoadingException;
 import org.eclipse.persistence.exceptions.StaticWeaveException;
@@ -93,6 +96,20 @@ public byte[] transform(String originalClassName, Class originalClass, byte[] or
         return newClassBytes;
     }
 
+    /**
+     * INTERNAL:
+     * Return the internal names of the persistence classes weaved by the class transformers.
+     */
+    public Set<String> getWeavedClassNames() {
+        Set<String> classNames = new TreeSet<String>();
+        for (ClassTransformer transformer : classTransformers) {
+            if ((transformer instanceof PersistenceWeaver) && (((PersistenceWeaver)transformer).getClassDetailsMap() != null)) {
+                classNames.addAll(((PersistenceWeaver)transformer).getClassDetailsMap().keySet());
+            }
+        }
+        return classNames;
+    }
+
     /**
      * The method creates classtransformer list corresponding to each persistence unit.
      */
@@ -19,6 +19,7 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.Writer;
 import java.lang.instrument.IllegalClassFormatException;
 import java.net.MalformedURLException;
@@ -26,7 +27,17 @@
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
@@ -36,7 +47,9 @@
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.weaving.AbstractStaticWeaveOutputHandler;
 import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveDirectoryOutputHandler;
+import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveIndex;
 import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveJAROutputHandler;
+import org.eclipse.persistence.internal.libraries.asm.EclipseLinkClassReader;
 import org.eclipse.persistence.internal.localization.ToStringLocalization;
 import org.eclipse.persistence.jpa.Archive;
 import org.eclipse.persistence.logging.AbstractSessionLog;
@@ -60,8 +73,18 @@ public class StaticWeaveProcessor {
     private ClassLoader classLoader;
     private int logLevel = SessionLog.OFF;
 
+    private int threads = 1;
+    private File incrementalIndex;
+    private final Map<String, String> superclassHashes = new ConcurrentHashMap<>();
+
     private static final int NUMBER_OF_BYTES = 1024;
 
+    /** The number of entries weaved ahead of the entry written, per thread. */
+    private static final int PENDING_ENTRIES_PER_THREAD = 16;
+
+    /** Marks an entry unchanged since the previous incremental weaving. */
+    private static final byte[] UNCHANGED_ENTRY = new byte[0];
+
     /**
      * Constructs an instance of StaticWeaveProcessor
      * @param source the name of the location to be weaved
@@ -141,6 +164,35 @@ public void setPersistenceInfo(String persistenceInfoPath) throws MalformedURLEx
         }
     }
 
+    /**
+     * Set the number of threads weaving the classes, the default is 1.
+     * The classes are read, weaved and written concurrently, the entries of the target
+     * are written in the order of the source.
+     * @param threads the number of threads weaving the classes
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Set the file recording the content hashes of the source entries, to weave incrementally:
+     * the entries unchanged since the previous weaving into the same target directory are skipped.
+     * A change to the files other than classes, such as persistence.xml or the mapping files,
+     * or to a persistence class weaves all the entries again. Incremental weaving only skips entries for a target directory.
+     * @param incrementalIndex the file of the content hashes, created if it does not exist, null to weave all the entries
+     */
+    public void setIncrementalIndex(File incrementalIndex) {
+        this.incrementalIndex = incrementalIndex;
+    }
+
+    /**
+     * Set the path of the file recording the content hashes of the source entries, to weave incrementally.
+     * @see #setIncrementalIndex(File)
+     */
+    public void setIncrementalIndex(String incrementalIndexPath) {
+        this.incrementalIndex = (incrementalIndexPath == null) ? null : new File(incrementalIndexPath);
+    }
+
     public String getPersistenceXMLLocation() {
         return persistenceXMLLocation;
     }
@@ -257,91 +309,282 @@ private void process() throws IOException,URISyntaxException{
         // Starting process.
         Archive sourceArchive =(new ArchiveFactoryImpl()).createArchive(source, null, null);
         if (sourceArchive != null) {
+            ExecutorService executor = null;
             try {
+                StaticWeaveIndex index = null;
+                if (this.incrementalIndex != null) {
+                    index = new StaticWeaveIndex(this.incrementalIndex, buildFingerprint(sourceArchive, classTransformer));
+                }
+                if (this.threads > 1) {
+                    executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+                        Thread thread = new Thread(runnable, "EclipseLink static weave");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                // The entries are weaved concurrently but written in the order of the source.
+                Deque<JarEntry> pendingEntries = new ArrayDeque<>();
+                Deque<Future<byte[]>> pendingBytes = new ArrayDeque<>();
                 Iterator entries = sourceArchive.getEntries();
                 while (entries.hasNext()){
                     String entryName = (String)entries.next();
-                    InputStream entryInputStream = sourceArchive.getEntry(entryName);
+                    byte[] entryBytes = readEntry(sourceArchive, entryName);
 
                     // Add a directory entry
                     swoh.addDirEntry(getDirectoryFromEntryName(entryName));
 
                     // Add a regular entry
                     JarEntry newEntry = new JarEntry(entryName);
-
-                    // Ignore non-class files.
-                    if (!entryName.endsWith(".class") || "module-info.class".equals(entryName)) {
-                        swoh.addEntry(entryInputStream, newEntry);
-                        continue;
+                    StaticWeaveIndex entryIndex = index;
+                    StaticWeaveClassTransformer transformer = classTransformer;
+                    if (executor == null) {
+                        writeEntry(swoh, newEntry, weaveEntry(newEntry, entryBytes, transformer, entryIndex, swoh));
+                    } else {
+                        pendingEntries.add(newEntry);
+                        pendingBytes.add(executor.submit(() -> weaveEntry(newEntry, entryBytes, transformer, entryIndex, swoh)));
+                        // Bound the entries held in memory.
+                        while (pendingEntries.size() > this.threads * PENDING_ENTRIES_PER_THREAD) {
+                            writeEntry(swoh, pendingEntries.poll(), awaitEntry(pendingBytes.poll()));
+                        }
                     }
+                }
+                while (!pendingEntries.isEmpty()) {
+                    writeEntry(swoh, pendingEntries.poll(), awaitEntry(pendingBytes.poll()));
+                }
+                // Only record the hashes once the whole target is written.
+                if (index != null) {
+                    index.write();
+                }
+            } finally {
+                try {
+                    if (executor != null) {
+                        executor.shutdownNow();
+                    }
+                } finally {
+                    try {
+                        sourceArchive.close();
+                    } finally {
+                        swoh.closeOutputStream();
+                    }
+                }
+            }
+        }
+    }
 
-                    String className = PersistenceUnitProcessor.buildClassNameFromEntryString(entryName) ;
+    /**
+     * INTERNAL:
+     * Return the bytes of the entry to write to the target, weaved if the entry is a weaved class,
+     * or an empty array if the entry is unchanged since the previous incremental weaving.
+     */
+    private byte[] weaveEntry(JarEntry entry, byte[] entryBytes, StaticWeaveClassTransformer classTransformer, StaticWeaveIndex index, AbstractStaticWeaveOutputHandler swoh) throws IOException {
+        String entryName = entry.getName();
+        // Ignore non-class files.
+        boolean isClass = entryName.endsWith(".class") && !"module-info.class".equals(entryName);
+        if (index != null) {
+            MessageDigest digest = StaticWeaveIndex.newDigest();
+            digest.update(entryBytes);
+            if (isClass) {
+                // The superclasses are weaved with the class.
+                digest.update(hashSuperclass(getSuperclassName(entryBytes)).getBytes(StandardCharsets.UTF_8));
+            }
+            if (index.isUnchanged(entryName, StaticWeaveIndex.toHash(digest)) && swoh.containsEntry(entryName)) {
+                return UNCHANGED_ENTRY;
+            }
+        }
+        if (!isClass) {
+            return entryBytes;
+        }
 
-                    byte[] originalClassBytes=null;
-                    byte[] transferredClassBytes=null;
-                    try {
-                        Class thisClass = this.classLoader.loadClass(className);
-                        // If the class is not in the classpath, we simply copy the entry
-                        // to the target(no weaving).
-                        if (thisClass == null){
-                            swoh.addEntry(entryInputStream, newEntry);
-                            continue;
-                        }
+        String className = PersistenceUnitProcessor.buildClassNameFromEntryString(entryName) ;
 
-                        // Try to read the loaded class bytes, the class bytes is required for
-                        // classtransformer to perform transfer. Simply copy entry to the target(no weaving)
-                        // if the class bytes can't be read.
-                        InputStream is = this.classLoader.getResourceAsStream(entryName);
-                        if (is!=null){
-                            ByteArrayOutputStream baos = null;
-                            try{
-                                baos = new ByteArrayOutputStream();
-                                byte[] bytes = new byte[NUMBER_OF_BYTES];
-                                int bytesRead = is.read(bytes, 0, NUMBER_OF_BYTES);
-                                while (bytesRead >= 0){
-                                    baos.write(bytes, 0, bytesRead);
-                                    bytesRead = is.read(bytes, 0, NUMBER_OF_BYTES);
-                                }
-                                originalClassBytes = baos.toByteArray();
-                            } finally {
-                                baos.close();
-                                is.close();
-                            }
-                        } else {
-                            swoh.addEntry(entryInputStream, newEntry);
-                            continue;
-                        }
+        byte[] originalClassBytes=null;
+        byte[] transferredClassBytes=null;
+        try {
+            Class thisClass = this.classLoader.loadClass(className);
+            // If the class is not in the classpath, we simply copy the entry
+            // to the target(no weaving).
+            if (thisClass == null){
+                return entryBytes;
+            }
 
-                        // If everything is OK so far, we perform the weaving. we need three parameters in order to
-                        // class to perform weaving for that class, the class name,the class object and class bytes.
-                        transferredClassBytes = classTransformer.transform(className.replace('.', '/'), thisClass, originalClassBytes);
+            // Try to read the loaded class bytes, the class bytes is required for
+            // classtransformer to perform transfer. Simply copy entry to the target(no weaving)
+            // if the class bytes can't be read.
+            InputStream is = this.classLoader.getResourceAsStream(entryName);
+            if (is!=null){
+                originalClassBytes = readBytes(is);
+            } else {
+                return entryBytes;
+            }
 
-                        // If transferredClassBytes is null means the class dose not get woven.
-                        if (transferredClassBytes!=null){
-                            swoh.addEntry(newEntry, transferredClassBytes);
-                        } else {
-                            swoh.addEntry(entryInputStream, newEntry);
-                        }
-                    } catch (IllegalClassFormatException e) {
-                        AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
-                        // Anything went wrong, we need log a warning message, copy the entry to the target and
-                        // process next entry.
-                        swoh.addEntry(entryInputStream, newEntry);
-                        continue;
-                    } catch (ClassNotFoundException e) {
-                        AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
-                        swoh.addEntry(entryInputStream, newEntry);
-                        continue;
-                    } finally {
-                        // Need close the inputstream for current entry before processing next one.
-                        entryInputStream.close();
-                    }
+            // If everything is OK so far, we perform the weaving. we need three parameters in order to
+            // class to perform weaving for that class, the class name,the class object and class bytes.
+            transferredClassBytes = classTransformer.transform(className.replace('.', '/'), thisClass, originalClassBytes);
+
+            // If transferredClassBytes is null means the class dose not get woven.
+            if (transferredClassBytes!=null){
+                return transferredClassBytes;
+            } else {
+                return entryBytes;
+            }
+        } catch (IllegalClassFormatException e) {
+            AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
+            // Anything went wrong, we need log a warning message, copy the entry to the target and
+            // process next entry.
+            return entryBytes;
+        } catch (ClassNotFoundException e) {
+            AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
+            return entryBytes;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Write the entry to the target, unless unchanged since the previous incremental weaving.
+     */
+    private void writeEntry(AbstractStaticWeaveOutputHandler swoh, JarEntry entry, byte[] entryBytes) throws IOException {
+        if (entryBytes != UNCHANGED_ENTRY) {
+            swoh.addEntry(entry, entryBytes);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Wait for the entry to be weaved, throwing the exception of the weaving if any.
+     */
+    private byte[] awaitEntry(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the fingerprint of the weaving configuration for the incremental weaving,
+     * the hash of the files other than classes in the source and the persistence info,
+     * and of the persistence classes.
+     */
+    private String buildFingerprint(Archive sourceArchive, StaticWeaveClassTransformer classTransformer) throws IOException, URISyntaxException {
+        MessageDigest digest = StaticWeaveIndex.newDigest();
+        addResourcesToDigest(sourceArchive, digest);
+        // The weaving of a persistence class depends on the classes it references,
+        // so a change to any persistence class weaves all the classes again.
+        for (String className : classTransformer.getWeavedClassNames()) {
+            String entryName = className + ".class";
+            InputStream is = sourceArchive.getEntry(entryName);
+            if (is == null) {
+                is = this.classLoader.getResourceAsStream(entryName);
+            }
+            if (is != null) {
+                digest.update(entryName.getBytes(StandardCharsets.UTF_8));
+                digest.update(readBytes(is));
+            }
+        }
+        if (this.persistenceInfo != null) {
+            Archive persistenceInfoArchive = (new ArchiveFactoryImpl()).createArchive(this.persistenceInfo, null, null);
+            if (persistenceInfoArchive != null) {
+                try {
+                    addResourcesToDigest(persistenceInfoArchive, digest);
+                } finally {
+                    persistenceInfoArchive.close();
                 }
-            } finally {
-                sourceArchive.close();
-                swoh.closeOutputStream();
             }
         }
+        return StaticWeaveIndex.toHash(digest);
+    }
+
+    private void addResourcesToDigest(Archive archive, MessageDigest digest) throws IOException {
+        Iterator entries = archive.getEntries();
+        while (entries.hasNext()) {
+            String entryName = (String)entries.next();
+            if (!entryName.endsWith(".class")) {
+                digest.update(entryName.getBytes(StandardCharsets.UTF_8));
+                digest.update(readEntry(archive, entryName));
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the hash of the superclass and its superclasses, empty if not found in the class path.
+     */
+    private String hashSuperclass(String className) throws IOException {
+        if ((className == null) || className.startsWith("java/")) {
+            return "";
+        }
+        String hash = this.superclassHashes.get(className);
+        if (hash == null) {
+            InputStream is = this.classLoader.getResourceAsStream(className + ".class");
+            if (is == null) {
+                hash = "";
+            } else {
+                byte[] classBytes = readBytes(is);
+                MessageDigest digest = StaticWeaveIndex.newDigest();
+                digest.update(classBytes);
+                digest.update(hashSuperclass(getSuperclassName(classBytes)).getBytes(StandardCharsets.UTF_8));
+                hash = StaticWeaveIndex.toHash(digest);
+            }
+            this.superclassHashes.put(className, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the internal name of the superclass, null if the class cannot be read.
+     */
+    private static String getSuperclassName(byte[] classBytes) {
+        try {
+            return new EclipseLinkClassReader(classBytes).getSuperName();
+        } catch (RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the bytes of the archive entry.
+     */
+    private static byte[] readEntry(Archive archive, String entryName) throws IOException {
+        InputStream entryInputStream = archive.getEntry(entryName);
+        if (entryInputStream == null) {
+            return new byte[0];
+        }
+        return readBytes(entryInputStream);
+    }
+
+    /**
+     * INTERNAL:
+     * Read and close the stream.
+     */
+    private static byte[] readBytes(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = null;
+        try{
+            baos = new ByteArrayOutputStream();
+            byte[] bytes = new byte[NUMBER_OF_BYTES];
+            int bytesRead = is.read(bytes, 0, NUMBER_OF_BYTES);
+            while (bytesRead >= 0){
+                baos.write(bytes, 0, bytesRead);
+                bytesRead = is.read(bytes, 0, NUMBER_OF_BYTES);
+            }
+            return baos.toByteArray();
+        } finally {
+            baos.close();
+            is.close();
+        }
     }
 
     //Extract directory from entry name.
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.reflection;
+
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the attribute access of classes that are not weaved through reflection and through method handles.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setUsesMethodHandleAccessors(boolean)
+ */
+@State(Scope.Benchmark)
+public class AttributeAccessorBenchmark {
+
+    public static class Item {
+        private String name = "item";
+        private int quantity;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private Item item;
+    private InstanceVariableAttributeAccessor reflectionField;
+    private InstanceVariableAttributeAccessor handleField;
+    private MethodAttributeAccessor reflectionMethod;
+    private MethodAttributeAccessor handleMethod;
+
+    @Setup
+    public void prepare() {
+        item = new Item();
+        reflectionField = fieldAccessor(false);
+        handleField = fieldAccessor(true);
+        reflectionMethod = methodAccessor(false);
+        handleMethod = methodAccessor(true);
+    }
+
+    private static InstanceVariableAttributeAccessor fieldAccessor(boolean usesMethodHandles) {
+        InstanceVariableAttributeAccessor accessor = new InstanceVariableAttributeAccessor();
+        accessor.setAttributeName("quantity");
+        accessor.initializeAttributes(Item.class);
+        if (usesMethodHandles) {
+            accessor.initializeMethodHandles();
+        }
+        return accessor;
+    }
+
+    private static MethodAttributeAccessor methodAccessor(boolean usesMethodHandles) {
+        MethodAttributeAccessor accessor = new MethodAttributeAccessor();
+        accessor.setAttributeName("name");
+        accessor.setGetMethodName("getName");
+        accessor.setSetMethodName("setName");
+        accessor.initializeAttributes(Item.class);
+        if (usesMethodHandles) {
+            accessor.initializeMethodHandles();
+        }
+        return accessor;
+    }
+
+    @Benchmark
+    public void testReflectionField(Blackhole bh) {
+        reflectionField.setAttributeValueInObject(item, 1);
+        bh.consume(reflectionField.getAttributeValueFromObject(item));
+    }
+
+    @Benchmark
+    public void testMethodHandleField(Blackhole bh) {
+        handleField.setAttributeValueInObject(item, 1);
+        bh.consume(handleField.getAttributeValueFromObject(item));
+    }
+
+    @Benchmark
+    public void testReflectionMethod(Blackhole bh) {
+        reflectionMethod.setAttributeValueInObject(item, "name");
+        bh.consume(reflectionMethod.getAttributeValueFromObject(item));
+    }
+
+    @Benchmark
+    public void testMethodHandleMethod(Blackhole bh) {
+        handleMethod.setAttributeValueInObject(item, "name");
+        bh.consume(handleMethod.getAttributeValueFromObject(item));
+    }
+}